@@ -0,0 +1,34 @@
+package com.webcrawler.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for multi-URL (batch) crawls
+ */
+@Configuration
+@ConfigurationProperties(prefix = "crawler.batch")
+@Data
+public class BatchCrawlConfig {
+
+    /**
+     * Maximum number of URLs accepted in a single batch
+     */
+    private int maxUrls = 500;
+
+    /**
+     * Maximum number of URLs of one batch crawled at the same time
+     */
+    private int maxConcurrency = 32;
+
+    /**
+     * Default deadline for the whole batch (milliseconds)
+     */
+    private long timeoutMs = 60000;
+
+    /**
+     * Upper bound for a deadline requested by the client (milliseconds)
+     */
+    private long maxTimeoutMs = 300000;
+}
@@ -0,0 +1,40 @@
+package com.webcrawler.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the crawl result cache
+ */
+@Configuration
+@ConfigurationProperties(prefix = "crawler.cache")
+@Data
+public class CrawlCacheConfig {
+
+    /**
+     * Enable caching and conditional revalidation of crawl results
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of cached pages
+     */
+    private int maxEntries = 10000;
+
+    /**
+     * Freshness used when the server sends no Cache-Control max-age (milliseconds).
+     * 0 means such pages are always revalidated.
+     */
+    private long defaultMaxAgeMs = 0;
+
+    /**
+     * Upper bound for freshness taken from Cache-Control max-age (milliseconds)
+     */
+    private long maxFreshnessMs = 3600000;
+
+    /**
+     * How long a page is kept for revalidation after it was last stored or revalidated (milliseconds)
+     */
+    private long retentionMs = 86400000;
+}
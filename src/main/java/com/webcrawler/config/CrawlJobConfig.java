@@ -0,0 +1,39 @@
+package com.webcrawler.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for asynchronous crawl jobs
+ */
+@Configuration
+@ConfigurationProperties(prefix = "crawler.jobs")
+@Data
+public class CrawlJobConfig {
+
+    /**
+     * Number of worker threads running crawl jobs
+     */
+    private int poolSize = 8;
+
+    /**
+     * Maximum number of jobs waiting for a worker before new submissions are rejected
+     */
+    private int queueCapacity = 1000;
+
+    /**
+     * Maximum number of jobs (pending or completed) kept in memory
+     */
+    private int maxStoredJobs = 10000;
+
+    /**
+     * How long a job and its result are kept after submission or completion (milliseconds)
+     */
+    private long resultTtlMs = 600000;
+
+    /**
+     * Upper bound for the long-poll wait of a status request (milliseconds)
+     */
+    private long maxWaitMs = 30000;
+}
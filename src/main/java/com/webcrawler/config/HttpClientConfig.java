@@ -0,0 +1,34 @@
+package com.webcrawler.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the shared HTTP client used for page and robots.txt fetches
+ */
+@Configuration
+@ConfigurationProperties(prefix = "crawler.http")
+@Data
+public class HttpClientConfig {
+
+    /**
+     * Negotiate HTTP/2 with servers that support it (falls back to HTTP/1.1)
+     */
+    private boolean http2Enabled = true;
+
+    /**
+     * Maximum number of concurrent requests to a single host
+     */
+    private int maxConnectionsPerHost = 8;
+
+    /**
+     * TCP connect timeout (milliseconds)
+     */
+    private int connectTimeoutMs = 10000;
+
+    /**
+     * Maximum number of redirects followed for one fetch
+     */
+    private int maxRedirects = 5;
+}
@@ -0,0 +1,51 @@
+package com.webcrawler.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for per-host crawl politeness
+ */
+@Configuration
+@ConfigurationProperties(prefix = "crawler.politeness")
+@Data
+public class PolitenessConfig {
+
+    /**
+     * Enable per-host delay and concurrency limits
+     */
+    private boolean enabled = true;
+
+    /**
+     * Minimum delay between the start of two requests to the same host when robots.txt
+     * has no Crawl-delay (milliseconds)
+     */
+    private long defaultDelayMs = 250;
+
+    /**
+     * Maximum concurrent requests to the same host when robots.txt has no Crawl-delay.
+     * Hosts with a Crawl-delay are always crawled one request at a time.
+     */
+    private int maxConcurrencyPerHost = 2;
+
+    /**
+     * Upper bound for a robots.txt Crawl-delay (milliseconds)
+     */
+    private long maxCrawlDelayMs = 30000;
+
+    /**
+     * Maximum time a crawl waits for its turn on a host before giving up (milliseconds)
+     */
+    private long maxWaitMs = 60000;
+
+    /**
+     * Maximum number of crawls queued for a single host
+     */
+    private int maxQueuedPerHost = 1000;
+
+    /**
+     * How long an idle host keeps its state, including the resolved Crawl-delay (milliseconds)
+     */
+    private long hostIdleTtlMs = 300000;
+}
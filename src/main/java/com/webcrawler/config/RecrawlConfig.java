@@ -0,0 +1,66 @@
+package com.webcrawler.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the adaptive recrawl scheduler
+ */
+@Configuration
+@ConfigurationProperties(prefix = "crawler.recrawl")
+@Data
+public class RecrawlConfig {
+
+    /**
+     * Recrawls started per hour across all registered URLs; 0 pauses recrawling
+     */
+    private int fetchesPerHour = 3600;
+
+    /**
+     * Maximum number of recrawls running at once
+     */
+    private int maxConcurrency = 8;
+
+    /**
+     * Maximum number of URLs registered for recrawling
+     */
+    private int maxUrls = 100000;
+
+    /**
+     * A URL is never recrawled sooner than this after its last attempt (milliseconds)
+     */
+    private long minIntervalMs = 300000;
+
+    /**
+     * A URL is recrawled at least this often, however rarely it changed so far (milliseconds)
+     */
+    private long maxIntervalMs = 604800000;
+
+    /**
+     * Until a URL has been recrawled once, it is assumed to change once per this interval (milliseconds)
+     */
+    private long initialIntervalMs = 86400000;
+
+    /**
+     * Weight of the newest recrawl in a URL's change history, between 0 and 1.
+     * Higher values make the change rate estimate follow a changed page faster.
+     */
+    private double decay = 0.1;
+
+    /**
+     * How often the scheduler picks the next URLs to recrawl (milliseconds)
+     */
+    private long tickMs = 1000;
+
+    /**
+     * File in which the registered URLs and their change history are kept across restarts;
+     * not persisted if unset
+     */
+    private String storePath;
+
+    /**
+     * Minimum time between writes of the store file (milliseconds)
+     */
+    private long saveIntervalMs = 60000;
+}
@@ -0,0 +1,66 @@
+package com.webcrawler.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for learning per host whether pages need JavaScript rendering
+ */
+@Configuration
+@ConfigurationProperties(prefix = "crawler.render-need")
+@Data
+public class RenderNeedConfig {
+
+    /**
+     * Learn per host whether static fetches come back empty and skip needless steps
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of hosts tracked; least recently crawled hosts are forgotten first
+     */
+    private int maxHosts = 10000;
+
+    /**
+     * Hosts not crawled for this long are forgotten (milliseconds)
+     */
+    private long hostTtlMs = 604800000;
+
+    /**
+     * Weight of the newest observation in the host's moving average, between 0 and 1.
+     * Higher values make hosts change classification faster.
+     */
+    private double decay = 0.2;
+
+    /**
+     * Static fetches observed before a host is classified
+     */
+    private int minSamples = 5;
+
+    /**
+     * Share of empty static fetches at or above which a host is rendered straight away
+     */
+    private double renderThreshold = 0.9;
+
+    /**
+     * Share of empty static fetches at or below which a host skips the empty-body check
+     */
+    private double staticThreshold = 0.1;
+
+    /**
+     * Every this many crawls of a classified host, the full static fetch and check is done
+     * again so a host whose pages changed gets reclassified
+     */
+    private int probeInterval = 20;
+
+    /**
+     * File in which the learned hosts are kept across restarts; not persisted if unset
+     */
+    private String storePath;
+
+    /**
+     * Minimum time between writes of the store file (milliseconds)
+     */
+    private long saveIntervalMs = 60000;
+}
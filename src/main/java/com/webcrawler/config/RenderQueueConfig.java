@@ -0,0 +1,34 @@
+package com.webcrawler.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the JavaScript render queue
+ */
+@Configuration
+@ConfigurationProperties(prefix = "crawler.render-queue")
+@Data
+public class RenderQueueConfig {
+
+    /**
+     * Number of renders run at the same time; more than selenium.pool-max-size only adds waiting
+     */
+    private int workers = 4;
+
+    /**
+     * Maximum number of renders waiting to start; further renders are skipped
+     */
+    private int maxQueued = 100;
+
+    /**
+     * How long a render may wait in the queue before it is dropped (milliseconds)
+     */
+    private long deadlineMs = 30000;
+
+    /**
+     * Maximum number of renders started per minute across all crawls; 0 means unlimited
+     */
+    private int rendersPerMinute = 120;
+}
@@ -0,0 +1,45 @@
+package com.webcrawler.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for robots.txt fetching and caching
+ */
+@Configuration
+@ConfigurationProperties(prefix = "crawler.robots")
+@Data
+public class RobotsTxtConfig {
+
+    /**
+     * Maximum number of hosts (scheme, host and port) whose robots.txt is cached
+     */
+    private int maxCachedHosts = 10000;
+
+    /**
+     * How long a successfully fetched robots.txt is reused (milliseconds).
+     * RFC 9309 asks crawlers not to cache it for more than 24 hours.
+     */
+    private long ttlMs = 86400000;
+
+    /**
+     * How long a 4xx answer is reused (milliseconds)
+     */
+    private long clientErrorTtlMs = 3600000;
+
+    /**
+     * How long a 5xx answer or network failure is reused before retrying (milliseconds)
+     */
+    private long serverErrorTtlMs = 300000;
+
+    /**
+     * Maximum number of robots.txt files fetched at once by a prefetch
+     */
+    private int prefetchConcurrency = 16;
+
+    /**
+     * File in which fetched robots.txt entries are kept across restarts; not persisted if unset
+     */
+    private String storePath;
+}
@@ -4,6 +4,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Configuration properties for Selenium WebDriver
  */
@@ -17,6 +20,12 @@ public class SeleniumConfig {
      */
     private boolean enabled = true;
 
+    /**
+     * Start browsers in the background as soon as the application is ready;
+     * otherwise they are started by the first crawl that needs rendering
+     */
+    private boolean warmStandby = true;
+
     /**
      * Run browser in headless mode
      */
@@ -33,7 +42,65 @@ public class SeleniumConfig {
     private int implicitWait = 10;
 
     /**
-     * Additional wait time for JavaScript to execute (milliseconds)
+     * Maximum time to wait for JavaScript to settle after the page loads (milliseconds).
+     * Rendering returns earlier once the page is stable.
      */
     private int javascriptWaitTime = 3000;
+
+    /**
+     * How long the DOM and network must stay idle for a page to count as stable (milliseconds)
+     */
+    private long stabilityQuietPeriodMs = 500;
+
+    /**
+     * How often page stability is checked (milliseconds)
+     */
+    private long stabilityPollIntervalMs = 100;
+
+    /**
+     * Browsers started when rendering is initialized
+     */
+    private int poolMinSize = 1;
+
+    /**
+     * Maximum number of browsers, and so of pages rendered in parallel
+     */
+    private int poolMaxSize = 4;
+
+    /**
+     * How long a render waits for a free browser before failing (milliseconds)
+     */
+    private long borrowTimeoutMs = 30000;
+
+    /**
+     * Renders after which a browser is quit and replaced
+     */
+    private int maxRendersPerBrowser = 100;
+
+    /**
+     * JavaScript heap size above which a browser is replaced after its render (MB, 0 to disable)
+     */
+    private long maxBrowserHeapMb = 512;
+
+    /**
+     * Block unneeded requests inside the browser through the DevTools Protocol
+     */
+    private boolean requestInterceptionEnabled = true;
+
+    /**
+     * DevTools resource types never loaded while rendering (Image, Media, Font, Stylesheet, Script, XHR...)
+     */
+    private List<String> blockedResourceTypes = new ArrayList<>(List.of("Image", "Media", "Font", "Stylesheet"));
+
+    /**
+     * Domains (and their subdomains) whose requests are blocked while rendering, e.g. analytics and ads
+     */
+    private List<String> blockedDomains = new ArrayList<>(List.of(
+            "google-analytics.com", "googletagmanager.com", "doubleclick.net", "googlesyndication.com",
+            "facebook.net", "hotjar.com", "segment.io", "scorecardresearch.com"));
+
+    /**
+     * If not empty, only these third-party domains may be loaded besides the page's own host
+     */
+    private List<String> allowedDomains = new ArrayList<>();
 }
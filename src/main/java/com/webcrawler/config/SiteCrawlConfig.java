@@ -0,0 +1,117 @@
+package com.webcrawler.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for recursive site crawls
+ */
+@Configuration
+@ConfigurationProperties(prefix = "crawler.site")
+@Data
+public class SiteCrawlConfig {
+
+    /**
+     * Number of site crawls running at once
+     */
+    private int maxRunningCrawls = 2;
+
+    /**
+     * Maximum number of site crawls waiting to start before new submissions are rejected
+     */
+    private int queueCapacity = 100;
+
+    /**
+     * Pages of one site crawl fetched at the same time, across all of its hosts
+     */
+    private int maxConcurrency = 32;
+
+    /**
+     * Pages of one host fetched at the same time by a site crawl
+     */
+    private int maxConcurrencyPerHost = 1;
+
+    /**
+     * Directory for the disk-backed frontiers of site crawls, one subdirectory per crawl;
+     * empty keeps each crawl's frontier on the heap
+     */
+    private String frontierDirectory = "";
+
+    /**
+     * Size of each frontier segment file in bytes
+     */
+    private int frontierSegmentBytes = 64 * 1024 * 1024;
+
+    /**
+     * Queued URLs of a disk-backed frontier kept decoded in memory, across all of its hosts
+     */
+    private int frontierMaxHotEntries = 100000;
+
+    /**
+     * Queued URLs per host of a disk-backed frontier kept decoded in memory
+     */
+    private int frontierMaxHotEntriesPerHost = 16;
+
+    /**
+     * How often a crawl with a disk-backed frontier saves a checkpoint it can be resumed from (milliseconds)
+     */
+    private long checkpointIntervalMs = 30000;
+
+    /**
+     * How long shutdown waits for running crawls to finish their in-flight pages before the
+     * final checkpoint (milliseconds)
+     */
+    private long shutdownTimeoutMs = 30000;
+
+    /**
+     * URLs a crawl's seen-URL set is sized for up front, capped by the crawl's page limit; it grows as
+     * needed. Kept small because the set's native memory is reserved whether or not the crawl finds that many
+     */
+    private int seenInitialCapacity = 16384;
+
+    /**
+     * Target false-positive rate of the Bloom filter in front of the seen-URL set; 0 for no Bloom filter
+     */
+    private double seenBloomFalsePositiveRate = 0;
+
+    /**
+     * Maximum number of seed URLs per crawl
+     */
+    private int maxSeeds = 100;
+
+    /**
+     * Link depth used when the request gives none
+     */
+    private int defaultMaxDepth = 3;
+
+    /**
+     * Upper bound for a link depth requested by the client
+     */
+    private int maxDepth = 20;
+
+    /**
+     * Page limit used when the request gives none
+     */
+    private int defaultMaxPages = 1000;
+
+    /**
+     * Upper bound for a page limit requested by the client
+     */
+    private int maxPages = 1000000;
+
+    /**
+     * Page results kept per crawl for retrieval; later pages are only counted
+     */
+    private int maxStoredResults = 1000;
+
+    /**
+     * Maximum number of site crawls (running or finished) kept in memory
+     */
+    private int maxStoredCrawls = 100;
+
+    /**
+     * How long a finished crawl and its results are kept (milliseconds)
+     */
+    private long resultTtlMs = 3600000;
+}
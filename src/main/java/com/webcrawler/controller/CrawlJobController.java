@@ -0,0 +1,73 @@
+package com.webcrawler.controller;
+
+import com.webcrawler.model.CrawlJob;
+import com.webcrawler.model.CrawlRequest;
+import com.webcrawler.service.CrawlJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.net.URI;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/v1/crawler/crawl/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Crawl Jobs", description = "API for asynchronous crawling")
+public class CrawlJobController {
+
+    private final CrawlJobService crawlJobService;
+
+    @PostMapping
+    @Operation(summary = "Submit a crawl job", description = "Queues a crawl of the specified URL and returns a job ID immediately")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Job accepted",
+                    content = @Content(schema = @Schema(implementation = CrawlJob.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid URL format"),
+            @ApiResponse(responseCode = "503", description = "Job queue is full")
+    })
+    public ResponseEntity<CrawlJob> submit(@Valid @RequestBody CrawlRequest request) {
+        try {
+            CrawlJob job = crawlJobService.submit(request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/crawler/crawl/jobs/" + job.getJobId()))
+                    .body(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Get a crawl job", description = "Returns the job state; with waitMs, long-polls until the job finishes or the wait elapses")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Current job state",
+                    content = @Content(schema = @Schema(implementation = CrawlJob.class))),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired job")
+    })
+    public DeferredResult<ResponseEntity<CrawlJob>> getJob(
+            @PathVariable String jobId,
+            @Parameter(description = "Maximum time to wait for completion in milliseconds")
+            @RequestParam(defaultValue = "0") long waitMs) {
+        DeferredResult<ResponseEntity<CrawlJob>> result = new DeferredResult<>();
+        crawlJobService.awaitJob(jobId, waitMs).ifPresentOrElse(
+                future -> future.whenComplete((job, error) -> result.setResult(ResponseEntity.ok(job))),
+                () -> result.setResult(ResponseEntity.notFound().build()));
+        return result;
+    }
+}
@@ -1,7 +1,12 @@
 package com.webcrawler.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webcrawler.model.BatchCrawlRequest;
+import com.webcrawler.model.BatchCrawlResponse;
 import com.webcrawler.model.CrawlRequest;
 import com.webcrawler.model.CrawlResponse;
+import com.webcrawler.service.BatchCrawlService;
 import com.webcrawler.service.CrawlerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,11 +16,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 @RestController
 @RequestMapping("/api/v1/crawler")
@@ -24,9 +35,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class CrawlerController {
 
     private final CrawlerService crawlerService;
+    private final BatchCrawlService batchCrawlService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/crawl")
-    @Operation(summary = "Crawl a URL", description = "Crawls the specified URL and returns parsed content in unified schema")
+    @Operation(summary = "Crawl a URL", description = "Crawls the specified URL and returns parsed content in unified schema, limited to the requested fields")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully crawled the URL",
                     content = @Content(schema = @Schema(implementation = CrawlResponse.class))),
@@ -34,7 +47,61 @@ public class CrawlerController {
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<CrawlResponse> crawl(@Valid @RequestBody CrawlRequest request) {
-        CrawlResponse response = crawlerService.crawl(request.getUrl());
+        CrawlResponse response = crawlerService.crawl(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/crawl/batch")
+    @Operation(summary = "Crawl several URLs", description = "Crawls the specified URLs concurrently and returns per-URL results in request order")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch completed (individual URLs may have failed)",
+                    content = @Content(schema = @Schema(implementation = BatchCrawlResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid URL format or batch too large"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<BatchCrawlResponse> crawlBatch(@Valid @RequestBody BatchCrawlRequest request) {
+        BatchCrawlResponse response = batchCrawlService.crawlBatch(request.getUrls(), request.getTimeoutMs());
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping(value = "/crawl/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Crawl several URLs as a stream",
+            description = "Crawls the specified URLs concurrently and streams each result as a newline-delimited JSON record as soon as it completes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream of CrawlResponse records in completion order",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = CrawlResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid URL format or batch too large")
+    })
+    public ResponseEntity<StreamingResponseBody> crawlStream(@Valid @RequestBody BatchCrawlRequest request) {
+        // Reject oversized batches before the 200 status is committed
+        batchCrawlService.checkBatchSize(request.getUrls());
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                batchCrawlService.crawlStream(request.getUrls(), request.getTimeoutMs(), response -> {
+                    try {
+                        // Flushing per record makes a slow client block the crawl instead of buffering results
+                        generator.writeObject(response);
+                        generator.writeRaw('\n');
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                // Client went away; the crawl has already been cancelled
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
 }
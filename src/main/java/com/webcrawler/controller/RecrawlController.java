@@ -0,0 +1,89 @@
+package com.webcrawler.controller;
+
+import com.webcrawler.model.CrawlRequest;
+import com.webcrawler.model.RecrawlUrl;
+import com.webcrawler.service.RecrawlService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/v1/crawler/recrawl/urls")
+@RequiredArgsConstructor
+@Tag(name = "Recrawls", description = "API for recrawling URLs as often as their content changes")
+public class RecrawlController {
+
+    private final RecrawlService recrawlService;
+
+    @PostMapping
+    @Operation(summary = "Register a URL for recrawling", description = "Recrawls the URL with the given fields, more often the more often its data changes; registering it again replaces the fields")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "URL registered",
+                    content = @Content(schema = @Schema(implementation = RecrawlUrl.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid URL format"),
+            @ApiResponse(responseCode = "503", description = "Maximum number of URLs registered")
+    })
+    public ResponseEntity<RecrawlUrl> register(@Valid @RequestBody CrawlRequest request) {
+        try {
+            return ResponseEntity.ok(recrawlService.register(request));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @GetMapping(params = "url")
+    @Operation(summary = "Get a registered URL", description = "Returns the URL's change history and latest result")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Registered URL",
+                    content = @Content(schema = @Schema(implementation = RecrawlUrl.class))),
+            @ApiResponse(responseCode = "404", description = "URL is not registered")
+    })
+    public ResponseEntity<RecrawlUrl> get(@RequestParam String url) {
+        return ResponseEntity.of(recrawlService.get(url));
+    }
+
+    @GetMapping
+    @Operation(summary = "List registered URLs", description = "Returns registered URLs in URL order, optionally only those whose data changed since a given time")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Registered URLs")
+    })
+    public ResponseEntity<List<RecrawlUrl>> list(
+            @Parameter(description = "Only URLs whose data last changed at or after this time (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime changedSince,
+            @Parameter(description = "Index of the first URL to return")
+            @RequestParam(defaultValue = "0") int offset,
+            @Parameter(description = "Maximum number of URLs to return")
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(recrawlService.list(changedSince, offset, limit));
+    }
+
+    @DeleteMapping(params = "url")
+    @Operation(summary = "Unregister a URL", description = "Stops recrawling the URL and forgets its history")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "URL unregistered"),
+            @ApiResponse(responseCode = "404", description = "URL is not registered")
+    })
+    public ResponseEntity<Void> unregister(@RequestParam String url) {
+        return recrawlService.unregister(url) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+}
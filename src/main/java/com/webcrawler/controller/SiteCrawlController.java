@@ -0,0 +1,123 @@
+package com.webcrawler.controller;
+
+import com.webcrawler.model.CrawlResponse;
+import com.webcrawler.model.SiteCrawlJob;
+import com.webcrawler.model.SiteCrawlRequest;
+import com.webcrawler.service.SiteCrawlService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/v1/crawler/crawl/sites")
+@RequiredArgsConstructor
+@Tag(name = "Site Crawls", description = "API for recursive crawling from seed URLs")
+public class SiteCrawlController {
+
+    private final SiteCrawlService siteCrawlService;
+
+    @PostMapping
+    @Operation(summary = "Submit a site crawl", description = "Queues a crawl that follows links from the seed URLs and returns a crawl ID immediately")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Crawl accepted",
+                    content = @Content(schema = @Schema(implementation = SiteCrawlJob.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid seed URL, pattern or limit"),
+            @ApiResponse(responseCode = "503", description = "Crawl queue is full")
+    })
+    public ResponseEntity<SiteCrawlJob> submit(@Valid @RequestBody SiteCrawlRequest request) {
+        try {
+            SiteCrawlJob job = siteCrawlService.submit(request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/crawler/crawl/sites/" + job.getJobId()))
+                    .body(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Get a site crawl", description = "Returns the crawl state and progress counters")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Current crawl state",
+                    content = @Content(schema = @Schema(implementation = SiteCrawlJob.class))),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired crawl")
+    })
+    public ResponseEntity<SiteCrawlJob> getJob(@PathVariable String jobId) {
+        return ResponseEntity.of(siteCrawlService.getJob(jobId));
+    }
+
+    @GetMapping("/{jobId}/pages")
+    @Operation(summary = "Get crawled pages", description = "Returns the stored page results of a site crawl in the order they finished")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page results"),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired crawl")
+    })
+    public ResponseEntity<List<CrawlResponse>> getPages(
+            @PathVariable String jobId,
+            @Parameter(description = "Index of the first result to return")
+            @RequestParam(defaultValue = "0") int offset,
+            @Parameter(description = "Maximum number of results to return")
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.of(siteCrawlService.getPages(jobId, offset, limit));
+    }
+
+    @DeleteMapping("/{jobId}")
+    @Operation(summary = "Cancel a site crawl", description = "Stops dispatching pages; pages already being crawled still finish")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Crawl state after cancelling",
+                    content = @Content(schema = @Schema(implementation = SiteCrawlJob.class))),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired crawl")
+    })
+    public ResponseEntity<SiteCrawlJob> cancel(@PathVariable String jobId) {
+        return ResponseEntity.of(siteCrawlService.cancel(jobId));
+    }
+
+    @PostMapping("/{jobId}/resume")
+    @Operation(summary = "Resume a site crawl", description = "Continues an interrupted crawl from its last checkpoint; pages it records as done are not crawled again")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Crawl resumed",
+                    content = @Content(schema = @Schema(implementation = SiteCrawlJob.class))),
+            @ApiResponse(responseCode = "404", description = "No checkpoint of the crawl"),
+            @ApiResponse(responseCode = "409", description = "Crawl is still running"),
+            @ApiResponse(responseCode = "503", description = "Crawl queue is full")
+    })
+    public ResponseEntity<SiteCrawlJob> resume(@PathVariable String jobId) {
+        try {
+            return siteCrawlService.resume(jobId)
+                    .map(job -> ResponseEntity.accepted()
+                            .location(URI.create("/api/v1/crawler/crawl/sites/" + job.getJobId()))
+                            .body(job))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -0,0 +1,587 @@
+package com.webcrawler.crawl;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Frontier that keeps queued URLs in memory-mapped segment files, so a crawl of tens of
+ * millions of URLs needs heap only for its hosts and a bounded number of decoded entries.
+ *
+ * <p>Every pushed URL is appended to the current segment as a record framed as
+ * {@code length, crc32, state, next, payload}, where {@code next} links the record to the
+ * following record of the same host. Each host keeps up to {@code maxHotEntriesPerHost}
+ * decoded entries at the head of its queue (at most {@code maxHotEntries} in total); the
+ * rest of its queue is the on-disk chain, which is read ahead a batch at a time as the hot
+ * head drains and paged in by the OS on demand.
+ *
+ * <p>Appended records reach the page cache immediately and so survive a crash of the
+ * process. Released URLs are only marked done on disk by the next {@link #checkpoint},
+ * which also forces the segments to the device, and each done mark carries the number of
+ * its checkpoint in the otherwise unused {@code next} field. A frontier reopened with the
+ * number of the last checkpoint the caller completed ignores later marks, so it agrees with
+ * whatever else the caller saved at that checkpoint: URLs in flight or released since then
+ * are crawled again. Reopening a directory rebuilds the host queues from the records not
+ * marked done; a torn or corrupt record, as left by a crash during an append, ends the log.
+ * Segments whose records are all done are deleted once a later checkpoint is committed.
+ */
+@Slf4j
+public class DiskFrontier implements Frontier {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{8})\\.dat");
+
+    /**
+     * Bytes before the payload: length, crc32, state, next
+     */
+    static final int HEADER_SIZE = 4 + 4 + 1 + 8;
+    private static final int STATE_OFFSET = 8;
+    private static final int NEXT_OFFSET = 9;
+    private static final byte QUEUED = 0;
+    private static final byte DONE = 1;
+
+    private final Path directory;
+    private final int maxInFlightPerHost;
+    private final int segmentBytes;
+    private final int maxHotEntries;
+    private final int maxHotEntriesPerHost;
+
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    private Segment active;
+    private int writeOffset;
+
+    /**
+     * Segments whose records are all done, deleted by the next checkpoint
+     */
+    private final List<Segment> retired = new ArrayList<>();
+
+    /**
+     * Positions of records released since the last checkpoint
+     */
+    private long[] unmarked = new long[1024];
+    private int unmarkedCount;
+    private long lastCheckpoint;
+
+    private final Map<String, HostQueue> queues = new HashMap<>();
+    private final Map<FrontierEntry, Slot> inFlight = new IdentityHashMap<>();
+
+    /**
+     * Hosts that can hand out a URL right now, in rotation order
+     */
+    private final LinkedHashSet<String> readyHosts = new LinkedHashSet<>();
+    private long size;
+    private int queuedHosts;
+    private int hotEntries;
+    private boolean closed;
+
+    /**
+     * Opens the frontier stored in a directory, recovering any URLs not yet crawled and
+     * trusting every done mark
+     *
+     * @see #DiskFrontier(Path, int, int, int, int, long)
+     */
+    public DiskFrontier(Path directory, int maxInFlightPerHost, int segmentBytes, int maxHotEntries,
+                        int maxHotEntriesPerHost) {
+        this(directory, maxInFlightPerHost, segmentBytes, maxHotEntries, maxHotEntriesPerHost, -1);
+    }
+
+    /**
+     * Opens the frontier stored in a directory, recovering any URLs not yet crawled
+     *
+     * @param directory directory of the segment files; created if missing
+     * @param maxInFlightPerHost how many URLs of one host may be in flight at once
+     * @param segmentBytes size of each segment file
+     * @param maxHotEntries decoded entries kept in memory across all hosts
+     * @param maxHotEntriesPerHost decoded entries kept in memory per host
+     * @param committedCheckpoint number of the last checkpoint the caller completed; URLs marked
+     *                            done by a later one are queued again. -1 trusts every done mark
+     * @throws UncheckedIOException if the directory cannot be read or written
+     */
+    public DiskFrontier(Path directory, int maxInFlightPerHost, int segmentBytes, int maxHotEntries,
+                        int maxHotEntriesPerHost, long committedCheckpoint) {
+        if (maxInFlightPerHost <= 0) {
+            throw new IllegalArgumentException("maxInFlightPerHost must be positive");
+        }
+        if (segmentBytes < 4096) {
+            throw new IllegalArgumentException("segmentBytes must be at least 4096");
+        }
+        this.directory = directory;
+        this.maxInFlightPerHost = maxInFlightPerHost;
+        this.segmentBytes = segmentBytes;
+        this.maxHotEntries = Math.max(0, maxHotEntries);
+        this.maxHotEntriesPerHost = Math.max(0, maxHotEntriesPerHost);
+        this.lastCheckpoint = Math.max(0, committedCheckpoint);
+        try {
+            Files.createDirectories(directory);
+            recover(committedCheckpoint);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open frontier in " + directory, e);
+        }
+    }
+
+    @Override
+    public void push(FrontierEntry entry) {
+        enqueue(entry, append(entry));
+    }
+
+    @Override
+    public FrontierEntry poll() {
+        Iterator<String> iterator = readyHosts.iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        String host = iterator.next();
+        iterator.remove();
+
+        HostQueue queue = queues.get(host);
+        if (queue.hot.isEmpty()) {
+            readAhead(queue);
+        }
+        Slot slot = queue.hot.pollFirst();
+        if (slot != null) {
+            hotEntries--;
+        } else {
+            // No room for decoded entries at all: read the head straight from disk
+            slot = takeCold(queue);
+        }
+        size--;
+        if (--queue.size == 0) {
+            queuedHosts--;
+        }
+        queue.inFlight++;
+        inFlight.put(slot.entry, slot);
+        if (queue.size > 0 && queue.inFlight < maxInFlightPerHost) {
+            // Back of the rotation, so the other ready hosts go first
+            readyHosts.add(host);
+        }
+        return slot.entry;
+    }
+
+    @Override
+    public void release(FrontierEntry entry) {
+        Slot slot = inFlight.remove(entry);
+        if (slot == null) {
+            throw new IllegalStateException("URL is not in flight: " + entry.url());
+        }
+        markDone(slot.position);
+
+        HostQueue queue = queues.get(entry.host());
+        queue.inFlight--;
+        if (queue.size == 0 && queue.inFlight == 0) {
+            queues.remove(entry.host());
+        } else if (queue.size > 0) {
+            readyHosts.add(entry.host());
+        }
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public int hostCount() {
+        return queuedHosts;
+    }
+
+    /**
+     * Takes a checkpoint of the URLs released since the last one. Preparing it marks them done
+     * and forces the segments to the storage device; committing it deletes the segments that
+     * were all done when it was taken. Marking happens outside the caller's lock, on records
+     * that nothing else writes to any more.
+     */
+    @Override
+    public FrontierCheckpoint checkpoint(long sequence) {
+        if (closed) {
+            return FrontierCheckpoint.NONE;
+        }
+        if (sequence <= lastCheckpoint) {
+            throw new IllegalArgumentException("Checkpoint " + sequence + " does not follow checkpoint " + lastCheckpoint);
+        }
+        lastCheckpoint = sequence;
+        long[] released = Arrays.copyOf(unmarked, unmarkedCount);
+        unmarkedCount = 0;
+        Map<Integer, MappedByteBuffer> buffers = new HashMap<>();
+        for (Segment segment : segments.values()) {
+            buffers.put(segment.index, segment.buffer);
+        }
+        List<Integer> done = new ArrayList<>(retired.size());
+        for (Segment segment : retired) {
+            done.add(segment.index);
+        }
+        retired.clear();
+
+        return new FrontierCheckpoint() {
+            @Override
+            public void prepare() {
+                for (long position : released) {
+                    // Records of retired segments need no mark: the whole file goes
+                    MappedByteBuffer buffer = buffers.get((int) (position / segmentBytes));
+                    if (buffer != null) {
+                        int offset = offset(position);
+                        buffer.putLong(offset + NEXT_OFFSET, sequence);
+                        buffer.put(offset + STATE_OFFSET, DONE);
+                    }
+                }
+                for (MappedByteBuffer buffer : buffers.values()) {
+                    buffer.force();
+                }
+            }
+
+            @Override
+            public void commit() {
+                for (int index : done) {
+                    deleteSegmentFile(index);
+                }
+            }
+        };
+    }
+
+    /**
+     * Takes, prepares and commits a checkpoint right away
+     */
+    public void sync() {
+        FrontierCheckpoint checkpoint = checkpoint(lastCheckpoint + 1);
+        checkpoint.prepare();
+        checkpoint.commit();
+    }
+
+    /**
+     * Marks released URLs done and forces the segment files to the device, then releases
+     * them; URLs still queued or in flight are recovered by the next frontier opened on the
+     * same directory. Segments that are all done are left for that frontier to delete, as the
+     * caller may not have completed a checkpoint covering them.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        checkpoint(lastCheckpoint + 1).prepare();
+        closed = true;
+        segments.clear();
+        retired.clear();
+        active = null;
+    }
+
+    /**
+     * @return number of segment files currently in use
+     */
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Calls the consumer with the URL of every record still on disk, done or not, including
+     * those of retired segments that no checkpoint has deleted yet. Meant for rebuilding a
+     * seen-URL set right after reopening a directory.
+     */
+    public void forEachRecordedUrl(Consumer<String> consumer) {
+        List<Segment> onDisk = new ArrayList<>(retired);
+        onDisk.addAll(segments.values());
+        for (Segment segment : onDisk) {
+            int offset = 0;
+            while (offset + HEADER_SIZE <= segmentBytes) {
+                int length = segment.buffer.getInt(offset);
+                if (length <= 0 || (segment == active && offset >= writeOffset)) {
+                    break;
+                }
+                consumer.accept(decode(segment.buffer, offset).url());
+                offset += HEADER_SIZE + length;
+            }
+        }
+    }
+
+    /**
+     * Deletes a frontier directory and its files
+     */
+    public static void delete(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            log.warn("Failed to delete frontier directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Adds a record that is already on disk to its host's queue
+     */
+    private void enqueue(FrontierEntry entry, long position) {
+        HostQueue queue = queues.computeIfAbsent(entry.host(), host -> new HostQueue());
+        if (queue.size > 0) {
+            // The chain is only walked through the cold part, but recovery relies on it being complete too.
+            // With nothing queued the tail may already be done and its segment retired, and there is nothing to link
+            segment(queue.tail).buffer.putLong(offset(queue.tail) + NEXT_OFFSET, position);
+        }
+        queue.tail = position;
+        if (queue.coldHead < 0 && queue.hot.size() < maxHotEntriesPerHost && hotEntries < maxHotEntries) {
+            queue.hot.addLast(new Slot(entry, position));
+            hotEntries++;
+        } else if (queue.coldHead < 0) {
+            queue.coldHead = position;
+        }
+        if (queue.size++ == 0) {
+            queuedHosts++;
+        }
+        size++;
+        if (queue.inFlight < maxInFlightPerHost) {
+            readyHosts.add(entry.host());
+        }
+    }
+
+    /**
+     * Decodes a batch of the host's cold entries into its hot head, as the hot budget allows
+     */
+    private void readAhead(HostQueue queue) {
+        while (queue.coldHead >= 0 && queue.hot.size() < maxHotEntriesPerHost && hotEntries < maxHotEntries) {
+            queue.hot.addLast(takeCold(queue));
+            hotEntries++;
+        }
+    }
+
+    private Slot takeCold(HostQueue queue) {
+        long position = queue.coldHead;
+        Segment segment = segment(position);
+        int offset = offset(position);
+        FrontierEntry entry = decode(segment.buffer, offset);
+        queue.coldHead = position == queue.tail ? -1 : segment.buffer.getLong(offset + NEXT_OFFSET);
+        return new Slot(entry, position);
+    }
+
+    private long append(FrontierEntry entry) {
+        if (closed) {
+            throw new IllegalStateException("Frontier is closed");
+        }
+        byte[] host = entry.host().getBytes(StandardCharsets.UTF_8);
+        byte[] url = entry.url().getBytes(StandardCharsets.UTF_8);
+        int payloadLength = 4 + 2 + host.length + url.length;
+        if (HEADER_SIZE + payloadLength > segmentBytes || host.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("URL too long for the frontier: " + entry.url());
+        }
+        if (active == null || writeOffset + HEADER_SIZE + payloadLength > segmentBytes) {
+            // The zero-filled rest of the old segment reads as its end
+            Segment full = active;
+            active = createSegment(full == null ? 0 : full.index + 1);
+            writeOffset = 0;
+            if (full != null && full.live == 0) {
+                retire(full);
+            }
+        }
+
+        MappedByteBuffer buffer = active.buffer;
+        int offset = writeOffset;
+        buffer.position(offset + HEADER_SIZE);
+        buffer.putInt(entry.depth());
+        buffer.putShort((short) host.length);
+        buffer.put(host);
+        buffer.put(url);
+        buffer.put(offset + STATE_OFFSET, QUEUED);
+        buffer.putLong(offset + NEXT_OFFSET, -1);
+        buffer.putInt(offset + 4, crc(buffer, offset + HEADER_SIZE, payloadLength));
+        // The length goes last: until it is written the record reads as the end of the log
+        buffer.putInt(offset, payloadLength);
+
+        writeOffset += HEADER_SIZE + payloadLength;
+        active.live++;
+        return position(active.index, offset);
+    }
+
+    private void markDone(long position) {
+        if (unmarkedCount == unmarked.length) {
+            unmarked = Arrays.copyOf(unmarked, unmarkedCount * 2);
+        }
+        unmarked[unmarkedCount++] = position;
+        Segment segment = segment(position);
+        segment.live--;
+        if (segment.live == 0 && segment != active) {
+            retire(segment);
+        }
+    }
+
+    /**
+     * Rebuilds the host queues from the records of existing segments that are not done as of
+     * the committed checkpoint
+     */
+    private void recover(long committedCheckpoint) throws IOException {
+        List<Integer> indexes = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    indexes.add(Integer.parseInt(matcher.group(1)));
+                }
+            }
+        }
+        Collections.sort(indexes);
+
+        boolean truncated = false;
+        for (int index : indexes) {
+            if (truncated) {
+                // Anything after a torn record was appended after it and cannot be trusted
+                Files.deleteIfExists(segmentPath(index));
+                continue;
+            }
+            Segment segment = mapSegment(index);
+            segments.put(index, segment);
+            active = segment;
+            int offset = 0;
+            while (offset + HEADER_SIZE <= segmentBytes) {
+                int length = segment.buffer.getInt(offset);
+                if (length == 0) {
+                    break;
+                }
+                if (length < 0 || offset + HEADER_SIZE + length > segmentBytes
+                        || segment.buffer.getInt(offset + 4) != crc(segment.buffer, offset + HEADER_SIZE, length)) {
+                    log.warn("Frontier segment {} is torn at offset {}; dropping the rest of the log", index, offset);
+                    truncated = true;
+                    break;
+                }
+                boolean done = segment.buffer.get(offset + STATE_OFFSET) == DONE
+                        && (committedCheckpoint < 0 || segment.buffer.getLong(offset + NEXT_OFFSET) <= committedCheckpoint);
+                if (!done) {
+                    segment.buffer.put(offset + STATE_OFFSET, QUEUED);
+                    segment.live++;
+                    long position = position(index, offset);
+                    segment.buffer.putLong(offset + NEXT_OFFSET, -1);
+                    enqueue(decode(segment.buffer, offset), position);
+                }
+                offset += HEADER_SIZE + length;
+            }
+            writeOffset = offset;
+        }
+
+        if (active != null) {
+            // A crash can leave stale bytes behind the last record; clear them so they are never read as records
+            byte[] zeros = new byte[64 * 1024];
+            for (int offset = writeOffset; offset < segmentBytes; offset += zeros.length) {
+                active.buffer.put(offset, zeros, 0, Math.min(zeros.length, segmentBytes - offset));
+            }
+        }
+        for (Segment segment : new ArrayList<>(segments.values())) {
+            if (segment.live == 0 && segment != active) {
+                retire(segment);
+            }
+        }
+        if (size > 0) {
+            log.info("Recovered {} queued URLs of {} hosts from {}", size, hostCount(), directory);
+        }
+    }
+
+    private Segment createSegment(int index) {
+        try {
+            Segment segment = mapSegment(index);
+            segments.put(index, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create frontier segment in " + directory, e);
+        }
+    }
+
+    private Segment mapSegment(int index) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return new Segment(index, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+        }
+    }
+
+    private void retire(Segment segment) {
+        segments.remove(segment.index);
+        retired.add(segment);
+    }
+
+    private void deleteSegmentFile(int index) {
+        try {
+            Files.deleteIfExists(segmentPath(index));
+        } catch (IOException e) {
+            log.warn("Failed to delete frontier segment {}: {}", segmentPath(index), e.getMessage());
+        }
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("segment-%08d.dat", index));
+    }
+
+    private Segment segment(long position) {
+        return segments.get((int) (position / segmentBytes));
+    }
+
+    private int offset(long position) {
+        return (int) (position % segmentBytes);
+    }
+
+    private long position(int index, int offset) {
+        return (long) index * segmentBytes + offset;
+    }
+
+    private static FrontierEntry decode(MappedByteBuffer buffer, int offset) {
+        int length = buffer.getInt(offset);
+        int payload = offset + HEADER_SIZE;
+        int depth = buffer.getInt(payload);
+        int hostLength = buffer.getShort(payload + 4);
+        byte[] host = new byte[hostLength];
+        buffer.get(payload + 6, host);
+        byte[] url = new byte[length - 6 - hostLength];
+        buffer.get(payload + 6 + hostLength, url);
+        return new FrontierEntry(new String(url, StandardCharsets.UTF_8), new String(host, StandardCharsets.UTF_8), depth);
+    }
+
+    private static int crc(MappedByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * A segment file mapped into memory, with its count of records not yet done
+     */
+    private static final class Segment {
+        final int index;
+        final MappedByteBuffer buffer;
+        int live;
+
+        Segment(int index, MappedByteBuffer buffer) {
+            this.index = index;
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * One host's queue: decoded entries at the head, then the on-disk chain from {@code coldHead}
+     */
+    private static final class HostQueue {
+        final ArrayDeque<Slot> hot = new ArrayDeque<>();
+        long coldHead = -1;
+        long tail = -1;
+        long size;
+        int inFlight;
+    }
+
+    private record Slot(FrontierEntry entry, long position) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.webcrawler.crawl;
+
+/**
+ * URLs waiting to be crawled, queued per host so that a host with a long backlog never
+ * holds up the others.
+ *
+ * <p>{@link #poll()} hands out URLs round-robin across hosts and never from a host that
+ * already has its maximum number of URLs in flight; {@link #release} frees the slot once
+ * the URL has been crawled. Implementations are not thread-safe: the site crawler calls
+ * them under its own lock.
+ */
+public interface Frontier extends AutoCloseable {
+
+    /**
+     * Queues a URL behind the other URLs of its host
+     */
+    void push(FrontierEntry entry);
+
+    /**
+     * Takes the next URL from the next host with a free slot
+     *
+     * @return the entry, or null if every non-empty host is at its in-flight limit (or nothing is queued)
+     */
+    FrontierEntry poll();
+
+    /**
+     * Marks a URL returned by {@link #poll()} as crawled, freeing its host's slot
+     */
+    void release(FrontierEntry entry);
+
+    /**
+     * @return number of queued URLs, not counting those in flight
+     */
+    long size();
+
+    /**
+     * @return number of hosts with queued URLs
+     */
+    int hostCount();
+
+    /**
+     * Takes checkpoint number {@code sequence} of the URLs released so far. Called under the
+     * crawler's lock; the returned checkpoint does its I/O outside it, concurrently with
+     * further pushes and releases.
+     *
+     * @param sequence the checkpoint's number, higher than that of any earlier checkpoint
+     * @return the checkpoint to prepare and commit; {@link FrontierCheckpoint#NONE} for frontiers that are not persistent
+     */
+    default FrontierCheckpoint checkpoint(long sequence) {
+        return FrontierCheckpoint.NONE;
+    }
+
+    @Override
+    default void close() {
+    }
+}
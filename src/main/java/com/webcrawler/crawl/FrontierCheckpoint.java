@@ -0,0 +1,37 @@
+package com.webcrawler.crawl;
+
+/**
+ * A frontier's part of a crawl checkpoint, taken under the crawler's lock and written
+ * outside it in two steps around the caller recording the checkpoint as complete: after
+ * {@link #prepare()} the frontier can redo the checkpoint when reopened, and only
+ * {@link #commit()} changes its files in place.
+ */
+public interface FrontierCheckpoint {
+
+    /**
+     * Checkpoint of a frontier that is not persistent
+     */
+    FrontierCheckpoint NONE = new FrontierCheckpoint() {
+        @Override
+        public void prepare() {
+        }
+
+        @Override
+        public void commit() {
+        }
+    };
+
+    /**
+     * Saves what the checkpoint changes, before the caller records it as complete
+     *
+     * @throws java.io.UncheckedIOException if it cannot be saved
+     */
+    void prepare();
+
+    /**
+     * Applies the checkpoint, once the caller has recorded it as complete
+     *
+     * @throws java.io.UncheckedIOException if it cannot be applied
+     */
+    void commit();
+}
@@ -0,0 +1,11 @@
+package com.webcrawler.crawl;
+
+/**
+ * A URL waiting in the frontier
+ *
+ * @param url the normalized URL
+ * @param host the URL's lower-case host, which selects its queue
+ * @param depth number of links followed from a seed to reach the URL
+ */
+public record FrontierEntry(String url, String host, int depth) {
+}
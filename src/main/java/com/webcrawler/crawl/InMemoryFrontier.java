@@ -0,0 +1,92 @@
+package com.webcrawler.crawl;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * Frontier held entirely on the heap: one FIFO queue per host and a rotation of the
+ * hosts that have queued URLs and a free slot
+ */
+public class InMemoryFrontier implements Frontier {
+
+    private final int maxInFlightPerHost;
+    private final Map<String, ArrayDeque<FrontierEntry>> queues = new HashMap<>();
+    private final Map<String, Integer> inFlight = new HashMap<>();
+
+    /**
+     * Hosts that can hand out a URL right now, in rotation order
+     */
+    private final LinkedHashSet<String> readyHosts = new LinkedHashSet<>();
+    private long size;
+
+    /**
+     * @param maxInFlightPerHost how many URLs of one host may be in flight at once
+     */
+    public InMemoryFrontier(int maxInFlightPerHost) {
+        if (maxInFlightPerHost <= 0) {
+            throw new IllegalArgumentException("maxInFlightPerHost must be positive");
+        }
+        this.maxInFlightPerHost = maxInFlightPerHost;
+    }
+
+    @Override
+    public void push(FrontierEntry entry) {
+        queues.computeIfAbsent(entry.host(), host -> new ArrayDeque<>()).addLast(entry);
+        size++;
+        if (inFlight.getOrDefault(entry.host(), 0) < maxInFlightPerHost) {
+            readyHosts.add(entry.host());
+        }
+    }
+
+    @Override
+    public FrontierEntry poll() {
+        Iterator<String> iterator = readyHosts.iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        String host = iterator.next();
+        iterator.remove();
+
+        ArrayDeque<FrontierEntry> queue = queues.get(host);
+        FrontierEntry entry = queue.pollFirst();
+        size--;
+        int hostInFlight = inFlight.merge(host, 1, Integer::sum);
+        if (queue.isEmpty()) {
+            queues.remove(host);
+        } else if (hostInFlight < maxInFlightPerHost) {
+            // Back of the rotation, so the other ready hosts go first
+            readyHosts.add(host);
+        }
+        return entry;
+    }
+
+    @Override
+    public void release(FrontierEntry entry) {
+        String host = entry.host();
+        Integer hostInFlight = inFlight.get(host);
+        if (hostInFlight == null) {
+            throw new IllegalStateException("No URL of " + host + " is in flight");
+        }
+        if (hostInFlight == 1) {
+            inFlight.remove(host);
+        } else {
+            inFlight.put(host, hostInFlight - 1);
+        }
+        if (queues.containsKey(host)) {
+            readyHosts.add(host);
+        }
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public int hostCount() {
+        return queues.size();
+    }
+}
@@ -0,0 +1,287 @@
+package com.webcrawler.crawl;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * Set of already-seen URLs that stores a 64-bit fingerprint per URL in an off-heap
+ * open-addressing table, so deduplicating millions of URLs costs a few bytes of native
+ * memory each instead of a {@code String} and a hash-set node on the heap.
+ *
+ * <p>An optional Bloom filter, also off-heap and built from the same fingerprints, sits in
+ * front of the table and answers most lookups of new URLs without probing the table. The
+ * table grows by doubling once it is {@value #MAX_LOAD_PERCENT}% full, and the Bloom filter
+ * is rebuilt at the matching size so its false-positive rate stays at the configured one.
+ *
+ * <p>Two different URLs with the same fingerprint are treated as the same URL; with n URLs
+ * in the set the chance that a new URL is mistaken for a seen one is about n / 2^64.
+ * URLs must be normalized by the caller. Not thread-safe.
+ */
+public class SeenUrlSet {
+
+    private static final int MAX_LOAD_PERCENT = 70;
+    private static final int MIN_SLOTS = 1024;
+
+    /**
+     * 1 GiB of slots, the largest direct buffer that can be indexed as longs
+     */
+    private static final int MAX_SLOTS = 1 << 27;
+
+    private static final long EMPTY = 0;
+
+    private final double bloomFalsePositiveRate;
+    private LongBuffer table;
+    private int mask;
+    private long size;
+    private BloomFilter bloom;
+
+    private long lookups;
+    private long bloomNegatives;
+    private long bloomFalsePositives;
+
+    /**
+     * @param expectedUrls number of URLs the table and Bloom filter are initially sized for
+     * @param bloomFalsePositiveRate target false-positive rate of the Bloom filter; 0 for no Bloom filter
+     */
+    public SeenUrlSet(long expectedUrls, double bloomFalsePositiveRate) {
+        if (bloomFalsePositiveRate < 0 || bloomFalsePositiveRate >= 1) {
+            throw new IllegalArgumentException("bloomFalsePositiveRate must be in [0, 1)");
+        }
+        this.bloomFalsePositiveRate = bloomFalsePositiveRate;
+        allocate(slotsFor(expectedUrls));
+    }
+
+    /**
+     * Adds a URL
+     *
+     * @return true if the URL was not seen before
+     */
+    public boolean add(String url) {
+        return addFingerprint(fingerprint(url));
+    }
+
+    /**
+     * Adds a URL by its {@link #fingerprint}, as when restoring a set that was saved as fingerprints
+     *
+     * @return true if the fingerprint was not in the set before
+     */
+    public boolean addFingerprint(long fingerprint) {
+        if (fingerprint == EMPTY) {
+            throw new IllegalArgumentException("0 is not a fingerprint");
+        }
+        lookups++;
+        if (bloom != null && !bloom.mightContain(fingerprint)) {
+            bloomNegatives++;
+            insertNew(fingerprint);
+            return true;
+        }
+        int slot = find(fingerprint);
+        if (table.get(slot) == fingerprint) {
+            return false;
+        }
+        if (bloom != null) {
+            bloomFalsePositives++;
+        }
+        insertAt(slot, fingerprint);
+        return true;
+    }
+
+    /**
+     * @return true if the URL was added before
+     */
+    public boolean contains(String url) {
+        long fingerprint = fingerprint(url);
+        if (bloom != null && !bloom.mightContain(fingerprint)) {
+            return false;
+        }
+        return table.get(find(fingerprint)) == fingerprint;
+    }
+
+    /**
+     * @return number of distinct fingerprints in the set
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return native memory held by the table and the Bloom filter, in bytes
+     */
+    public long memoryBytes() {
+        return (long) table.capacity() * Long.BYTES + (bloom != null ? bloom.bytes() : 0);
+    }
+
+    /**
+     * Share of new URLs that the Bloom filter let through to the table, measured over the
+     * adds so far; compare with the configured rate
+     *
+     * @return the measured rate, or 0 without a Bloom filter or before any new URL was added
+     */
+    public double measuredBloomFalsePositiveRate() {
+        long newUrls = bloomNegatives + bloomFalsePositives;
+        return newUrls == 0 ? 0 : (double) bloomFalsePositives / newUrls;
+    }
+
+    /**
+     * @return number of {@link #add} calls so far
+     */
+    public long lookups() {
+        return lookups;
+    }
+
+    /**
+     * 64-bit fingerprint of a URL: a MurmurHash3-style mix of its UTF-16 code units, never 0
+     */
+    public static long fingerprint(String url) {
+        final long c1 = 0x87c37b91114253d5L;
+        final long c2 = 0x4cf5ad432745937fL;
+        int length = url.length();
+        long hash = 0x9e3779b97f4a7c15L;
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            long block = url.charAt(i)
+                    | (long) url.charAt(i + 1) << 16
+                    | (long) url.charAt(i + 2) << 32
+                    | (long) url.charAt(i + 3) << 48;
+            block *= c1;
+            block = Long.rotateLeft(block, 31);
+            block *= c2;
+            hash ^= block;
+            hash = Long.rotateLeft(hash, 27) * 5 + 0x52dce729;
+        }
+        long tail = 0;
+        for (int shift = 0; i < length; i++, shift += 16) {
+            tail |= (long) url.charAt(i) << shift;
+        }
+        tail *= c1;
+        tail = Long.rotateLeft(tail, 31);
+        tail *= c2;
+        hash ^= tail;
+        hash ^= length;
+        hash = mix(hash);
+        return hash != EMPTY ? hash : 1;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * @return the slot holding the fingerprint, or the empty slot where it would go
+     */
+    private int find(long fingerprint) {
+        int slot = (int) fingerprint & mask;
+        while (true) {
+            long stored = table.get(slot);
+            if (stored == EMPTY || stored == fingerprint) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void insertNew(long fingerprint) {
+        int slot = (int) fingerprint & mask;
+        while (table.get(slot) != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        insertAt(slot, fingerprint);
+    }
+
+    private void insertAt(int slot, long fingerprint) {
+        table.put(slot, fingerprint);
+        if (bloom != null) {
+            bloom.add(fingerprint);
+        }
+        size++;
+        if (size * 100 > (long) table.capacity() * MAX_LOAD_PERCENT) {
+            grow();
+        }
+    }
+
+    private void grow() {
+        if (table.capacity() >= MAX_SLOTS) {
+            throw new IllegalStateException("Seen URL set is full at " + size + " URLs");
+        }
+        LongBuffer old = table;
+        allocate(table.capacity() * 2);
+        for (int i = 0; i < old.capacity(); i++) {
+            long fingerprint = old.get(i);
+            if (fingerprint != EMPTY) {
+                int slot = (int) fingerprint & mask;
+                while (table.get(slot) != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                table.put(slot, fingerprint);
+                if (bloom != null) {
+                    bloom.add(fingerprint);
+                }
+            }
+        }
+    }
+
+    private void allocate(int slots) {
+        table = ByteBuffer.allocateDirect(slots * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+        mask = slots - 1;
+        if (bloomFalsePositiveRate > 0) {
+            bloom = new BloomFilter((long) slots * MAX_LOAD_PERCENT / 100, bloomFalsePositiveRate);
+        }
+    }
+
+    private static int slotsFor(long expectedUrls) {
+        long needed = Math.max(MIN_SLOTS, expectedUrls * 100 / MAX_LOAD_PERCENT + 1);
+        if (needed > MAX_SLOTS) {
+            return MAX_SLOTS;
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    /**
+     * Bloom filter over fingerprints, probing k bits derived from the fingerprint's two halves
+     */
+    private static final class BloomFilter {
+        private final LongBuffer bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(long expected, double falsePositiveRate) {
+            long optimalBits = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min(Integer.MAX_VALUE / Long.BYTES, Math.max(1, (optimalBits + 63) / 64));
+            this.bits = ByteBuffer.allocateDirect(words * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+            this.bitCount = (long) words * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expected * Math.log(2)));
+        }
+
+        void add(long fingerprint) {
+            long hash1 = fingerprint & 0xffffffffL;
+            long hash2 = fingerprint >>> 32;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+                int word = (int) (bit >>> 6);
+                bits.put(word, bits.get(word) | 1L << bit);
+            }
+        }
+
+        boolean mightContain(long fingerprint) {
+            long hash1 = fingerprint & 0xffffffffL;
+            long hash2 = fingerprint >>> 32;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & 1L << bit) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long bytes() {
+            return (long) bits.capacity() * Long.BYTES;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.webcrawler.health;
+
+import com.webcrawler.service.JavaScriptRenderer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Reports the JavaScript renderer's state. Static crawling works whatever the renderer is
+ * doing, so the application stays UP (and ready) while browsers are still warming or could
+ * not be started; the details say whether rendering is available yet.
+ */
+@Component("renderer")
+@RequiredArgsConstructor
+public class RendererHealthIndicator implements HealthIndicator {
+
+    private final JavaScriptRenderer javaScriptRenderer;
+
+    @Override
+    public Health health() {
+        JavaScriptRenderer.State state = javaScriptRenderer.getState();
+        return Health.up()
+                .withDetail("staticCrawling", "available")
+                .withDetail("javascriptRendering", state.name().toLowerCase(Locale.ROOT))
+                .build();
+    }
+}
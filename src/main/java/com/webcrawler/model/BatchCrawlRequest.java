@@ -0,0 +1,32 @@
+package com.webcrawler.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request model for crawling several URLs in one call")
+public class BatchCrawlRequest {
+
+    @NotEmpty(message = "At least one URL is required")
+    @Schema(description = "The URLs to crawl", example = "[\"https://example.com\", \"https://example.org\"]")
+    private List<@NotBlank(message = "URL is required")
+            @Pattern(regexp = "^https?://.*", message = "URL must start with http:// or https://") String> urls;
+
+    @Positive(message = "Timeout must be positive")
+    @Schema(description = "Deadline for the whole batch in milliseconds (server default if omitted)", example = "30000")
+    private Long timeoutMs;
+
+    public BatchCrawlRequest(List<String> urls) {
+        this.urls = urls;
+    }
+}
@@ -0,0 +1,32 @@
+package com.webcrawler.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Response model containing the results of a batch crawl")
+public class BatchCrawlResponse {
+
+    @Schema(description = "Number of URLs in the batch", example = "2")
+    private Integer total;
+
+    @Schema(description = "Number of URLs crawled successfully", example = "1")
+    private Integer succeeded;
+
+    @Schema(description = "Number of URLs that failed or missed the batch deadline", example = "1")
+    private Integer failed;
+
+    @Schema(description = "Time taken by the whole batch in milliseconds", example = "1532")
+    private Long durationMs;
+
+    @Schema(description = "Per-URL crawl results, in the same order as the request")
+    private List<CrawlResponse> results;
+}
@@ -0,0 +1,41 @@
+package com.webcrawler.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Fields of the crawl result data that a request can ask for
+ */
+public enum CrawlField {
+    TITLE("title", true),
+    DESCRIPTION("description", true),
+    TEXT_CONTENT("textContent", true),
+    HTML_LENGTH("htmlLength", true),
+    H1_TAGS("h1Tags", true),
+    /**
+     * Outlinks of the page; only returned when requested, as there can be thousands
+     */
+    LINKS("links", false);
+
+    private final String key;
+    private final boolean includedByDefault;
+
+    CrawlField(String key, boolean includedByDefault) {
+        this.key = key;
+        this.includedByDefault = includedByDefault;
+    }
+
+    /**
+     * @return the name of the field in the response data and in requests
+     */
+    @JsonValue
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return whether the field is extracted for requests that do not list any fields
+     */
+    public boolean isIncludedByDefault() {
+        return includedByDefault;
+    }
+}
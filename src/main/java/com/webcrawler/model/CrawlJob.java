@@ -0,0 +1,35 @@
+package com.webcrawler.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "State of an asynchronous crawl job")
+public class CrawlJob {
+
+    @Schema(description = "Identifier used to poll for the job", example = "3f6c1c1e-4a8e-4f57-a8d5-2c1f5b9d8a10")
+    private String jobId;
+
+    @Schema(description = "The URL being crawled", example = "https://example.com")
+    private String url;
+
+    @Schema(description = "Current job status")
+    private CrawlJobStatus status;
+
+    @Schema(description = "Timestamp when the job was submitted")
+    private LocalDateTime submittedAt;
+
+    @Schema(description = "Timestamp when the job finished")
+    private LocalDateTime completedAt;
+
+    @Schema(description = "Crawl result, present once the job has finished")
+    private CrawlResponse result;
+}
@@ -0,0 +1,12 @@
+package com.webcrawler.model;
+
+/**
+ * Lifecycle states of an asynchronous crawl job or site crawl
+ */
+public enum CrawlJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
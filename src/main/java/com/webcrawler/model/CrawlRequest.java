@@ -7,6 +7,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Set;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,4 +19,57 @@ public class CrawlRequest {
     @Pattern(regexp = "^https?://.*", message = "URL must start with http:// or https://")
     @Schema(description = "The URL to crawl", example = "https://example.com")
     private String url;
+
+    @Schema(description = "Data fields to extract; all fields except links when omitted", example = "[\"title\", \"h1Tags\"]")
+    private Set<CrawlField> fields;
+
+    @Schema(description = "Whether to classify the content; defaults to true", example = "false")
+    private Boolean classify;
+
+    @Schema(description = "Priority of the JavaScript render if the page needs one; defaults to normal", example = "high")
+    private RenderPriority renderPriority;
+
+    @Schema(description = "Whether to check a fresh cached result with the site instead of serving it; defaults to false",
+            example = "true")
+    private Boolean revalidate;
+
+    public CrawlRequest(String url) {
+        this.url = url;
+    }
+
+    public CrawlRequest(String url, Set<CrawlField> fields, Boolean classify) {
+        this(url, fields, classify, null);
+    }
+
+    public CrawlRequest(String url, Set<CrawlField> fields, Boolean classify, RenderPriority renderPriority) {
+        this(url, fields, classify, renderPriority, null);
+    }
+
+    /**
+     * Checks whether the given data field should be extracted
+     */
+    public boolean wantsField(CrawlField field) {
+        return fields == null ? field.isIncludedByDefault() : fields.contains(field);
+    }
+
+    /**
+     * Checks whether content classification should run
+     */
+    public boolean wantsClassification() {
+        return classify == null || classify;
+    }
+
+    /**
+     * Checks whether a fresh cached result must be revalidated rather than served
+     */
+    public boolean wantsRevalidation() {
+        return revalidate != null && revalidate;
+    }
+
+    /**
+     * @return the requested render priority, or normal if none was given
+     */
+    public RenderPriority effectiveRenderPriority() {
+        return renderPriority != null ? renderPriority : RenderPriority.NORMAL;
+    }
 }
@@ -1,5 +1,6 @@
 package com.webcrawler.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
@@ -34,6 +35,7 @@ public class CrawlResponse {
     @Schema(description = "Parsed crawler result in unified schema format")
     private JsonNode data;
 
-    @Schema(description = "Content classification including category and language")
+    @Schema(description = "Content classification including category and language; omitted when not requested")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private ContentClassification classification;
 }
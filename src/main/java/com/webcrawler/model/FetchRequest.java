@@ -0,0 +1,45 @@
+package com.webcrawler.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Model for an outbound HTTP GET issued by the fetch layer
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FetchRequest {
+
+    /**
+     * URL to fetch
+     */
+    private String url;
+
+    /**
+     * Additional request headers
+     */
+    private Map<String, String> headers;
+
+    /**
+     * Follow HTTP redirects
+     */
+    @Builder.Default
+    private boolean followRedirects = true;
+
+    /**
+     * Request timeout in milliseconds
+     */
+    @Builder.Default
+    private int timeoutMs = 30000;
+
+    /**
+     * Maximum number of body bytes to read, 0 for unlimited
+     */
+    private int maxBodySize;
+}
@@ -0,0 +1,74 @@
+package com.webcrawler.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.net.http.HttpHeaders;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+
+/**
+ * Model for the result of an outbound HTTP GET
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FetchResponse {
+
+    /**
+     * Final URL after redirects
+     */
+    private String url;
+
+    /**
+     * HTTP status code of the final response
+     */
+    private int statusCode;
+
+    /**
+     * Response headers
+     */
+    private HttpHeaders headers;
+
+    /**
+     * Decoded (decompressed) body, possibly truncated to the requested maximum size
+     */
+    private byte[] body;
+
+    /**
+     * Gets the first value of a response header, ignoring case
+     *
+     * @param name the header name
+     * @return the header value, or null if absent
+     */
+    public String header(String name) {
+        return headers != null ? headers.firstValue(name).orElse(null) : null;
+    }
+
+    /**
+     * Gets the charset declared in the Content-Type header
+     *
+     * @return the charset name, or null if none (or an unsupported one) was declared
+     */
+    public String charset() {
+        String contentType = header("Content-Type");
+        if (contentType == null) {
+            return null;
+        }
+        for (String part : contentType.split(";")) {
+            String trimmed = part.trim();
+            if (trimmed.regionMatches(true, 0, "charset=", 0, "charset=".length())) {
+                String charset = trimmed.substring("charset=".length()).replace("\"", "").trim();
+                try {
+                    return Charset.isSupported(charset) ? charset : null;
+                } catch (IllegalCharsetNameException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,44 @@
+package com.webcrawler.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A URL registered for recrawling, with its change history and latest result")
+public class RecrawlUrl {
+
+    @Schema(description = "The registered URL", example = "https://example.com/news")
+    private String url;
+
+    @Schema(description = "Successful recrawls compared with the previous content", example = "42")
+    private Integer recrawls;
+
+    @Schema(description = "Recrawls whose extracted data differed from the previous one", example = "7")
+    private Long changes;
+
+    @Schema(description = "Estimated number of content changes per day", example = "4.2")
+    private Double changesPerDay;
+
+    @Schema(description = "Expected time the stored result has been out of date (milliseconds)", example = "1800000")
+    private Long expectedStalenessMs;
+
+    @Schema(description = "Timestamp of the last successful crawl")
+    private LocalDateTime lastCrawledAt;
+
+    @Schema(description = "Timestamp of the first crawl or of the last one that found changed data")
+    private LocalDateTime lastChangedAt;
+
+    @Schema(description = "Error description if the last recrawl failed")
+    private String lastError;
+
+    @Schema(description = "Result of the last successful crawl")
+    private CrawlResponse result;
+}
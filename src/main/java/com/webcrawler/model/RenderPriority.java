@@ -0,0 +1,26 @@
+package com.webcrawler.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Priority of a crawl's JavaScript render in the render queue; higher priorities start first
+ */
+public enum RenderPriority {
+    HIGH("high"),
+    NORMAL("normal"),
+    LOW("low");
+
+    private final String key;
+
+    RenderPriority(String key) {
+        this.key = key;
+    }
+
+    /**
+     * @return the name of the priority in requests
+     */
+    @JsonValue
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,54 @@
+package com.webcrawler.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "State and progress of a site crawl")
+public class SiteCrawlJob {
+
+    @Schema(description = "Identifier used to poll for the crawl", example = "3f6c1c1e-4a8e-4f57-a8d5-2c1f5b9d8a10")
+    private String jobId;
+
+    @Schema(description = "URLs the crawl started from")
+    private List<String> seeds;
+
+    @Schema(description = "Current crawl status")
+    private CrawlJobStatus status;
+
+    @Schema(description = "Timestamp when the crawl was submitted")
+    private LocalDateTime submittedAt;
+
+    @Schema(description = "Timestamp when the crawl finished")
+    private LocalDateTime completedAt;
+
+    @Schema(description = "Pages crawled successfully", example = "120")
+    private Long pagesCrawled;
+
+    @Schema(description = "Pages whose crawl failed", example = "3")
+    private Long pagesFailed;
+
+    @Schema(description = "Distinct in-scope URLs admitted to the frontier, seeds included", example = "480")
+    private Long urlsDiscovered;
+
+    @Schema(description = "URLs skipped because they are out of scope or disallowed by robots.txt", example = "57")
+    private Long urlsRejected;
+
+    @Schema(description = "URLs waiting in the frontier", example = "357")
+    private Long urlsQueued;
+
+    @Schema(description = "Hosts with URLs waiting in the frontier", example = "2")
+    private Integer hostsQueued;
+
+    @Schema(description = "Error description if the crawl failed")
+    private String message;
+}
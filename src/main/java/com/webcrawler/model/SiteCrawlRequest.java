@@ -0,0 +1,64 @@
+package com.webcrawler.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request model for crawling a site recursively from seed URLs")
+public class SiteCrawlRequest {
+
+    @NotEmpty(message = "At least one seed URL is required")
+    @Schema(description = "URLs the crawl starts from", example = "[\"https://example.com\"]")
+    private List<@NotBlank(message = "URL is required")
+            @Pattern(regexp = "^https?://.*", message = "URL must start with http:// or https://") String> seeds;
+
+    @PositiveOrZero(message = "Max depth must not be negative")
+    @Schema(description = "Links followed from a seed at most (server default if omitted); 0 crawls only the seeds", example = "2")
+    private Integer maxDepth;
+
+    @Positive(message = "Max pages must be positive")
+    @Schema(description = "Pages crawled at most (server default if omitted)", example = "500")
+    private Integer maxPages;
+
+    @Schema(description = "Regular expressions; if given, a discovered URL is only crawled if it matches one",
+            example = "[\"^https://example\\\\.com/docs/\"]")
+    private List<String> includePatterns;
+
+    @Schema(description = "Regular expressions; a discovered URL matching any of them is not crawled",
+            example = "[\"\\\\.pdf$\", \"/login\"]")
+    private List<String> excludePatterns;
+
+    @Schema(description = "Only follow links to the seeds' hosts; defaults to true", example = "true")
+    private Boolean stayOnSeedHosts;
+
+    @Schema(description = "Data fields to extract per page; all fields except links when omitted", example = "[\"title\", \"h1Tags\"]")
+    private Set<CrawlField> fields;
+
+    @Schema(description = "Whether to classify each page; defaults to true", example = "false")
+    private Boolean classify;
+
+    public SiteCrawlRequest(List<String> seeds) {
+        this.seeds = seeds;
+    }
+
+    /**
+     * Checks whether links to hosts other than the seeds' are ignored
+     */
+    public boolean staysOnSeedHosts() {
+        return stayOnSeedHosts == null || stayOnSeedHosts;
+    }
+}
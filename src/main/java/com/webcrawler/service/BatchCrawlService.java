@@ -0,0 +1,45 @@
+package com.webcrawler.service;
+
+import com.webcrawler.model.BatchCrawlResponse;
+import com.webcrawler.model.CrawlResponse;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Interface for crawling several URLs concurrently
+ */
+public interface BatchCrawlService {
+
+    /**
+     * Crawls all URLs concurrently and returns their results in input order.
+     * URLs that do not finish before the batch deadline are reported as failed.
+     *
+     * @param urls the URLs to crawl
+     * @param timeoutMs deadline for the whole batch in milliseconds, or null for the configured default
+     * @return BatchCrawlResponse containing one result per URL
+     * @throws IllegalArgumentException if the batch exceeds the configured maximum size
+     */
+    BatchCrawlResponse crawlBatch(List<String> urls, Long timeoutMs);
+
+    /**
+     * Crawls all URLs concurrently and hands each result to the sink as soon as it completes.
+     * Only a bounded window of crawls runs ahead of the sink, so a slow consumer slows the crawl
+     * down instead of letting results pile up in memory. URLs that do not finish before the
+     * deadline are reported to the sink as failed at the end.
+     *
+     * @param urls the URLs to crawl
+     * @param timeoutMs deadline for the whole batch in milliseconds, or null for the configured default
+     * @param sink receives one result per URL, in completion order, always from the calling thread
+     * @throws IllegalArgumentException if the batch exceeds the configured maximum size
+     */
+    void crawlStream(List<String> urls, Long timeoutMs, Consumer<CrawlResponse> sink);
+
+    /**
+     * Validates a batch before any crawling starts
+     *
+     * @param urls the URLs of the batch
+     * @throws IllegalArgumentException if the batch exceeds the configured maximum size
+     */
+    void checkBatchSize(List<String> urls);
+}
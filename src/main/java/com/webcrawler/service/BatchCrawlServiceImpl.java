@@ -0,0 +1,195 @@
+package com.webcrawler.service;
+
+import com.webcrawler.config.BatchCrawlConfig;
+import com.webcrawler.config.JsoupConfig;
+import com.webcrawler.model.BatchCrawlResponse;
+import com.webcrawler.model.CrawlResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of BatchCrawlService that fans out to CrawlerService on virtual threads.
+ * A per-batch semaphore caps how many URLs are crawled at once, and a single deadline
+ * bounds the whole batch so one slow URL cannot hold up the others. robots.txt for every
+ * host in the batch is prefetched up front, so crawls do not each wait on it.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class BatchCrawlServiceImpl implements BatchCrawlService {
+
+    private static final String DEADLINE_NOT_STARTED = "Crawl did not start before the batch deadline";
+    private static final String DEADLINE_NOT_COMPLETED = "Crawl did not complete within the batch deadline";
+
+    private final CrawlerService crawlerService;
+    private final RobotsTxtService robotsTxtService;
+    private final JsoupConfig jsoupConfig;
+    private final BatchCrawlConfig batchCrawlConfig;
+
+    @Override
+    public BatchCrawlResponse crawlBatch(List<String> urls, Long timeoutMs) {
+        checkBatchSize(urls);
+
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(resolveTimeout(timeoutMs));
+        log.info("Crawling batch of {} URLs with concurrency {}", urls.size(), batchCrawlConfig.getMaxConcurrency());
+        robotsTxtService.prefetch(urls, jsoupConfig.getUserAgent());
+
+        Semaphore permits = new Semaphore(batchCrawlConfig.getMaxConcurrency());
+        ExecutorService executor = newExecutor();
+        List<CrawlResponse> results = new ArrayList<>(urls.size());
+
+        try {
+            List<Future<CrawlResponse>> futures = new ArrayList<>(urls.size());
+            for (String url : urls) {
+                futures.add(executor.submit(() -> crawlWithPermit(url, permits, deadlineNanos)));
+            }
+            for (int i = 0; i < urls.size(); i++) {
+                results.add(awaitResult(urls.get(i), futures.get(i), deadlineNanos));
+            }
+        } finally {
+            // Interrupt anything still running; don't wait for it, the deadline has passed
+            executor.shutdownNow();
+        }
+
+        int succeeded = (int) results.stream().filter(r -> Boolean.TRUE.equals(r.getSuccess())).count();
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        log.info("Batch crawl finished: {} succeeded, {} failed in {} ms", succeeded, urls.size() - succeeded, durationMs);
+
+        return BatchCrawlResponse.builder()
+                .total(urls.size())
+                .succeeded(succeeded)
+                .failed(urls.size() - succeeded)
+                .durationMs(durationMs)
+                .results(results)
+                .build();
+    }
+
+    @Override
+    public void crawlStream(List<String> urls, Long timeoutMs, Consumer<CrawlResponse> sink) {
+        checkBatchSize(urls);
+
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(resolveTimeout(timeoutMs));
+        log.info("Streaming crawl of {} URLs with concurrency {}", urls.size(), batchCrawlConfig.getMaxConcurrency());
+        robotsTxtService.prefetch(urls, jsoupConfig.getUserAgent());
+
+        ExecutorService executor = newExecutor();
+        CompletionService<CrawlResponse> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<CrawlResponse>, String> inFlight = new LinkedHashMap<>();
+        Iterator<String> pending = urls.iterator();
+
+        try {
+            // Only a window of maxConcurrency crawls runs ahead of the sink; a new crawl starts
+            // once a finished result has been handed over, so a slow consumer throttles the crawl
+            while (inFlight.size() < batchCrawlConfig.getMaxConcurrency() && pending.hasNext()) {
+                String url = pending.next();
+                inFlight.put(completionService.submit(() -> crawlerService.crawl(url)), url);
+            }
+
+            while (!inFlight.isEmpty()) {
+                long remaining = deadlineNanos - System.nanoTime();
+                Future<CrawlResponse> done = remaining > 0
+                        ? completionService.poll(remaining, TimeUnit.NANOSECONDS)
+                        : completionService.poll();
+                if (done == null) {
+                    break;
+                }
+                String url = inFlight.remove(done);
+                sink.accept(awaitResult(url, done, deadlineNanos));
+
+                if (pending.hasNext() && System.nanoTime() < deadlineNanos) {
+                    String next = pending.next();
+                    inFlight.put(completionService.submit(() -> crawlerService.crawl(next)), next);
+                }
+            }
+
+            for (String url : inFlight.values()) {
+                log.warn("Batch deadline exceeded for URL: {}", url);
+                sink.accept(failure(url, DEADLINE_NOT_COMPLETED));
+            }
+            pending.forEachRemaining(url -> sink.accept(failure(url, DEADLINE_NOT_STARTED)));
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Streaming crawl interrupted with {} URLs in flight", inFlight.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private CrawlResponse crawlWithPermit(String url, Semaphore permits, long deadlineNanos) throws InterruptedException {
+        long remaining = deadlineNanos - System.nanoTime();
+        if (remaining <= 0 || !permits.tryAcquire(remaining, TimeUnit.NANOSECONDS)) {
+            return failure(url, DEADLINE_NOT_STARTED);
+        }
+        try {
+            return crawlerService.crawl(url);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private CrawlResponse awaitResult(String url, Future<CrawlResponse> future, long deadlineNanos) {
+        try {
+            long remaining = Math.max(0, deadlineNanos - System.nanoTime());
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Batch deadline exceeded for URL: {}", url);
+            return failure(url, DEADLINE_NOT_COMPLETED);
+        } catch (ExecutionException e) {
+            log.error("Failed to crawl URL in batch: {}", url, e.getCause());
+            return failure(url, "Failed to crawl URL: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return failure(url, "Batch crawl interrupted");
+        }
+    }
+
+    @Override
+    public void checkBatchSize(List<String> urls) {
+        if (urls.size() > batchCrawlConfig.getMaxUrls()) {
+            throw new IllegalArgumentException("Batch exceeds the maximum of " + batchCrawlConfig.getMaxUrls() + " URLs");
+        }
+    }
+
+    private ExecutorService newExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("batch-crawl-", 0).factory());
+    }
+
+    private long resolveTimeout(Long timeoutMs) {
+        if (timeoutMs == null) {
+            return batchCrawlConfig.getTimeoutMs();
+        }
+        return Math.min(timeoutMs, batchCrawlConfig.getMaxTimeoutMs());
+    }
+
+    private CrawlResponse failure(String url, String message) {
+        return CrawlResponse.builder()
+                .url(url)
+                .success(false)
+                .timestamp(LocalDateTime.now())
+                .message(message)
+                .data(null)
+                .build();
+    }
+}
@@ -0,0 +1,201 @@
+package com.webcrawler.service;
+
+import com.webcrawler.config.SeleniumConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of browser instances for rendering pages in parallel.
+ *
+ * <p>At most {@code poolMaxSize} browsers exist at once; a borrower waits up to
+ * {@code borrowTimeoutMs} for one. Idle browsers are health-checked before they are
+ * handed out, and a browser is quit and replaced after {@code maxRendersPerBrowser}
+ * renders, when its JavaScript heap exceeds {@code maxBrowserHeapMb}, or when a
+ * render reports it broken, so leaks in long-lived Chrome processes do not build up.
+ */
+@Slf4j
+final class BrowserPool {
+
+    private static final String HEAP_SIZE_SCRIPT =
+            "return window.performance && performance.memory ? performance.memory.usedJSHeapSize : 0";
+
+    private final SeleniumConfig seleniumConfig;
+    private final Supplier<WebDriver> driverFactory;
+
+    /**
+     * One permit per browser that may be borrowed; idle plus borrowed browsers never exceed the max size
+     */
+    private final Semaphore capacity;
+
+    /**
+     * Idle browsers, most recently used first
+     */
+    private final LinkedBlockingDeque<Browser> idle = new LinkedBlockingDeque<>();
+    private volatile boolean closed;
+
+    BrowserPool(SeleniumConfig seleniumConfig, Supplier<WebDriver> driverFactory) {
+        this.seleniumConfig = seleniumConfig;
+        this.driverFactory = driverFactory;
+        this.capacity = new Semaphore(seleniumConfig.getPoolMaxSize(), true);
+    }
+
+    /**
+     * A pooled browser, handed out by {@link #borrow()} and returned with {@link #release}
+     */
+    static final class Browser {
+        private final WebDriver driver;
+        private final RequestInterceptor requestInterceptor;
+        private int renders;
+
+        private Browser(WebDriver driver, RequestInterceptor requestInterceptor) {
+            this.driver = driver;
+            this.requestInterceptor = requestInterceptor;
+        }
+
+        WebDriver driver() {
+            return driver;
+        }
+
+        /**
+         * @return the browser's request interceptor, or null if requests are not intercepted
+         */
+        RequestInterceptor requestInterceptor() {
+            return requestInterceptor;
+        }
+    }
+
+    /**
+     * Starts the minimum number of browsers up front
+     *
+     * @throws RuntimeException if a browser cannot be started
+     */
+    void start() {
+        int minSize = Math.min(seleniumConfig.getPoolMinSize(), seleniumConfig.getPoolMaxSize());
+        for (int i = 0; i < minSize; i++) {
+            idle.offerLast(newBrowser());
+        }
+        log.info("Browser pool started with {} browsers (max {})", minSize, seleniumConfig.getPoolMaxSize());
+    }
+
+    /**
+     * Takes a healthy browser, starting one if none is idle
+     *
+     * @throws IllegalStateException if the pool is closed or no browser frees up within the borrow timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    Browser borrow() throws InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("Browser pool is closed");
+        }
+        if (!capacity.tryAcquire(seleniumConfig.getBorrowTimeoutMs(), TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("No browser available within " + seleniumConfig.getBorrowTimeoutMs() + " ms");
+        }
+        try {
+            Browser browser;
+            while ((browser = idle.pollFirst()) != null) {
+                if (isHealthy(browser)) {
+                    return browser;
+                }
+                log.warn("Discarding unresponsive browser from pool");
+                quit(browser);
+            }
+            return newBrowser();
+        } catch (RuntimeException | Error e) {
+            capacity.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a borrowed browser to the pool, or quits it if it is due for recycling
+     *
+     * @param browser the browser from {@link #borrow()}
+     * @param broken true if the render failed in a way that may have left the browser unusable
+     */
+    void release(Browser browser, boolean broken) {
+        try {
+            browser.renders++;
+            if (closed || broken || shouldRecycle(browser)) {
+                quit(browser);
+            } else {
+                idle.offerFirst(browser);
+                if (closed && idle.remove(browser)) {
+                    quit(browser);
+                }
+            }
+        } finally {
+            capacity.release();
+        }
+    }
+
+    /**
+     * Quits idle browsers; borrowed ones are quit when they are released
+     */
+    void close() {
+        closed = true;
+        Browser browser;
+        while ((browser = idle.pollFirst()) != null) {
+            quit(browser);
+        }
+    }
+
+    int getIdleCount() {
+        return idle.size();
+    }
+
+    int getBorrowedCount() {
+        return seleniumConfig.getPoolMaxSize() - capacity.availablePermits();
+    }
+
+    private Browser newBrowser() {
+        WebDriver driver = driverFactory.get();
+        return new Browser(driver, RequestInterceptor.attach(driver, seleniumConfig));
+    }
+
+    private boolean shouldRecycle(Browser browser) {
+        if (browser.renders >= seleniumConfig.getMaxRendersPerBrowser()) {
+            log.debug("Recycling browser after {} renders", browser.renders);
+            return true;
+        }
+        long maxHeapMb = seleniumConfig.getMaxBrowserHeapMb();
+        if (maxHeapMb > 0 && browser.driver instanceof JavascriptExecutor js) {
+            try {
+                Object heapBytes = js.executeScript(HEAP_SIZE_SCRIPT);
+                if (heapBytes instanceof Number number && number.longValue() > maxHeapMb * 1024 * 1024) {
+                    log.info("Recycling browser using {} MB of JavaScript heap", number.longValue() / (1024 * 1024));
+                    return true;
+                }
+            } catch (RuntimeException e) {
+                log.debug("Could not read browser heap size: {}", e.getMessage());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isHealthy(Browser browser) {
+        try {
+            browser.driver.getWindowHandle();
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void quit(Browser browser) {
+        if (browser.requestInterceptor != null) {
+            browser.requestInterceptor.close();
+        }
+        try {
+            browser.driver.quit();
+        } catch (RuntimeException e) {
+            log.warn("Error closing browser: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.webcrawler.service;
+
+import com.webcrawler.model.CrawlJob;
+import com.webcrawler.model.CrawlRequest;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface for running crawls asynchronously as jobs
+ */
+public interface CrawlJobService {
+
+    /**
+     * Queues a crawl and returns immediately
+     *
+     * @param request the crawl request
+     * @return the newly created job in PENDING state
+     * @throws java.util.concurrent.RejectedExecutionException if the job queue is full
+     */
+    CrawlJob submit(CrawlRequest request);
+
+    /**
+     * Gets the current state of a job
+     *
+     * @param jobId the job identifier
+     * @return the job, or empty if it is unknown or has expired
+     */
+    Optional<CrawlJob> getJob(String jobId);
+
+    /**
+     * Waits for a job to finish without blocking the caller's thread
+     *
+     * @param jobId the job identifier
+     * @param waitMs how long to wait for completion, capped by configuration
+     * @return a future completing with the finished job, or with its current state once the wait elapses;
+     *         empty if the job is unknown or has expired
+     */
+    Optional<CompletableFuture<CrawlJob>> awaitJob(String jobId, long waitMs);
+}
@@ -0,0 +1,148 @@
+package com.webcrawler.service;
+
+import com.webcrawler.config.CrawlJobConfig;
+import com.webcrawler.model.CrawlJob;
+import com.webcrawler.model.CrawlJobStatus;
+import com.webcrawler.model.CrawlRequest;
+import com.webcrawler.model.CrawlResponse;
+import com.webcrawler.util.ExpiringLruCache;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of CrawlJobService backed by a bounded thread pool and an
+ * in-memory job store with a size limit and expiry
+ */
+@Service
+@Slf4j
+public class CrawlJobServiceImpl implements CrawlJobService {
+
+    private final CrawlerService crawlerService;
+    private final CrawlJobConfig crawlJobConfig;
+    private final ThreadPoolExecutor executor;
+    private final ExpiringLruCache<String, JobEntry> jobs;
+
+    public CrawlJobServiceImpl(CrawlerService crawlerService, CrawlJobConfig crawlJobConfig) {
+        this.crawlerService = crawlerService;
+        this.crawlJobConfig = crawlJobConfig;
+        this.jobs = new ExpiringLruCache<>(crawlJobConfig.getMaxStoredJobs());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                crawlJobConfig.getPoolSize(),
+                crawlJobConfig.getPoolSize(),
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(crawlJobConfig.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "crawl-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public CrawlJob submit(CrawlRequest request) {
+        JobEntry entry = new JobEntry(UUID.randomUUID().toString(), request);
+        // Rejects with RejectedExecutionException before the job becomes visible
+        executor.execute(() -> run(entry));
+        jobs.put(entry.jobId, entry, resultTtl());
+        log.info("Submitted crawl job {} for URL: {}", entry.jobId, entry.url);
+        return entry.snapshot();
+    }
+
+    @Override
+    public Optional<CrawlJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(JobEntry::snapshot);
+    }
+
+    @Override
+    public Optional<CompletableFuture<CrawlJob>> awaitJob(String jobId, long waitMs) {
+        JobEntry entry = jobs.get(jobId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        long boundedWait = Math.max(0, Math.min(waitMs, crawlJobConfig.getMaxWaitMs()));
+        // Work on a copy so the timeout does not complete the shared future for other waiters
+        return Optional.of(entry.completion.copy()
+                .completeOnTimeout(null, boundedWait, TimeUnit.MILLISECONDS)
+                .thenApply(ignored -> entry.snapshot()));
+    }
+
+    private void run(JobEntry entry) {
+        entry.status = CrawlJobStatus.RUNNING;
+        try {
+            CrawlResponse response = crawlerService.crawl(entry.request);
+            entry.finish(CrawlJobStatus.COMPLETED, response);
+        } catch (Exception e) {
+            log.error("Crawl job {} failed for URL: {}", entry.jobId, entry.url, e);
+            entry.finish(CrawlJobStatus.FAILED, CrawlResponse.builder()
+                    .url(entry.url)
+                    .success(false)
+                    .timestamp(LocalDateTime.now())
+                    .message("Failed to crawl URL: " + e.getMessage())
+                    .data(null)
+                    .build());
+        }
+        // Restart the expiry clock so the result is kept for the full TTL after completion
+        jobs.put(entry.jobId, entry, resultTtl());
+    }
+
+    private Duration resultTtl() {
+        return Duration.ofMillis(crawlJobConfig.getResultTtlMs());
+    }
+
+    /**
+     * Mutable job state shared between the worker and status readers
+     */
+    private static class JobEntry {
+        final String jobId;
+        final CrawlRequest request;
+        final String url;
+        final LocalDateTime submittedAt = LocalDateTime.now();
+        final CompletableFuture<Void> completion = new CompletableFuture<>();
+        volatile CrawlJobStatus status = CrawlJobStatus.PENDING;
+        volatile LocalDateTime completedAt;
+        volatile CrawlResponse result;
+
+        JobEntry(String jobId, CrawlRequest request) {
+            this.jobId = jobId;
+            this.request = request;
+            this.url = request.getUrl();
+        }
+
+        void finish(CrawlJobStatus finalStatus, CrawlResponse response) {
+            result = response;
+            completedAt = LocalDateTime.now();
+            status = finalStatus;
+            completion.complete(null);
+        }
+
+        CrawlJob snapshot() {
+            return CrawlJob.builder()
+                    .jobId(jobId)
+                    .url(url)
+                    .status(status)
+                    .submittedAt(submittedAt)
+                    .completedAt(completedAt)
+                    .result(result)
+                    .build();
+        }
+    }
+}
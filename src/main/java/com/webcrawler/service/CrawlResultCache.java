@@ -0,0 +1,245 @@
+package com.webcrawler.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.webcrawler.config.CrawlCacheConfig;
+import com.webcrawler.model.ContentClassification;
+import com.webcrawler.model.CrawlField;
+import com.webcrawler.model.CrawlRequest;
+import com.webcrawler.model.CrawlResponse;
+import com.webcrawler.util.ExpiringLruCache;
+import com.webcrawler.util.UrlNormalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Bounded cache of extracted crawl results together with their HTTP validators
+ * (ETag, Last-Modified) and Cache-Control freshness, so recrawls can be served
+ * without a request while fresh and with a conditional request afterwards.
+ */
+@Component
+@Slf4j
+public class CrawlResultCache {
+
+    private final CrawlCacheConfig cacheConfig;
+    private final Clock clock;
+    private final ExpiringLruCache<String, CachedPage> pages;
+    private final Counter freshHits;
+    private final Counter revalidations;
+    private final Counter misses;
+
+    @Autowired
+    public CrawlResultCache(CrawlCacheConfig cacheConfig, MeterRegistry meterRegistry) {
+        this(cacheConfig, meterRegistry, Clock.systemUTC());
+    }
+
+    CrawlResultCache(CrawlCacheConfig cacheConfig, MeterRegistry meterRegistry, Clock clock) {
+        this.cacheConfig = cacheConfig;
+        this.clock = clock;
+        this.pages = new ExpiringLruCache<>(cacheConfig.getMaxEntries(), clock);
+        this.freshHits = Counter.builder("crawler.cache.requests").tag("result", "fresh")
+                .description("Crawls answered by the result cache").register(meterRegistry);
+        this.revalidations = Counter.builder("crawler.cache.requests").tag("result", "not_modified")
+                .description("Crawls answered by the result cache after a 304 revalidation").register(meterRegistry);
+        this.misses = Counter.builder("crawler.cache.requests").tag("result", "miss")
+                .description("Crawls that had to download and parse the page").register(meterRegistry);
+    }
+
+    /**
+     * Looks up the cached page for a URL
+     *
+     * @param url the URL being crawled
+     * @return the cached page (fresh or stale), or null if none is cached
+     */
+    public CachedPage get(String url) {
+        if (!cacheConfig.isEnabled()) {
+            return null;
+        }
+        return pages.get(UrlNormalizer.normalize(url));
+    }
+
+    /**
+     * Checks whether a cached page may be served without contacting the server
+     */
+    public boolean isFresh(CachedPage page) {
+        return clock.millis() < page.freshUntilMillis;
+    }
+
+    /**
+     * Records that a cached page was served directly
+     */
+    public void recordFreshHit() {
+        freshHits.increment();
+    }
+
+    /**
+     * Records that a page had to be downloaded and parsed in full
+     */
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    /**
+     * Stores a successful crawl result with its response validators and the projection it was extracted with.
+     * Responses marked no-store, or with neither validators nor freshness, are not cached.
+     */
+    public void put(CrawlRequest request, CrawlResponse response, String etag, String lastModified, String cacheControl) {
+        if (!cacheConfig.isEnabled() || hasDirective(cacheControl, "no-store")) {
+            return;
+        }
+        long freshness = freshnessMillis(cacheControl);
+        if (etag == null && lastModified == null && freshness <= 0) {
+            return;
+        }
+        Set<CrawlField> fields = EnumSet.noneOf(CrawlField.class);
+        for (CrawlField field : CrawlField.values()) {
+            if (request.wantsField(field)) {
+                fields.add(field);
+            }
+        }
+        CachedPage page = new CachedPage(response.getStatusCode(), etag, lastModified,
+                clock.millis() + freshness, fields, response.getData(), response.getClassification(),
+                response.getTimestamp());
+        pages.put(UrlNormalizer.normalize(request.getUrl()), page, Duration.ofMillis(cacheConfig.getRetentionMs()));
+    }
+
+    /**
+     * Refreshes a cached page after the server answered 304 Not Modified
+     *
+     * @return the refreshed page, whose extraction can be reused as is
+     */
+    public CachedPage revalidated(String url, CachedPage page, String etag, String lastModified, String cacheControl) {
+        revalidations.increment();
+        CachedPage refreshed = new CachedPage(page.statusCode,
+                etag != null ? etag : page.etag,
+                lastModified != null ? lastModified : page.lastModified,
+                clock.millis() + freshnessMillis(cacheControl),
+                page.fields, page.data, page.classification, LocalDateTime.now(clock));
+        pages.put(UrlNormalizer.normalize(url), refreshed, Duration.ofMillis(cacheConfig.getRetentionMs()));
+        return refreshed;
+    }
+
+    private long freshnessMillis(String cacheControl) {
+        if (hasDirective(cacheControl, "no-cache")) {
+            return 0;
+        }
+        long maxAgeMillis = cacheConfig.getDefaultMaxAgeMs();
+        if (cacheControl != null) {
+            for (String directive : cacheControl.split(",")) {
+                String trimmed = directive.trim().toLowerCase(Locale.ROOT);
+                if (trimmed.startsWith("max-age=")) {
+                    try {
+                        maxAgeMillis = Long.parseLong(trimmed.substring("max-age=".length()).replace("\"", "")) * 1000;
+                    } catch (NumberFormatException e) {
+                        log.debug("Ignoring invalid Cache-Control max-age: {}", cacheControl);
+                    }
+                }
+            }
+        }
+        return Math.max(0, Math.min(maxAgeMillis, cacheConfig.getMaxFreshnessMs()));
+    }
+
+    private boolean hasDirective(String cacheControl, String directive) {
+        if (cacheControl == null) {
+            return false;
+        }
+        for (String part : cacheControl.split(",")) {
+            if (part.trim().toLowerCase(Locale.ROOT).startsWith(directive)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cached extraction result plus the validators needed to revalidate it
+     */
+    public static final class CachedPage {
+        private final Integer statusCode;
+        private final String etag;
+        private final String lastModified;
+        private final long freshUntilMillis;
+        private final Set<CrawlField> fields;
+        private final JsonNode data;
+        private final ContentClassification classification;
+        private final LocalDateTime crawledAt;
+
+        CachedPage(Integer statusCode, String etag, String lastModified, long freshUntilMillis,
+                   Set<CrawlField> fields, JsonNode data, ContentClassification classification,
+                   LocalDateTime crawledAt) {
+            this.statusCode = statusCode;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.freshUntilMillis = freshUntilMillis;
+            this.fields = fields;
+            this.data = data;
+            this.classification = classification;
+            this.crawledAt = crawledAt;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public LocalDateTime getCrawledAt() {
+            return crawledAt;
+        }
+
+        /**
+         * Checks whether the cached extraction contains everything the request asks for
+         */
+        public boolean covers(CrawlRequest request) {
+            for (CrawlField field : CrawlField.values()) {
+                if (request.wantsField(field) && !fields.contains(field)) {
+                    return false;
+                }
+            }
+            return !request.wantsClassification() || classification != null;
+        }
+
+        /**
+         * Builds a response from the cached extraction, trimmed to the request's projection
+         */
+        public CrawlResponse toResponse(CrawlRequest request, String message) {
+            JsonNode projected = data;
+            // A request without fields gets the default ones, not whatever a wider request cached
+            List<String> keys = new ArrayList<>();
+            boolean trimmed = false;
+            for (CrawlField field : CrawlField.values()) {
+                if (request.wantsField(field)) {
+                    keys.add(field.getKey());
+                } else {
+                    trimmed |= data.has(field.getKey());
+                }
+            }
+            if (trimmed && data instanceof ObjectNode objectNode) {
+                projected = objectNode.deepCopy().retain(keys);
+            }
+            return CrawlResponse.builder()
+                    .url(request.getUrl())
+                    .statusCode(statusCode)
+                    .success(true)
+                    .timestamp(crawledAt)
+                    .message(message)
+                    .data(projected)
+                    .classification(request.wantsClassification() ? classification : null)
+                    .build();
+        }
+    }
+}
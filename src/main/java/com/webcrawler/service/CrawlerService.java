@@ -1,5 +1,6 @@
 package com.webcrawler.service;
 
+import com.webcrawler.model.CrawlRequest;
 import com.webcrawler.model.CrawlResponse;
 
 /**
@@ -14,4 +15,12 @@ public interface CrawlerService {
      * @return CrawlResponse containing the crawl results
      */
     CrawlResponse crawl(String url);
+
+    /**
+     * Crawls the URL of the request, extracting only the requested fields and stages
+     *
+     * @param request the crawl request including optional field projection
+     * @return CrawlResponse containing the crawl results
+     */
+    CrawlResponse crawl(CrawlRequest request);
 }
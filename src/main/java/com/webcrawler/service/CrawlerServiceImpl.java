@@ -1,8 +1,14 @@
 package com.webcrawler.service;
 
 import com.webcrawler.config.JsoupConfig;
+import com.webcrawler.model.CrawlField;
+import com.webcrawler.model.CrawlRequest;
 import com.webcrawler.model.CrawlResponse;
-import lombok.RequiredArgsConstructor;
+import com.webcrawler.util.SingleFlight;
+import com.webcrawler.util.UrlNormalizer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -11,19 +17,78 @@ import java.time.LocalDateTime;
 
 /**
  * Implementation of CrawlerService using Jsoup for web crawling
- * with robots.txt validation
+ * with robots.txt validation. Concurrent crawls of the same normalized
+ * URL are coalesced into a single crawl whose response is shared.
  */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class CrawlerServiceImpl implements CrawlerService {
 
     private final JsoupCrawlerWrapper jsoupCrawlerWrapper;
     private final RobotsTxtService robotsTxtService;
     private final JsoupConfig jsoupConfig;
+    private final SingleFlight<String, CrawlResponse> inFlightCrawls = new SingleFlight<>();
+
+    public CrawlerServiceImpl(JsoupCrawlerWrapper jsoupCrawlerWrapper,
+                              RobotsTxtService robotsTxtService,
+                              JsoupConfig jsoupConfig,
+                              MeterRegistry meterRegistry) {
+        this.jsoupCrawlerWrapper = jsoupCrawlerWrapper;
+        this.robotsTxtService = robotsTxtService;
+        this.jsoupConfig = jsoupConfig;
+
+        FunctionCounter.builder("crawler.requests.coalesced", inFlightCrawls, SingleFlight::getCoalescedCount)
+                .description("Crawl requests served by joining an in-flight crawl of the same URL")
+                .register(meterRegistry);
+        FunctionCounter.builder("crawler.requests.executed", inFlightCrawls, SingleFlight::getExecutionCount)
+                .description("Crawl requests that performed their own crawl")
+                .register(meterRegistry);
+        Gauge.builder("crawler.requests.inflight", inFlightCrawls, SingleFlight::getInFlightCount)
+                .description("Distinct URLs currently being crawled")
+                .register(meterRegistry);
+    }
 
     @Override
     public CrawlResponse crawl(String url) {
+        return crawl(new CrawlRequest(url));
+    }
+
+    @Override
+    public CrawlResponse crawl(CrawlRequest request) {
+        CrawlResponse response = inFlightCrawls.execute(coalescingKey(request), () -> doCrawl(request));
+        if (response.getUrl() == null || response.getUrl().equals(request.getUrl())) {
+            return response;
+        }
+        // Joined a crawl of the same URL spelled differently; answer with the caller's spelling
+        return CrawlResponse.builder()
+                .url(request.getUrl())
+                .statusCode(response.getStatusCode())
+                .timestamp(response.getTimestamp())
+                .success(response.getSuccess())
+                .message(response.getMessage())
+                .data(response.getData())
+                .classification(response.getClassification())
+                .build();
+    }
+
+    /**
+     * Requests only share a crawl when they ask for the same URL, the same projection, the same
+     * render priority, so an urgent request never waits in a lower priority's render queue, and
+     * the same use of a fresh cached result
+     */
+    private String coalescingKey(CrawlRequest request) {
+        StringBuilder key = new StringBuilder(UrlNormalizer.normalize(request.getUrl()));
+        key.append('|').append(request.effectiveRenderPriority().name());
+        key.append('|').append(request.wantsRevalidation() ? 'r' : '-');
+        key.append('|').append(request.wantsClassification() ? 'c' : '-').append('|');
+        for (CrawlField field : CrawlField.values()) {
+            key.append(request.wantsField(field) ? '1' : '0');
+        }
+        return key.toString();
+    }
+
+    private CrawlResponse doCrawl(CrawlRequest request) {
+        String url = request.getUrl();
         log.info("Crawling URL: {}", url);
 
         // Check robots.txt before crawling
@@ -39,6 +104,6 @@ public class CrawlerServiceImpl implements CrawlerService {
                     .build();
         }
 
-        return jsoupCrawlerWrapper.crawl(url);
+        return jsoupCrawlerWrapper.crawl(request);
     }
 }
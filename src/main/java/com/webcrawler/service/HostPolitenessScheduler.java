@@ -0,0 +1,377 @@
+package com.webcrawler.service;
+
+import com.webcrawler.config.PolitenessConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-host politeness: spaces the start of requests to one host by a minimum delay
+ * (robots.txt Crawl-delay, or the configured default) and caps how many run at once.
+ * Waiting callers hold a future rather than a thread; a single timer thread hands out
+ * permits as hosts become available.
+ */
+@Component
+@Slf4j
+public class HostPolitenessScheduler {
+
+    private static final Permit UNLIMITED = new Permit(null, null);
+
+    private final PolitenessConfig politenessConfig;
+    private final Map<String, HostState> hosts = new HashMap<>();
+
+    /**
+     * Restored wall-clock times before which hosts not yet tracked must not be requested
+     */
+    private final Map<String, Long> restoredNotBefore = new HashMap<>();
+    private final ScheduledExecutorService timer;
+
+    public HostPolitenessScheduler(PolitenessConfig politenessConfig, MeterRegistry meterRegistry) {
+        this.politenessConfig = politenessConfig;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "politeness-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long purgeIntervalMs = Math.max(1000, Math.min(politenessConfig.getHostIdleTtlMs(), 60000));
+        timer.scheduleWithFixedDelay(this::purgeIdleHosts, purgeIntervalMs, purgeIntervalMs, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("crawler.politeness.queued", this, HostPolitenessScheduler::getQueuedCount)
+                .description("Crawls waiting for their turn on a host")
+                .register(meterRegistry);
+        Gauge.builder("crawler.politeness.hosts", this, HostPolitenessScheduler::getHostCount)
+                .description("Hosts currently tracked by the politeness scheduler")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Requests a turn on the URL's host. The returned future completes once the host's
+     * delay has elapsed and a concurrency slot is free; the permit must then be released
+     * when the request is done. Cancelling the future gives up the place in the queue.
+     *
+     * @param url the URL about to be fetched
+     * @param crawlDelayMs supplies the robots.txt Crawl-delay in milliseconds (0 if none);
+     *                     only consulted when the host is not yet tracked
+     * @return a future permit, failed with RejectedExecutionException if the host queue is full
+     */
+    public CompletableFuture<Permit> acquire(String url, LongSupplier crawlDelayMs) {
+        String host = hostOf(url);
+        if (!politenessConfig.isEnabled() || host == null) {
+            return CompletableFuture.completedFuture(UNLIMITED);
+        }
+
+        List<Grant> granted;
+        CompletableFuture<Permit> future = new CompletableFuture<>();
+        HostState created = null;
+        while (true) {
+            synchronized (this) {
+                HostState state = hosts.get(host);
+                if (state == null && created != null) {
+                    Long notBefore = restoredNotBefore.remove(host);
+                    if (notBefore != null) {
+                        holdBack(created, notBefore);
+                    }
+                    hosts.put(host, created);
+                    state = created;
+                }
+                if (state != null) {
+                    if (state.waiters.size() >= politenessConfig.getMaxQueuedPerHost()) {
+                        return CompletableFuture.failedFuture(
+                                new RejectedExecutionException("Too many crawls queued for host " + host));
+                    }
+                    state.waiters.add(future);
+                    granted = dispatch(state);
+                    break;
+                }
+            }
+            // Resolved outside the lock: this may fetch robots.txt
+            created = newHostState(host, crawlDelayMs.getAsLong());
+        }
+        grant(granted);
+        return future;
+    }
+
+    /**
+     * Waits up to the configured maximum for a turn on the URL's host. The wait blocks
+     * the calling thread on the permit future, which is meant to be a virtual thread:
+     * controller requests run on virtual threads (spring.threads.virtual.enabled), as do
+     * batch and site crawl fetches, so waiting only parks them and frees their carrier.
+     * Callers on a platform thread that must not block should chain onto {@link #acquire} instead.
+     *
+     * @param url the URL about to be fetched
+     * @param crawlDelayMs supplies the robots.txt Crawl-delay in milliseconds (0 if none)
+     * @return the permit, to be released when the request is done
+     * @throws IOException if no turn was granted in time or the host queue is full
+     */
+    public Permit awaitTurn(String url, LongSupplier crawlDelayMs) throws IOException {
+        CompletableFuture<Permit> turn = acquire(url, crawlDelayMs);
+        try {
+            return turn.get(politenessConfig.getMaxWaitMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            Permit permit = giveUp(turn);
+            if (permit != null) {
+                return permit;
+            }
+            throw new IOException("Timed out waiting for a politeness turn on " + hostOf(url));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Permit permit = giveUp(turn);
+            if (permit != null) {
+                permit.release();
+            }
+            throw new InterruptedIOException("Interrupted waiting for a politeness turn on " + hostOf(url));
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Cancels a pending turn; returns the permit if it was granted in the meantime
+     */
+    private static Permit giveUp(CompletableFuture<Permit> turn) {
+        if (turn.cancel(false)) {
+            return null;
+        }
+        return turn.getNow(null);
+    }
+
+    /**
+     * Number of crawls waiting for a permit across all hosts
+     */
+    public synchronized int getQueuedCount() {
+        int queued = 0;
+        for (HostState state : hosts.values()) {
+            for (CompletableFuture<Permit> waiter : state.waiters) {
+                if (!waiter.isDone()) {
+                    queued++;
+                }
+            }
+        }
+        return queued;
+    }
+
+    /**
+     * Number of hosts currently tracked
+     */
+    public synchronized int getHostCount() {
+        return hosts.size();
+    }
+
+    /**
+     * Wall-clock times of the next allowed request, for the hosts still inside their delay,
+     * so that a restarted crawler can keep honouring them
+     *
+     * @return epoch milliseconds by host
+     */
+    public synchronized Map<String, Long> snapshotNextAllowed() {
+        long now = System.nanoTime();
+        long wallNow = System.currentTimeMillis();
+        Map<String, Long> nextAllowed = new HashMap<>();
+        for (Map.Entry<String, HostState> entry : hosts.entrySet()) {
+            long waitNanos = entry.getValue().nextAllowedNanos - now;
+            if (waitNanos > 0) {
+                nextAllowed.put(entry.getKey(), wallNow + TimeUnit.NANOSECONDS.toMillis(waitNanos) + 1);
+            }
+        }
+        for (Map.Entry<String, Long> entry : restoredNotBefore.entrySet()) {
+            if (entry.getValue() > wallNow) {
+                nextAllowed.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+        return nextAllowed;
+    }
+
+    /**
+     * Holds hosts back until the given wall-clock times, as returned by {@link #snapshotNextAllowed()}.
+     * Times already past, or earlier than a host's own next turn, have no effect.
+     *
+     * @param nextAllowed epoch milliseconds by host
+     */
+    public synchronized void restoreNextAllowed(Map<String, Long> nextAllowed) {
+        long wallNow = System.currentTimeMillis();
+        for (Map.Entry<String, Long> entry : nextAllowed.entrySet()) {
+            if (entry.getValue() <= wallNow) {
+                continue;
+            }
+            HostState state = hosts.get(entry.getKey());
+            if (state != null) {
+                holdBack(state, entry.getValue());
+            } else {
+                restoredNotBefore.merge(entry.getKey(), entry.getValue(), Math::max);
+            }
+        }
+    }
+
+    private static void holdBack(HostState state, long notBeforeMillis) {
+        long waitMs = notBeforeMillis - System.currentTimeMillis();
+        if (waitMs > 0) {
+            state.nextAllowedNanos = Math.max(state.nextAllowedNanos, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMs));
+        }
+    }
+
+    private HostState newHostState(String host, long crawlDelayMs) {
+        if (crawlDelayMs > 0) {
+            long delayMs = Math.min(crawlDelayMs, politenessConfig.getMaxCrawlDelayMs());
+            log.debug("Honoring Crawl-delay of {} ms for host {}", delayMs, host);
+            return new HostState(delayMs, 1);
+        }
+        return new HostState(politenessConfig.getDefaultDelayMs(),
+                Math.max(1, politenessConfig.getMaxConcurrencyPerHost()));
+    }
+
+    /**
+     * Takes as many waiters off the host queue as its delay and concurrency allow.
+     * Must be called while holding the lock; the returned futures are completed after
+     * the lock is released.
+     */
+    private List<Grant> dispatch(HostState state) {
+        List<Grant> granted = new ArrayList<>();
+        while (!state.waiters.isEmpty() && state.active < state.maxConcurrency) {
+            CompletableFuture<Permit> waiter = state.waiters.peek();
+            if (waiter.isDone()) {
+                // Cancelled or timed out by its caller
+                state.waiters.poll();
+                continue;
+            }
+            long now = System.nanoTime();
+            long waitNanos = state.nextAllowedNanos - now;
+            if (waitNanos > 0) {
+                if (!state.wakeupScheduled) {
+                    state.wakeupScheduled = true;
+                    timer.schedule(() -> wakeUp(state), waitNanos, TimeUnit.NANOSECONDS);
+                }
+                break;
+            }
+            state.waiters.poll();
+            state.active++;
+            state.nextAllowedNanos = now + state.delayNanos;
+            state.lastUsedNanos = now;
+            granted.add(new Grant(waiter, new Permit(this, state)));
+        }
+        return granted;
+    }
+
+    private static void grant(List<Grant> granted) {
+        for (Grant grant : granted) {
+            if (!grant.waiter().complete(grant.permit())) {
+                // The caller gave up between dispatch and now
+                grant.permit().release();
+            }
+        }
+    }
+
+    private void wakeUp(HostState state) {
+        List<Grant> granted;
+        synchronized (this) {
+            state.wakeupScheduled = false;
+            granted = dispatch(state);
+        }
+        grant(granted);
+    }
+
+    private void release(HostState state) {
+        List<Grant> granted;
+        synchronized (this) {
+            state.active--;
+            state.lastUsedNanos = System.nanoTime();
+            granted = dispatch(state);
+        }
+        grant(granted);
+    }
+
+    private void purgeIdleHosts() {
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(politenessConfig.getHostIdleTtlMs());
+        long now = System.nanoTime();
+        synchronized (this) {
+            long wallNow = System.currentTimeMillis();
+            restoredNotBefore.values().removeIf(notBefore -> notBefore <= wallNow);
+            Iterator<HostState> iterator = hosts.values().iterator();
+            while (iterator.hasNext()) {
+                HostState state = iterator.next();
+                state.waiters.removeIf(CompletableFuture::isDone);
+                if (state.active == 0 && state.waiters.isEmpty() && now - state.lastUsedNanos > idleNanos) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase(Locale.ROOT) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A turn on a host. Releasing it lets the next queued request for the host proceed;
+     * releasing more than once has no further effect.
+     */
+    public static final class Permit {
+
+        private final HostPolitenessScheduler scheduler;
+        private final HostState state;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(HostPolitenessScheduler scheduler, HostState state) {
+            this.scheduler = scheduler;
+            this.state = state;
+        }
+
+        public void release() {
+            if (scheduler != null && released.compareAndSet(false, true)) {
+                scheduler.release(state);
+            }
+        }
+    }
+
+    private record Grant(CompletableFuture<Permit> waiter, Permit permit) {
+    }
+
+    private static final class HostState {
+        final long delayNanos;
+        final int maxConcurrency;
+        final ArrayDeque<CompletableFuture<Permit>> waiters = new ArrayDeque<>();
+        int active;
+        long nextAllowedNanos;
+        long lastUsedNanos;
+        boolean wakeupScheduled;
+
+        HostState(long delayMs, int maxConcurrency) {
+            this.delayNanos = TimeUnit.MILLISECONDS.toNanos(delayMs);
+            this.maxConcurrency = maxConcurrency;
+            long now = System.nanoTime();
+            this.nextAllowedNanos = now;
+            this.lastUsedNanos = now;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.webcrawler.service;
+
+import com.webcrawler.model.FetchRequest;
+import com.webcrawler.model.FetchResponse;
+
+import java.io.IOException;
+
+/**
+ * Interface for the shared HTTP fetch layer
+ */
+public interface HttpFetcher {
+
+    /**
+     * Performs an HTTP GET. Non-2xx responses are returned, not thrown.
+     *
+     * @param request the request to send
+     * @return the final response after any redirects
+     * @throws IOException on network errors, timeouts or too many redirects
+     */
+    FetchResponse fetch(FetchRequest request) throws IOException;
+}
@@ -0,0 +1,244 @@
+package com.webcrawler.service;
+
+import com.webcrawler.config.HttpClientConfig;
+import com.webcrawler.model.FetchRequest;
+import com.webcrawler.model.FetchResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import javax.net.ssl.SSLContext;
+
+/**
+ * Implementation of HttpFetcher on a single shared JDK HttpClient.
+ * The client keeps connections alive and pooled per origin, multiplexes HTTP/2 streams,
+ * and resumes TLS sessions through its shared SSLContext. A per-host semaphore caps
+ * concurrent requests to one host. The request timeout bounds the whole fetch, body included.
+ */
+@Component
+@Slf4j
+public class HttpFetcherImpl implements HttpFetcher {
+
+    private final HttpClientConfig httpClientConfig;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+
+    /**
+     * Connection slots of the hosts with requests waiting or running; guarded by itself.
+     * An entry is dropped as soon as its last user leaves, since an unused semaphore holds no state.
+     */
+    private final Map<String, HostSlots> hostSlots = new HashMap<>();
+
+    public HttpFetcherImpl(HttpClientConfig httpClientConfig) {
+        this.httpClientConfig = httpClientConfig;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-fetch-", 0).factory());
+        this.httpClient = HttpClient.newBuilder()
+                .version(httpClientConfig.isHttp2Enabled() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                // Redirects are followed here so that every hop goes through the per-host limit
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofMillis(httpClientConfig.getConnectTimeoutMs()))
+                .sslContext(defaultSslContext())
+                .executor(executor)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        httpClient.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Override
+    public FetchResponse fetch(FetchRequest request) throws IOException {
+        URI uri = URI.create(request.getUrl());
+        for (int redirects = 0; ; redirects++) {
+            FetchResponse response = fetchOnce(uri, request);
+            String location = response.header("Location");
+            if (!request.isFollowRedirects() || !isRedirect(response.getStatusCode()) || location == null) {
+                return response;
+            }
+            if (redirects >= httpClientConfig.getMaxRedirects()) {
+                throw new IOException("Too many redirects fetching " + request.getUrl());
+            }
+            uri = uri.resolve(location.trim());
+            log.debug("Following redirect {} to {}", response.getStatusCode(), uri);
+        }
+    }
+
+    private FetchResponse fetchOnce(URI uri, FetchRequest request) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .GET()
+                .timeout(Duration.ofMillis(request.getTimeoutMs()))
+                .header("Accept-Encoding", "gzip, deflate");
+        if (request.getHeaders() != null) {
+            request.getHeaders().forEach(builder::header);
+        }
+
+        String host = hostKey(uri);
+        HostSlots slots = enterHost(host);
+        try {
+            if (!slots.permits.tryAcquire(request.getTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                throw new IOException("Timed out waiting for a connection slot to " + uri.getHost());
+            }
+            try {
+                long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(request.getTimeoutMs());
+                HttpResponse<InputStream> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+                byte[] body = readBody(response, request.getMaxBodySize(), deadlineNanos);
+                return FetchResponse.builder()
+                        .url(response.uri().toString())
+                        .statusCode(response.statusCode())
+                        .headers(response.headers())
+                        .body(body)
+                        .build();
+            } finally {
+                slots.permits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted fetching " + uri);
+        } finally {
+            leaveHost(host, slots);
+        }
+    }
+
+    private HostSlots enterHost(String host) {
+        synchronized (hostSlots) {
+            HostSlots slots = hostSlots.computeIfAbsent(host,
+                    key -> new HostSlots(new Semaphore(httpClientConfig.getMaxConnectionsPerHost())));
+            slots.users++;
+            return slots;
+        }
+    }
+
+    private void leaveHost(String host, HostSlots slots) {
+        synchronized (hostSlots) {
+            if (--slots.users == 0) {
+                hostSlots.remove(host);
+            }
+        }
+    }
+
+    /**
+     * Number of hosts with requests waiting or running
+     */
+    int getHostCount() {
+        synchronized (hostSlots) {
+            return hostSlots.size();
+        }
+    }
+
+    /**
+     * Reads the body on another thread so that a server stalling mid-body cannot hold the
+     * caller (and its connection slot) past the request deadline; HttpRequest#timeout
+     * only covers the wait for the response headers.
+     */
+    private byte[] readBody(HttpResponse<InputStream> response, int maxBodySize, long deadlineNanos)
+            throws IOException, InterruptedException {
+        Future<byte[]> reading = executor.submit(() -> decodeBody(response, maxBodySize));
+        try {
+            return reading.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Interrupting the reader fails its blocked read and closes the stream
+            reading.cancel(true);
+            throw new HttpTimeoutException("Timed out reading the body of " + response.uri());
+        } catch (InterruptedException e) {
+            reading.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Failed to read the body of " + response.uri(), e.getCause());
+        }
+    }
+
+    /**
+     * Reads and decompresses the body, stopping after maxBodySize decoded bytes.
+     * Closing the stream early releases the connection without reading the rest.
+     */
+    private static byte[] decodeBody(HttpResponse<InputStream> response, int maxBodySize) throws IOException {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("").trim().toLowerCase(Locale.ROOT);
+        try (InputStream raw = response.body();
+             InputStream in = switch (encoding) {
+                 case "gzip", "x-gzip" -> new GZIPInputStream(raw);
+                 case "deflate" -> new InflaterInputStream(raw);
+                 default -> raw;
+             }) {
+            if (maxBodySize <= 0) {
+                return in.readAllBytes();
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(maxBodySize, 64 * 1024));
+            byte[] buffer = new byte[8192];
+            int remaining = maxBodySize;
+            int read;
+            while (remaining > 0 && (read = in.read(buffer, 0, Math.min(buffer.length, remaining))) != -1) {
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+            return out.toByteArray();
+        } catch (EOFException e) {
+            // A compressed stream cannot even be opened on a response that has no body
+            // (e.g. 304 with Content-Encoding); anywhere else the body was truncated
+            if (hasNoBody(response)) {
+                return new byte[0];
+            }
+            throw e;
+        }
+    }
+
+    private static boolean hasNoBody(HttpResponse<?> response) {
+        int statusCode = response.statusCode();
+        return statusCode == 204 || statusCode == 304 || (statusCode >= 100 && statusCode < 200)
+                || response.headers().firstValueAsLong("Content-Length").orElse(-1) == 0;
+    }
+
+    private static boolean isRedirect(int statusCode) {
+        return statusCode == 301 || statusCode == 302 || statusCode == 303
+                || statusCode == 307 || statusCode == 308;
+    }
+
+    private static String hostKey(URI uri) {
+        return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+    }
+
+    private static final class HostSlots {
+        final Semaphore permits;
+        int users;
+
+        HostSlots(Semaphore permits) {
+            this.permits = permits;
+        }
+    }
+
+    private static SSLContext defaultSslContext() {
+        try {
+            return SSLContext.getDefault();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No default SSLContext available", e);
+        }
+    }
+}
@@ -5,18 +5,69 @@ package com.webcrawler.service;
  */
 public interface JavaScriptRenderer {
 
+    /**
+     * Result of rendering a page
+     *
+     * @param html the rendered HTML
+     * @param blockedRequests number of requests the browser was prevented from making
+     */
+    record RenderedPage(String html, int blockedRequests) {
+    }
+
+    /**
+     * Lifecycle of the renderer's browsers
+     */
+    enum State {
+        /**
+         * Rendering is switched off
+         */
+        DISABLED,
+        /**
+         * No browser has been started yet
+         */
+        COLD,
+        /**
+         * Browsers are being started in the background
+         */
+        WARMING,
+        /**
+         * Pages can be rendered
+         */
+        READY,
+        /**
+         * Browsers could not be started; only static crawling is available
+         */
+        FAILED
+    }
+
     /**
      * Renders a page with JavaScript execution enabled
      *
      * @param url the URL to render
      * @return the fully rendered HTML after JavaScript execution
      */
-    String renderPage(String url);
+    default String renderPage(String url) {
+        return render(url).html();
+    }
+
+    /**
+     * Renders a page with JavaScript execution enabled
+     *
+     * @param url the URL to render
+     * @return the rendered HTML and statistics about the render
+     */
+    RenderedPage render(String url);
 
     /**
-     * Checks if JavaScript rendering is available
+     * Checks if JavaScript rendering is available. A renderer whose browsers have not been
+     * started yet starts them in the background and reports false until they are ready.
      *
-     * @return true if JS rendering is enabled and available
+     * @return true if JS rendering is enabled and its browsers are ready
      */
     boolean isAvailable();
+
+    /**
+     * @return the current lifecycle state of the renderer
+     */
+    State getState();
 }
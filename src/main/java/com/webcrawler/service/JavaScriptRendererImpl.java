@@ -7,15 +7,23 @@ import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Implementation of JavaScriptRenderer using Selenium WebDriver
+ * Implementation of JavaScriptRenderer using Selenium WebDriver.
+ * Pages are rendered on a pool of ChromeDriver instances, so several can render in parallel.
+ * The pool is started in the background, either once the application is ready (warm standby)
+ * or on first use, so Chrome never delays application startup.
  */
 @Service
 @Slf4j
@@ -23,74 +31,66 @@ import java.util.concurrent.locks.ReentrantLock;
 public class JavaScriptRendererImpl implements JavaScriptRenderer {
 
     private final SeleniumConfig seleniumConfig;
-    private final ReentrantLock driverLock = new ReentrantLock();
-    private WebDriver driver;
-    private boolean available = false;
-
+    private final AtomicReference<State> state = new AtomicReference<>(State.COLD);
+    private volatile BrowserPool browserPool;
+    private volatile PageStabilityWaiter pageStabilityWaiter;
+    private volatile boolean closed;
+
+    /**
+     * Starting Chrome takes seconds, so nothing is started while the application boots
+     */
     @PostConstruct
     public void init() {
         if (!seleniumConfig.isEnabled()) {
+            state.set(State.DISABLED);
             log.info("JavaScript rendering is disabled");
             return;
         }
+        log.info("JavaScript rendering enabled; browsers start {}",
+                seleniumConfig.isWarmStandby() ? "once the application is ready" : "on first use");
+    }
 
-        try {
-            // Setup ChromeDriver automatically
-            WebDriverManager.chromedriver().setup();
-
-            // Create Chrome options
-            ChromeOptions options = new ChromeOptions();
-
-            if (seleniumConfig.isHeadless()) {
-                options.addArguments("--headless=new");
-            }
-
-            // Additional options for better performance and stability
-            options.addArguments("--disable-gpu");
-            options.addArguments("--no-sandbox");
-            options.addArguments("--disable-dev-shm-usage");
-            options.addArguments("--disable-blink-features=AutomationControlled");
-            options.addArguments("--disable-extensions");
-            options.addArguments("--disable-images"); // Speed up by not loading images
-            options.addArguments("--blink-settings=imagesEnabled=false");
-            options.addArguments("--user-agent=" + getUserAgent());
-            options.setPageLoadStrategy(org.openqa.selenium.PageLoadStrategy.EAGER); // Don't wait for all resources
-
-            // Initialize driver
-            driver = new ChromeDriver(options);
-            driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(seleniumConfig.getPageLoadTimeout()));
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(seleniumConfig.getImplicitWait()));
-
-            available = true;
-            log.info("JavaScript rendering initialized successfully with ChromeDriver");
-
-        } catch (Exception e) {
-            log.warn("Failed to initialize JavaScript rendering: {} - Dynamic content rendering will be disabled", e.getMessage());
-            available = false;
-            driver = null;
+    /**
+     * In warm-standby mode, starts the browsers in the background once the application serves requests
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (seleniumConfig.isWarmStandby()) {
+            startWarming();
         }
     }
 
     @PreDestroy
     public void cleanup() {
-        if (driver != null) {
-            try {
-                driver.quit();
-                log.info("ChromeDriver closed successfully");
-            } catch (Exception e) {
-                log.warn("Error closing ChromeDriver: {}", e.getMessage());
-            }
+        closed = true;
+        BrowserPool pool = browserPool;
+        if (pool != null) {
+            pool.close();
+            log.info("ChromeDriver pool closed successfully");
         }
     }
 
     @Override
-    public String renderPage(String url) {
-        if (!available || driver == null) {
+    public RenderedPage render(String url) {
+        if (state.get() != State.READY) {
             throw new IllegalStateException("JavaScript rendering is not available");
         }
 
-        driverLock.lock();
+        BrowserPool.Browser browser;
         try {
+            browser = browserPool.borrow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("JavaScript rendering interrupted", e);
+        }
+
+        boolean broken = false;
+        try {
+            WebDriver driver = browser.driver();
+            RequestInterceptor requestInterceptor = browser.requestInterceptor();
+            if (requestInterceptor != null) {
+                requestInterceptor.startPage(url);
+            }
             log.info("Rendering page with JavaScript: {}", url);
 
             // Use JavascriptExecutor to stop page load after DOM is ready
@@ -101,37 +101,119 @@ public class JavaScriptRendererImpl implements JavaScriptRenderer {
                 log.warn("Page load timeout for {}, attempting to retrieve content anyway", url);
             }
 
-            // Wait for JavaScript to execute
-            Thread.sleep(seleniumConfig.getJavascriptWaitTime());
-
-            // Check if document is ready
-            try {
-                org.openqa.selenium.JavascriptExecutor js = (org.openqa.selenium.JavascriptExecutor) driver;
-                String readyState = (String) js.executeScript("return document.readyState");
-                log.debug("Document ready state: {}", readyState);
-            } catch (Exception e) {
-                log.debug("Could not check document ready state: {}", e.getMessage());
-            }
+            // Wait for JavaScript to settle; a page that never does is taken as it is after javascriptWaitTime
+            pageStabilityWaiter.awaitStable(driver);
 
             String html = driver.getPageSource();
-            log.info("Successfully rendered page, HTML length: {}", html.length());
+            int blockedRequests = requestInterceptor != null ? requestInterceptor.getBlockedRequests() : 0;
+            log.info("Successfully rendered page, HTML length: {}, blocked requests: {}", html.length(), blockedRequests);
 
-            return html;
+            return new RenderedPage(html, blockedRequests);
 
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+            // The page may still be loading; don't hand the browser to the next render
+            broken = true;
             throw new RuntimeException("JavaScript rendering interrupted", e);
         } catch (Exception e) {
+            broken = e instanceof WebDriverException;
             log.error("Failed to render page with JavaScript: {} - {}", url, e.getMessage());
             throw new RuntimeException("Failed to render page: " + e.getMessage(), e);
         } finally {
-            driverLock.unlock();
+            browserPool.release(browser, broken);
         }
     }
 
     @Override
     public boolean isAvailable() {
-        return available;
+        State current = state.get();
+        if (current == State.COLD) {
+            startWarming();
+        }
+        return current == State.READY;
+    }
+
+    @Override
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * Starts the browser pool on a background thread, unless it is already started or starting
+     */
+    void startWarming() {
+        if (!state.compareAndSet(State.COLD, State.WARMING)) {
+            return;
+        }
+        Thread thread = new Thread(this::warmUp, "renderer-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void warmUp() {
+        long startNanos = System.nanoTime();
+        BrowserPool pool = null;
+        try {
+            // Setup ChromeDriver automatically
+            WebDriverManager.chromedriver().setup();
+
+            ChromeOptions options = createOptions();
+            pageStabilityWaiter = new PageStabilityWaiter(seleniumConfig);
+            pool = new BrowserPool(seleniumConfig, () -> createDriver(options));
+            pool.start();
+            browserPool = pool;
+            if (closed) {
+                // Shut down while starting; cleanup() may have missed the pool
+                pool.close();
+                return;
+            }
+
+            state.set(State.READY);
+            log.info("JavaScript rendering initialized successfully with ChromeDriver in {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+
+        } catch (Exception e) {
+            log.warn("Failed to initialize JavaScript rendering: {} - Dynamic content rendering will be disabled", e.getMessage());
+            state.set(State.FAILED);
+            if (pool != null) {
+                pool.close();
+            }
+            browserPool = null;
+        }
+    }
+
+    private ChromeOptions createOptions() {
+        ChromeOptions options = new ChromeOptions();
+
+        if (seleniumConfig.isHeadless()) {
+            options.addArguments("--headless=new");
+        }
+
+        // Additional options for better performance and stability
+        options.addArguments("--disable-gpu");
+        options.addArguments("--no-sandbox");
+        options.addArguments("--disable-dev-shm-usage");
+        options.addArguments("--disable-blink-features=AutomationControlled");
+        options.addArguments("--disable-extensions");
+        options.addArguments("--disable-images"); // Speed up by not loading images
+        options.addArguments("--blink-settings=imagesEnabled=false");
+        options.addArguments("--user-agent=" + getUserAgent());
+        options.setPageLoadStrategy(org.openqa.selenium.PageLoadStrategy.EAGER); // Don't wait for all resources
+        return options;
+    }
+
+    private WebDriver createDriver(ChromeOptions options) {
+        ChromeDriver driver = new ChromeDriver(options);
+        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(seleniumConfig.getPageLoadTimeout()));
+        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(seleniumConfig.getImplicitWait()));
+        try {
+            // Track requests from the very start of every page, before its own scripts run
+            driver.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument",
+                    Map.of("source", PageStabilityWaiter.INSTRUMENTATION_SCRIPT));
+        } catch (Exception e) {
+            log.debug("Could not pre-install page stability tracking: {}", e.getMessage());
+        }
+        return driver;
     }
 
     private String getUserAgent() {
@@ -1,5 +1,6 @@
 package com.webcrawler.service;
 
+import com.webcrawler.model.CrawlRequest;
 import com.webcrawler.model.CrawlResponse;
 
 /**
@@ -8,10 +9,10 @@ import com.webcrawler.model.CrawlResponse;
 public interface JsoupCrawlerWrapper {
 
     /**
-     * Crawls the specified URL using Jsoup and returns parsed result
+     * Crawls the URL of the request using Jsoup and returns parsed result
      *
-     * @param url the URL to crawl
+     * @param request the crawl request; its field projection controls what is extracted
      * @return CrawlResponse containing the crawl results with parsed data
      */
-    CrawlResponse crawl(String url);
+    CrawlResponse crawl(CrawlRequest request);
 }
@@ -1,22 +1,31 @@
 package com.webcrawler.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.webcrawler.config.JsoupConfig;
+import com.webcrawler.model.ContentClassification;
+import com.webcrawler.model.CrawlField;
+import com.webcrawler.model.CrawlRequest;
 import com.webcrawler.model.CrawlResponse;
+import com.webcrawler.model.FetchRequest;
+import com.webcrawler.model.FetchResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
- * Implementation of JsoupCrawlerWrapper using Jsoup library
+ * Implementation of JsoupCrawlerWrapper: pages are fetched through the shared
+ * HttpFetcher and parsed with the Jsoup library
  */
 @Component
 @Slf4j
@@ -27,84 +36,165 @@ public class JsoupCrawlerWrapperImpl implements JsoupCrawlerWrapper {
     private final ObjectMapper objectMapper;
     private final TextClassificationService textClassificationService;
     private final JavaScriptRenderer javaScriptRenderer;
+    private final CrawlResultCache crawlResultCache;
+    private final HttpFetcher httpFetcher;
+    private final HostPolitenessScheduler hostPolitenessScheduler;
+    private final RobotsTxtService robotsTxtService;
+    private final RenderNeedTracker renderNeedTracker;
+    private final RenderQueue renderQueue;
 
     @Override
-    public CrawlResponse crawl(String url) {
+    public CrawlResponse crawl(CrawlRequest request) {
+        String url = request.getUrl();
         log.info("Starting crawl for URL: {}", url);
 
+        // A cached extraction is only usable if it was made with at least the requested fields
+        CrawlResultCache.CachedPage cached = crawlResultCache.get(url);
+        if (cached != null && !cached.covers(request)) {
+            cached = null;
+        }
+        if (cached != null && !request.wantsRevalidation() && crawlResultCache.isFresh(cached)) {
+            log.info("Serving fresh cached result for URL: {}", url);
+            crawlResultCache.recordFreshHit();
+            return cached.toResponse(request, "Successfully crawled URL (served from cache)");
+        }
+
         try {
             Document document;
             int statusCode = 200;
-            boolean usedJavaScriptRenderer = false;
-
-            // Try regular Jsoup first
-            try {
-                // Execute HTTP request and parse HTML
-                // Add headers to mimic real browser and avoid 403 Forbidden errors
-                // Note: Jsoup handles gzip decompression automatically, don't set Accept-Encoding manually
-                Connection.Response response = Jsoup.connect(url)
-                        .userAgent(jsoupConfig.getUserAgent())
-                        .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,*/*;q=0.8")
-                        .header("Accept-Language", "en-US,en;q=0.9")
-                        .header("Upgrade-Insecure-Requests", "1")
-                        .referrer("https://www.google.com/")
-                        .timeout(jsoupConfig.getTimeout())
-                        .followRedirects(jsoupConfig.isFollowRedirects())
-                        .maxBodySize(jsoupConfig.getMaxBodySize())
-                        .ignoreContentType(true)
-                        .execute();
-
-                statusCode = response.statusCode();
-                document = response.parse();
-
-                // Check if page has minimal content (likely JavaScript-rendered)
-                String bodyText = document.body() != null ? document.body().text() : "";
-                if (bodyText.trim().isEmpty() && javaScriptRenderer.isAvailable()) {
-                    log.info("Page appears to be JavaScript-rendered, using headless browser");
-                    String renderedHtml = javaScriptRenderer.renderPage(url);
-                    document = Jsoup.parse(renderedHtml);
-                    usedJavaScriptRenderer = true;
+            JavaScriptRenderer.RenderedPage renderedPage = null;
+            RenderRejectedException renderSkipped = null;
+            FetchResponse response = null;
+            int sourceLength;
+
+            // Hosts known to need rendering skip the static fetch
+            RenderNeedTracker.Decision renderDecision = renderNeedTracker.decide(url);
+            if (renderDecision == RenderNeedTracker.Decision.RENDER && javaScriptRenderer.isAvailable()) {
+                log.info("Host is known to need JavaScript rendering, using headless browser");
+                try {
+                    renderedPage = render(request);
+                } catch (RenderRejectedException e) {
+                    // Fall back to the static page below
+                    renderSkipped = e;
                 }
+            }
+            if (renderedPage != null) {
+                document = Jsoup.parse(renderedPage.html(), url);
+                sourceLength = renderedPage.html().length();
+            } else {
+                FetchRequest fetchRequest = staticFetchRequest(url, cached);
+                // Wait for our turn on the host and hold it for the static fetch only;
+                // a render takes its own turn once a render worker starts it
+                HostPolitenessScheduler.Permit permit = awaitHostTurn(url);
+                // Try a static fetch first
+                try {
+                    try {
+                        response = httpFetcher.fetch(fetchRequest);
+                    } finally {
+                        permit.release();
+                    }
 
-            } catch (IOException e) {
-                // If regular crawling fails and JS renderer is available, try with it
-                if (javaScriptRenderer.isAvailable()) {
-                    log.info("Regular crawling failed, trying with JavaScript renderer");
-                    String renderedHtml = javaScriptRenderer.renderPage(url);
-                    document = Jsoup.parse(renderedHtml);
-                    usedJavaScriptRenderer = true;
-                } else {
-                    throw e;
+                    statusCode = response.getStatusCode();
+                    if (statusCode == HttpStatus.NOT_MODIFIED.value() && cached != null) {
+                        log.info("URL not modified since last crawl, reusing cached result: {}", url);
+                        return crawlResultCache.revalidated(url, cached, response.header("ETag"),
+                                        response.header("Last-Modified"), response.header("Cache-Control"))
+                                .toResponse(request, "Successfully crawled URL (not modified)");
+                    }
+                    if (statusCode >= HttpStatus.BAD_REQUEST.value()) {
+                        throw new HttpStatusException("HTTP error fetching URL", statusCode, url);
+                    }
+                    crawlResultCache.recordMiss();
+                    document = Jsoup.parse(new ByteArrayInputStream(response.getBody()), response.charset(), response.getUrl());
+                    sourceLength = response.getBody().length;
+
+                    // Check if page has minimal content (likely JavaScript-rendered),
+                    // unless the host is known to serve complete static pages
+                    if (renderDecision != RenderNeedTracker.Decision.STATIC) {
+                        boolean hasBodyText = document.body() != null && document.body().hasText();
+                        renderNeedTracker.recordStaticFetch(url, !hasBodyText);
+                        if (!hasBodyText && renderSkipped == null && javaScriptRenderer.isAvailable()) {
+                            log.info("Page appears to be JavaScript-rendered, using headless browser");
+                            try {
+                                renderedPage = render(request);
+                                document = Jsoup.parse(renderedPage.html(), url);
+                                sourceLength = renderedPage.html().length();
+                            } catch (RenderRejectedException e) {
+                                // Keep the static page; the response says rendering was skipped
+                                renderSkipped = e;
+                            }
+                        }
+                    }
+
+                } catch (IOException e) {
+                    // If regular crawling fails and JS renderer is available, try with it
+                    if (renderSkipped == null && javaScriptRenderer.isAvailable()) {
+                        log.info("Regular crawling failed, trying with JavaScript renderer");
+                        try {
+                            renderedPage = render(request);
+                        } catch (RenderRejectedException rejected) {
+                            // There is no static page to fall back to
+                            e.addSuppressed(rejected);
+                            throw e;
+                        }
+                        document = Jsoup.parse(renderedPage.html(), url);
+                        sourceLength = renderedPage.html().length();
+                    } else {
+                        throw e;
+                    }
                 }
             }
 
+            boolean usedJavaScriptRenderer = renderedPage != null;
             if (usedJavaScriptRenderer) {
                 log.info("Successfully rendered page with JavaScript");
             }
 
-            // Extract basic data and create JSON structure
-            JsonNode data = extractBasicData(document);
+            // One pass over the document feeds both the response data and the classifier.
+            // Body text is the expensive part: build all of it only if it is returned,
+            // and only the prefix the classifier reads if it is just classified.
+            int textLimit = request.wantsField(CrawlField.TEXT_CONTENT) ? PageExtractor.FULL_TEXT
+                    : request.wantsClassification() ? TextClassificationService.MAX_TEXT_LENGTH
+                    : PageExtractor.NO_TEXT;
+            PageExtractor.PageContent page = PageExtractor.extract(document, textLimit, request.wantsField(CrawlField.LINKS));
 
-            // Extract text for classification
-            String title = document.title();
-            String description = getMetaContent(document, "description");
-            String textContent = document.body() != null ? document.body().text() : "";
+            // Extract basic data and create JSON structure
+            ObjectNode data = extractBasicData(page, sourceLength, request);
+            if (usedJavaScriptRenderer) {
+                data.putObject("rendering").put("blockedRequests", renderedPage.blockedRequests());
+            } else if (renderSkipped != null) {
+                data.putObject("rendering").put("skipped", renderSkipped.getReason().getKey());
+            }
 
             // Classify the content
-            var classification = textClassificationService.classify(title, description, textContent);
+            ContentClassification classification = null;
+            if (request.wantsClassification()) {
+                classification = textClassificationService.classify(page.title(), page.description(), page.text());
+            }
 
             log.info("Successfully crawled URL: {} with status code: {}", url, statusCode);
 
-            return CrawlResponse.builder()
+            CrawlResponse crawlResponse = CrawlResponse.builder()
                     .url(url)
                     .statusCode(statusCode)
                     .success(true)
                     .timestamp(LocalDateTime.now())
-                    .message(usedJavaScriptRenderer ? "Successfully crawled URL with JavaScript rendering" : "Successfully crawled URL")
+                    .message(usedJavaScriptRenderer ? "Successfully crawled URL with JavaScript rendering"
+                            : renderSkipped != null ? "Successfully crawled URL (JavaScript rendering skipped)"
+                            : "Successfully crawled URL")
                     .data(data)
                     .classification(classification)
                     .build();
 
+            // Only static pages are cached: validators of the HTML shell say nothing about rendered content,
+            // and a page whose render was skipped should be rendered next time
+            if (!usedJavaScriptRenderer && renderSkipped == null && statusCode == HttpStatus.OK.value()) {
+                crawlResultCache.put(request, crawlResponse, response.header("ETag"),
+                        response.header("Last-Modified"), response.header("Cache-Control"));
+            }
+
+            return crawlResponse;
+
         } catch (IOException e) {
             log.error("Failed to crawl URL: {}", url, e);
 
@@ -119,32 +209,81 @@ public class JsoupCrawlerWrapperImpl implements JsoupCrawlerWrapper {
     }
 
     /**
-     * Extracts basic data from the HTML document
+     * Queues a render of the requested page; the render takes its turn on the host when it starts
+     */
+    private JavaScriptRenderer.RenderedPage render(CrawlRequest request) throws RenderRejectedException {
+        String url = request.getUrl();
+        return renderQueue.render(url, request.effectiveRenderPriority(), () -> awaitHostTurn(url));
+    }
+
+    private HostPolitenessScheduler.Permit awaitHostTurn(String url) throws IOException {
+        return hostPolitenessScheduler.awaitTurn(url,
+                () -> robotsTxtService.getCrawlDelayMs(url, jsoupConfig.getUserAgent()));
+    }
+
+    /**
+     * Builds the static page request, revalidating a stale cached copy instead of downloading it again
+     */
+    private FetchRequest staticFetchRequest(String url, CrawlResultCache.CachedPage cached) {
+        // Add headers to mimic real browser and avoid 403 Forbidden errors
+        // Note: the fetcher negotiates and decodes gzip itself, don't set Accept-Encoding here
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("User-Agent", jsoupConfig.getUserAgent());
+        headers.put("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,*/*;q=0.8");
+        headers.put("Accept-Language", "en-US,en;q=0.9");
+        headers.put("Upgrade-Insecure-Requests", "1");
+        headers.put("Referer", "https://www.google.com/");
+        if (cached != null && cached.getEtag() != null) {
+            headers.put("If-None-Match", cached.getEtag());
+        }
+        if (cached != null && cached.getLastModified() != null) {
+            headers.put("If-Modified-Since", cached.getLastModified());
+        }
+        return FetchRequest.builder()
+                .url(url)
+                .headers(headers)
+                .followRedirects(jsoupConfig.isFollowRedirects())
+                .timeoutMs(jsoupConfig.getTimeout())
+                .maxBodySize(jsoupConfig.getMaxBodySize())
+                .build();
+    }
+
+    /**
+     * Extracts basic data from the HTML document, limited to the requested fields
      * This is a placeholder for the unified schema to be implemented later
      */
-    private JsonNode extractBasicData(Document document) {
+    private ObjectNode extractBasicData(PageExtractor.PageContent page, int sourceLength, CrawlRequest request) {
         ObjectNode dataNode = objectMapper.createObjectNode();
 
         // Basic extraction - to be replaced with unified schema
         // Jackson handles JSON escaping automatically, no need for manual sanitization
-        dataNode.put("title", document.title());
-        dataNode.put("description", getMetaContent(document, "description"));
-        dataNode.put("textContent", document.body() != null ? document.body().text() : "");
-        dataNode.put("htmlLength", document.html().length());
+        if (request.wantsField(CrawlField.TITLE)) {
+            dataNode.put(CrawlField.TITLE.getKey(), page.title());
+        }
+        if (request.wantsField(CrawlField.DESCRIPTION)) {
+            dataNode.put(CrawlField.DESCRIPTION.getKey(), page.description());
+        }
+        if (request.wantsField(CrawlField.TEXT_CONTENT)) {
+            dataNode.put(CrawlField.TEXT_CONTENT.getKey(), page.text());
+        }
+        if (request.wantsField(CrawlField.HTML_LENGTH)) {
+            // Length of the page source as fetched (or as rendered), not a re-serialization of the DOM
+            dataNode.put(CrawlField.HTML_LENGTH.getKey(), sourceLength);
+        }
 
         // Extract H1 tags
-        var h1Tags = objectMapper.createArrayNode();
-        document.select("h1").forEach(h1 -> h1Tags.add(h1.text()));
-        dataNode.set("h1Tags", h1Tags);
+        if (request.wantsField(CrawlField.H1_TAGS)) {
+            var h1Tags = objectMapper.createArrayNode();
+            page.h1Tags().forEach(h1Tags::add);
+            dataNode.set(CrawlField.H1_TAGS.getKey(), h1Tags);
+        }
 
-        return dataNode;
-    }
+        if (request.wantsField(CrawlField.LINKS)) {
+            var links = objectMapper.createArrayNode();
+            page.links().forEach(links::add);
+            dataNode.set(CrawlField.LINKS.getKey(), links);
+        }
 
-    /**
-     * Helper method to extract meta tag content
-     */
-    private String getMetaContent(Document document, String attribute) {
-        var element = document.select("meta[name=" + attribute + "]").first();
-        return element != null ? element.attr("content") : "";
+        return dataNode;
     }
 }
@@ -0,0 +1,311 @@
+package com.webcrawler.service;
+
+import org.jsoup.internal.StringUtil;
+import org.jsoup.nodes.CDataNode;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Extracts everything the crawler reports about a page in a single traversal of the
+ * document: title, meta description, h1 texts, body text and outlinks. Text is built with the
+ * same whitespace and block-spacing rules as Jsoup's {@code Element.text()}, so the
+ * results match {@code document.title()}, {@code select("h1")} and {@code body().text()}.
+ */
+final class PageExtractor implements NodeVisitor {
+
+    /**
+     * Text limit meaning the body text is not collected at all
+     */
+    static final int NO_TEXT = 0;
+
+    /**
+     * Text limit meaning the whole body text is collected
+     */
+    static final int FULL_TEXT = Integer.MAX_VALUE;
+
+    /**
+     * Most outlinks collected from one page
+     */
+    static final int MAX_LINKS = 5000;
+
+    private final Element head;
+    private final Element body;
+    private final TextCollector bodyText;
+    private final List<TextCollector> openHeadings = new ArrayList<>();
+    private final List<String> h1Tags = new ArrayList<>();
+    private final Set<String> links;
+    private int headDepth;
+    private int bodyDepth;
+    private StringBuilder title;
+    private boolean titleDone;
+    private String description;
+    private boolean hasBodyText;
+    private boolean noFollow;
+
+    private PageExtractor(Document document, int textLimit, boolean collectLinks) {
+        this.head = document.head();
+        this.body = document.body();
+        this.bodyText = textLimit > NO_TEXT ? new TextCollector(textLimit) : null;
+        this.links = collectLinks ? new LinkedHashSet<>() : null;
+    }
+
+    /**
+     * Extracts the page content in one pass over the document
+     *
+     * @param document the parsed page
+     * @param textLimit collect body text until it reaches this many characters
+     *                  ({@link #FULL_TEXT} for all of it, {@link #NO_TEXT} for none)
+     * @return the extracted content
+     */
+    static PageContent extract(Document document, int textLimit) {
+        return extract(document, textLimit, false);
+    }
+
+    /**
+     * Extracts the page content in one pass over the document
+     *
+     * @param document the parsed page; its base URI resolves relative links
+     * @param textLimit collect body text until it reaches this many characters
+     *                  ({@link #FULL_TEXT} for all of it, {@link #NO_TEXT} for none)
+     * @param collectLinks whether to collect the page's outlinks
+     * @return the extracted content
+     */
+    static PageContent extract(Document document, int textLimit, boolean collectLinks) {
+        PageExtractor extractor = new PageExtractor(document, textLimit, collectLinks);
+        NodeTraversor.traverse(extractor, document);
+        List<String> links = null;
+        if (extractor.links != null) {
+            // <meta name="robots" content="nofollow"> asks crawlers not to follow any link on the page
+            links = extractor.noFollow ? List.of() : List.copyOf(extractor.links);
+        }
+        return new PageContent(
+                extractor.title != null ? StringUtil.normaliseWhitespace(extractor.title.toString()).trim() : "",
+                extractor.description != null ? extractor.description : "",
+                extractor.h1Tags,
+                extractor.bodyText != null ? extractor.bodyText.text() : null,
+                extractor.hasBodyText,
+                links);
+    }
+
+    @Override
+    public void head(Node node, int depth) {
+        if (node == head) {
+            headDepth++;
+        } else if (node == body) {
+            bodyDepth++;
+        }
+
+        if (node instanceof TextNode textNode) {
+            if (title != null && !titleDone) {
+                title.append(textNode.getWholeText());
+            }
+            if (bodyDepth > 0 && !hasBodyText && !textNode.isBlank()) {
+                hasBodyText = true;
+            }
+        } else if (node instanceof Element element) {
+            String name = element.normalName();
+            if (headDepth > 0 && title == null && name.equals("title")) {
+                title = new StringBuilder();
+            } else if (description == null && name.equals("meta")
+                    && element.attr("name").trim().equalsIgnoreCase("description")) {
+                description = element.attr("content");
+            } else if (links != null && name.equals("meta") && element.attr("name").trim().equalsIgnoreCase("robots")
+                    && hasToken(element.attr("content"), "nofollow")) {
+                noFollow = true;
+            } else if (links != null && (name.equals("a") || name.equals("area")) && element.hasAttr("href")) {
+                addLink(element);
+            } else if (name.equals("h1")) {
+                // Reserve the slot now so nested headings keep document order
+                h1Tags.add(null);
+                openHeadings.add(new TextCollector(FULL_TEXT, h1Tags.size() - 1));
+            }
+        }
+
+        if (bodyDepth > 0 && bodyText != null) {
+            bodyText.head(node);
+        }
+        for (TextCollector heading : openHeadings) {
+            heading.head(node);
+        }
+    }
+
+    @Override
+    public void tail(Node node, int depth) {
+        if (bodyDepth > 0 && bodyText != null) {
+            bodyText.tail(node);
+        }
+        for (TextCollector heading : openHeadings) {
+            heading.tail(node);
+        }
+
+        if (node instanceof Element element) {
+            String name = element.normalName();
+            if (title != null && !titleDone && name.equals("title")) {
+                titleDone = true;
+            } else if (name.equals("h1")) {
+                TextCollector heading = openHeadings.remove(openHeadings.size() - 1);
+                h1Tags.set(heading.slot, heading.text());
+            }
+        }
+
+        if (node == head) {
+            headDepth--;
+        } else if (node == body) {
+            bodyDepth--;
+        }
+    }
+
+    private void addLink(Element anchor) {
+        if (links.size() >= MAX_LINKS || hasToken(anchor.attr("rel"), "nofollow")) {
+            return;
+        }
+        String url = anchor.absUrl("href");
+        if (!url.regionMatches(true, 0, "http://", 0, 7) && !url.regionMatches(true, 0, "https://", 0, 8)) {
+            return;
+        }
+        int fragment = url.indexOf('#');
+        links.add(fragment >= 0 ? url.substring(0, fragment) : url);
+    }
+
+    /**
+     * Whether a comma- or space-separated attribute value contains the token, ignoring case
+     */
+    private static boolean hasToken(String value, String token) {
+        for (String part : value.split("[\\s,]+")) {
+            if (part.equalsIgnoreCase(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the text of one subtree the way {@code Element.text()} does, optionally
+     * stopping once a character limit is reached
+     */
+    private static final class TextCollector {
+
+        private final StringBuilder accum = new StringBuilder();
+        private final int limit;
+        private final int slot;
+        private int firstVisible = -1;
+
+        TextCollector(int limit) {
+            this(limit, -1);
+        }
+
+        TextCollector(int limit, int slot) {
+            this.limit = limit;
+            this.slot = slot;
+        }
+
+        void head(Node node) {
+            if (isFull()) {
+                return;
+            }
+            if (node instanceof TextNode textNode) {
+                String text = textNode.getWholeText();
+                if (preserveWhitespace(textNode.parentNode()) || textNode instanceof CDataNode) {
+                    accum.append(text);
+                } else {
+                    StringUtil.appendNormalisedWhitespace(accum, text, lastCharIsWhitespace());
+                }
+            } else if (node instanceof Element element) {
+                if (accum.length() > 0
+                        && (element.isBlock() || element.normalName().equals("br"))
+                        && !lastCharIsWhitespace()) {
+                    accum.append(' ');
+                }
+            }
+        }
+
+        void tail(Node node) {
+            if (isFull()) {
+                return;
+            }
+            // A block followed by text or an inline element is separated by a space: <div>One</div>Two is "One Two"
+            if (node instanceof Element element && element.isBlock() && !lastCharIsWhitespace()) {
+                Node next = node.nextSibling();
+                if (next instanceof TextNode || next instanceof Element nextElement && !nextElement.tag().formatAsBlock()) {
+                    accum.append(' ');
+                }
+            }
+        }
+
+        String text() {
+            if (isFull()) {
+                // Exactly the first limit characters of the trimmed full text
+                return accum.substring(firstVisible, firstVisible + limit);
+            }
+            return accum.toString().trim();
+        }
+
+        /**
+         * Whether the trimmed text is already longer than the limit
+         */
+        private boolean isFull() {
+            if (limit == FULL_TEXT) {
+                return false;
+            }
+            if (firstVisible < 0) {
+                int i = 0;
+                while (i < accum.length() && accum.charAt(i) <= ' ') {
+                    i++;
+                }
+                if (i == accum.length()) {
+                    return false;
+                }
+                firstVisible = i;
+            }
+            // Trailing whitespace only counts once visible text follows it
+            int end = accum.length();
+            while (accum.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            return end - firstVisible > limit;
+        }
+
+        private boolean lastCharIsWhitespace() {
+            return accum.length() != 0 && accum.charAt(accum.length() - 1) == ' ';
+        }
+
+        private static boolean preserveWhitespace(Node node) {
+            // Same reach as Jsoup: the parent and up to five more ancestors
+            if (node instanceof Element element) {
+                int i = 0;
+                do {
+                    if (element.tag().preserveWhitespace()) {
+                        return true;
+                    }
+                    element = element.parent();
+                    i++;
+                } while (i < 6 && element != null);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Content extracted from a page
+     *
+     * @param title the document title, whitespace-normalized ("" if none)
+     * @param description the meta description ("" if none)
+     * @param h1Tags text of each h1 element in document order
+     * @param text the body text, possibly truncated to the requested limit (null if not collected)
+     * @param hasBodyText whether the body contains any non-blank text
+     * @param links absolute http(s) outlinks without fragments, deduplicated in document order
+     *              (null if not collected)
+     */
+    record PageContent(String title, String description, List<String> h1Tags, String text, boolean hasBodyText,
+                       List<String> links) {
+    }
+}
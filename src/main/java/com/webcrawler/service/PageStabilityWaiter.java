@@ -0,0 +1,118 @@
+package com.webcrawler.service;
+
+import com.webcrawler.config.SeleniumConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waits until a page rendered in a browser has settled: the document is parsed, no
+ * fetch/XHR requests are pending, and neither the DOM nor the network has changed for
+ * {@code stabilityQuietPeriodMs}. {@code javascriptWaitTime} bounds the wait for pages
+ * that never settle (polling, streaming, animations).
+ *
+ * <p>Request and mutation tracking is done by {@link #INSTRUMENTATION_SCRIPT}. Installing it
+ * before the page's own scripts run (as the renderer does through the DevTools protocol)
+ * also covers requests started during load; otherwise the first poll installs it.
+ */
+@Slf4j
+final class PageStabilityWaiter {
+
+    /**
+     * Counts pending fetch/XHR requests and records the time of the last request or DOM change.
+     * Safe to run more than once per page.
+     */
+    static final String INSTRUMENTATION_SCRIPT = """
+            (function () {
+              if (window.__crawlerStability) return;
+              var state = { pending: 0, lastActivity: performance.now() };
+              window.__crawlerStability = state;
+              function touch() { state.lastActivity = performance.now(); }
+              function done() { state.pending = Math.max(0, state.pending - 1); touch(); }
+              if (window.fetch) {
+                var originalFetch = window.fetch;
+                window.fetch = function () {
+                  state.pending++; touch();
+                  try {
+                    return originalFetch.apply(this, arguments).then(
+                      function (response) { done(); return response; },
+                      function (error) { done(); throw error; });
+                  } catch (e) { done(); throw e; }
+                };
+              }
+              if (window.XMLHttpRequest) {
+                var originalSend = XMLHttpRequest.prototype.send;
+                XMLHttpRequest.prototype.send = function () {
+                  state.pending++; touch();
+                  this.addEventListener('loadend', done, { once: true });
+                  try { return originalSend.apply(this, arguments); } catch (e) { done(); throw e; }
+                };
+              }
+              new MutationObserver(touch).observe(document,
+                { childList: true, subtree: true, attributes: true, characterData: true });
+            })();
+            """;
+
+    private static final String POLL_SCRIPT = INSTRUMENTATION_SCRIPT + """
+            var s = window.__crawlerStability;
+            return [document.readyState, s.pending, performance.now() - s.lastActivity];
+            """;
+
+    private final SeleniumConfig seleniumConfig;
+
+    PageStabilityWaiter(SeleniumConfig seleniumConfig) {
+        this.seleniumConfig = seleniumConfig;
+    }
+
+    /**
+     * Polls the page until it is stable or the maximum wait has passed
+     *
+     * @param driver a browser that has just navigated to the page
+     * @return true if the page settled, false if the maximum wait ran out first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean awaitStable(WebDriver driver) throws InterruptedException {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(seleniumConfig.getJavascriptWaitTime());
+        if (!(driver instanceof JavascriptExecutor js)) {
+            // No way to observe the page; fall back to the fixed wait
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, deadlineNanos - System.nanoTime()));
+            return false;
+        }
+
+        while (true) {
+            if (isStable(js)) {
+                log.debug("Page settled after {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                return true;
+            }
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            if (remainingNanos <= 0) {
+                log.debug("Page did not settle within {} ms", seleniumConfig.getJavascriptWaitTime());
+                return false;
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.min(remainingNanos,
+                    TimeUnit.MILLISECONDS.toNanos(seleniumConfig.getStabilityPollIntervalMs())));
+        }
+    }
+
+    private boolean isStable(JavascriptExecutor js) {
+        Object result;
+        try {
+            result = js.executeScript(POLL_SCRIPT);
+        } catch (RuntimeException e) {
+            // Mid-navigation or script error: not known to be stable yet
+            log.debug("Could not check page stability: {}", e.getMessage());
+            return false;
+        }
+        if (!(result instanceof List<?> values) || values.size() != 3
+                || !(values.get(1) instanceof Number pending) || !(values.get(2) instanceof Number quietMs)) {
+            return false;
+        }
+        return !"loading".equals(values.get(0))
+                && pending.longValue() == 0
+                && quietMs.doubleValue() >= seleniumConfig.getStabilityQuietPeriodMs();
+    }
+}
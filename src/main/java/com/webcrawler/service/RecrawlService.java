@@ -0,0 +1,49 @@
+package com.webcrawler.service;
+
+import com.webcrawler.model.CrawlRequest;
+import com.webcrawler.model.RecrawlUrl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interface for recrawling registered URLs, more often the more often their content changes
+ */
+public interface RecrawlService {
+
+    /**
+     * Registers a URL for recrawling, or replaces the request of a registered one; the URL
+     * is crawled as soon as the fetch budget allows
+     *
+     * @param request the crawl request used for every recrawl
+     * @return the registered URL
+     * @throws java.util.concurrent.RejectedExecutionException if the maximum number of URLs is registered
+     */
+    RecrawlUrl register(CrawlRequest request);
+
+    /**
+     * Stops recrawling a URL and forgets its history
+     *
+     * @param url the registered URL
+     * @return false if the URL was not registered
+     */
+    boolean unregister(String url);
+
+    /**
+     * Gets a registered URL with its change history and latest result
+     *
+     * @param url the registered URL
+     * @return the URL, or empty if it is not registered
+     */
+    Optional<RecrawlUrl> get(String url);
+
+    /**
+     * Lists registered URLs in URL order
+     *
+     * @param changedSince if not null, only URLs whose data last changed at or after this time
+     * @param offset index of the first URL to return
+     * @param limit maximum number of URLs to return
+     */
+    List<RecrawlUrl> list(LocalDateTime changedSince, int offset, int limit);
+}
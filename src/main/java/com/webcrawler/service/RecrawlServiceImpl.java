@@ -0,0 +1,620 @@
+package com.webcrawler.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.webcrawler.config.RecrawlConfig;
+import com.webcrawler.model.CrawlField;
+import com.webcrawler.model.CrawlRequest;
+import com.webcrawler.model.CrawlResponse;
+import com.webcrawler.model.RecrawlUrl;
+import com.webcrawler.model.RenderPriority;
+import com.webcrawler.util.UrlNormalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of RecrawlService that spends a fixed number of fetches per hour on the
+ * registered URLs whose stored results are most likely out of date.
+ *
+ * <p>Each recrawl hashes the extracted data and compares it with the previous crawl. The
+ * share of recrawls that found a change and the mean time between them are kept as moving
+ * averages, from which the page's change rate is estimated, assuming changes arrive as a
+ * Poisson process. Every {@code tickMs} the scheduler adds the budget that accrued since
+ * the last tick and starts the URLs with the highest expected staleness, i.e. how long
+ * their stored result has probably been out of date. URLs never crawled, and those not
+ * crawled for {@code maxIntervalMs}, go first; no URL is recrawled within
+ * {@code minIntervalMs} of its last attempt, and one that never changed waits for
+ * {@code maxIntervalMs}.
+ *
+ * <p>If a store path is configured, the registered URLs and their history are written to it
+ * at most once per {@code saveIntervalMs} and on shutdown, and reloaded on startup; the
+ * latest results are kept in memory only.
+ */
+@Service
+@Slf4j
+public class RecrawlServiceImpl implements RecrawlService {
+
+    private static final String STORE_HEADER = "# recrawl v1";
+    private static final double MILLIS_PER_HOUR = 3_600_000.0;
+    private static final double MILLIS_PER_DAY = 86_400_000.0;
+
+    private final CrawlerService crawlerService;
+    private final RecrawlConfig recrawlConfig;
+    private final Clock clock;
+    private final Executor fetchExecutor;
+    private final TreeMap<String, TrackedUrl> urls = new TreeMap<>();
+    private final Map<String, Counter> fetches = new HashMap<>();
+    private final Path storePath;
+    private final Object storeLock = new Object();
+    private ScheduledExecutorService ticker;
+    private double budget;
+    private long lastTickMillis;
+    private int running;
+    private long lastSavedMillis;
+    private boolean dirty;
+
+    @Autowired
+    public RecrawlServiceImpl(CrawlerService crawlerService, RecrawlConfig recrawlConfig, MeterRegistry meterRegistry) {
+        this(crawlerService, recrawlConfig, meterRegistry, Clock.systemUTC(), newFetchPool(recrawlConfig));
+    }
+
+    RecrawlServiceImpl(CrawlerService crawlerService, RecrawlConfig recrawlConfig, MeterRegistry meterRegistry,
+                       Clock clock, Executor fetchExecutor) {
+        this.crawlerService = crawlerService;
+        this.recrawlConfig = recrawlConfig;
+        this.clock = clock;
+        this.fetchExecutor = fetchExecutor;
+        this.storePath = recrawlConfig.getStorePath() == null || recrawlConfig.getStorePath().isBlank()
+                ? null : Path.of(recrawlConfig.getStorePath());
+        this.lastTickMillis = clock.millis();
+        this.lastSavedMillis = lastTickMillis;
+
+        for (String result : List.of("new", "changed", "unchanged", "failed")) {
+            fetches.put(result, Counter.builder("crawler.recrawl.fetches")
+                    .tag("result", result)
+                    .description("Recrawls by whether the extracted data changed since the previous crawl")
+                    .register(meterRegistry));
+        }
+        Gauge.builder("crawler.recrawl.urls", this, RecrawlServiceImpl::urlCount)
+                .description("URLs registered for recrawling")
+                .register(meterRegistry);
+
+        if (storePath != null) {
+            load();
+        }
+    }
+
+    /**
+     * A registered URL and its change history; guarded by the service
+     */
+    private static final class TrackedUrl {
+        private final String key;
+        private final CrawlRequest request;
+        private boolean inFlight;
+        private long lastAttemptMillis;
+        private long lastCrawledMillis;
+        private long lastChangedMillis;
+        private long contentHash;
+        private int recrawls;
+        private long changes;
+        private double changeRatio;
+        private double meanIntervalMs;
+        private String lastError;
+        private CrawlResponse result;
+
+        TrackedUrl(String key, CrawlRequest request) {
+            this.key = key;
+            this.request = request;
+        }
+
+        /**
+         * Records a recrawl that compared the data with that of the previous crawl
+         */
+        void observe(boolean changed, long intervalMs, double decay) {
+            if (recrawls < Integer.MAX_VALUE) {
+                recrawls++;
+            }
+            if (changed) {
+                changes++;
+            }
+            // Plain average while there are few recrawls, exponential decay afterwards
+            double weight = Math.max(decay, 1.0 / recrawls);
+            changeRatio += weight * ((changed ? 1.0 : 0.0) - changeRatio);
+            meanIntervalMs += weight * (intervalMs - meanIntervalMs);
+        }
+    }
+
+    private record Candidate(TrackedUrl tracked, double staleness) {
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "recrawl-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tick, recrawlConfig.getTickMs(), recrawlConfig.getTickMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        if (fetchExecutor instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+        save(true);
+    }
+
+    @Override
+    public RecrawlUrl register(CrawlRequest request) {
+        String key = UrlNormalizer.normalize(request.getUrl());
+        CrawlRequest recrawlRequest = recrawlRequest(request.getUrl(),
+                request.getFields() != null ? Set.copyOf(request.getFields()) : null,
+                request.getClassify(),
+                request.getRenderPriority() != null ? request.getRenderPriority() : RenderPriority.LOW);
+        RecrawlUrl registered;
+        synchronized (this) {
+            TrackedUrl tracked = urls.get(key);
+            if (tracked == null && urls.size() >= recrawlConfig.getMaxUrls()) {
+                throw new RejectedExecutionException("At most " + recrawlConfig.getMaxUrls() + " URLs can be registered for recrawling");
+            }
+            TrackedUrl replacement = new TrackedUrl(key, recrawlRequest);
+            // The history only carries over if the same fields are extracted, or every recrawl would look like a change
+            if (tracked != null && Objects.equals(tracked.request.getFields(), recrawlRequest.getFields())) {
+                copyHistory(tracked, replacement);
+            }
+            urls.put(key, replacement);
+            dirty = true;
+            registered = snapshot(replacement, clock.millis());
+        }
+        save(false);
+        log.info("Registered URL for recrawling: {}", request.getUrl());
+        return registered;
+    }
+
+    @Override
+    public boolean unregister(String url) {
+        synchronized (this) {
+            if (urls.remove(UrlNormalizer.normalize(url)) == null) {
+                return false;
+            }
+            dirty = true;
+        }
+        save(false);
+        log.info("Unregistered URL from recrawling: {}", url);
+        return true;
+    }
+
+    @Override
+    public synchronized Optional<RecrawlUrl> get(String url) {
+        TrackedUrl tracked = urls.get(UrlNormalizer.normalize(url));
+        return tracked != null ? Optional.of(snapshot(tracked, clock.millis())) : Optional.empty();
+    }
+
+    @Override
+    public synchronized List<RecrawlUrl> list(LocalDateTime changedSince, int offset, int limit) {
+        long sinceMillis = changedSince != null ? changedSince.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+        long now = clock.millis();
+        int skip = Math.max(offset, 0);
+        List<RecrawlUrl> page = new ArrayList<>();
+        for (TrackedUrl tracked : urls.values()) {
+            if (page.size() >= limit) {
+                break;
+            }
+            if (changedSince != null && (tracked.lastChangedMillis == 0 || tracked.lastChangedMillis < sinceMillis)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            page.add(snapshot(tracked, now));
+        }
+        return page;
+    }
+
+    /**
+     * Adds the budget accrued since the last tick and starts the most stale URLs it pays for
+     */
+    void tick() {
+        List<TrackedUrl> batch;
+        synchronized (this) {
+            long now = clock.millis();
+            double perHour = Math.max(recrawlConfig.getFetchesPerHour(), 0);
+            // Budget left over by idle ticks is not saved up for a burst later
+            double cap = Math.max(1, perHour * recrawlConfig.getTickMs() / MILLIS_PER_HOUR);
+            budget = Math.min(cap, budget + (now - lastTickMillis) * perHour / MILLIS_PER_HOUR);
+            lastTickMillis = now;
+            int slots = (int) Math.min(budget, recrawlConfig.getMaxConcurrency() - running);
+            if (slots <= 0) {
+                return;
+            }
+            batch = mostStale(now, slots);
+            for (TrackedUrl tracked : batch) {
+                tracked.inFlight = true;
+                tracked.lastAttemptMillis = now;
+            }
+            budget -= batch.size();
+            running += batch.size();
+        }
+        for (TrackedUrl tracked : batch) {
+            try {
+                fetchExecutor.execute(() -> recrawl(tracked));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                synchronized (this) {
+                    tracked.inFlight = false;
+                    running--;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return up to {@code limit} URLs that may be recrawled now, most stale first
+     */
+    private List<TrackedUrl> mostStale(long now, int limit) {
+        PriorityQueue<Candidate> top = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Candidate::staleness));
+        for (TrackedUrl tracked : urls.values()) {
+            double staleness = priority(tracked, now);
+            if (staleness > 0 && (top.size() < limit || staleness > top.peek().staleness())) {
+                top.add(new Candidate(tracked, staleness));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        List<TrackedUrl> batch = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            batch.add(top.poll().tracked());
+        }
+        return batch.reversed();
+    }
+
+    /**
+     * @return how urgently a URL should be recrawled: infinite if it was never crawled or its
+     * maximum interval has passed, otherwise its expected staleness; 0 if it must wait
+     */
+    private double priority(TrackedUrl tracked, long now) {
+        if (tracked.inFlight || (tracked.lastAttemptMillis > 0
+                && now - tracked.lastAttemptMillis < recrawlConfig.getMinIntervalMs())) {
+            return 0;
+        }
+        long ageMs = now - tracked.lastCrawledMillis;
+        if (tracked.lastCrawledMillis == 0 || ageMs >= recrawlConfig.getMaxIntervalMs()) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return expectedStaleness(changeRate(tracked), ageMs);
+    }
+
+    private void recrawl(TrackedUrl tracked) {
+        CrawlResponse response = null;
+        String error;
+        try {
+            response = crawlerService.crawl(tracked.request);
+            error = Boolean.TRUE.equals(response.getSuccess()) && response.getData() != null ? null
+                    : Objects.requireNonNullElse(response.getMessage(), "Crawl failed with status " + response.getStatusCode());
+        } catch (RuntimeException e) {
+            log.warn("Recrawl of {} failed: {}", tracked.request.getUrl(), e.getMessage());
+            error = "Failed to crawl URL: " + e.getMessage();
+        }
+
+        String result;
+        synchronized (this) {
+            running--;
+            tracked.inFlight = false;
+            if (urls.get(tracked.key) != tracked) {
+                // Unregistered or registered again meanwhile
+                return;
+            }
+            long now = clock.millis();
+            if (error != null) {
+                tracked.lastError = error;
+                result = "failed";
+            } else {
+                long hash = contentHash(response.getData());
+                if (tracked.lastCrawledMillis == 0) {
+                    result = "new";
+                    tracked.lastChangedMillis = now;
+                } else {
+                    boolean changed = hash != tracked.contentHash;
+                    tracked.observe(changed, now - tracked.lastCrawledMillis, recrawlConfig.getDecay());
+                    if (changed) {
+                        tracked.lastChangedMillis = now;
+                    }
+                    result = changed ? "changed" : "unchanged";
+                }
+                tracked.contentHash = hash;
+                tracked.lastCrawledMillis = now;
+                tracked.lastError = null;
+                tracked.result = response;
+            }
+            dirty = true;
+        }
+        fetches.get(result).increment();
+        save(false);
+    }
+
+    /**
+     * @return estimated changes of the URL's data per millisecond
+     */
+    private double changeRate(TrackedUrl tracked) {
+        if (tracked.recrawls == 0 || tracked.meanIntervalMs <= 0) {
+            return 1.0 / recrawlConfig.getInitialIntervalMs();
+        }
+        return changeRate(tracked.recrawls, tracked.changeRatio, tracked.meanIntervalMs, recrawlConfig.getDecay());
+    }
+
+    /**
+     * Estimates how often a page changes from its recrawls. A recrawl only shows whether the
+     * page changed since the previous one, not how often, so the share of changed recrawls
+     * undercounts changes; Cho and Garcia-Molina's estimator corrects for that and stays
+     * finite when every recrawl found a change.
+     *
+     * @param recrawls recrawls observed
+     * @param changeRatio share of recrawls that found a change
+     * @param meanIntervalMs mean time between recrawls
+     * @param decay weight of the newest recrawl, which bounds how many recrawls the averages reflect
+     * @return estimated changes per millisecond
+     */
+    static double changeRate(int recrawls, double changeRatio, double meanIntervalMs, double decay) {
+        double samples = decay > 0 ? Math.min(recrawls, 1 / decay) : recrawls;
+        return Math.max(0, -Math.log((samples * (1 - changeRatio) + 0.5) / (samples + 0.5)) / meanIntervalMs);
+    }
+
+    /**
+     * Expected time a copy crawled {@code ageMs} ago has been out of date: its age minus the
+     * expected time until the page's first change since
+     *
+     * @param rate changes per millisecond
+     */
+    static double expectedStaleness(double rate, long ageMs) {
+        double changes = rate * ageMs;
+        if (changes < 1e-6) {
+            // Avoids the cancellation below; the first term of the series is exact enough
+            return ageMs * changes / 2;
+        }
+        return ageMs + Math.expm1(-changes) / rate;
+    }
+
+    /**
+     * Hashes the page fields of crawl result data. Other keys, such as the {@code rendering} details,
+     * describe how the page was fetched and would count a page as changed when only its fetch differed.
+     */
+    private static long contentHash(JsonNode data) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (CrawlField field : CrawlField.values()) {
+                JsonNode value = data.get(field.getKey());
+                if (value != null) {
+                    digest.update((field.getKey() + "=" + value + "\n").getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            return ByteBuffer.wrap(digest.digest()).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private RecrawlUrl snapshot(TrackedUrl tracked, long now) {
+        double rate = changeRate(tracked);
+        return RecrawlUrl.builder()
+                .url(tracked.request.getUrl())
+                .recrawls(tracked.recrawls)
+                .changes(tracked.changes)
+                .changesPerDay(tracked.recrawls > 0 ? rate * MILLIS_PER_DAY : null)
+                .expectedStalenessMs(tracked.lastCrawledMillis > 0
+                        ? (long) expectedStaleness(rate, now - tracked.lastCrawledMillis) : null)
+                .lastCrawledAt(toDateTime(tracked.lastCrawledMillis))
+                .lastChangedAt(toDateTime(tracked.lastChangedMillis))
+                .lastError(tracked.lastError)
+                .result(tracked.result)
+                .build();
+    }
+
+    private synchronized int urlCount() {
+        return urls.size();
+    }
+
+    private static void copyHistory(TrackedUrl from, TrackedUrl to) {
+        to.lastAttemptMillis = from.lastAttemptMillis;
+        to.lastCrawledMillis = from.lastCrawledMillis;
+        to.lastChangedMillis = from.lastChangedMillis;
+        to.contentHash = from.contentHash;
+        to.recrawls = from.recrawls;
+        to.changes = from.changes;
+        to.changeRatio = from.changeRatio;
+        to.meanIntervalMs = from.meanIntervalMs;
+        to.lastError = from.lastError;
+        to.result = from.result;
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return millis > 0 ? LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()) : null;
+    }
+
+    private static ThreadPoolExecutor newFetchPool(RecrawlConfig recrawlConfig) {
+        AtomicInteger threadCount = new AtomicInteger();
+        // The scheduler never starts more than maxConcurrency recrawls, so the queue stays short
+        return new ThreadPoolExecutor(
+                recrawlConfig.getMaxConcurrency(),
+                recrawlConfig.getMaxConcurrency(),
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "recrawl-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Writes the registered URLs to the store file if there are changes and, unless forced,
+     * the save interval has passed
+     */
+    private void save(boolean force) {
+        if (storePath == null) {
+            return;
+        }
+        List<String> lines;
+        synchronized (this) {
+            long now = clock.millis();
+            if (!dirty || (!force && now - lastSavedMillis < recrawlConfig.getSaveIntervalMs())) {
+                return;
+            }
+            dirty = false;
+            lastSavedMillis = now;
+            lines = new ArrayList<>(urls.size() + 1);
+            lines.add(STORE_HEADER);
+            for (TrackedUrl tracked : urls.values()) {
+                CrawlRequest request = tracked.request;
+                lines.add(String.join("\t",
+                        request.getUrl(),
+                        request.getFields() == null ? "*"
+                                : request.getFields().stream().map(CrawlField::getKey).sorted().collect(Collectors.joining(",")),
+                        request.getClassify() == null ? "" : request.getClassify().toString(),
+                        request.getRenderPriority().name(),
+                        Long.toHexString(tracked.contentHash),
+                        Long.toString(tracked.lastCrawledMillis),
+                        Long.toString(tracked.lastChangedMillis),
+                        Integer.toString(tracked.recrawls),
+                        Long.toString(tracked.changes),
+                        Double.toString(tracked.changeRatio),
+                        Double.toString(tracked.meanIntervalMs)));
+            }
+        }
+
+        // Written next to the store and renamed over it, so a crash never leaves a half-written file
+        synchronized (storeLock) {
+            Path temp = storePath.resolveSibling(storePath.getFileName() + ".tmp");
+            try {
+                Files.createDirectories(storePath.toAbsolutePath().getParent());
+                try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    for (String line : lines) {
+                        writer.write(line);
+                        writer.newLine();
+                    }
+                }
+                Files.move(temp, storePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                log.debug("Saved {} recrawl URLs to {}", lines.size() - 1, storePath);
+            } catch (IOException e) {
+                log.warn("Could not save recrawl store {}: {}", storePath, e.getMessage());
+            }
+        }
+    }
+
+    private void load() {
+        int loaded = 0;
+        try (BufferedReader reader = Files.newBufferedReader(storePath, StandardCharsets.UTF_8)) {
+            if (!STORE_HEADER.equals(reader.readLine())) {
+                log.warn("Ignoring recrawl store {} with unknown format", storePath);
+                return;
+            }
+            String line;
+            while ((line = reader.readLine()) != null && urls.size() < recrawlConfig.getMaxUrls()) {
+                String[] fields = line.split("\t", -1);
+                if (fields.length != 11) {
+                    continue;
+                }
+                try {
+                    CrawlRequest request = recrawlRequest(fields[0], parseFields(fields[1]),
+                            fields[2].isEmpty() ? null : Boolean.valueOf(fields[2]), RenderPriority.valueOf(fields[3]));
+                    TrackedUrl tracked = new TrackedUrl(UrlNormalizer.normalize(fields[0]), request);
+                    tracked.contentHash = Long.parseUnsignedLong(fields[4], 16);
+                    tracked.lastCrawledMillis = Long.parseLong(fields[5]);
+                    tracked.lastChangedMillis = Long.parseLong(fields[6]);
+                    tracked.recrawls = Integer.parseInt(fields[7]);
+                    tracked.changes = Long.parseLong(fields[8]);
+                    tracked.changeRatio = Double.parseDouble(fields[9]);
+                    tracked.meanIntervalMs = Double.parseDouble(fields[10]);
+                    urls.put(tracked.key, tracked);
+                    loaded++;
+                } catch (IllegalArgumentException e) {
+                    log.debug("Skipping malformed recrawl entry: {}", line);
+                }
+            }
+            log.info("Loaded {} recrawl URLs from {}", loaded, storePath);
+        } catch (NoSuchFileException e) {
+            log.debug("No recrawl store at {} yet", storePath);
+        } catch (IOException e) {
+            log.warn("Could not load recrawl store {}: {}", storePath, e.getMessage());
+        }
+    }
+
+    /**
+     * Recrawls revalidate fresh cached results: serving one would spend the fetch budget without
+     * a fetch and count the page as unchanged, lowering its estimated change rate
+     */
+    private static CrawlRequest recrawlRequest(String url, Set<CrawlField> fields, Boolean classify,
+                                               RenderPriority renderPriority) {
+        return new CrawlRequest(url, fields, classify, renderPriority, true);
+    }
+
+    private static Set<CrawlField> parseFields(String keys) {
+        if (keys.equals("*")) {
+            return null;
+        }
+        Set<CrawlField> fields = EnumSet.noneOf(CrawlField.class);
+        for (String key : keys.split(",")) {
+            if (key.isEmpty()) {
+                continue;
+            }
+            CrawlField field = null;
+            for (CrawlField candidate : CrawlField.values()) {
+                if (candidate.getKey().equals(key)) {
+                    field = candidate;
+                }
+            }
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown field " + key);
+            }
+            fields.add(field);
+        }
+        return fields;
+    }
+}
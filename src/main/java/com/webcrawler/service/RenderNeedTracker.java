@@ -0,0 +1,269 @@
+package com.webcrawler.service;
+
+import com.webcrawler.config.RenderNeedConfig;
+import com.webcrawler.util.ExpiringLruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Learns per host whether static fetches come back without body text, i.e. whether the
+ * host's pages need JavaScript rendering.
+ *
+ * <p>Each host keeps a moving average of how many of its static fetches were empty. Once
+ * {@code minSamples} fetches were seen, a host whose pages are (almost) always empty is
+ * rendered straight away, and one whose pages (almost) never are skips the empty-body check.
+ * Every {@code probeInterval}th crawl of a classified host takes the full path again, so
+ * hosts that change are reclassified; hosts not crawled for {@code hostTtlMs} are forgotten.
+ *
+ * <p>If a store path is configured, the learned hosts are written to it at most once per
+ * {@code saveIntervalMs} and on shutdown, and reloaded on startup.
+ */
+@Component
+@Slf4j
+public class RenderNeedTracker {
+
+    private static final String STORE_HEADER = "# render-need v1";
+
+    /**
+     * How a page should be fetched
+     */
+    public enum Decision {
+        /**
+         * Go straight to the browser
+         */
+        RENDER,
+        /**
+         * Fetch statically and use the result even if its body is empty
+         */
+        STATIC,
+        /**
+         * Fetch statically and render if the body is empty; the result is recorded
+         */
+        PROBE
+    }
+
+    private final RenderNeedConfig renderNeedConfig;
+    private final Clock clock;
+    private final ExpiringLruCache<String, HostStats> hosts;
+    private final Map<Decision, Counter> decisions = new EnumMap<>(Decision.class);
+    private final Path storePath;
+    private final Object storeLock = new Object();
+    private long lastSavedMillis;
+    private boolean dirty;
+
+    @Autowired
+    public RenderNeedTracker(RenderNeedConfig renderNeedConfig, MeterRegistry meterRegistry) {
+        this(renderNeedConfig, meterRegistry, Clock.systemUTC());
+    }
+
+    RenderNeedTracker(RenderNeedConfig renderNeedConfig, MeterRegistry meterRegistry, Clock clock) {
+        this.renderNeedConfig = renderNeedConfig;
+        this.clock = clock;
+        this.hosts = new ExpiringLruCache<>(renderNeedConfig.getMaxHosts(), clock);
+        this.storePath = renderNeedConfig.getStorePath() == null || renderNeedConfig.getStorePath().isBlank()
+                ? null : Path.of(renderNeedConfig.getStorePath());
+        this.lastSavedMillis = clock.millis();
+
+        for (Decision decision : Decision.values()) {
+            decisions.put(decision, Counter.builder("crawler.render.decisions")
+                    .tag("decision", decision.name().toLowerCase(Locale.ROOT))
+                    .description("Crawls by how the render-need tracker decided to fetch them")
+                    .register(meterRegistry));
+        }
+        Gauge.builder("crawler.render.hosts", hosts, ExpiringLruCache::size)
+                .description("Hosts whose render need is being tracked")
+                .register(meterRegistry);
+
+        if (renderNeedConfig.isEnabled() && storePath != null) {
+            load();
+        }
+    }
+
+    /**
+     * Per-host moving average of empty static fetches; guarded by the tracker
+     */
+    private static final class HostStats {
+        private double emptyRatio;
+        private int samples;
+        private int crawlsSinceProbe;
+        private long lastSeenMillis;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        save(true);
+    }
+
+    /**
+     * Decides how to fetch a page, based on what was learned about its host
+     *
+     * @param url the URL about to be crawled
+     */
+    public Decision decide(String url) {
+        Decision decision = Decision.PROBE;
+        String host = renderNeedConfig.isEnabled() ? hostOf(url) : null;
+        if (host != null) {
+            synchronized (this) {
+                HostStats stats = hosts.peek(host);
+                if (stats != null && stats.samples >= renderNeedConfig.getMinSamples()) {
+                    decision = classify(stats);
+                    if (decision != Decision.PROBE && ++stats.crawlsSinceProbe >= renderNeedConfig.getProbeInterval()) {
+                        stats.crawlsSinceProbe = 0;
+                        decision = Decision.PROBE;
+                    }
+                }
+            }
+        }
+        decisions.get(decision).increment();
+        return decision;
+    }
+
+    /**
+     * Records the outcome of a static fetch made for a {@link Decision#PROBE}
+     *
+     * @param url the fetched URL
+     * @param empty true if the page had no body text
+     */
+    public void recordStaticFetch(String url, boolean empty) {
+        String host = renderNeedConfig.isEnabled() ? hostOf(url) : null;
+        if (host == null) {
+            return;
+        }
+        synchronized (this) {
+            HostStats stats = hosts.peek(host);
+            if (stats == null) {
+                stats = new HostStats();
+            }
+            if (stats.samples < Integer.MAX_VALUE) {
+                stats.samples++;
+            }
+            // Plain average while there are few samples, exponential decay afterwards
+            double weight = Math.max(renderNeedConfig.getDecay(), 1.0 / stats.samples);
+            stats.emptyRatio += weight * ((empty ? 1.0 : 0.0) - stats.emptyRatio);
+            stats.lastSeenMillis = clock.millis();
+            hosts.put(host, stats, Duration.ofMillis(renderNeedConfig.getHostTtlMs()));
+            dirty = true;
+        }
+        save(false);
+    }
+
+    private Decision classify(HostStats stats) {
+        if (stats.emptyRatio >= renderNeedConfig.getRenderThreshold()) {
+            return Decision.RENDER;
+        }
+        if (stats.emptyRatio <= renderNeedConfig.getStaticThreshold()) {
+            return Decision.STATIC;
+        }
+        return Decision.PROBE;
+    }
+
+    /**
+     * Writes the learned hosts to the store file if there are changes and, unless forced,
+     * the save interval has passed
+     */
+    private void save(boolean force) {
+        if (storePath == null) {
+            return;
+        }
+        List<String> lines;
+        synchronized (this) {
+            long now = clock.millis();
+            if (!dirty || (!force && now - lastSavedMillis < renderNeedConfig.getSaveIntervalMs())) {
+                return;
+            }
+            dirty = false;
+            lastSavedMillis = now;
+            lines = new ArrayList<>(hosts.size() + 1);
+            lines.add(STORE_HEADER);
+            for (Map.Entry<String, HostStats> entry : hosts.snapshot().entrySet()) {
+                HostStats stats = entry.getValue();
+                lines.add(entry.getKey() + '\t' + stats.emptyRatio + '\t' + stats.samples + '\t' + stats.lastSeenMillis);
+            }
+        }
+
+        // Written next to the store and renamed over it, so a crash never leaves a half-written file
+        synchronized (storeLock) {
+            Path temp = storePath.resolveSibling(storePath.getFileName() + ".tmp");
+            try {
+                Files.createDirectories(storePath.toAbsolutePath().getParent());
+                try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    for (String line : lines) {
+                        writer.write(line);
+                        writer.newLine();
+                    }
+                }
+                Files.move(temp, storePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                log.debug("Saved render need of {} hosts to {}", lines.size() - 1, storePath);
+            } catch (IOException e) {
+                log.warn("Could not save render need store {}: {}", storePath, e.getMessage());
+            }
+        }
+    }
+
+    private void load() {
+        long now = clock.millis();
+        int loaded = 0;
+        try (BufferedReader reader = Files.newBufferedReader(storePath, StandardCharsets.UTF_8)) {
+            if (!STORE_HEADER.equals(reader.readLine())) {
+                log.warn("Ignoring render need store {} with unknown format", storePath);
+                return;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t");
+                if (fields.length != 4) {
+                    continue;
+                }
+                try {
+                    HostStats stats = new HostStats();
+                    stats.emptyRatio = Double.parseDouble(fields[1]);
+                    stats.samples = Integer.parseInt(fields[2]);
+                    stats.lastSeenMillis = Long.parseLong(fields[3]);
+                    long ttlMs = stats.lastSeenMillis + renderNeedConfig.getHostTtlMs() - now;
+                    if (ttlMs > 0) {
+                        hosts.put(fields[0], stats, Duration.ofMillis(ttlMs));
+                        loaded++;
+                    }
+                } catch (NumberFormatException e) {
+                    log.debug("Skipping malformed render need entry: {}", line);
+                }
+            }
+            log.info("Loaded render need of {} hosts from {}", loaded, storePath);
+        } catch (NoSuchFileException e) {
+            log.debug("No render need store at {} yet", storePath);
+        } catch (IOException e) {
+            log.warn("Could not load render need store {}: {}", storePath, e.getMessage());
+        }
+    }
+
+    private static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase(Locale.ROOT) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
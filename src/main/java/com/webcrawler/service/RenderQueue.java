@@ -0,0 +1,257 @@
+package com.webcrawler.service;
+
+import com.webcrawler.config.RenderQueueConfig;
+import com.webcrawler.model.RenderPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs JavaScript renders on their own bounded set of workers, apart from static fetches.
+ *
+ * <p>Waiting renders start in priority order, first come first served within a priority.
+ * A render that has waited longer than {@code deadlineMs} is dropped before it starts, and
+ * renders are refused outright when {@code maxQueued} are already waiting or the global
+ * {@code rendersPerMinute} budget is used up. Refused and dropped renders surface as
+ * {@link RenderRejectedException} so callers can fall back to the static result.
+ *
+ * <p>A render takes its turn on the page's host only once a worker starts it, so renders
+ * waiting in the queue do not hold the host's politeness slots.
+ */
+@Component
+@Slf4j
+public class RenderQueue {
+
+    private final JavaScriptRenderer javaScriptRenderer;
+    private final RenderQueueConfig renderQueueConfig;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final RenderBudget budget;
+    private final Map<RenderRejectedException.Reason, Counter> rejections =
+            new EnumMap<>(RenderRejectedException.Reason.class);
+
+    public RenderQueue(JavaScriptRenderer javaScriptRenderer, RenderQueueConfig renderQueueConfig,
+                       MeterRegistry meterRegistry) {
+        this.javaScriptRenderer = javaScriptRenderer;
+        this.renderQueueConfig = renderQueueConfig;
+        this.budget = new RenderBudget(renderQueueConfig.getRendersPerMinute());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                renderQueueConfig.getWorkers(),
+                renderQueueConfig.getWorkers(),
+                60, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "render-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        for (RenderRejectedException.Reason reason : RenderRejectedException.Reason.values()) {
+            rejections.put(reason, Counter.builder("crawler.render.queue.rejected")
+                    .tag("reason", reason.getKey())
+                    .description("Renders not run, by reason")
+                    .register(meterRegistry));
+        }
+        Gauge.builder("crawler.render.queue.size", queued, AtomicInteger::get)
+                .description("Renders waiting to start")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Renders a page on a render worker and waits for the result, without taking a host turn
+     *
+     * @see #render(String, RenderPriority, HostTurn)
+     */
+    public JavaScriptRenderer.RenderedPage render(String url, RenderPriority priority) throws RenderRejectedException {
+        return render(url, priority, null);
+    }
+
+    /**
+     * Renders a page on a render worker and waits for the result
+     *
+     * @param url the URL to render
+     * @param priority the render's priority class
+     * @param hostTurn takes the turn on the URL's host once the render starts, released when it ends; may be null
+     * @return the rendered page
+     * @throws RenderRejectedException if the render was refused or its deadline passed before it started
+     * @throws RuntimeException if rendering failed, no host turn was granted or the wait was interrupted
+     */
+    public JavaScriptRenderer.RenderedPage render(String url, RenderPriority priority, HostTurn hostTurn)
+            throws RenderRejectedException {
+        if (!budget.tryAcquire()) {
+            throw reject(RenderRejectedException.Reason.BUDGET_EXHAUSTED, url);
+        }
+        if (queued.incrementAndGet() > renderQueueConfig.getMaxQueued()) {
+            queued.decrementAndGet();
+            budget.refund();
+            throw reject(RenderRejectedException.Reason.QUEUE_FULL, url);
+        }
+
+        RenderTask task = new RenderTask(url, priority, hostTurn, sequence.getAndIncrement(),
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(renderQueueConfig.getDeadlineMs()));
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            budget.refund();
+            throw new IllegalStateException("Render queue is shut down", e);
+        }
+
+        try {
+            return task.result.get();
+        } catch (InterruptedException e) {
+            // The worker skips a render whose caller is gone
+            task.result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("JavaScript rendering interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RenderRejectedException rejected) {
+                throw reject(rejected.getReason(), url);
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Failed to render page: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * @return number of renders waiting to start
+     */
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    private RenderRejectedException reject(RenderRejectedException.Reason reason, String url) {
+        rejections.get(reason).increment();
+        log.info("Skipping JavaScript render of {}: {}", url, reason.getKey());
+        return new RenderRejectedException(reason);
+    }
+
+    /**
+     * Takes the turn on a host that a render needs, on the render worker right before the render starts
+     */
+    @FunctionalInterface
+    public interface HostTurn {
+        HostPolitenessScheduler.Permit await() throws IOException;
+    }
+
+    /**
+     * A queued render, ordered by priority and then by arrival
+     */
+    private final class RenderTask implements Runnable, Comparable<RenderTask> {
+        private final String url;
+        private final RenderPriority priority;
+        private final HostTurn hostTurn;
+        private final long sequence;
+        private final long deadlineNanos;
+        private final CompletableFuture<JavaScriptRenderer.RenderedPage> result = new CompletableFuture<>();
+
+        private RenderTask(String url, RenderPriority priority, HostTurn hostTurn, long sequence, long deadlineNanos) {
+            this.url = url;
+            this.priority = priority;
+            this.hostTurn = hostTurn;
+            this.sequence = sequence;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public void run() {
+            queued.decrementAndGet();
+            if (result.isDone()) {
+                budget.refund();
+                return;
+            }
+            if (System.nanoTime() - deadlineNanos >= 0) {
+                budget.refund();
+                result.completeExceptionally(new RenderRejectedException(RenderRejectedException.Reason.DEADLINE_EXPIRED));
+                return;
+            }
+            HostPolitenessScheduler.Permit permit = null;
+            try {
+                if (hostTurn != null) {
+                    permit = hostTurn.await();
+                }
+                result.complete(javaScriptRenderer.render(url));
+            } catch (IOException e) {
+                result.completeExceptionally(new RuntimeException("Failed to render page: " + e.getMessage(), e));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            } finally {
+                if (permit != null) {
+                    permit.release();
+                }
+            }
+        }
+
+        @Override
+        public int compareTo(RenderTask other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Token bucket of renders per minute, refilled continuously up to one minute's worth
+     */
+    private static final class RenderBudget {
+        private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+        private final int rendersPerMinute;
+        private double tokens;
+        private long refilledAtNanos;
+
+        private RenderBudget(int rendersPerMinute) {
+            this.rendersPerMinute = rendersPerMinute;
+            this.tokens = rendersPerMinute;
+            this.refilledAtNanos = System.nanoTime();
+        }
+
+        synchronized boolean tryAcquire() {
+            if (rendersPerMinute <= 0) {
+                return true;
+            }
+            long now = System.nanoTime();
+            tokens = Math.min(rendersPerMinute, tokens + (double) (now - refilledAtNanos) * rendersPerMinute / MINUTE_NANOS);
+            refilledAtNanos = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+
+        /**
+         * Returns the token of a render that was not run
+         */
+        synchronized void refund() {
+            if (rendersPerMinute > 0) {
+                tokens = Math.min(rendersPerMinute, tokens + 1);
+            }
+        }
+    }
+}
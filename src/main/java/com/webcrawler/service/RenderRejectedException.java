@@ -0,0 +1,41 @@
+package com.webcrawler.service;
+
+/**
+ * Thrown when the render queue does not render a page, so the caller can fall back to
+ * the static result
+ */
+public class RenderRejectedException extends Exception {
+
+    /**
+     * Why a render was not run
+     */
+    public enum Reason {
+        BUDGET_EXHAUSTED("budget_exhausted"),
+        QUEUE_FULL("queue_full"),
+        DEADLINE_EXPIRED("deadline_expired");
+
+        private final String key;
+
+        Reason(String key) {
+            this.key = key;
+        }
+
+        /**
+         * @return the name of the reason in response data
+         */
+        public String getKey() {
+            return key;
+        }
+    }
+
+    private final Reason reason;
+
+    public RenderRejectedException(Reason reason) {
+        super("JavaScript render skipped: " + reason.getKey());
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
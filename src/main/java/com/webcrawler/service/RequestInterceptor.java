@@ -0,0 +1,204 @@
+package com.webcrawler.service;
+
+import com.webcrawler.config.SeleniumConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Blocks requests a render does not need (images, fonts, stylesheets, trackers...) inside the
+ * browser, through the DevTools Protocol's Fetch domain, and counts them per render.
+ *
+ * <p>Only requests that may be blocked are paused: those of a blocked resource type or to a
+ * denied domain, or every request when an allow list of third-party domains is configured.
+ * Raw protocol commands are used so this does not depend on a Chrome-version-specific binding.
+ */
+@Slf4j
+final class RequestInterceptor {
+
+    private final DevTools devTools;
+    private final Set<String> blockedResourceTypes;
+    private final List<String> blockedDomains;
+    private final List<String> allowedDomains;
+    private final AtomicInteger blockedRequests = new AtomicInteger();
+    private volatile String pageHost;
+
+    RequestInterceptor(DevTools devTools, SeleniumConfig seleniumConfig) {
+        this.devTools = devTools;
+        this.blockedResourceTypes = seleniumConfig.getBlockedResourceTypes().stream()
+                .map(type -> type.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        this.blockedDomains = normalizeDomains(seleniumConfig.getBlockedDomains());
+        this.allowedDomains = normalizeDomains(seleniumConfig.getAllowedDomains());
+    }
+
+    /**
+     * Starts intercepting requests in the driver's browser
+     *
+     * @return the interceptor, or null if interception is disabled or the browser does not support it
+     */
+    static RequestInterceptor attach(WebDriver driver, SeleniumConfig seleniumConfig) {
+        if (!seleniumConfig.isRequestInterceptionEnabled() || !(driver instanceof HasDevTools hasDevTools)) {
+            return null;
+        }
+        try {
+            DevTools devTools = hasDevTools.getDevTools();
+            devTools.createSession();
+            RequestInterceptor interceptor = new RequestInterceptor(devTools, seleniumConfig);
+            devTools.addListener(new Event<>("Fetch.requestPaused", input -> input.<Map<String, Object>>read(Json.MAP_TYPE)),
+                    interceptor::onRequestPaused);
+            devTools.send(new Command<>("Fetch.enable", Map.of("patterns", interceptor.pausePatterns())));
+            return interceptor;
+        } catch (RuntimeException e) {
+            log.warn("Request interception unavailable, rendering without it: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Resets the blocked-request count for a render of the given page
+     */
+    void startPage(String url) {
+        pageHost = host(url);
+        blockedRequests.set(0);
+    }
+
+    /**
+     * @return number of requests blocked since {@link #startPage}
+     */
+    int getBlockedRequests() {
+        return blockedRequests.get();
+    }
+
+    void close() {
+        try {
+            devTools.close();
+        } catch (RuntimeException e) {
+            log.debug("Error closing DevTools session: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Whether a request made while rendering the current page should be blocked
+     *
+     * @param url the request URL
+     * @param resourceType the DevTools resource type, e.g. "Stylesheet" or "Script"
+     */
+    boolean shouldBlock(String url, String resourceType) {
+        if ("document".equalsIgnoreCase(resourceType)) {
+            return false;
+        }
+        if (resourceType != null && blockedResourceTypes.contains(resourceType.toLowerCase(Locale.ROOT))) {
+            return true;
+        }
+        String host = host(url);
+        if (host == null) {
+            return false;
+        }
+        if (matchesAny(host, blockedDomains)) {
+            return true;
+        }
+        return !allowedDomains.isEmpty() && !isSameSite(host, pageHost) && !matchesAny(host, allowedDomains);
+    }
+
+    /**
+     * Fetch.requestPattern objects selecting the requests to pause
+     */
+    List<Map<String, Object>> pausePatterns() {
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        if (!allowedDomains.isEmpty()) {
+            patterns.add(Map.of("urlPattern", "*"));
+            return patterns;
+        }
+        for (String type : blockedResourceTypes) {
+            // Pattern resource types are capitalized as in the protocol (Stylesheet, XHR...)
+            patterns.add(Map.of("resourceType", protocolResourceType(type)));
+        }
+        for (String domain : blockedDomains) {
+            patterns.add(Map.of("urlPattern", "*://" + domain + "/*"));
+            patterns.add(Map.of("urlPattern", "*://*." + domain + "/*"));
+        }
+        return patterns;
+    }
+
+    private void onRequestPaused(Map<String, Object> params) {
+        Object requestId = params.get("requestId");
+        Object request = params.get("request");
+        String url = request instanceof Map<?, ?> requestMap && requestMap.get("url") instanceof String value ? value : null;
+        String resourceType = params.get("resourceType") instanceof String value ? value : null;
+        try {
+            if (url != null && shouldBlock(url, resourceType)) {
+                blockedRequests.incrementAndGet();
+                devTools.send(new Command<>("Fetch.failRequest",
+                        Map.of("requestId", requestId, "errorReason", "BlockedByClient")));
+            } else {
+                devTools.send(new Command<>("Fetch.continueRequest", Map.of("requestId", requestId)));
+            }
+        } catch (RuntimeException e) {
+            // The page may have navigated away; the browser drops the paused request itself
+            log.debug("Could not resolve intercepted request {}: {}", url, e.getMessage());
+        }
+    }
+
+    private static String protocolResourceType(String type) {
+        return switch (type) {
+            case "xhr" -> "XHR";
+            case "texttrack" -> "TextTrack";
+            case "eventsource" -> "EventSource";
+            case "websocket" -> "WebSocket";
+            case "signedexchange" -> "SignedExchange";
+            case "cspviolationreport" -> "CSPViolationReport";
+            default -> Character.toUpperCase(type.charAt(0)) + type.substring(1);
+        };
+    }
+
+    private static boolean isSameSite(String host, String pageHost) {
+        return pageHost != null && (matches(host, pageHost) || matches(pageHost, host));
+    }
+
+    private static boolean matchesAny(String host, List<String> domains) {
+        for (String domain : domains) {
+            if (matches(host, domain)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the host is the domain or one of its subdomains
+     */
+    private static boolean matches(String host, String domain) {
+        return host.equals(domain)
+                || (host.endsWith(domain) && host.charAt(host.length() - domain.length() - 1) == '.');
+    }
+
+    private static List<String> normalizeDomains(List<String> domains) {
+        return domains.stream()
+                .map(domain -> domain.trim().toLowerCase(Locale.ROOT))
+                .filter(domain -> !domain.isEmpty())
+                .toList();
+    }
+
+    private static String host(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase(Locale.ROOT) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
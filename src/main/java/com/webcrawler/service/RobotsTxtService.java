@@ -1,5 +1,8 @@
 package com.webcrawler.service;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Service interface for robots.txt validation
  */
@@ -14,6 +17,29 @@ public interface RobotsTxtService {
      */
     boolean isAllowed(String url, String userAgent);
 
+    /**
+     * Gets the Crawl-delay that robots.txt asks of the given user agent on the URL's host
+     *
+     * @param url any URL on the host
+     * @param userAgent the user agent string
+     * @return the delay in milliseconds, or 0 if robots.txt sets none
+     */
+    default long getCrawlDelayMs(String url, String userAgent) {
+        return 0;
+    }
+
+    /**
+     * Fetches robots.txt in the background for every distinct host of the given URLs
+     * that is not cached yet, so later checks for those hosts do not wait on the network
+     *
+     * @param urls URLs whose hosts should be prefetched; invalid URLs are skipped
+     * @param userAgent the user agent string
+     * @return completes when every prefetch has finished, successfully or not
+     */
+    default CompletableFuture<Void> prefetch(Collection<String> urls, String userAgent) {
+        return CompletableFuture.completedFuture(null);
+    }
+
     /**
      * Gets the robots.txt rules for a given domain
      * Note: This method is internal and returns implementation-specific result type
@@ -1,38 +1,123 @@
 package com.webcrawler.service;
 
+import com.webcrawler.config.RobotsTxtConfig;
+import com.webcrawler.model.FetchRequest;
+import com.webcrawler.model.FetchResponse;
+import com.webcrawler.util.ExpiringLruCache;
+import com.webcrawler.util.RobotRulesMatcher;
+import com.webcrawler.util.SingleFlight;
 import crawlercommons.robots.BaseRobotRules;
 import crawlercommons.robots.SimpleRobotRulesParser;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.net.HttpURLConnection;
 import java.net.URI;
-import java.net.URL;
+import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 
 /**
- * Implementation of RobotsTxtService using crawler-commons library
+ * Implementation of RobotsTxtService using crawler-commons library.
+ * Fetched robots.txt files are cached per origin (scheme, host and port) in a bounded
+ * LRU cache; failures are cached for a shorter time than successful fetches.
+ * At most one fetch per origin is in flight: concurrent checks for a host that is
+ * not cached yet wait for that fetch instead of starting their own. If a store path is
+ * configured, fetched entries are also written to disk and reloaded after a restart.
  */
 @Service
 @Slf4j
 public class RobotsTxtServiceImpl implements RobotsTxtService {
 
+    /**
+     * RFC 9309 requires parsing at least the first 500 KiB
+     */
+    private static final int MAX_ROBOTS_TXT_SIZE = 500 * 1024;
+
+    /**
+     * RFC 9309 asks crawlers to follow at least five consecutive redirects
+     */
+    private static final int MAX_ROBOTS_TXT_REDIRECTS = 5;
+
+    private static final byte[] BLOCK_ALL_ROBOTS_TXT = "User-agent: *\nDisallow: /".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpFetcher httpFetcher;
+    private final RobotsTxtConfig robotsTxtConfig;
     private final SimpleRobotRulesParser robotParser = new SimpleRobotRulesParser();
+    private final Clock clock;
+    private final ExpiringLruCache<String, RobotsTxtEntry> robotsCache;
+    private final RobotsTxtStore robotsTxtStore;
+    private volatile boolean storeLoaded;
+    private final SingleFlight<String, RobotsTxtEntry> inFlightFetches = new SingleFlight<>();
+    private final ExecutorService prefetchExecutor;
+    private final Semaphore prefetchPermits;
+
+    @Autowired
+    public RobotsTxtServiceImpl(HttpFetcher httpFetcher, RobotsTxtConfig robotsTxtConfig, MeterRegistry meterRegistry) {
+        this(httpFetcher, robotsTxtConfig, meterRegistry, Clock.systemUTC());
+    }
+
+    RobotsTxtServiceImpl(HttpFetcher httpFetcher, RobotsTxtConfig robotsTxtConfig, MeterRegistry meterRegistry, Clock clock) {
+        this.httpFetcher = httpFetcher;
+        this.robotsTxtConfig = robotsTxtConfig;
+        this.clock = clock;
+        this.robotsCache = new ExpiringLruCache<>(robotsTxtConfig.getMaxCachedHosts(), clock);
+        this.robotsTxtStore = robotsTxtConfig.getStorePath() == null || robotsTxtConfig.getStorePath().isBlank()
+                ? null
+                : new RobotsTxtStore(Path.of(robotsTxtConfig.getStorePath()), robotsTxtConfig.getMaxCachedHosts(), clock);
+        this.prefetchExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("robots-prefetch-", 0).factory());
+        this.prefetchPermits = new Semaphore(robotsTxtConfig.getPrefetchConcurrency());
+
+        FunctionCounter.builder("crawler.robots.cache.requests", robotsCache, ExpiringLruCache::getHitCount)
+                .tag("result", "hit")
+                .description("robots.txt lookups answered from the cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("crawler.robots.cache.requests", robotsCache, ExpiringLruCache::getMissCount)
+                .tag("result", "miss")
+                .description("robots.txt lookups that had to fetch robots.txt")
+                .register(meterRegistry);
+        FunctionCounter.builder("crawler.robots.cache.evictions", robotsCache, ExpiringLruCache::getEvictionCount)
+                .description("Cached robots.txt entries evicted to stay within the size limit")
+                .register(meterRegistry);
+        Gauge.builder("crawler.robots.cache.size", robotsCache, ExpiringLruCache::size)
+                .description("Hosts with a cached robots.txt")
+                .register(meterRegistry);
+        FunctionCounter.builder("crawler.robots.fetches.coalesced", inFlightFetches, SingleFlight::getCoalescedCount)
+                .description("robots.txt lookups that waited for a fetch already in flight for the host")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prefetchExecutor.shutdownNow();
+        if (robotsTxtStore != null) {
+            robotsTxtStore.close();
+        }
+    }
 
     @Override
     public boolean isAllowed(String url, String userAgent) {
         try {
-            URI uri = new URI(url);
-            String baseUrl = uri.getScheme() + "://" + uri.getHost();
-            if (uri.getPort() != -1 && uri.getPort() != 80 && uri.getPort() != 443) {
-                baseUrl += ":" + uri.getPort();
-            }
-
-            BaseRobotRules rules = getRobotRules(baseUrl, userAgent);
-            boolean allowed = rules.isAllowed(url);
+            boolean allowed = getRobotRules(url, userAgent).isAllowed(url);
 
             if (allowed) {
                 log.debug("Robots.txt check for URL: {} - Allowed", url);
@@ -49,100 +134,264 @@ public class RobotsTxtServiceImpl implements RobotsTxtService {
         }
     }
 
-    @Cacheable("robotsTxt")
-    private RobotsTxtResult fetchRobotsTxt(String baseUrl, String userAgent) {
-        String robotsUrl = baseUrl + "/robots.txt";
-        return fetchRobotsTxtFromUrl(robotsUrl, userAgent);
+    @Override
+    public long getCrawlDelayMs(String url, String userAgent) {
+        try {
+            // crawler-commons reports Crawl-delay in milliseconds
+            long crawlDelay = getRobotRules(url, userAgent).getRules().getCrawlDelay();
+            return crawlDelay > 0 ? crawlDelay : 0;
+        } catch (Exception e) {
+            log.debug("Could not determine Crawl-delay for URL: {} - Error: {}", url, e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public String getRobotsTxt(String baseUrl, String userAgent) {
+        try {
+            return getEntry(origin(baseUrl), userAgent).content;
+        } catch (URISyntaxException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> prefetch(Collection<String> urls, String userAgent) {
+        loadStore();
+        Set<String> origins = new LinkedHashSet<>();
+        for (String url : urls) {
+            try {
+                String origin = origin(url);
+                if (robotsCache.peek(origin) == null) {
+                    origins.add(origin);
+                }
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                // The URL will be rejected when it is checked
+            }
+        }
+        if (origins.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        log.debug("Prefetching robots.txt for {} hosts", origins.size());
+        CompletableFuture<?>[] fetches = origins.stream()
+                .map(origin -> CompletableFuture.runAsync(() -> prefetchOrigin(origin, userAgent), prefetchExecutor))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(fetches);
+    }
+
+    private void prefetchOrigin(String origin, String userAgent) {
+        try {
+            prefetchPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            // Parse as well, so the first check for the host finds its rules ready
+            getRobotRules(origin + "/", userAgent);
+        } catch (URISyntaxException | RuntimeException e) {
+            log.debug("Failed to prefetch robots.txt for {}: {}", origin, e.getMessage());
+        } finally {
+            prefetchPermits.release();
+        }
+    }
+
+    /**
+     * Gets the compiled rules for the URL's origin, fetching robots.txt on a cache miss
+     */
+    private RobotRulesMatcher getRobotRules(String url, String userAgent) throws URISyntaxException {
+        String origin = origin(url);
+        RobotsTxtEntry entry = getEntry(origin, userAgent);
+        return entry.rulesByAgent.computeIfAbsent(userAgent != null ? userAgent : "",
+                agent -> RobotRulesMatcher.compile(parseRules(origin, entry, userAgent)));
+    }
+
+    private RobotsTxtEntry getEntry(String origin, String userAgent) {
+        loadStore();
+        RobotsTxtEntry entry = robotsCache.get(origin);
+        if (entry != null) {
+            return entry;
+        }
+        return inFlightFetches.execute(origin, () -> {
+            // A fetch for the origin may have completed between the cache miss and this call
+            RobotsTxtEntry cached = robotsCache.peek(origin);
+            if (cached != null) {
+                return cached;
+            }
+            RobotsTxtEntry fetched = fetchRobotsTxtFromUrl(origin + "/robots.txt", userAgent, MAX_ROBOTS_TXT_REDIRECTS);
+            long fetchedAt = clock.millis();
+            long ttl = ttlFor(fetched.statusCode);
+            robotsCache.put(origin, fetched, Duration.ofMillis(ttl));
+            if (robotsTxtStore != null) {
+                robotsTxtStore.append(new RobotsTxtStore.StoredRobotsTxt(origin, fetched.statusCode,
+                        fetched.allowByDefault, fetched.content, fetchedAt, fetchedAt + ttl));
+            }
+            return fetched;
+        });
+    }
+
+    /**
+     * Fills the cache from the store on first use, so entries fetched before a restart
+     * are reused until they expire. Callers arriving meanwhile wait rather than fetch.
+     */
+    private void loadStore() {
+        if (robotsTxtStore == null || storeLoaded) {
+            return;
+        }
+        synchronized (this) {
+            if (storeLoaded) {
+                return;
+            }
+            List<RobotsTxtStore.StoredRobotsTxt> stored = robotsTxtStore.load();
+            long now = clock.millis();
+            for (RobotsTxtStore.StoredRobotsTxt entry : stored) {
+                robotsCache.put(entry.origin(),
+                        new RobotsTxtEntry(entry.content(), entry.statusCode(), entry.allowByDefault()),
+                        Duration.ofMillis(entry.expiresAtMillis() - now));
+            }
+            log.info("Loaded {} cached robots.txt entries from disk", stored.size());
+            storeLoaded = true;
+        }
+    }
+
+    /**
+     * Successful fetches are kept longest; answers that may soon change are retried sooner
+     */
+    private long ttlFor(int statusCode) {
+        if (statusCode == HttpStatus.OK.value()) {
+            return robotsTxtConfig.getTtlMs();
+        }
+        if (statusCode >= 300 && statusCode < 500) {
+            return robotsTxtConfig.getClientErrorTtlMs();
+        }
+        return robotsTxtConfig.getServerErrorTtlMs();
     }
 
-    private RobotsTxtResult fetchRobotsTxtFromUrl(String robotsUrl, String userAgent) {
+    /**
+     * Normalized origin of a URL: lower-case scheme and host, port only if not the scheme's default
+     */
+    private static String origin(String url) throws URISyntaxException {
+        String plainOrigin = plainOrigin(url);
+        if (plainOrigin != null) {
+            return plainOrigin;
+        }
+        URI uri = new URI(url);
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            throw new URISyntaxException(url, "URL has no scheme or host");
+        }
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        String origin = scheme + "://" + uri.getHost().toLowerCase(Locale.ROOT);
+        int port = uri.getPort();
+        if (port != -1 && !(port == 80 && scheme.equals("http")) && !(port == 443 && scheme.equals("https"))) {
+            origin += ":" + port;
+        }
+        return origin;
+    }
+
+    /**
+     * Origin of the common {@code http(s)://lower-case-host[:port]/...} URL without building a URI
+     *
+     * @return the origin, or null if the URL needs full parsing
+     */
+    private static String plainOrigin(String url) {
+        int hostStart;
+        if (url.startsWith("https://")) {
+            hostStart = 8;
+        } else if (url.startsWith("http://")) {
+            hostStart = 7;
+        } else {
+            return null;
+        }
+        int portStart = -1;
+        int end = hostStart;
+        for (; end < url.length(); end++) {
+            char c = url.charAt(end);
+            if (c == '/' || c == '?' || c == '#') {
+                break;
+            }
+            if (c == ':' && portStart < 0) {
+                portStart = end;
+            } else if (portStart >= 0 ? !(c >= '0' && c <= '9')
+                    : !((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '.')) {
+                return null;
+            }
+        }
+        int hostEnd = portStart >= 0 ? portStart : end;
+        if (hostEnd == hostStart || portStart == end - 1) {
+            return null;
+        }
+        if (portStart >= 0) {
+            String defaultPort = hostStart == 8 ? ":443" : ":80";
+            if (url.startsWith(defaultPort, portStart) && end - portStart == defaultPort.length()) {
+                return url.substring(0, portStart);
+            }
+        }
+        return end == url.length() ? url : url.substring(0, end);
+    }
+
+    private RobotsTxtEntry fetchRobotsTxtFromUrl(String robotsUrl, String userAgent, int redirectsLeft) {
         try {
-            URL url = new URL(robotsUrl);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestProperty("User-Agent", userAgent);
-            connection.setConnectTimeout(5000);
-            connection.setReadTimeout(5000);
-            connection.setInstanceFollowRedirects(false); // We'll handle redirects manually
-
-            int statusCode = connection.getResponseCode();
+            FetchResponse response = httpFetcher.fetch(FetchRequest.builder()
+                    .url(robotsUrl)
+                    .headers(userAgent != null ? Map.of("User-Agent", userAgent) : Map.of())
+                    .followRedirects(false) // We'll handle redirects manually
+                    .timeoutMs(5000)
+                    .maxBodySize(MAX_ROBOTS_TXT_SIZE)
+                    .build());
+
+            int statusCode = response.getStatusCode();
             if (statusCode == HttpStatus.OK.value()) {
-                byte[] content = connection.getInputStream().readAllBytes();
-                String robotsTxt = new String(content, StandardCharsets.UTF_8);
-                return new RobotsTxtResult(robotsTxt, statusCode, true);
+                String robotsTxt = new String(response.getBody(), StandardCharsets.UTF_8);
+                return new RobotsTxtEntry(robotsTxt, statusCode, true);
             } else if (statusCode == HttpStatus.NOT_FOUND.value()) {
                 log.debug("robots.txt not found for {} (404), allowing crawling", robotsUrl);
-                return new RobotsTxtResult(null, statusCode, true);
+                return new RobotsTxtEntry(null, statusCode, true);
             } else if (statusCode == HttpStatus.MOVED_PERMANENTLY.value() ||
                        statusCode == HttpStatus.FOUND.value() ||
                        statusCode == HttpStatus.TEMPORARY_REDIRECT.value() ||
                        statusCode == HttpStatus.PERMANENT_REDIRECT.value()) {
                 // Redirect - try to follow it
-                String redirectUrl = connection.getHeaderField("Location");
-                if (redirectUrl != null && !redirectUrl.isEmpty()) {
+                String redirectUrl = response.header("Location");
+                if (redirectUrl != null && !redirectUrl.isEmpty() && redirectsLeft > 0) {
                     log.debug("robots.txt redirect from {} to {}, following redirect", robotsUrl, redirectUrl);
-                    return fetchRobotsTxtFromUrl(redirectUrl, userAgent);
+                    return fetchRobotsTxtFromUrl(URI.create(robotsUrl).resolve(redirectUrl).toString(),
+                            userAgent, redirectsLeft - 1);
                 } else {
-                    log.warn("robots.txt returned redirect {} for {} but no Location header, blocking", statusCode, robotsUrl);
-                    return new RobotsTxtResult(null, statusCode, false);
+                    log.warn("robots.txt returned redirect {} for {} without a usable Location header, blocking", statusCode, robotsUrl);
+                    return new RobotsTxtEntry(null, statusCode, false);
                 }
             } else {
                 // 403, 401, 500, etc. - Cannot determine rules, should block
                 log.warn("robots.txt returned {} for {}, blocking crawling to be safe", statusCode, robotsUrl);
-                return new RobotsTxtResult(null, statusCode, false);
+                return new RobotsTxtEntry(null, statusCode, false);
             }
 
-        } catch (IOException e) {
+        } catch (IOException | IllegalArgumentException e) {
             log.warn("Failed to fetch robots.txt from {}: {} - Blocking crawling to be safe", robotsUrl, e.getMessage());
-            return new RobotsTxtResult(null, 0, false);
+            return new RobotsTxtEntry(null, 0, false);
         }
     }
 
     /**
-     * Result wrapper for robots.txt fetch operation
+     * Parses the cached robots.txt into rules for one user agent
      */
-    private static class RobotsTxtResult {
-        final String content;
-        final int statusCode;
-        final boolean allowByDefault;
-
-        RobotsTxtResult(String content, int statusCode, boolean allowByDefault) {
-            this.content = content;
-            this.statusCode = statusCode;
-            this.allowByDefault = allowByDefault;
-        }
-    }
-
-    /**
-     * Fetches and parses robots.txt rules for a given base URL
-     */
-    @Cacheable("robotRules")
-    private BaseRobotRules getRobotRules(String baseUrl, String userAgent) {
+    private BaseRobotRules parseRules(String origin, RobotsTxtEntry entry, String userAgent) {
         try {
-            RobotsTxtResult result = fetchRobotsTxt(baseUrl, userAgent);
-
-            if (result.content == null || result.content.isEmpty()) {
-                if (result.allowByDefault) {
+            if (entry.content == null || entry.content.isEmpty()) {
+                if (entry.allowByDefault) {
                     // 404 - No robots.txt found, allow all
-                    log.debug("No robots.txt found for {}, allowing all URLs", baseUrl);
+                    log.debug("No robots.txt found for {}, allowing all URLs", origin);
                     return robotParser.failedFetch(HttpStatus.NOT_FOUND.value());
-                } else {
-                    // 403, 401, 5xx, or network error - Cannot determine, block all
-                    log.warn("Cannot access robots.txt for {}, blocking all URLs", baseUrl);
-                    // Create rules that block everything by parsing a restrictive robots.txt
-                    String blockAllRobotsTxt = "User-agent: *\nDisallow: /";
-                    byte[] blockAllContent = blockAllRobotsTxt.getBytes(StandardCharsets.UTF_8);
-                    return robotParser.parseContent(
-                        baseUrl + "/robots.txt",
-                        blockAllContent,
-                        "text/plain",
-                        userAgent
-                    );
                 }
+                // 403, 401, 5xx, or network error - Cannot determine, block all
+                log.warn("Cannot access robots.txt for {}, blocking all URLs", origin);
+                return blockAll(origin, userAgent);
             }
 
-            byte[] content = result.content.getBytes(StandardCharsets.UTF_8);
+            byte[] content = entry.content.getBytes(StandardCharsets.UTF_8);
             return robotParser.parseContent(
-                baseUrl + "/robots.txt",
+                origin + "/robots.txt",
                 content,
                 "text/plain",
                 userAgent
@@ -150,16 +399,30 @@ public class RobotsTxtServiceImpl implements RobotsTxtService {
 
         } catch (Exception e) {
             log.warn("Error parsing robots.txt for {} - Error: {} - Blocking all URLs",
-                    baseUrl, e.getMessage());
-            // Create rules that block everything
-            String blockAllRobotsTxt = "User-agent: *\nDisallow: /";
-            byte[] blockAllContent = blockAllRobotsTxt.getBytes(StandardCharsets.UTF_8);
-            return robotParser.parseContent(
-                baseUrl + "/robots.txt",
-                blockAllContent,
-                "text/plain",
-                userAgent
-            );
+                    origin, e.getMessage());
+            return blockAll(origin, userAgent);
+        }
+    }
+
+    private BaseRobotRules blockAll(String origin, String userAgent) {
+        // Rules that block everything, from a restrictive robots.txt
+        return robotParser.parseContent(origin + "/robots.txt", BLOCK_ALL_ROBOTS_TXT, "text/plain", userAgent);
+    }
+
+    /**
+     * A fetched robots.txt (or the failure to fetch one) and the rules parsed from it,
+     * per user agent, on first use
+     */
+    private static final class RobotsTxtEntry {
+        final String content;
+        final int statusCode;
+        final boolean allowByDefault;
+        final Map<String, RobotRulesMatcher> rulesByAgent = new ConcurrentHashMap<>();
+
+        RobotsTxtEntry(String content, int statusCode, boolean allowByDefault) {
+            this.content = content;
+            this.statusCode = statusCode;
+            this.allowByDefault = allowByDefault;
         }
     }
 }
@@ -0,0 +1,259 @@
+package com.webcrawler.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of fetched robots.txt entries, so a restarted crawler can reuse
+ * entries that are still within their TTL instead of fetching them again.
+ *
+ * <p>Each record is framed as {@code length, crc32, payload}. A torn or corrupt tail,
+ * as left by a crash during a write, is cut off on load. Once the file holds more than
+ * twice {@code maxEntries} records it is compacted to the latest live entry per origin.
+ *
+ * <p>I/O errors are logged and disable the store; they never fail a robots.txt check.
+ */
+@Slf4j
+final class RobotsTxtStore {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    /**
+     * Upper bound of a sane record: robots.txt content is capped at 500 KiB when fetched
+     */
+    private static final int MAX_RECORD_SIZE = 1024 * 1024;
+
+    private final Path file;
+    private final int maxEntries;
+    private final Clock clock;
+    private OutputStream out;
+    private int recordCount;
+    private boolean failed;
+
+    RobotsTxtStore(Path file, int maxEntries, Clock clock) {
+        this.file = file;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * A robots.txt fetch result as persisted
+     */
+    record StoredRobotsTxt(String origin, int statusCode, boolean allowByDefault, String content,
+                           long fetchedAtMillis, long expiresAtMillis) {
+    }
+
+    /**
+     * Reads the latest unexpired entry per origin, oldest first, and compacts the file if it has grown
+     */
+    synchronized List<StoredRobotsTxt> load() {
+        if (failed) {
+            return List.of();
+        }
+        try {
+            LinkedHashMap<String, StoredRobotsTxt> latest = readLatest();
+            if (recordCount > latest.size() * 2 && recordCount > maxEntries) {
+                compact(latest);
+            }
+            return new ArrayList<>(latest.values());
+        } catch (IOException e) {
+            disable("load", e);
+            return List.of();
+        }
+    }
+
+    synchronized void append(StoredRobotsTxt entry) {
+        if (failed) {
+            return;
+        }
+        try {
+            if (out == null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+                out = new BufferedOutputStream(Files.newOutputStream(file,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+            }
+            writeRecord(out, entry);
+            out.flush();
+            recordCount++;
+            if (recordCount > maxEntries * 2) {
+                compact(readLatest());
+            }
+        } catch (IOException e) {
+            disable("append to", e);
+        }
+    }
+
+    synchronized void close() {
+        closeOutput();
+    }
+
+    /**
+     * Reads every intact record, truncating a damaged tail so later appends start on a record boundary
+     */
+    private LinkedHashMap<String, StoredRobotsTxt> readLatest() throws IOException {
+        closeOutput();
+        LinkedHashMap<String, StoredRobotsTxt> latest = new LinkedHashMap<>();
+        long validLength = 0;
+        int records = 0;
+        try (InputStream fileIn = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(fileIn))) {
+            while (true) {
+                byte[] payload = readFrame(in);
+                if (payload == null) {
+                    break;
+                }
+                validLength += 8 + payload.length;
+                records++;
+                StoredRobotsTxt entry = decode(payload);
+                if (entry != null) {
+                    // Re-insert so the map stays ordered by last write
+                    latest.remove(entry.origin());
+                    latest.put(entry.origin(), entry);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            recordCount = 0;
+            return latest;
+        }
+
+        if (validLength < Files.size(file)) {
+            log.warn("Discarding damaged tail of robots.txt store {} after {} records", file, records);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+        recordCount = records;
+
+        long now = clock.millis();
+        latest.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+        Iterator<String> oldest = latest.keySet().iterator();
+        while (latest.size() > maxEntries) {
+            oldest.next();
+            oldest.remove();
+        }
+        return latest;
+    }
+
+    /**
+     * Rewrites the file with only the given entries, replacing it atomically
+     */
+    private void compact(LinkedHashMap<String, StoredRobotsTxt> latest) throws IOException {
+        closeOutput();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream tempOut = new BufferedOutputStream(Files.newOutputStream(temp))) {
+            for (StoredRobotsTxt entry : latest.values()) {
+                writeRecord(tempOut, entry);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("Compacted robots.txt store {} from {} to {} records", file, recordCount, latest.size());
+        recordCount = latest.size();
+    }
+
+    private static void writeRecord(OutputStream target, StoredRobotsTxt entry) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream payload = new DataOutputStream(buffer);
+        payload.writeByte(FORMAT_VERSION);
+        payload.writeUTF(entry.origin());
+        payload.writeInt(entry.statusCode());
+        payload.writeBoolean(entry.allowByDefault());
+        payload.writeLong(entry.fetchedAtMillis());
+        payload.writeLong(entry.expiresAtMillis());
+        payload.writeBoolean(entry.content() != null);
+        if (entry.content() != null) {
+            byte[] content = entry.content().getBytes(StandardCharsets.UTF_8);
+            payload.writeInt(content.length);
+            payload.write(content);
+        }
+        byte[] bytes = buffer.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        DataOutputStream frame = new DataOutputStream(target);
+        frame.writeInt(bytes.length);
+        frame.writeInt((int) crc.getValue());
+        frame.write(bytes);
+    }
+
+    /**
+     * @return the payload of the next record, or null at the end of the intact part of the file
+     */
+    private static byte[] readFrame(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            int checksum = in.readInt();
+            if (length < 0 || length > MAX_RECORD_SIZE) {
+                return null;
+            }
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            return (int) crc.getValue() == checksum ? payload : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the entry, or null for a record written by another format version
+     */
+    private static StoredRobotsTxt decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        if (in.readByte() != FORMAT_VERSION) {
+            return null;
+        }
+        String origin = in.readUTF();
+        int statusCode = in.readInt();
+        boolean allowByDefault = in.readBoolean();
+        long fetchedAt = in.readLong();
+        long expiresAt = in.readLong();
+        String content = null;
+        if (in.readBoolean()) {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            content = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new StoredRobotsTxt(origin, statusCode, allowByDefault, content, fetchedAt, expiresAt);
+    }
+
+    private void closeOutput() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.debug("Failed to close robots.txt store {}: {}", file, e.getMessage());
+            }
+            out = null;
+        }
+    }
+
+    private void disable(String operation, IOException e) {
+        log.warn("Failed to {} robots.txt store {}, disabling it: {}", operation, file, e.getMessage());
+        failed = true;
+        closeOutput();
+    }
+}
@@ -0,0 +1,556 @@
+package com.webcrawler.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.webcrawler.crawl.Frontier;
+import com.webcrawler.crawl.FrontierCheckpoint;
+import com.webcrawler.crawl.FrontierEntry;
+import com.webcrawler.crawl.SeenUrlSet;
+import com.webcrawler.model.CrawlField;
+import com.webcrawler.model.CrawlJobStatus;
+import com.webcrawler.model.CrawlRequest;
+import com.webcrawler.model.CrawlResponse;
+import com.webcrawler.model.RenderPriority;
+import com.webcrawler.model.SiteCrawlJob;
+import com.webcrawler.util.UrlNormalizer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * One recursive site crawl: pages are taken from a per-host {@link Frontier}, crawled through
+ * {@link CrawlerService} on virtual threads, and their in-scope, robots.txt-allowed outlinks
+ * are queued until the depth or page limit is reached.
+ *
+ * <p>Up to {@code maxConcurrency} pages are fetched at once, spread across hosts by the
+ * frontier's rotation and per-host in-flight limit; the host politeness scheduler spaces
+ * the requests within each host.
+ *
+ * <p>A crawl with {@link SiteCrawlCheckpoint} files can be checkpointed while it runs and
+ * resumed from its last checkpoint. A page's result and counts are recorded in the same step
+ * that releases it from the frontier, so a checkpoint holds exactly the pages its frontier
+ * marks as done.
+ */
+@Slf4j
+final class SiteCrawl {
+
+    private final String jobId;
+    private final List<String> seeds;
+    private final CrawlerService crawlerService;
+    private final RobotsTxtService robotsTxtService;
+    private final String userAgent;
+    private final Frontier frontier;
+    private final int maxDepth;
+    private final int maxPages;
+    private final int maxConcurrency;
+    private final int maxStoredResults;
+    private final Scope scope;
+    private final Set<CrawlField> fields;
+    private final boolean returnLinks;
+    private final Boolean classify;
+    private final LocalDateTime submittedAt;
+    private final SiteCrawlCheckpoint checkpoint;
+
+    /**
+     * Guards the frontier, the seen set, the dispatch counters and the fingerprints not yet checkpointed
+     */
+    private final Object lock = new Object();
+    /**
+     * Dropped when the crawl ends, so its native memory is not held while the results are kept
+     */
+    private SeenUrlSet seen;
+    private int admitted;
+    /**
+     * URLs in {@code seen} still being checked against robots.txt; they count against the page
+     * limit, but are only admitted, and checkpointed, together with their frontier entry
+     */
+    private int admitting;
+    private int dispatched;
+    private int active;
+    private long[] uncheckpointed = new long[1024];
+    private int uncheckpointedCount;
+
+    private final AtomicLong pagesCrawled = new AtomicLong();
+    private final AtomicLong pagesFailed = new AtomicLong();
+    private final AtomicLong urlsRejected = new AtomicLong();
+
+    /**
+     * Stored results; the first {@code checkpointedResults} of them are in the last checkpoint
+     */
+    private final List<CrawlResponse> results = new ArrayList<>();
+    private int checkpointedResults;
+    private volatile CrawlJobStatus status = CrawlJobStatus.PENDING;
+    private volatile boolean cancelled;
+    private volatile boolean suspended;
+    private volatile LocalDateTime completedAt;
+    private volatile String message;
+
+    /**
+     * @param checkpoint the crawl's checkpoint files, or null if it is not checkpointed
+     * @param progress where the crawl starts from; for a resumed crawl its seen URLs must already
+     *                 be in {@code seen}, and its unfinished URLs in {@code frontier}
+     */
+    SiteCrawl(String jobId, Settings settings, CrawlerService crawlerService, RobotsTxtService robotsTxtService,
+              String userAgent, Frontier frontier, SeenUrlSet seen, SiteCrawlCheckpoint checkpoint, Progress progress) {
+        this.jobId = jobId;
+        this.checkpoint = checkpoint;
+        this.seeds = List.copyOf(settings.seeds());
+        this.crawlerService = crawlerService;
+        this.robotsTxtService = robotsTxtService;
+        this.userAgent = userAgent;
+        this.frontier = frontier;
+        this.seen = seen;
+        this.maxDepth = settings.maxDepth();
+        this.maxPages = settings.maxPages();
+        this.maxConcurrency = settings.maxConcurrency();
+        this.maxStoredResults = settings.maxStoredResults();
+        this.scope = settings.scope();
+        this.returnLinks = settings.fields() != null && settings.fields().contains(CrawlField.LINKS);
+        // Links are always extracted to find the next pages, and removed again from the results unless requested
+        EnumSet<CrawlField> withLinks = EnumSet.of(CrawlField.LINKS);
+        if (settings.fields() != null) {
+            withLinks.addAll(settings.fields());
+        } else {
+            for (CrawlField field : CrawlField.values()) {
+                if (field.isIncludedByDefault()) {
+                    withLinks.add(field);
+                }
+            }
+        }
+        this.fields = withLinks;
+        this.classify = settings.classify();
+        this.submittedAt = progress.submittedAt();
+        this.admitted = (int) progress.urlsDiscovered();
+        // Every admitted URL that is not queued any more was dispatched before
+        this.dispatched = (int) Math.max(0, progress.urlsDiscovered() - frontier.size());
+        this.pagesCrawled.set(progress.pagesCrawled());
+        this.pagesFailed.set(progress.pagesFailed());
+        this.urlsRejected.set(progress.urlsRejected());
+        this.results.addAll(progress.results());
+        this.checkpointedResults = results.size();
+    }
+
+    /**
+     * Where a crawl starts from: nothing done yet, or where a resumed crawl left off
+     */
+    record Progress(LocalDateTime submittedAt, long urlsDiscovered, long pagesCrawled, long pagesFailed,
+                    long urlsRejected, List<CrawlResponse> results) {
+
+        static Progress start(LocalDateTime submittedAt) {
+            return new Progress(submittedAt, 0, 0, 0, 0, List.of());
+        }
+    }
+
+    /**
+     * Validated parameters of a crawl
+     */
+    record Settings(List<String> seeds, int maxDepth, int maxPages, int maxConcurrency, int maxStoredResults,
+                    Scope scope, Set<CrawlField> fields, Boolean classify) {
+    }
+
+    /**
+     * Which discovered URLs a crawl follows
+     *
+     * @param seedHosts if not null, only URLs on these hosts
+     * @param includes if not empty, only URLs matching one of these
+     * @param excludes no URL matching one of these
+     */
+    record Scope(Set<String> seedHosts, List<Pattern> includes, List<Pattern> excludes) {
+
+        boolean accepts(String url, String host) {
+            if (seedHosts != null && !seedHosts.contains(host)) {
+                return false;
+            }
+            for (Pattern exclude : excludes) {
+                if (exclude.matcher(url).find()) {
+                    return false;
+                }
+            }
+            if (includes.isEmpty()) {
+                return true;
+            }
+            for (Pattern include : includes) {
+                if (include.matcher(url).find()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    String getJobId() {
+        return jobId;
+    }
+
+    /**
+     * Crawls until the frontier is exhausted, the page limit is reached or the crawl is cancelled
+     */
+    void run() {
+        if (cancelled) {
+            if (suspended) {
+                checkpoint();
+            }
+            frontier.close();
+            releaseSeen();
+            return;
+        }
+        status = CrawlJobStatus.RUNNING;
+        boolean interrupted = false;
+        log.info("Site crawl {} started from {} seeds (max depth {}, max pages {})", jobId, seeds.size(), maxDepth, maxPages);
+        try (ExecutorService pageExecutor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("site-crawl-", 0).factory())) {
+            // Seeds are crawled whatever the include/exclude patterns say, but robots.txt still applies
+            robotsTxtService.prefetch(seeds, userAgent).join();
+            for (String seed : seeds) {
+                admit(seed, 0, true);
+            }
+
+            Semaphore permits = new Semaphore(maxConcurrency);
+            while (true) {
+                permits.acquire();
+                FrontierEntry entry = nextEntry();
+                if (entry == null) {
+                    permits.release();
+                    break;
+                }
+                pageExecutor.execute(() -> {
+                    CrawlResponse response = null;
+                    try {
+                        response = crawlPage(entry);
+                    } finally {
+                        finished(entry, response);
+                        permits.release();
+                    }
+                });
+            }
+            awaitIdle();
+            if (suspended) {
+                finish(CrawlJobStatus.CANCELLED, resumable("Crawl suspended"));
+            } else {
+                finish(cancelled ? CrawlJobStatus.CANCELLED : CrawlJobStatus.COMPLETED, null);
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+            suspended = true;
+            finish(CrawlJobStatus.CANCELLED, resumable("Crawl interrupted"));
+        } catch (RuntimeException e) {
+            log.error("Site crawl {} failed", jobId, e);
+            finish(CrawlJobStatus.FAILED, e.getMessage());
+        } finally {
+            if (suspended) {
+                // Pages in flight have finished, so this checkpoint holds everything done; with the
+                // interrupt still pending its file channels would close at once
+                checkpoint();
+            }
+            frontier.close();
+            releaseSeen();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Stops dispatching pages; pages already being crawled finish
+     */
+    void cancel() {
+        cancelled = true;
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        if (status == CrawlJobStatus.PENDING) {
+            finish(CrawlJobStatus.CANCELLED, null);
+        }
+    }
+
+    /**
+     * Stops dispatching pages like {@link #cancel()}, but leaves the crawl resumable
+     */
+    void suspend() {
+        suspended = true;
+        cancel();
+    }
+
+    /**
+     * @return true if the crawl was suspended or interrupted rather than run to its end or cancelled
+     */
+    boolean isSuspended() {
+        return suspended;
+    }
+
+    boolean isFinished() {
+        return completedAt != null;
+    }
+
+    /**
+     * Saves the crawl's progress to its checkpoint files; does nothing if it has none. Only
+     * handing over the fingerprints, results and counters since the last checkpoint happens
+     * under the crawl's lock, so page tasks wait for that at most, never for the I/O.
+     */
+    void checkpoint() {
+        if (checkpoint == null) {
+            return;
+        }
+        // One checkpoint at a time, so they reach the files in the order they were taken
+        synchronized (checkpoint) {
+            if (!checkpoint.isOpen()) {
+                return;
+            }
+            long sequence = checkpoint.nextSequence();
+            long[] fingerprints;
+            FrontierCheckpoint frontierCheckpoint;
+            List<CrawlResponse> newResults;
+            SiteCrawlCheckpoint.Counters counters;
+            synchronized (lock) {
+                fingerprints = Arrays.copyOf(uncheckpointed, uncheckpointedCount);
+                uncheckpointedCount = 0;
+                frontierCheckpoint = frontier.checkpoint(sequence);
+                synchronized (results) {
+                    newResults = new ArrayList<>(results.subList(checkpointedResults, results.size()));
+                    checkpointedResults = results.size();
+                }
+                counters = new SiteCrawlCheckpoint.Counters(admitted, pagesCrawled.get(), pagesFailed.get(),
+                        urlsRejected.get());
+            }
+            checkpoint.write(sequence, fingerprints, newResults, frontierCheckpoint, counters);
+        }
+    }
+
+    /**
+     * Stops checkpointing, waiting for a checkpoint being written, so the files can be deleted
+     */
+    void discardCheckpoint() {
+        if (checkpoint != null) {
+            checkpoint.close();
+        }
+    }
+
+    SiteCrawlJob snapshot() {
+        long queued;
+        int hosts;
+        long discovered;
+        synchronized (lock) {
+            queued = frontier.size();
+            hosts = frontier.hostCount();
+            discovered = admitted;
+        }
+        return SiteCrawlJob.builder()
+                .jobId(jobId)
+                .seeds(seeds)
+                .status(status)
+                .submittedAt(submittedAt)
+                .completedAt(completedAt)
+                .pagesCrawled(pagesCrawled.get())
+                .pagesFailed(pagesFailed.get())
+                .urlsDiscovered(discovered)
+                .urlsRejected(urlsRejected.get())
+                .urlsQueued(queued)
+                .hostsQueued(hosts)
+                .message(message)
+                .build();
+    }
+
+    /**
+     * Stored page results, in completion order
+     */
+    List<CrawlResponse> getResults(int offset, int limit) {
+        synchronized (results) {
+            int from = Math.min(Math.max(offset, 0), results.size());
+            int to = Math.min(results.size(), from + Math.max(limit, 0));
+            return new ArrayList<>(results.subList(from, to));
+        }
+    }
+
+    /**
+     * Waits for a URL to become available, or returns null once nothing more will be dispatched
+     */
+    private FrontierEntry nextEntry() throws InterruptedException {
+        synchronized (lock) {
+            while (!cancelled && dispatched < maxPages) {
+                FrontierEntry entry = frontier.poll();
+                if (entry != null) {
+                    dispatched++;
+                    active++;
+                    return entry;
+                }
+                if (active == 0) {
+                    // Nothing queued that is not blocked on a host, and nothing in flight to discover more
+                    return null;
+                }
+                lock.wait();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Releases a dispatched URL and records its result
+     *
+     * @param response the page's result, or null if crawling it threw
+     */
+    private void finished(FrontierEntry entry, CrawlResponse response) {
+        synchronized (lock) {
+            frontier.release(entry);
+            if (response != null) {
+                boolean success = Boolean.TRUE.equals(response.getSuccess());
+                (success ? pagesCrawled : pagesFailed).incrementAndGet();
+                store(response);
+            }
+            active--;
+            lock.notifyAll();
+        }
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        synchronized (lock) {
+            while (active > 0) {
+                lock.wait();
+            }
+        }
+    }
+
+    /**
+     * Crawls a page and admits its links
+     *
+     * @return the page's result as stored
+     */
+    private CrawlResponse crawlPage(FrontierEntry entry) {
+        CrawlResponse response;
+        try {
+            response = crawlerService.crawl(new CrawlRequest(entry.url(), fields, classify, RenderPriority.LOW));
+        } catch (RuntimeException e) {
+            log.warn("Site crawl {} failed to crawl {}: {}", jobId, entry.url(), e.getMessage());
+            response = CrawlResponse.builder()
+                    .url(entry.url())
+                    .success(false)
+                    .timestamp(LocalDateTime.now())
+                    .message("Failed to crawl URL: " + e.getMessage())
+                    .build();
+        }
+
+        boolean success = Boolean.TRUE.equals(response.getSuccess());
+        JsonNode links = response.getData() != null ? response.getData().get(CrawlField.LINKS.getKey()) : null;
+        if (success && links != null && entry.depth() < maxDepth) {
+            for (JsonNode link : links) {
+                // A suspended crawl keeps the links of pages that finish: the page is checkpointed as
+                // done, so a resumed crawl could not find them again
+                if (cancelled && !suspended) {
+                    break;
+                }
+                admit(link.asText(), entry.depth() + 1, false);
+            }
+        }
+        return returnLinks ? response : withoutLinks(response);
+    }
+
+    /**
+     * Adds a URL to the frontier if it is new, in scope and allowed by robots.txt
+     */
+    private void admit(String url, int depth, boolean seed) {
+        String normalized = UrlNormalizer.normalize(url);
+        String host = hostOf(normalized);
+        if (host == null || (!seed && !scope.accepts(normalized, host))) {
+            urlsRejected.incrementAndGet();
+            return;
+        }
+        long fingerprint = SeenUrlSet.fingerprint(normalized);
+        synchronized (lock) {
+            // Every admitted URL is eventually dispatched, so admitting more than maxPages is wasted memory
+            if (admitted + admitting >= maxPages || !seen.addFingerprint(fingerprint)) {
+                return;
+            }
+            admitting++;
+        }
+        boolean allowed = robotsTxtService.isAllowed(normalized, userAgent);
+        synchronized (lock) {
+            admitting--;
+            // The fingerprint reaches a checkpoint only with the frontier entry: a checkpoint taken while
+            // robots.txt was fetched would otherwise mark the URL seen without queueing it
+            if (checkpoint != null) {
+                if (uncheckpointedCount == uncheckpointed.length) {
+                    uncheckpointed = Arrays.copyOf(uncheckpointed, uncheckpointedCount * 2);
+                }
+                uncheckpointed[uncheckpointedCount++] = fingerprint;
+            }
+            if (allowed) {
+                admitted++;
+                frontier.push(new FrontierEntry(normalized, host, depth));
+                lock.notifyAll();
+            }
+        }
+        if (!allowed) {
+            urlsRejected.incrementAndGet();
+        }
+    }
+
+    private void store(CrawlResponse response) {
+        synchronized (results) {
+            if (results.size() < maxStoredResults) {
+                results.add(response);
+            }
+        }
+    }
+
+    private void finish(CrawlJobStatus finalStatus, String finalMessage) {
+        message = finalMessage;
+        status = finalStatus;
+        completedAt = LocalDateTime.now();
+        log.info("Site crawl {} {}: {} pages crawled, {} failed", jobId, finalStatus.name().toLowerCase(Locale.ROOT),
+                pagesCrawled.get(), pagesFailed.get());
+        synchronized (lock) {
+            if (seen != null) {
+                log.debug("Site crawl {} saw {} URLs in {} bytes (Bloom filter false-positive rate {})", jobId,
+                        seen.size(), seen.memoryBytes(), seen.measuredBloomFalsePositiveRate());
+            }
+        }
+    }
+
+    private void releaseSeen() {
+        synchronized (lock) {
+            seen = null;
+        }
+    }
+
+    private String resumable(String reason) {
+        return checkpoint != null ? reason + "; it can be resumed from its last checkpoint" : reason;
+    }
+
+    private static CrawlResponse withoutLinks(CrawlResponse response) {
+        if (!(response.getData() instanceof ObjectNode data) || !data.has(CrawlField.LINKS.getKey())) {
+            return response;
+        }
+        // Responses may be shared with other callers through coalescing and the result cache
+        ObjectNode copy = data.deepCopy();
+        copy.remove(CrawlField.LINKS.getKey());
+        return CrawlResponse.builder()
+                .url(response.getUrl())
+                .statusCode(response.getStatusCode())
+                .timestamp(response.getTimestamp())
+                .success(response.getSuccess())
+                .message(response.getMessage())
+                .data(copy)
+                .classification(response.getClassification())
+                .build();
+    }
+
+    static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase(Locale.ROOT) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.webcrawler.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webcrawler.crawl.FrontierCheckpoint;
+import com.webcrawler.model.CrawlResponse;
+import com.webcrawler.model.SiteCrawlRequest;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Checkpoint files of a site crawl, kept in the directory of its disk-backed frontier so an
+ * interrupted crawl can be resumed.
+ *
+ * <p>{@code seen.dat} holds the fingerprints of the URLs the crawl has seen, eight bytes each,
+ * and {@code results.ndjson} its stored page results, one JSON object per line; both are only
+ * appended to. {@code checkpoint.json} holds the request, the counters and how much of each
+ * file belongs to the checkpoint, along with the checkpoint's number. It is replaced
+ * atomically, and only after everything it refers to, frontier included, has been forced to
+ * the device, so a crash during a checkpoint leaves the previous one intact: what was appended
+ * after it is ignored, and the frontier is reopened as of its number.
+ *
+ * <p>I/O errors are logged and end checkpointing for the crawl, which stays resumable from
+ * its last complete checkpoint; they never fail the crawl.
+ */
+@Slf4j
+final class SiteCrawlCheckpoint {
+
+    static final String STATE_FILE = "checkpoint.json";
+    private static final String SEEN_FILE = "seen.dat";
+    private static final String RESULTS_FILE = "results.ndjson";
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Fingerprints written per buffer
+     */
+    private static final int BATCH = 8192;
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final String jobId;
+    private final SiteCrawlRequest request;
+    private final LocalDateTime submittedAt;
+    private final Supplier<Map<String, Long>> hostNextAllowed;
+    private long sequence;
+    private long seenCount;
+    private long resultsBytes;
+    private boolean failed;
+    private boolean closed;
+
+    /**
+     * @param hostNextAllowed supplies the hosts' next allowed request times, saved with each checkpoint
+     */
+    SiteCrawlCheckpoint(Path directory, ObjectMapper objectMapper, String jobId, SiteCrawlRequest request,
+                        LocalDateTime submittedAt, Supplier<Map<String, Long>> hostNextAllowed) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+        this.jobId = jobId;
+        this.request = request;
+        this.submittedAt = submittedAt;
+        this.hostNextAllowed = hostNextAllowed;
+    }
+
+    /**
+     * A crawl as of a checkpoint
+     *
+     * @param sequence the checkpoint's number, which its frontier's done marks carry
+     * @param seenCount fingerprints in {@code seen.dat} that belong to the checkpoint
+     * @param resultsBytes bytes of {@code results.ndjson} that belong to the checkpoint
+     * @param hostNextAllowed epoch milliseconds before which each host must not be requested again
+     */
+    record State(int version, long sequence, String jobId, SiteCrawlRequest request, LocalDateTime submittedAt,
+                 long urlsDiscovered, long pagesCrawled, long pagesFailed, long urlsRejected,
+                 long seenCount, long resultsBytes, Map<String, Long> hostNextAllowed) {
+    }
+
+    /**
+     * A crawl's counters at the moment its checkpoint was taken
+     */
+    record Counters(long urlsDiscovered, long pagesCrawled, long pagesFailed, long urlsRejected) {
+    }
+
+    /**
+     * Reads the last checkpoint saved in a directory
+     *
+     * @return the checkpoint, or empty if the directory holds none
+     * @throws UncheckedIOException if the checkpoint cannot be read
+     */
+    static Optional<State> read(Path directory, ObjectMapper objectMapper) {
+        try {
+            State state = objectMapper.readValue(Files.readAllBytes(directory.resolve(STATE_FILE)), State.class);
+            if (state.version() != FORMAT_VERSION) {
+                throw new IOException("Unsupported checkpoint version " + state.version());
+            }
+            return Optional.of(state);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read checkpoint in " + directory, e);
+        }
+    }
+
+    /**
+     * Continues the files of a checkpoint: cuts off whatever was appended after it, reads
+     * its seen URLs and results back, and makes later checkpoints append behind them
+     *
+     * @param fingerprints called with each saved fingerprint
+     * @return the saved results, in completion order
+     * @throws UncheckedIOException if the files cannot be read
+     */
+    List<CrawlResponse> resume(State state, LongConsumer fingerprints) {
+        try {
+            Path seenFile = directory.resolve(SEEN_FILE);
+            truncate(seenFile, state.seenCount() * Long.BYTES);
+            if (state.seenCount() > 0) {
+                try (FileChannel channel = FileChannel.open(seenFile, StandardOpenOption.READ)) {
+                    ByteBuffer buffer = ByteBuffer.allocate(BATCH * Long.BYTES);
+                    long end = state.seenCount() * Long.BYTES;
+                    for (long position = 0; position < end; position += buffer.limit()) {
+                        buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+                        while (buffer.hasRemaining()) {
+                            if (channel.read(buffer, position + buffer.position()) < 0) {
+                                throw new IOException("Checkpoint file " + seenFile + " is shorter than recorded");
+                            }
+                        }
+                        buffer.flip();
+                        while (buffer.hasRemaining()) {
+                            fingerprints.accept(buffer.getLong());
+                        }
+                    }
+                }
+            }
+
+            Path resultsFile = directory.resolve(RESULTS_FILE);
+            truncate(resultsFile, state.resultsBytes());
+            List<CrawlResponse> results = new ArrayList<>();
+            if (state.resultsBytes() > 0) {
+                try (BufferedReader reader = Files.newBufferedReader(resultsFile)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        results.add(objectMapper.readValue(line, CrawlResponse.class));
+                    }
+                }
+            }
+            synchronized (this) {
+                sequence = state.sequence();
+                seenCount = state.seenCount();
+                resultsBytes = state.resultsBytes();
+            }
+            return results;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read checkpoint in " + directory, e);
+        }
+    }
+
+    /**
+     * @return false once closed or after a failed checkpoint
+     */
+    synchronized boolean isOpen() {
+        return !closed && !failed;
+    }
+
+    /**
+     * @return the number for the next checkpoint
+     */
+    synchronized long nextSequence() {
+        return sequence + 1;
+    }
+
+    /**
+     * Saves a checkpoint: appends the new fingerprints and results, prepares the frontier's
+     * part, records the new state and then commits the frontier's part
+     *
+     * @param sequence the checkpoint's number, from {@link #nextSequence()}
+     * @param fingerprints URLs seen since the last checkpoint
+     * @param results results stored since the last checkpoint
+     * @param frontierCheckpoint the frontier's part, taken together with the rest
+     * @param counters the crawl's counters, taken together with the rest
+     */
+    synchronized void write(long sequence, long[] fingerprints, List<CrawlResponse> results,
+                            FrontierCheckpoint frontierCheckpoint, Counters counters) {
+        if (closed || failed) {
+            return;
+        }
+        try {
+            long newSeenCount = appendFingerprints(fingerprints);
+            long newResultsBytes = appendResults(results);
+            frontierCheckpoint.prepare();
+            writeState(new State(FORMAT_VERSION, sequence, jobId, request, submittedAt,
+                    counters.urlsDiscovered(), counters.pagesCrawled(), counters.pagesFailed(), counters.urlsRejected(),
+                    newSeenCount, newResultsBytes, hostNextAllowed.get()));
+            this.sequence = sequence;
+            seenCount = newSeenCount;
+            resultsBytes = newResultsBytes;
+        } catch (IOException | UncheckedIOException e) {
+            // Without the frontier's commit, nothing the last complete checkpoint relies on has changed
+            log.error("Checkpoint {} of site crawl {} failed; no further checkpoints are taken and a resume continues "
+                    + "from checkpoint {}: {}", sequence, jobId, this.sequence, e.getMessage());
+            failed = true;
+            return;
+        }
+        frontierCheckpoint.commit();
+        log.debug("Saved checkpoint {} of site crawl {}: {} URLs seen, {} pages done", sequence, jobId, seenCount,
+                counters.pagesCrawled() + counters.pagesFailed());
+    }
+
+    /**
+     * Stops checkpointing, waiting for a checkpoint being written, so the files can be deleted
+     */
+    synchronized void close() {
+        closed = true;
+    }
+
+    private long appendFingerprints(long[] fingerprints) throws IOException {
+        if (fingerprints.length == 0) {
+            return seenCount;
+        }
+        try (FileChannel channel = FileChannel.open(directory.resolve(SEEN_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BATCH * Long.BYTES);
+            long position = seenCount * Long.BYTES;
+            for (int from = 0; from < fingerprints.length; from += BATCH) {
+                buffer.clear();
+                buffer.asLongBuffer().put(fingerprints, from, Math.min(BATCH, fingerprints.length - from));
+                buffer.limit(Math.min(BATCH, fingerprints.length - from) * Long.BYTES);
+                position = write(channel, buffer, position);
+            }
+            channel.force(false);
+        }
+        return seenCount + fingerprints.length;
+    }
+
+    private long appendResults(List<CrawlResponse> results) throws IOException {
+        if (results.isEmpty()) {
+            return resultsBytes;
+        }
+        long position = resultsBytes;
+        try (FileChannel channel = FileChannel.open(directory.resolve(RESULTS_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            for (CrawlResponse result : results) {
+                byte[] json = objectMapper.writeValueAsBytes(result);
+                ByteBuffer line = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+                position = write(channel, line, position);
+            }
+            channel.force(false);
+        }
+        return position;
+    }
+
+    private void writeState(State state) throws IOException {
+        Path file = directory.resolve(STATE_FILE);
+        Path temp = directory.resolve(STATE_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            write(channel, ByteBuffer.wrap(objectMapper.writeValueAsBytes(state)), 0);
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        return position;
+    }
+
+    private static void truncate(Path file, long length) throws IOException {
+        if (!Files.exists(file)) {
+            if (length > 0) {
+                throw new IOException("Missing checkpoint file " + file);
+            }
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            if (channel.size() < length) {
+                throw new IOException("Checkpoint file " + file + " is shorter than recorded");
+            }
+            channel.truncate(length);
+        }
+    }
+}
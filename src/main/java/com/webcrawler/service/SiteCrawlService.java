@@ -0,0 +1,61 @@
+package com.webcrawler.service;
+
+import com.webcrawler.model.CrawlResponse;
+import com.webcrawler.model.SiteCrawlJob;
+import com.webcrawler.model.SiteCrawlRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interface for recursive site crawls that follow links from seed URLs
+ */
+public interface SiteCrawlService {
+
+    /**
+     * Queues a site crawl and returns immediately
+     *
+     * @param request the site crawl request
+     * @return the newly created crawl in PENDING state
+     * @throws IllegalArgumentException if the request has too many seeds or an invalid pattern
+     * @throws java.util.concurrent.RejectedExecutionException if the crawl queue is full
+     */
+    SiteCrawlJob submit(SiteCrawlRequest request);
+
+    /**
+     * Gets the current state of a site crawl
+     *
+     * @param jobId the crawl identifier
+     * @return the crawl, or empty if it is unknown or has expired
+     */
+    Optional<SiteCrawlJob> getJob(String jobId);
+
+    /**
+     * Gets the stored page results of a site crawl, in the order the pages finished
+     *
+     * @param jobId the crawl identifier
+     * @param offset index of the first result to return
+     * @param limit maximum number of results to return
+     * @return the results, or empty if the crawl is unknown or has expired
+     */
+    Optional<List<CrawlResponse>> getPages(String jobId, int offset, int limit);
+
+    /**
+     * Stops a site crawl; pages already being crawled still finish
+     *
+     * @param jobId the crawl identifier
+     * @return the crawl, or empty if it is unknown or has expired
+     */
+    Optional<SiteCrawlJob> cancel(String jobId);
+
+    /**
+     * Queues a crawl that was interrupted, by a shutdown or a crash, to continue from its last
+     * checkpoint; pages that checkpoint records as done are not crawled again
+     *
+     * @param jobId the crawl identifier
+     * @return the resumed crawl in PENDING state, or empty if there is no checkpoint of the crawl
+     * @throws IllegalStateException if the crawl is still running
+     * @throws java.util.concurrent.RejectedExecutionException if the crawl queue is full
+     */
+    Optional<SiteCrawlJob> resume(String jobId);
+}
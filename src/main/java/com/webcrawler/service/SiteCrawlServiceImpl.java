@@ -0,0 +1,368 @@
+package com.webcrawler.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webcrawler.config.JsoupConfig;
+import com.webcrawler.config.SiteCrawlConfig;
+import com.webcrawler.crawl.DiskFrontier;
+import com.webcrawler.crawl.Frontier;
+import com.webcrawler.crawl.FrontierCheckpoint;
+import com.webcrawler.crawl.InMemoryFrontier;
+import com.webcrawler.crawl.SeenUrlSet;
+import com.webcrawler.model.CrawlResponse;
+import com.webcrawler.model.SiteCrawlJob;
+import com.webcrawler.model.SiteCrawlRequest;
+import com.webcrawler.util.ExpiringLruCache;
+import com.webcrawler.util.UrlNormalizer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Implementation of SiteCrawlService that runs each crawl's dispatcher on a bounded thread pool
+ * and keeps crawls and their results in an in-memory store with a size limit and expiry.
+ *
+ * <p>Crawls with a disk-backed frontier are checkpointed on a timer thread and keep their
+ * files when interrupted, so they can be resumed after a restart. On shutdown, running crawls
+ * stop dispatching and take a final checkpoint once their in-flight pages are done.
+ */
+@Service
+@Slf4j
+public class SiteCrawlServiceImpl implements SiteCrawlService {
+
+    private final CrawlerService crawlerService;
+    private final RobotsTxtService robotsTxtService;
+    private final JsoupConfig jsoupConfig;
+    private final SiteCrawlConfig siteCrawlConfig;
+    private final HostPolitenessScheduler hostPolitenessScheduler;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService checkpointTimer;
+    private final ExpiringLruCache<String, SiteCrawl> crawls;
+
+    /**
+     * Crawls whose dispatcher has not returned yet, including those waiting to start
+     */
+    private final Map<String, SiteCrawl> running = new ConcurrentHashMap<>();
+
+    public SiteCrawlServiceImpl(CrawlerService crawlerService, RobotsTxtService robotsTxtService,
+                                JsoupConfig jsoupConfig, SiteCrawlConfig siteCrawlConfig,
+                                HostPolitenessScheduler hostPolitenessScheduler, ObjectMapper objectMapper) {
+        this.crawlerService = crawlerService;
+        this.robotsTxtService = robotsTxtService;
+        this.jsoupConfig = jsoupConfig;
+        this.siteCrawlConfig = siteCrawlConfig;
+        this.hostPolitenessScheduler = hostPolitenessScheduler;
+        this.objectMapper = objectMapper;
+        this.crawls = new ExpiringLruCache<>(siteCrawlConfig.getMaxStoredCrawls());
+        this.checkpointTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "site-crawl-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                siteCrawlConfig.getMaxRunningCrawls(),
+                siteCrawlConfig.getMaxRunningCrawls(),
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(siteCrawlConfig.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "site-crawl-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Suspends running crawls and waits for their final checkpoints before stopping the threads
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (SiteCrawl crawl : running.values()) {
+            crawl.suspend();
+        }
+        checkpointTimer.shutdown();
+        executor.shutdown();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(siteCrawlConfig.getShutdownTimeoutMs());
+            if (!checkpointTimer.awaitTermination(siteCrawlConfig.getShutdownTimeoutMs(), TimeUnit.MILLISECONDS)
+                    || !executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                log.warn("Site crawls did not stop within {} ms; resuming them repeats the pages since their last checkpoint",
+                        siteCrawlConfig.getShutdownTimeoutMs());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        checkpointTimer.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Override
+    public SiteCrawlJob submit(SiteCrawlRequest request) {
+        SiteCrawl.Settings settings = settings(request);
+        String jobId = UUID.randomUUID().toString();
+        SiteCrawl.Progress progress = SiteCrawl.Progress.start(LocalDateTime.now());
+        Frontier frontier = isDiskBacked() ? newDiskFrontier(jobId, -1)
+                : new InMemoryFrontier(siteCrawlConfig.getMaxConcurrencyPerHost());
+        SiteCrawlCheckpoint checkpoint = isDiskBacked() ? newCheckpoint(jobId, request, progress.submittedAt()) : null;
+        SiteCrawl crawl = new SiteCrawl(jobId, settings, crawlerService, robotsTxtService, jsoupConfig.getUserAgent(),
+                frontier, newSeenUrlSet(settings, 0), checkpoint, progress);
+        try {
+            start(crawl);
+        } catch (RejectedExecutionException e) {
+            frontier.close();
+            discardFrontier(jobId);
+            throw e;
+        }
+        log.info("Submitted site crawl {} for seeds: {}", jobId, request.getSeeds());
+        return crawl.snapshot();
+    }
+
+    @Override
+    public synchronized Optional<SiteCrawlJob> resume(String jobId) {
+        if (!isDiskBacked() || !isJobId(jobId)) {
+            return Optional.empty();
+        }
+        SiteCrawl active = running.get(jobId);
+        if (active != null) {
+            // A crawl that has just finished is still discarding its checkpoint; there is nothing to resume
+            if (active.isFinished() && !active.isSuspended()) {
+                return Optional.empty();
+            }
+            throw new IllegalStateException("Site crawl " + jobId + " is still running");
+        }
+        Path directory = frontierDirectory(jobId);
+        Optional<SiteCrawlCheckpoint.State> saved = SiteCrawlCheckpoint.read(directory, objectMapper);
+        if (saved.isEmpty()) {
+            return Optional.empty();
+        }
+        SiteCrawlCheckpoint.State state = saved.get();
+        SiteCrawl.Settings settings = settings(state.request());
+
+        SiteCrawlCheckpoint checkpoint = newCheckpoint(jobId, state.request(), state.submittedAt());
+        SeenUrlSet seen = newSeenUrlSet(settings, state.seenCount());
+        List<CrawlResponse> results = checkpoint.resume(state, seen::addFingerprint);
+        DiskFrontier frontier = newDiskFrontier(jobId, state.sequence());
+        // URLs queued after the checkpoint are in the frontier's log but not in its seen URLs
+        long[] unsaved = new long[16];
+        int unsavedCount = 0;
+        List<String> recorded = new ArrayList<>();
+        frontier.forEachRecordedUrl(recorded::add);
+        for (String url : recorded) {
+            long fingerprint = SeenUrlSet.fingerprint(url);
+            if (seen.addFingerprint(fingerprint)) {
+                if (unsavedCount == unsaved.length) {
+                    unsaved = Arrays.copyOf(unsaved, unsavedCount * 2);
+                }
+                unsaved[unsavedCount++] = fingerprint;
+            }
+        }
+        SiteCrawl.Progress progress = new SiteCrawl.Progress(state.submittedAt(), state.urlsDiscovered() + unsavedCount,
+                state.pagesCrawled(), state.pagesFailed(), state.urlsRejected(), results);
+        checkpoint.write(checkpoint.nextSequence(), Arrays.copyOf(unsaved, unsavedCount), List.of(),
+                FrontierCheckpoint.NONE, new SiteCrawlCheckpoint.Counters(progress.urlsDiscovered(),
+                        progress.pagesCrawled(), progress.pagesFailed(), progress.urlsRejected()));
+        hostPolitenessScheduler.restoreNextAllowed(state.hostNextAllowed());
+
+        SiteCrawl crawl = new SiteCrawl(jobId, settings, crawlerService, robotsTxtService, jsoupConfig.getUserAgent(),
+                frontier, seen, checkpoint, progress);
+        try {
+            start(crawl);
+        } catch (RejectedExecutionException e) {
+            // The checkpoint stays for a later attempt
+            frontier.close();
+            throw e;
+        }
+        log.info("Resumed site crawl {} from checkpoint {}: {} pages done, {} URLs queued", jobId, state.sequence(),
+                state.pagesCrawled() + state.pagesFailed(), frontier.size());
+        return Optional.of(crawl.snapshot());
+    }
+
+    @Override
+    public Optional<SiteCrawlJob> getJob(String jobId) {
+        return Optional.ofNullable(crawls.get(jobId)).map(SiteCrawl::snapshot);
+    }
+
+    @Override
+    public Optional<List<CrawlResponse>> getPages(String jobId, int offset, int limit) {
+        return Optional.ofNullable(crawls.get(jobId)).map(crawl -> crawl.getResults(offset, limit));
+    }
+
+    @Override
+    public Optional<SiteCrawlJob> cancel(String jobId) {
+        SiteCrawl crawl = crawls.get(jobId);
+        if (crawl == null) {
+            return Optional.empty();
+        }
+        crawl.cancel();
+        log.info("Cancelled site crawl {}", jobId);
+        return Optional.of(crawl.snapshot());
+    }
+
+    /**
+     * Queues a crawl's dispatcher and makes the crawl visible
+     *
+     * @throws RejectedExecutionException if the crawl queue is full
+     */
+    private void start(SiteCrawl crawl) {
+        running.put(crawl.getJobId(), crawl);
+        try {
+            executor.execute(() -> run(crawl));
+        } catch (RejectedExecutionException e) {
+            running.remove(crawl.getJobId());
+            throw e;
+        }
+        crawls.put(crawl.getJobId(), crawl, resultTtl());
+    }
+
+    private void run(SiteCrawl crawl) {
+        ScheduledFuture<?> checkpoints = null;
+        if (isDiskBacked()) {
+            long intervalMs = Math.max(1, siteCrawlConfig.getCheckpointIntervalMs());
+            checkpoints = checkpointTimer.scheduleWithFixedDelay(crawl::checkpoint, intervalMs, intervalMs,
+                    TimeUnit.MILLISECONDS);
+        }
+        try {
+            crawl.run();
+        } finally {
+            if (checkpoints != null) {
+                checkpoints.cancel(false);
+            }
+            if (!crawl.isSuspended()) {
+                crawl.discardCheckpoint();
+                discardFrontier(crawl.getJobId());
+            }
+            running.remove(crawl.getJobId());
+        }
+        // Restart the expiry clock so the results are kept for the full TTL after completion
+        crawls.put(crawl.getJobId(), crawl, resultTtl());
+    }
+
+    private DiskFrontier newDiskFrontier(String jobId, long committedCheckpoint) {
+        return new DiskFrontier(frontierDirectory(jobId),
+                siteCrawlConfig.getMaxConcurrencyPerHost(),
+                siteCrawlConfig.getFrontierSegmentBytes(),
+                siteCrawlConfig.getFrontierMaxHotEntries(),
+                siteCrawlConfig.getFrontierMaxHotEntriesPerHost(),
+                committedCheckpoint);
+    }
+
+    private SiteCrawlCheckpoint newCheckpoint(String jobId, SiteCrawlRequest request, LocalDateTime submittedAt) {
+        return new SiteCrawlCheckpoint(frontierDirectory(jobId), objectMapper, jobId, request, submittedAt,
+                hostPolitenessScheduler::snapshotNextAllowed);
+    }
+
+    private SeenUrlSet newSeenUrlSet(SiteCrawl.Settings settings, long saved) {
+        return new SeenUrlSet(Math.max(saved, Math.min(settings.maxPages(), siteCrawlConfig.getSeenInitialCapacity())),
+                siteCrawlConfig.getSeenBloomFalsePositiveRate());
+    }
+
+    private void discardFrontier(String jobId) {
+        if (isDiskBacked()) {
+            DiskFrontier.delete(frontierDirectory(jobId));
+        }
+    }
+
+    private boolean isDiskBacked() {
+        return siteCrawlConfig.getFrontierDirectory() != null && !siteCrawlConfig.getFrontierDirectory().isBlank();
+    }
+
+    private Path frontierDirectory(String jobId) {
+        return Path.of(siteCrawlConfig.getFrontierDirectory(), jobId);
+    }
+
+    /**
+     * Checks that a client-supplied ID is one this service generates, and so a safe directory name
+     */
+    private static boolean isJobId(String jobId) {
+        try {
+            return UUID.fromString(jobId).toString().equals(jobId);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Applies defaults and server limits to a request
+     */
+    private SiteCrawl.Settings settings(SiteCrawlRequest request) {
+        if (request.getSeeds() == null || request.getSeeds().isEmpty()) {
+            throw new IllegalArgumentException("At least one seed URL is required");
+        }
+        if (request.getSeeds().size() > siteCrawlConfig.getMaxSeeds()) {
+            throw new IllegalArgumentException("At most " + siteCrawlConfig.getMaxSeeds() + " seed URLs are allowed");
+        }
+
+        Set<String> seeds = new LinkedHashSet<>();
+        Set<String> seedHosts = new HashSet<>();
+        for (String seed : request.getSeeds()) {
+            String normalized = UrlNormalizer.normalize(seed);
+            String host = SiteCrawl.hostOf(normalized);
+            if (host == null) {
+                throw new IllegalArgumentException("Invalid seed URL: " + seed);
+            }
+            seeds.add(normalized);
+            seedHosts.add(host);
+        }
+
+        int maxDepth = request.getMaxDepth() != null ? request.getMaxDepth() : siteCrawlConfig.getDefaultMaxDepth();
+        int maxPages = request.getMaxPages() != null ? request.getMaxPages() : siteCrawlConfig.getDefaultMaxPages();
+        SiteCrawl.Scope scope = new SiteCrawl.Scope(
+                request.staysOnSeedHosts() ? seedHosts : null,
+                compile(request.getIncludePatterns()),
+                compile(request.getExcludePatterns()));
+        return new SiteCrawl.Settings(
+                new ArrayList<>(seeds),
+                Math.max(0, Math.min(maxDepth, siteCrawlConfig.getMaxDepth())),
+                Math.max(1, Math.min(maxPages, siteCrawlConfig.getMaxPages())),
+                Math.max(1, siteCrawlConfig.getMaxConcurrency()),
+                siteCrawlConfig.getMaxStoredResults(),
+                scope,
+                request.getFields(),
+                request.getClassify());
+    }
+
+    private static List<Pattern> compile(List<String> patterns) {
+        List<Pattern> compiled = new ArrayList<>();
+        if (patterns == null) {
+            return compiled;
+        }
+        for (String pattern : patterns) {
+            try {
+                compiled.add(Pattern.compile(pattern));
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("Invalid pattern: " + pattern, e);
+            }
+        }
+        return compiled;
+    }
+
+    private Duration resultTtl() {
+        return Duration.ofMillis(siteCrawlConfig.getResultTtlMs());
+    }
+}
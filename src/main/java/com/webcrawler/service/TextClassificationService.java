@@ -7,12 +7,17 @@ import com.webcrawler.model.ContentClassification;
  */
 public interface TextClassificationService {
 
+    /**
+     * Only this many leading characters of the text content are used for classification
+     */
+    int MAX_TEXT_LENGTH = 1000;
+
     /**
      * Classifies the given text content
      *
      * @param title the title of the content
      * @param description the description of the content
-     * @param textContent the main text content
+     * @param textContent the main text content (only the first MAX_TEXT_LENGTH characters are used)
      * @return classification result with category, language, and confidence scores
      */
     ContentClassification classify(String title, String description, String textContent);
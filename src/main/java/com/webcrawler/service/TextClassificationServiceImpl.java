@@ -1,6 +1,7 @@
 package com.webcrawler.service;
 
 import com.webcrawler.model.ContentClassification;
+import com.webcrawler.util.KeywordMatcher;
 import lombok.extern.slf4j.Slf4j;
 import opennlp.tools.langdetect.Language;
 import opennlp.tools.langdetect.LanguageDetector;
@@ -12,7 +13,6 @@ import org.springframework.stereotype.Service;
 import jakarta.annotation.PostConstruct;
 import java.io.InputStream;
 import java.util.*;
-import java.util.regex.Pattern;
 
 /**
  * Implementation of TextClassificationService using OpenNLP and keyword-based classification
@@ -23,59 +23,72 @@ public class TextClassificationServiceImpl implements TextClassificationService
 
     private LanguageDetector languageDetector;
 
-    // Category keywords for classification
-    private static final Map<String, List<Pattern>> CATEGORY_PATTERNS = new HashMap<>();
+    // Category keywords for classification. Each inner list is one keyword group,
+    // matched as whole words regardless of ASCII case.
+    private static final Map<String, List<List<String>>> CATEGORY_KEYWORDS = new HashMap<>();
 
     static {
         // E-commerce / Shopping
-        CATEGORY_PATTERNS.put("ecommerce", Arrays.asList(
-            Pattern.compile("\\b(buy|purchase|cart|checkout|price|shipping|product|seller|amazon|ebay|shop)\\b", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("\\b(add to cart|buy now|free shipping|customer review|rating)\\b", Pattern.CASE_INSENSITIVE)
+        CATEGORY_KEYWORDS.put("ecommerce", List.of(
+            List.of("buy", "purchase", "cart", "checkout", "price", "shipping", "product", "seller", "amazon", "ebay", "shop"),
+            List.of("add to cart", "buy now", "free shipping", "customer review", "rating")
         ));
 
         // News / Politics
-        CATEGORY_PATTERNS.put("news", Arrays.asList(
-            Pattern.compile("\\b(breaking|report|announced|statement|government|president|minister|official|sources say)\\b", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("\\b(according to|reuters|cnn|bbc|news|politics|election)\\b", Pattern.CASE_INSENSITIVE)
+        CATEGORY_KEYWORDS.put("news", List.of(
+            List.of("breaking", "report", "announced", "statement", "government", "president", "minister", "official", "sources say"),
+            List.of("according to", "reuters", "cnn", "bbc", "news", "politics", "election")
         ));
 
         // Technology
-        CATEGORY_PATTERNS.put("technology", Arrays.asList(
-            Pattern.compile("\\b(software|hardware|app|application|developer|code|programming|algorithm|AI|machine learning)\\b", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("\\b(tech|technology|digital|cyber|cloud|database|API)\\b", Pattern.CASE_INSENSITIVE)
+        CATEGORY_KEYWORDS.put("technology", List.of(
+            List.of("software", "hardware", "app", "application", "developer", "code", "programming", "algorithm", "AI", "machine learning"),
+            List.of("tech", "technology", "digital", "cyber", "cloud", "database", "API")
         ));
 
         // Sports
-        CATEGORY_PATTERNS.put("sports", Arrays.asList(
-            Pattern.compile("\\b(game|match|tournament|championship|team|player|score|goal|win|loss)\\b", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("\\b(football|basketball|baseball|soccer|tennis|cricket|olympics)\\b", Pattern.CASE_INSENSITIVE)
+        CATEGORY_KEYWORDS.put("sports", List.of(
+            List.of("game", "match", "tournament", "championship", "team", "player", "score", "goal", "win", "loss"),
+            List.of("football", "basketball", "baseball", "soccer", "tennis", "cricket", "olympics")
         ));
 
         // Entertainment
-        CATEGORY_PATTERNS.put("entertainment", Arrays.asList(
-            Pattern.compile("\\b(movie|film|actor|actress|director|music|concert|album|song|artist)\\b", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("\\b(entertainment|celebrity|hollywood|netflix|streaming|episode|season)\\b", Pattern.CASE_INSENSITIVE)
+        CATEGORY_KEYWORDS.put("entertainment", List.of(
+            List.of("movie", "film", "actor", "actress", "director", "music", "concert", "album", "song", "artist"),
+            List.of("entertainment", "celebrity", "hollywood", "netflix", "streaming", "episode", "season")
         ));
 
         // Health / Medical
-        CATEGORY_PATTERNS.put("health", Arrays.asList(
-            Pattern.compile("\\b(health|medical|doctor|patient|hospital|disease|treatment|medicine|drug|vaccine)\\b", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("\\b(symptoms|diagnosis|therapy|healthcare|wellness|fitness)\\b", Pattern.CASE_INSENSITIVE)
+        CATEGORY_KEYWORDS.put("health", List.of(
+            List.of("health", "medical", "doctor", "patient", "hospital", "disease", "treatment", "medicine", "drug", "vaccine"),
+            List.of("symptoms", "diagnosis", "therapy", "healthcare", "wellness", "fitness")
         ));
 
         // Finance / Business
-        CATEGORY_PATTERNS.put("finance", Arrays.asList(
-            Pattern.compile("\\b(stock|market|investment|trading|finance|bank|loan|mortgage|interest rate)\\b", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("\\b(business|company|corporation|revenue|profit|economy|economic)\\b", Pattern.CASE_INSENSITIVE)
+        CATEGORY_KEYWORDS.put("finance", List.of(
+            List.of("stock", "market", "investment", "trading", "finance", "bank", "loan", "mortgage", "interest rate"),
+            List.of("business", "company", "corporation", "revenue", "profit", "economy", "economic")
         ));
 
         // Education
-        CATEGORY_PATTERNS.put("education", Arrays.asList(
-            Pattern.compile("\\b(school|university|college|student|teacher|professor|course|learning|education)\\b", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("\\b(study|academic|degree|diploma|curriculum|lecture)\\b", Pattern.CASE_INSENSITIVE)
+        CATEGORY_KEYWORDS.put("education", List.of(
+            List.of("school", "university", "college", "student", "teacher", "professor", "course", "learning", "education"),
+            List.of("study", "academic", "degree", "diploma", "curriculum", "lecture")
         ));
     }
 
+    // All keyword groups compiled into one automaton, and the group ids of each category
+    private static final KeywordMatcher KEYWORD_MATCHER;
+    private static final Map<String, int[]> CATEGORY_GROUPS = new HashMap<>();
+
+    static {
+        KeywordMatcher.Builder builder = KeywordMatcher.builder();
+        for (Map.Entry<String, List<List<String>>> entry : CATEGORY_KEYWORDS.entrySet()) {
+            CATEGORY_GROUPS.put(entry.getKey(), entry.getValue().stream().mapToInt(builder::addGroup).toArray());
+        }
+        KEYWORD_MATCHER = builder.build();
+    }
+
     @PostConstruct
     public void init() {
         try {
@@ -98,7 +111,7 @@ public class TextClassificationServiceImpl implements TextClassificationService
         String combinedText = String.join(" ",
             Optional.ofNullable(title).orElse(""),
             Optional.ofNullable(description).orElse(""),
-            Optional.ofNullable(textContent).orElse("").substring(0, Math.min(1000, Optional.ofNullable(textContent).orElse("").length()))
+            Optional.ofNullable(textContent).orElse("").substring(0, Math.min(MAX_TEXT_LENGTH, Optional.ofNullable(textContent).orElse("").length()))
         ).trim();
 
         // Detect language
@@ -122,14 +135,15 @@ public class TextClassificationServiceImpl implements TextClassificationService
         if (!combinedText.isEmpty()) {
             Map<String, Integer> categoryScores = new HashMap<>();
 
-            for (Map.Entry<String, List<Pattern>> entry : CATEGORY_PATTERNS.entrySet()) {
+            // One pass over the text counts the matches of every keyword group
+            int[] groupMatches = KEYWORD_MATCHER.countMatches(combinedText);
+            for (String category : CATEGORY_KEYWORDS.keySet()) {
                 int score = 0;
-                for (Pattern pattern : entry.getValue()) {
-                    long matchCount = pattern.matcher(combinedText).results().count();
-                    score += matchCount;
+                for (int group : CATEGORY_GROUPS.get(category)) {
+                    score += groupMatches[group];
                 }
                 if (score > 0) {
-                    categoryScores.put(entry.getKey(), score);
+                    categoryScores.put(category, score);
                 }
             }
 
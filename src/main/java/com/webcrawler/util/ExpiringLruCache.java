@@ -0,0 +1,167 @@
+package com.webcrawler.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thread-safe, size-bounded cache with least-recently-used eviction and a per-entry time to live.
+ * Expired entries are dropped lazily on access and opportunistically on insert.
+ * Hits, misses and capacity evictions are counted for monitoring.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class ExpiringLruCache<K, V> {
+
+    private final int maxSize;
+    private final Clock clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ExpiringLruCache(int maxSize) {
+        this(maxSize, Clock.systemUTC());
+    }
+
+    public ExpiringLruCache(int maxSize, Clock clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > ExpiringLruCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value, or null if absent or expired
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.isExpired(clock.millis())) {
+            entries.remove(key);
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Like {@link #get}, but not counted as a hit or miss
+     */
+    public synchronized V peek(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.isExpired(clock.millis())) {
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Stores a value that expires after the given time to live
+     */
+    public synchronized void put(K key, V value, Duration ttl) {
+        long now = clock.millis();
+        dropExpiredEldest(now);
+        entries.put(key, new Entry<>(value, now + ttl.toMillis()));
+    }
+
+    public synchronized V remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        return entry != null ? entry.value : null;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Number of lookups that found a live entry
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Number of lookups that found no entry or an expired one
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Number of live entries dropped to stay within maxSize
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Copies the live entries, least recently used first, without changing their recency
+     */
+    public synchronized Map<K, V> snapshot() {
+        long now = clock.millis();
+        Map<K, V> live = new LinkedHashMap<>();
+        for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+            if (!entry.getValue().isExpired(now)) {
+                live.put(entry.getKey(), entry.getValue().value);
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Removes every expired entry
+     *
+     * @return number of entries removed
+     */
+    public synchronized int purgeExpired() {
+        long now = clock.millis();
+        int removed = 0;
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isExpired(now)) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Cheap partial purge: drops expired entries from the least recently used end until a live one is found
+     */
+    private void dropExpiredEldest(long now) {
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext() && iterator.next().isExpired(now)) {
+            iterator.remove();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAtMillis) {
+        boolean isExpired(long now) {
+            return now >= expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.webcrawler.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Counts whole-word keyword occurrences for many keyword groups in a single pass
+ * (Aho-Corasick automaton). Matching is ASCII case-insensitive and a keyword only
+ * counts when it is delimited by word boundaries, with the same rules as the regex
+ * {@code \b(kw1|kw2|...)\b} compiled with {@code CASE_INSENSITIVE}: word characters
+ * are {@code [A-Za-z0-9_]}, and a non-spacing mark counts as part of the word it follows.
+ *
+ * <p>Keywords of one group must not be able to overlap at word boundaries (for example
+ * "interest" and "interest rate" in the same group). Under that rule, counting every
+ * occurrence gives the same number as the regex's non-overlapping matches. The
+ * builder rejects groups that break it.
+ *
+ * <p>Instances are immutable and thread-safe; matching allocates nothing but the result array.
+ */
+public final class KeywordMatcher {
+
+    /**
+     * Number of distinct characters that can appear in a keyword
+     */
+    private static final int ALPHABET_SIZE = 128;
+
+    /**
+     * Dense transition table: state * ALPHABET_SIZE + char -> next state
+     */
+    private final int[] transitions;
+
+    /**
+     * Keywords recognized in each state (including through suffix links): outputs[outputStart[s]..outputStart[s+1])
+     */
+    private final int[] outputStart;
+    private final int[] outputs;
+
+    private final int[] keywordLength;
+    private final int[] keywordGroup;
+    private final int groupCount;
+
+    private KeywordMatcher(int[] transitions, int[] outputStart, int[] outputs,
+                           int[] keywordLength, int[] keywordGroup, int groupCount) {
+        this.transitions = transitions;
+        this.outputStart = outputStart;
+        this.outputs = outputs;
+        this.keywordLength = keywordLength;
+        this.keywordGroup = keywordGroup;
+        this.groupCount = groupCount;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Number of keyword groups; the length of the array returned by {@link #countMatches}
+     */
+    public int getGroupCount() {
+        return groupCount;
+    }
+
+    /**
+     * Counts whole-word keyword occurrences in the text
+     *
+     * @param text the text to scan
+     * @return the number of matches per group, indexed by group id
+     */
+    public int[] countMatches(CharSequence text) {
+        int[] counts = new int[groupCount];
+        int state = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (c >= ALPHABET_SIZE) {
+                // No keyword contains non-ASCII characters
+                state = 0;
+                continue;
+            }
+            state = transitions[state * ALPHABET_SIZE + c];
+            for (int o = outputStart[state]; o < outputStart[state + 1]; o++) {
+                int keyword = outputs[o];
+                int start = i + 1 - keywordLength[keyword];
+                if (isBoundary(text, start) && isBoundary(text, i + 1)) {
+                    counts[keywordGroup[keyword]]++;
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Whether there is a word boundary between index - 1 and index. Keywords start and
+     * end with word characters, so only the outer side of the match has to be checked.
+     */
+    private static boolean isBoundary(CharSequence text, int index) {
+        boolean left = index > 0 && isWord(Character.codePointBefore(text, index), text, index - 1);
+        boolean right = index < text.length() && isWord(Character.codePointAt(text, index), text, index);
+        return left != right;
+    }
+
+    private static boolean isWord(int ch, CharSequence text, int index) {
+        if (isWordChar(ch)) {
+            return true;
+        }
+        return Character.getType(ch) == Character.NON_SPACING_MARK && hasBaseCharacter(text, index);
+    }
+
+    /**
+     * A run of non-spacing marks belongs to the letter or digit that precedes it
+     */
+    private static boolean hasBaseCharacter(CharSequence text, int index) {
+        for (int x = index; x >= 0; x--) {
+            int ch = Character.codePointAt(text, x);
+            if (Character.isLetterOrDigit(ch)) {
+                return true;
+            }
+            if (Character.getType(ch) != Character.NON_SPACING_MARK) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isWordChar(int ch) {
+        return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9') || ch == '_';
+    }
+
+    /**
+     * Collects keywords and builds the automaton
+     */
+    public static final class Builder {
+
+        private final List<String> keywords = new ArrayList<>();
+        private final List<Integer> groups = new ArrayList<>();
+        private int groupCount;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a group of keywords and returns its group id. Ids are assigned in order from 0.
+         *
+         * @param groupKeywords keywords of ASCII characters that start and end with a word character
+         * @return the id under which matches of this group are counted
+         * @throws IllegalArgumentException if a keyword is invalid or two keywords of the group can overlap
+         */
+        public int addGroup(List<String> groupKeywords) {
+            int group = groupCount++;
+            List<String> normalized = new ArrayList<>();
+            for (String keyword : groupKeywords) {
+                String lower = keyword.toLowerCase(Locale.ROOT);
+                validate(lower);
+                normalized.add(lower);
+            }
+            checkNoOverlap(normalized);
+            for (String keyword : normalized) {
+                keywords.add(keyword);
+                groups.add(group);
+            }
+            return group;
+        }
+
+        public KeywordMatcher build() {
+            // Trie
+            List<int[]> children = new ArrayList<>();
+            List<List<Integer>> stateOutputs = new ArrayList<>();
+            children.add(newNode());
+            stateOutputs.add(new ArrayList<>());
+            for (int k = 0; k < keywords.size(); k++) {
+                int state = 0;
+                for (char c : keywords.get(k).toCharArray()) {
+                    if (children.get(state)[c] < 0) {
+                        children.get(state)[c] = children.size();
+                        children.add(newNode());
+                        stateOutputs.add(new ArrayList<>());
+                    }
+                    state = children.get(state)[c];
+                }
+                stateOutputs.get(state).add(k);
+            }
+
+            // Breadth-first: failure links, inherited outputs and the full transition table
+            int stateCount = children.size();
+            int[] transitions = new int[stateCount * ALPHABET_SIZE];
+            int[] fail = new int[stateCount];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int c = 0; c < ALPHABET_SIZE; c++) {
+                int child = children.get(0)[c];
+                transitions[c] = child < 0 ? 0 : child;
+                if (child > 0) {
+                    queue.add(child);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                stateOutputs.get(state).addAll(stateOutputs.get(fail[state]));
+                for (int c = 0; c < ALPHABET_SIZE; c++) {
+                    int child = children.get(state)[c];
+                    if (child < 0) {
+                        transitions[state * ALPHABET_SIZE + c] = transitions[fail[state] * ALPHABET_SIZE + c];
+                    } else {
+                        transitions[state * ALPHABET_SIZE + c] = child;
+                        fail[child] = transitions[fail[state] * ALPHABET_SIZE + c];
+                        queue.add(child);
+                    }
+                }
+            }
+
+            int[] outputStart = new int[stateCount + 1];
+            for (int s = 0; s < stateCount; s++) {
+                outputStart[s + 1] = outputStart[s] + stateOutputs.get(s).size();
+            }
+            int[] outputs = new int[outputStart[stateCount]];
+            for (int s = 0; s < stateCount; s++) {
+                List<Integer> out = stateOutputs.get(s);
+                for (int o = 0; o < out.size(); o++) {
+                    outputs[outputStart[s] + o] = out.get(o);
+                }
+            }
+
+            int[] keywordLength = new int[keywords.size()];
+            int[] keywordGroup = new int[keywords.size()];
+            for (int k = 0; k < keywords.size(); k++) {
+                keywordLength[k] = keywords.get(k).length();
+                keywordGroup[k] = groups.get(k);
+            }
+            return new KeywordMatcher(transitions, outputStart, outputs, keywordLength, keywordGroup, groupCount);
+        }
+
+        private static int[] newNode() {
+            int[] node = new int[ALPHABET_SIZE];
+            Arrays.fill(node, -1);
+            return node;
+        }
+
+        private static void validate(String keyword) {
+            if (keyword.isEmpty()) {
+                throw new IllegalArgumentException("Keyword must not be empty");
+            }
+            for (int i = 0; i < keyword.length(); i++) {
+                if (keyword.charAt(i) >= ALPHABET_SIZE) {
+                    throw new IllegalArgumentException("Keyword must be ASCII: " + keyword);
+                }
+            }
+            if (!isWordChar(keyword.charAt(0)) || !isWordChar(keyword.charAt(keyword.length() - 1))) {
+                throw new IllegalArgumentException("Keyword must start and end with a word character: " + keyword);
+            }
+        }
+
+        /**
+         * Rejects groups where one keyword could start inside a match of another (or of itself)
+         * at a word boundary, since the regex would then count only one of the two
+         */
+        private static void checkNoOverlap(List<String> group) {
+            for (int i = 0; i < group.size(); i++) {
+                for (int j = 0; j < group.size(); j++) {
+                    String a = group.get(i);
+                    String b = group.get(j);
+                    for (int p = 0; p < a.length(); p++) {
+                        boolean sameMatch = p == 0 && i == j;
+                        if (sameMatch || (p > 0 && isWordChar(a.charAt(p - 1)))) {
+                            continue;
+                        }
+                        int overlap = Math.min(a.length() - p, b.length());
+                        if (!a.regionMatches(p, b, 0, overlap)) {
+                            continue;
+                        }
+                        int bEnd = p + b.length();
+                        boolean bEndsAtBoundary = bEnd >= a.length() || !isWordChar(a.charAt(bEnd));
+                        boolean aEndsAtBoundary = bEnd <= a.length() || !isWordChar(b.charAt(a.length() - p));
+                        if (bEndsAtBoundary && aEndsAtBoundary) {
+                            throw new IllegalArgumentException("Keywords can overlap: \"" + a + "\" and \"" + b + "\"");
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package com.webcrawler.util;
+
+import crawlercommons.robots.BaseRobotRules;
+import crawlercommons.robots.SimpleRobotRules;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Robots.txt rules compiled for fast, allocation-free {@code isAllowed} checks.
+ *
+ * <p>Rules without a {@code *} wildcard are stored in a character trie, so finding the longest
+ * matching one takes a single walk over the URL path. Wildcard rules, which are rare, are tried
+ * afterwards, longest first, and only while they could still beat the trie's match. As with
+ * {@link BaseRobotRules#isAllowed}, the longest matching rule wins, allow wins a tie, a trailing
+ * {@code $} anchors a rule at the end of the path, and {@code /robots.txt} is always allowed.
+ *
+ * <p>Wildcards are matched the way crawler-commons 1.5 matches them rather than as RFC 9309
+ * describes: the text after each {@code *} is matched at its first occurrence and never retried
+ * further on. So {@code /*.php$} does not match {@code /a.php.php}, because the first
+ * {@code .php} is not at the end of the path.
+ *
+ * <p>URLs whose path needs normalizing first (percent-escapes, non-ASCII or other characters
+ * that crawler-commons would re-encode) are passed to the underlying rules unchanged.
+ *
+ * <p>Instances are immutable and thread-safe.
+ */
+public final class RobotRulesMatcher {
+
+    private static final int ASCII = 128;
+
+    private static final byte NONE = 0;
+    private static final byte DISALLOW = 1;
+    private static final byte ALLOW = 2;
+
+    private static final boolean[] PLAIN_PATH_CHARS = new boolean[ASCII];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            PLAIN_PATH_CHARS[c] = true;
+            PLAIN_PATH_CHARS[Character.toUpperCase(c)] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            PLAIN_PATH_CHARS[c] = true;
+        }
+        for (char c : "-._~!$&'()*+,;=:@/?".toCharArray()) {
+            PLAIN_PATH_CHARS[c] = true;
+        }
+    }
+
+    private final BaseRobotRules rules;
+
+    /**
+     * False when every check is delegated to the rules: they allow or disallow everything,
+     * or could not be compiled
+     */
+    private final boolean compiled;
+
+    /**
+     * Trie of the literal rules: the children of node n are childLabel/childTarget[childStart[n]..childStart[n+1]),
+     * sorted by label. prefixRule[n] is set by rules ending at n; exactRule[n] by rules ending at n with a {@code $}.
+     */
+    private final int[] childStart;
+    private final char[] childLabel;
+    private final int[] childTarget;
+    private final byte[] prefixRule;
+    private final byte[] exactRule;
+
+    /**
+     * Rules containing {@code *}, longest first and allow before disallow for equal lengths
+     */
+    private final WildcardRule[] wildcardRules;
+
+    private RobotRulesMatcher(BaseRobotRules rules, boolean compiled, Trie trie, WildcardRule[] wildcardRules) {
+        this.rules = rules;
+        this.compiled = compiled;
+        this.childStart = trie.childStart;
+        this.childLabel = trie.childLabel;
+        this.childTarget = trie.childTarget;
+        this.prefixRule = trie.prefixRule;
+        this.exactRule = trie.exactRule;
+        this.wildcardRules = wildcardRules;
+    }
+
+    /**
+     * Compiles parsed robots.txt rules. Rules of an unknown implementation, or with characters
+     * that a normalized rule cannot contain, are not compiled and every check is delegated.
+     */
+    public static RobotRulesMatcher compile(BaseRobotRules rules) {
+        if (rules.isAllowAll() || rules.isAllowNone() || !(rules instanceof SimpleRobotRules simpleRules)) {
+            return delegating(rules);
+        }
+
+        Trie trie = new Trie();
+        List<WildcardRule> wildcards = new ArrayList<>();
+        for (SimpleRobotRules.RobotRule rule : simpleRules.getRobotRules()) {
+            String pattern = rule.getPrefix();
+            for (int i = 0; i < pattern.length(); i++) {
+                if (pattern.charAt(i) >= ASCII) {
+                    return delegating(rules);
+                }
+            }
+            if (pattern.indexOf('*') >= 0) {
+                wildcards.add(new WildcardRule(pattern, rule.isAllow()));
+            } else if (pattern.endsWith("$")) {
+                trie.add(pattern.substring(0, pattern.length() - 1), true, rule.isAllow());
+            } else {
+                trie.add(pattern, false, rule.isAllow());
+            }
+        }
+        wildcards.sort(Comparator.comparingInt(WildcardRule::length).reversed()
+                .thenComparing(WildcardRule::allow, Comparator.reverseOrder()));
+        trie.freeze();
+        return new RobotRulesMatcher(rules, true, trie, wildcards.toArray(new WildcardRule[0]));
+    }
+
+    private static RobotRulesMatcher delegating(BaseRobotRules rules) {
+        return new RobotRulesMatcher(rules, false, new Trie(), new WildcardRule[0]);
+    }
+
+    /**
+     * The rules this matcher was compiled from
+     */
+    public BaseRobotRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Checks whether robots.txt allows fetching the URL
+     *
+     * @param url absolute URL
+     * @return the same answer as {@link BaseRobotRules#isAllowed(String)}
+     */
+    public boolean isAllowed(String url) {
+        if (!compiled) {
+            return rules.isAllowed(url);
+        }
+        int pathStart = pathStart(url);
+        if (pathStart < 0) {
+            return rules.isAllowed(url);
+        }
+        int pathEnd = url.indexOf('#', pathStart);
+        if (pathEnd < 0) {
+            pathEnd = url.length();
+        }
+        for (int i = pathStart; i < pathEnd; i++) {
+            char c = url.charAt(i);
+            if (c >= ASCII || !PLAIN_PATH_CHARS[c]) {
+                return rules.isAllowed(url);
+            }
+        }
+        if (url.startsWith("/robots.txt", pathStart) && pathEnd - pathStart == "/robots.txt".length()) {
+            return true;
+        }
+        return isPathAllowed(url, pathStart, pathEnd);
+    }
+
+    /**
+     * Evaluates the rules against url[start..end), the path and query of a URL
+     */
+    private boolean isPathAllowed(String url, int start, int end) {
+        // Longest literal rule matching a prefix of the path (or the whole path, for anchored rules)
+        int bestLength = -1;
+        byte bestRule = NONE;
+        int node = 0;
+        int depth = 0;
+        while (true) {
+            if (prefixRule[node] != NONE) {
+                bestLength = depth;
+                bestRule = prefixRule[node];
+            }
+            if (depth == end - start) {
+                if (exactRule[node] != NONE) {
+                    bestLength = depth + 1;
+                    bestRule = exactRule[node];
+                }
+                break;
+            }
+            node = child(node, url.charAt(start + depth));
+            if (node < 0) {
+                break;
+            }
+            depth++;
+        }
+
+        for (WildcardRule rule : wildcardRules) {
+            int length = rule.length();
+            if (length < bestLength || (length == bestLength && (bestRule == ALLOW || !rule.allow()))) {
+                break;
+            }
+            if (rule.matches(url, start, end)) {
+                return rule.allow();
+            }
+        }
+        return bestRule != DISALLOW;
+    }
+
+    private int child(int node, char label) {
+        int low = childStart[node];
+        int high = childStart[node + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midLabel = childLabel[mid];
+            if (midLabel < label) {
+                low = mid + 1;
+            } else if (midLabel > label) {
+                high = mid - 1;
+            } else {
+                return childTarget[mid];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return index of the path in an http(s) URL, or -1 if the URL does not have the plain
+     * {@code scheme://authority/path} form
+     */
+    private static int pathStart(String url) {
+        int authorityStart;
+        if (url.startsWith("https://")) {
+            authorityStart = 8;
+        } else if (url.startsWith("http://")) {
+            authorityStart = 7;
+        } else {
+            return -1;
+        }
+        for (int i = authorityStart; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == '/') {
+                return i > authorityStart ? i : -1;
+            }
+            if (c == '?' || c == '#' || c == '\\') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private record WildcardRule(char[] pattern, boolean anchored, int length, boolean allow) {
+
+        WildcardRule(String pattern, boolean allow) {
+            this(stripAnchor(pattern).toCharArray(), pattern.endsWith("$"), pattern.length(), allow);
+        }
+
+        private static String stripAnchor(String pattern) {
+            return pattern.endsWith("$") ? pattern.substring(0, pattern.length() - 1) : pattern;
+        }
+
+        /**
+         * Matches the pattern against the start of text[start..end) like crawler-commons'
+         * SimpleRobotRules: the literal text after a {@code *} is matched at its first occurrence,
+         * without backtracking
+         */
+        boolean matches(String text, int start, int end) {
+            int p = 0;
+            int t = start;
+            while (p < pattern.length && t < end) {
+                if (pattern[p] == '*') {
+                    p++;
+                    if (p == pattern.length) {
+                        // A trailing * matches the rest, even of an anchored rule
+                        return true;
+                    }
+                    int pieceLength = 0;
+                    while (p + pieceLength < pattern.length && pattern[p + pieceLength] != '*') {
+                        pieceLength++;
+                    }
+                    if (t + pieceLength > end) {
+                        return false;
+                    }
+                    while (!regionMatches(text, t, p, pieceLength)) {
+                        if (t + pieceLength >= end) {
+                            return false;
+                        }
+                        t++;
+                    }
+                    // The piece itself is consumed as literal text by the next iterations
+                } else if (text.charAt(t++) != pattern[p++]) {
+                    return false;
+                }
+            }
+            while (p < pattern.length && pattern[p] == '*') {
+                p++;
+            }
+            return p == pattern.length && (t == end || !anchored);
+        }
+
+        /**
+         * Compares pattern[p..p+length) with the text at t; the caller keeps t + length within the path
+         */
+        private boolean regionMatches(String text, int t, int p, int length) {
+            for (int i = 0; i < length; i++) {
+                if (text.charAt(t + i) != pattern[p + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Trie under construction; {@link #freeze()} flattens it into sorted child arrays
+     */
+    private static final class Trie {
+        private final List<List<int[]>> children = new ArrayList<>();
+        private final List<byte[]> flags = new ArrayList<>();
+        int[] childStart = {0, 0};
+        char[] childLabel = new char[0];
+        int[] childTarget = new int[0];
+        byte[] prefixRule = {NONE};
+        byte[] exactRule = {NONE};
+
+        Trie() {
+            newNode();
+        }
+
+        void add(String path, boolean exact, boolean allow) {
+            int node = 0;
+            for (int i = 0; i < path.length(); i++) {
+                char c = path.charAt(i);
+                int next = -1;
+                for (int[] edge : children.get(node)) {
+                    if (edge[0] == c) {
+                        next = edge[1];
+                        break;
+                    }
+                }
+                if (next < 0) {
+                    next = newNode();
+                    children.get(node).add(new int[]{c, next});
+                }
+                node = next;
+            }
+            byte[] nodeFlags = flags.get(node);
+            int slot = exact ? 1 : 0;
+            // Allow wins over disallow for the same rule
+            if (allow || nodeFlags[slot] == NONE) {
+                nodeFlags[slot] = allow ? ALLOW : DISALLOW;
+            }
+        }
+
+        void freeze() {
+            int nodeCount = children.size();
+            int edgeCount = 0;
+            for (List<int[]> edges : children) {
+                edgeCount += edges.size();
+            }
+            childStart = new int[nodeCount + 1];
+            childLabel = new char[edgeCount];
+            childTarget = new int[edgeCount];
+            prefixRule = new byte[nodeCount];
+            exactRule = new byte[nodeCount];
+            int edge = 0;
+            for (int n = 0; n < nodeCount; n++) {
+                childStart[n] = edge;
+                List<int[]> edges = children.get(n);
+                edges.sort(Comparator.comparingInt(e -> e[0]));
+                for (int[] e : edges) {
+                    childLabel[edge] = (char) e[0];
+                    childTarget[edge] = e[1];
+                    edge++;
+                }
+                prefixRule[n] = flags.get(n)[0];
+                exactRule[n] = flags.get(n)[1];
+            }
+            childStart[nodeCount] = edge;
+        }
+
+        private int newNode() {
+            children.add(new ArrayList<>());
+            flags.add(new byte[2]);
+            return children.size() - 1;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.webcrawler.util;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the loader,
+ * callers arriving while it is in flight wait for and share its result.
+ * Nothing is cached once the call completes.
+ *
+ * <p>An outcome is not shared if the first caller's thread is interrupted when the loader
+ * returns, as it may be a failure caused by that interrupt; the waiting callers then run the
+ * loader again themselves. Loaders that catch an interrupt must restore the thread's status.
+ *
+ * @param <K> key type
+ * @param <V> result type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Runs the loader for the key, or joins a call for the same key that is already running
+     *
+     * @param key the deduplication key
+     * @param loader computes the result; run at most once per key at a time
+     * @return the (possibly shared) result
+     */
+    public V execute(K key, Supplier<V> loader) {
+        while (true) {
+            CompletableFuture<V> call = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+            if (existing == null) {
+                return run(key, call, loader);
+            }
+            coalesced.increment();
+            try {
+                return await(existing);
+            } catch (CancellationException e) {
+                // The first caller was interrupted; try again
+            }
+        }
+    }
+
+    /**
+     * @return number of calls that ran their own loader
+     */
+    public long getExecutionCount() {
+        return executions.sum();
+    }
+
+    /**
+     * @return number of times a call joined an in-flight call instead of running its own
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return number of keys currently in flight
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private V run(K key, CompletableFuture<V> call, Supplier<V> loader) {
+        executions.increment();
+        V result = null;
+        Throwable failure = null;
+        try {
+            result = loader.get();
+            return result;
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+            if (Thread.currentThread().isInterrupted()) {
+                call.cancel(false);
+            } else if (failure != null) {
+                call.completeExceptionally(failure);
+            } else {
+                call.complete(result);
+            }
+        }
+    }
+
+    private V await(CompletableFuture<V> call) {
+        try {
+            return call.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an in-flight call", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.webcrawler.util;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Locale;
+
+/**
+ * Canonicalizes URLs so that equivalent spellings map to the same key
+ */
+public final class UrlNormalizer {
+
+    private UrlNormalizer() {
+    }
+
+    /**
+     * Normalizes a URL: lower-cases scheme and host, drops the default port and the fragment,
+     * and uses "/" for an empty path. Unparseable input is returned unchanged.
+     *
+     * @param url the URL to normalize
+     * @return the normalized URL
+     */
+    public static String normalize(String url) {
+        if (url == null) {
+            return null;
+        }
+        try {
+            URI uri = new URI(url.trim());
+            if (uri.getScheme() == null || uri.getRawAuthority() == null) {
+                return url;
+            }
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            StringBuilder normalized = new StringBuilder(url.length())
+                    .append(scheme)
+                    .append("://");
+            if (uri.getRawUserInfo() != null) {
+                normalized.append(uri.getRawUserInfo()).append('@');
+            }
+            normalized.append(uri.getHost() != null ? uri.getHost().toLowerCase(Locale.ROOT) : uri.getRawAuthority());
+            if (uri.getPort() != -1 && uri.getPort() != defaultPort(scheme)) {
+                normalized.append(':').append(uri.getPort());
+            }
+            String path = uri.getRawPath();
+            normalized.append(path == null || path.isEmpty() ? "/" : path);
+            if (uri.getRawQuery() != null) {
+                normalized.append('?').append(uri.getRawQuery());
+            }
+            return normalized.toString();
+        } catch (URISyntaxException e) {
+            return url;
+        }
+    }
+
+    private static int defaultPort(String scheme) {
+        return switch (scheme) {
+            case "http" -> 80;
+            case "https" -> 443;
+            default -> -1;
+        };
+    }
+}
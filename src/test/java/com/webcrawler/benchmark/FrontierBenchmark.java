@@ -0,0 +1,101 @@
+package com.webcrawler.benchmark;
+
+import com.webcrawler.crawl.DiskFrontier;
+import com.webcrawler.crawl.FrontierEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enqueues {@code urlCount} URLs into a {@link DiskFrontier} and drains it again, on a 256 MB
+ * heap that could not hold the URLs as strings. Each invocation is one full pass; divide
+ * {@code urlCount} by the reported time for URLs per second.
+ *
+ * <p>Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/test-cp.txt) com.webcrawler.benchmark.FrontierBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms256m", "-Xmx256m"})
+public class FrontierBenchmark {
+
+    @Param({"10000000"})
+    private int urlCount;
+
+    @Param({"10000"})
+    private int hostCount;
+
+    private Path directory;
+    private DiskFrontier frontier;
+
+    @Setup(Level.Invocation)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("frontier-benchmark");
+        frontier = new DiskFrontier(directory, 1, 64 * 1024 * 1024, 100000, 16);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        frontier.close();
+        DiskFrontier.delete(directory);
+    }
+
+    @Benchmark
+    public long enqueue() {
+        pushAll();
+        return frontier.size();
+    }
+
+    @Benchmark
+    public long enqueueAndDrain() {
+        pushAll();
+        long polled = 0;
+        FrontierEntry entry;
+        while ((entry = frontier.poll()) != null) {
+            frontier.release(entry);
+            if (++polled % 1000000 == 0) {
+                // As the site crawler's periodic checkpoints do
+                frontier.sync();
+            }
+        }
+        return polled;
+    }
+
+    private void pushAll() {
+        for (int i = 0; i < urlCount; i++) {
+            String host = "host" + (i % hostCount) + ".example.com";
+            frontier.push(new FrontierEntry("https://" + host + "/articles/" + i + "?ref=home", host, 2));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FrontierBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,95 @@
+package com.webcrawler.benchmark;
+
+import com.webcrawler.util.RobotRulesMatcher;
+import crawlercommons.robots.BaseRobotRules;
+import crawlercommons.robots.SimpleRobotRulesParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link RobotRulesMatcher#isAllowed} with crawler-commons' {@link BaseRobotRules#isAllowed}
+ * on a large robots.txt and a mix of frontier-like URLs.
+ *
+ * <p>Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/test-cp.txt) com.webcrawler.benchmark.RobotRulesBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RobotRulesBenchmark {
+
+    private static final int URL_COUNT = 1024;
+
+    private BaseRobotRules rules;
+    private RobotRulesMatcher matcher;
+    private String[] urls;
+
+    @Setup
+    public void setUp() {
+        StringBuilder robotsTxt = new StringBuilder("User-agent: *\n");
+        for (int i = 0; i < 200; i++) {
+            robotsTxt.append("Disallow: /section").append(i).append("/private/\n");
+            robotsTxt.append("Allow: /section").append(i).append("/private/public/\n");
+        }
+        robotsTxt.append("Disallow: /*.pdf$\n");
+        robotsTxt.append("Disallow: /*/edit\n");
+        robotsTxt.append("Disallow: /search?\n");
+
+        rules = new SimpleRobotRulesParser().parseContent("https://example.com/robots.txt",
+                robotsTxt.toString().getBytes(StandardCharsets.UTF_8), "text/plain", List.of("benchmark-bot"));
+        matcher = RobotRulesMatcher.compile(rules);
+
+        Random random = new Random(42);
+        String[] shapes = {"/section%d/private/page%d", "/section%d/private/public/page%d", "/section%d/article-%d",
+                "/docs/section%d/report%d.pdf", "/wiki/section%d/edit?rev=%d", "/search?q=section%d&page=%d"};
+        urls = new String[URL_COUNT];
+        for (int i = 0; i < URL_COUNT; i++) {
+            String shape = shapes[random.nextInt(shapes.length)];
+            urls[i] = "https://example.com" + String.format(shape, random.nextInt(250), random.nextInt(10000));
+        }
+    }
+
+    @Benchmark
+    public void crawlerCommons(Blackhole blackhole) {
+        for (String url : urls) {
+            blackhole.consume(rules.isAllowed(url));
+        }
+    }
+
+    @Benchmark
+    public void compiledMatcher(Blackhole blackhole) {
+        for (String url : urls) {
+            blackhole.consume(matcher.isAllowed(url));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RobotRulesBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,148 @@
+package com.webcrawler.benchmark;
+
+import com.webcrawler.crawl.SeenUrlSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deduplicates {@code urlCount} discovered URLs across 20,000 hosts with a plain
+ * {@code HashSet<String>} and with {@link SeenUrlSet} with and without its Bloom filter.
+ * Each invocation is one full pass over the URLs into an empty set.
+ *
+ * <p>For the memory side of the comparison, run {@link #main} with {@code footprint} as the
+ * argument: it reports the retained heap of the {@code HashSet} and the native memory of
+ * the {@code SeenUrlSet} for the same URLs.
+ *
+ * <p>Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/test-cp.txt) com.webcrawler.benchmark.SeenUrlSetBenchmark
+ * java -Xmx4g -cp target/test-classes:target/classes:$(cat target/test-cp.txt) com.webcrawler.benchmark.SeenUrlSetBenchmark footprint
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SeenUrlSetBenchmark {
+
+    @Param({"1000000", "10000000"})
+    private int urlCount;
+
+    private String[] urls;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        urls = urls(urlCount);
+    }
+
+    @Benchmark
+    public long hashSet() {
+        Set<String> seen = new HashSet<>();
+        long added = 0;
+        for (String url : urls) {
+            if (seen.add(url)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    @Benchmark
+    public long fingerprintTable() {
+        return addAll(new SeenUrlSet(1000, 0));
+    }
+
+    @Benchmark
+    public long fingerprintTableWithBloomFilter() {
+        return addAll(new SeenUrlSet(1000, 0.01));
+    }
+
+    private long addAll(SeenUrlSet seen) {
+        long added = 0;
+        for (String url : urls) {
+            if (seen.add(url)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    private static String[] urls(int count) {
+        Random random = new Random(42);
+        String[] urls = new String[count];
+        for (int i = 0; i < count; i++) {
+            urls[i] = "https://host" + random.nextInt(20000) + ".example.com/articles/" + random.nextInt(count) + "?ref=home";
+        }
+        return urls;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        if (args.length > 0 && args[0].equals("footprint")) {
+            footprint(10000000);
+            return;
+        }
+        new Runner(new OptionsBuilder()
+                .include(SeenUrlSetBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    /**
+     * Prints the memory each structure needs for the same URLs; the URL strings themselves are
+     * counted for the HashSet because it keeps them alive, unlike the fingerprint table
+     */
+    private static void footprint(int count) {
+        long before = usedHeap();
+        Set<String> hashSet = new HashSet<>();
+        for (String url : urls(count)) {
+            hashSet.add(url);
+        }
+        long hashSetBytes = usedHeap() - before;
+
+        SeenUrlSet fingerprints = new SeenUrlSet(1000, 0);
+        SeenUrlSet withBloom = new SeenUrlSet(1000, 0.01);
+        for (String url : urls(count)) {
+            fingerprints.add(url);
+            withBloom.add(url);
+        }
+
+        System.out.printf("%,d distinct URLs%n", hashSet.size());
+        System.out.printf("HashSet<String>:            %,d heap bytes (%.1f per URL)%n",
+                hashSetBytes, (double) hashSetBytes / hashSet.size());
+        System.out.printf("SeenUrlSet:                 %,d native bytes (%.1f per URL)%n",
+                fingerprints.memoryBytes(), (double) fingerprints.memoryBytes() / fingerprints.size());
+        System.out.printf("SeenUrlSet + Bloom filter:  %,d native bytes (%.1f per URL), measured Bloom FPR %.4f%n",
+                withBloom.memoryBytes(), (double) withBloom.memoryBytes() / withBloom.size(),
+                withBloom.measuredBloomFalsePositiveRate());
+        System.out.printf("Fingerprint collisions:     %,d%n", hashSet.size() - fingerprints.size());
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
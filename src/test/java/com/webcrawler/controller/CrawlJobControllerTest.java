@@ -0,0 +1,110 @@
+package com.webcrawler.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webcrawler.model.CrawlJob;
+import com.webcrawler.model.CrawlJobStatus;
+import com.webcrawler.model.CrawlRequest;
+import com.webcrawler.service.CrawlJobService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CrawlJobController.class)
+class CrawlJobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private CrawlJobService crawlJobService;
+
+    @Test
+    void submit_WithValidUrl_ReturnsAccepted() throws Exception {
+        // Arrange
+        CrawlJob job = CrawlJob.builder()
+                .jobId("job-1")
+                .url("https://example.com")
+                .status(CrawlJobStatus.PENDING)
+                .build();
+        when(crawlJobService.submit(any(CrawlRequest.class))).thenReturn(job);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/crawler/crawl/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CrawlRequest("https://example.com"))))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/crawler/crawl/jobs/job-1"))
+                .andExpect(jsonPath("$.jobId").value("job-1"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    void submit_WithInvalidUrl_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/crawler/crawl/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CrawlRequest("invalid-url"))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void submit_QueueFull_ReturnsServiceUnavailable() throws Exception {
+        when(crawlJobService.submit(any(CrawlRequest.class))).thenThrow(new RejectedExecutionException("full"));
+
+        mockMvc.perform(post("/api/v1/crawler/crawl/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CrawlRequest("https://example.com"))))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void getJob_KnownJob_ReturnsJob() throws Exception {
+        // Arrange
+        CrawlJob job = CrawlJob.builder()
+                .jobId("job-1")
+                .url("https://example.com")
+                .status(CrawlJobStatus.COMPLETED)
+                .build();
+        when(crawlJobService.awaitJob("job-1", 1000)).thenReturn(Optional.of(CompletableFuture.completedFuture(job)));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v1/crawler/crawl/jobs/job-1").param("waitMs", "1000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+    }
+
+    @Test
+    void getJob_UnknownJob_ReturnsNotFound() throws Exception {
+        when(crawlJobService.awaitJob(anyString(), anyLong())).thenReturn(Optional.empty());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/crawler/crawl/jobs/unknown"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+}
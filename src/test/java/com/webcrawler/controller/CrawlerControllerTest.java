@@ -1,8 +1,12 @@
 package com.webcrawler.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webcrawler.model.BatchCrawlRequest;
+import com.webcrawler.model.BatchCrawlResponse;
+import com.webcrawler.model.CrawlField;
 import com.webcrawler.model.CrawlRequest;
 import com.webcrawler.model.CrawlResponse;
+import com.webcrawler.service.BatchCrawlService;
 import com.webcrawler.service.CrawlerService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,11 +14,24 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -30,6 +47,9 @@ class CrawlerControllerTest {
     @MockBean
     private CrawlerService crawlerService;
 
+    @MockBean
+    private BatchCrawlService batchCrawlService;
+
     @Test
     void crawl_WithValidUrl_ReturnsSuccessResponse() throws Exception {
         // Arrange
@@ -43,7 +63,7 @@ class CrawlerControllerTest {
                 .data(null)
                 .build();
 
-        when(crawlerService.crawl(anyString())).thenReturn(response);
+        when(crawlerService.crawl(any(CrawlRequest.class))).thenReturn(response);
 
         // Act & Assert
         mockMvc.perform(post("/api/v1/crawler/crawl")
@@ -78,4 +98,138 @@ class CrawlerControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void crawlBatch_WithValidUrls_ReturnsResultsInOrder() throws Exception {
+        // Arrange
+        BatchCrawlRequest request = new BatchCrawlRequest(List.of("https://example.com", "https://example.org"));
+        BatchCrawlResponse response = BatchCrawlResponse.builder()
+                .total(2)
+                .succeeded(1)
+                .failed(1)
+                .results(List.of(
+                        CrawlResponse.builder().url("https://example.com").success(true).build(),
+                        CrawlResponse.builder().url("https://example.org").success(false).build()))
+                .build();
+
+        when(batchCrawlService.crawlBatch(anyList(), any())).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/crawler/crawl/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.results[0].url").value("https://example.com"))
+                .andExpect(jsonPath("$.results[1].success").value(false));
+    }
+
+    @Test
+    void crawlBatch_WithInvalidUrl_ReturnsBadRequest() throws Exception {
+        // Arrange
+        BatchCrawlRequest request = new BatchCrawlRequest(List.of("https://example.com", "invalid-url"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/crawler/crawl/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void crawlBatch_WithEmptyList_ReturnsBadRequest() throws Exception {
+        // Arrange
+        BatchCrawlRequest request = new BatchCrawlRequest(List.of());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/crawler/crawl/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void crawlBatch_TooManyUrls_ReturnsBadRequest() throws Exception {
+        // Arrange
+        BatchCrawlRequest request = new BatchCrawlRequest(List.of("https://example.com"));
+        when(batchCrawlService.crawlBatch(anyList(), any()))
+                .thenThrow(new IllegalArgumentException("Batch exceeds the maximum of 0 URLs"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/crawler/crawl/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void crawlStream_WritesOneJsonRecordPerLine() throws Exception {
+        // Arrange
+        List<String> urls = List.of("https://example.com", "https://example.org");
+        doAnswer(invocation -> {
+            Consumer<CrawlResponse> sink = invocation.getArgument(2);
+            sink.accept(CrawlResponse.builder().url("https://example.org").success(true).build());
+            sink.accept(CrawlResponse.builder().url("https://example.com").success(false).build());
+            return null;
+        }).when(batchCrawlService).crawlStream(eq(urls), any(), any());
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/v1/crawler/crawl/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchCrawlRequest(urls))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON));
+
+        // Assert
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("https://example.org", objectMapper.readTree(lines[0]).get("url").asText());
+        assertEquals("https://example.com", objectMapper.readTree(lines[1]).get("url").asText());
+    }
+
+    @Test
+    void crawlStream_TooManyUrls_ReturnsBadRequestBeforeStreaming() throws Exception {
+        // Arrange
+        doThrow(new IllegalArgumentException("Batch exceeds the maximum of 0 URLs"))
+                .when(batchCrawlService).checkBatchSize(anyList());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/crawler/crawl/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchCrawlRequest(List.of("https://example.com")))))
+                .andExpect(status().isBadRequest());
+        verify(batchCrawlService, never()).crawlStream(anyList(), any(), any());
+    }
+
+    @Test
+    void crawl_WithFieldProjection_PassesProjectionToService() throws Exception {
+        // Arrange
+        String body = "{\"url\":\"https://example.com\",\"fields\":[\"title\",\"h1Tags\"],\"classify\":false}";
+        when(crawlerService.crawl(any(CrawlRequest.class))).thenReturn(CrawlResponse.builder()
+                .url("https://example.com")
+                .statusCode(200)
+                .success(true)
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/crawler/crawl")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.classification").doesNotExist());
+        verify(crawlerService).crawl(argThat((CrawlRequest request) ->
+                request.getFields().equals(Set.of(CrawlField.TITLE, CrawlField.H1_TAGS))
+                        && !request.wantsClassification()));
+    }
+
+    @Test
+    void crawl_WithUnknownField_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/crawler/crawl")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"url\":\"https://example.com\",\"fields\":[\"nope\"]}"))
+                .andExpect(status().isBadRequest());
+    }
 }
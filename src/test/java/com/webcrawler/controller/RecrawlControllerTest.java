@@ -0,0 +1,122 @@
+package com.webcrawler.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webcrawler.model.CrawlRequest;
+import com.webcrawler.model.RecrawlUrl;
+import com.webcrawler.service.RecrawlService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(RecrawlController.class)
+class RecrawlControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private RecrawlService recrawlService;
+
+    @Test
+    void register_WithValidUrl_ReturnsRegisteredUrl() throws Exception {
+        // Arrange
+        RecrawlUrl registered = RecrawlUrl.builder()
+                .url("https://example.com/news")
+                .recrawls(0)
+                .changes(0L)
+                .build();
+        when(recrawlService.register(any(CrawlRequest.class))).thenReturn(registered);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/crawler/recrawl/urls")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CrawlRequest("https://example.com/news"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.url").value("https://example.com/news"))
+                .andExpect(jsonPath("$.recrawls").value(0));
+    }
+
+    @Test
+    void register_WithInvalidUrl_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/crawler/recrawl/urls")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CrawlRequest("invalid-url"))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void register_SetFull_ReturnsServiceUnavailable() throws Exception {
+        when(recrawlService.register(any(CrawlRequest.class))).thenThrow(new RejectedExecutionException("full"));
+
+        mockMvc.perform(post("/api/v1/crawler/recrawl/urls")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CrawlRequest("https://example.com/news"))))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void get_RegisteredUrl_ReturnsHistory() throws Exception {
+        // Arrange
+        RecrawlUrl news = RecrawlUrl.builder()
+                .url("https://example.com/news")
+                .recrawls(12)
+                .changes(9L)
+                .changesPerDay(30.5)
+                .build();
+        when(recrawlService.get("https://example.com/news")).thenReturn(Optional.of(news));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/crawler/recrawl/urls").param("url", "https://example.com/news"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes").value(9))
+                .andExpect(jsonPath("$.changesPerDay").value(30.5));
+    }
+
+    @Test
+    void get_UnknownUrl_ReturnsNotFound() throws Exception {
+        when(recrawlService.get(anyString())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/v1/crawler/recrawl/urls").param("url", "https://example.com/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void list_ChangedSince_PassesTimeToService() throws Exception {
+        // Arrange
+        LocalDateTime since = LocalDateTime.of(2024, 1, 1, 12, 0);
+        when(recrawlService.list(since, 0, 100))
+                .thenReturn(List.of(RecrawlUrl.builder().url("https://example.com/news").build()));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/crawler/recrawl/urls").param("changedSince", "2024-01-01T12:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].url").value("https://example.com/news"));
+    }
+
+    @Test
+    void unregister_UnknownUrl_ReturnsNotFound() throws Exception {
+        when(recrawlService.unregister(anyString())).thenReturn(false);
+
+        mockMvc.perform(delete("/api/v1/crawler/recrawl/urls").param("url", "https://example.com/unknown"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,160 @@
+package com.webcrawler.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webcrawler.model.CrawlJobStatus;
+import com.webcrawler.model.CrawlResponse;
+import com.webcrawler.model.SiteCrawlJob;
+import com.webcrawler.model.SiteCrawlRequest;
+import com.webcrawler.service.SiteCrawlService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SiteCrawlController.class)
+class SiteCrawlControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private SiteCrawlService siteCrawlService;
+
+    @Test
+    void submit_WithValidSeeds_ReturnsAccepted() throws Exception {
+        // Arrange
+        SiteCrawlJob job = SiteCrawlJob.builder()
+                .jobId("crawl-1")
+                .seeds(List.of("https://example.com/"))
+                .status(CrawlJobStatus.PENDING)
+                .build();
+        when(siteCrawlService.submit(any(SiteCrawlRequest.class))).thenReturn(job);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/crawler/crawl/sites")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new SiteCrawlRequest(List.of("https://example.com")))))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/crawler/crawl/sites/crawl-1"))
+                .andExpect(jsonPath("$.jobId").value("crawl-1"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    void submit_WithInvalidSeed_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/crawler/crawl/sites")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new SiteCrawlRequest(List.of("invalid-url")))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void submit_InvalidPattern_ReturnsBadRequest() throws Exception {
+        when(siteCrawlService.submit(any(SiteCrawlRequest.class)))
+                .thenThrow(new IllegalArgumentException("Invalid pattern: ("));
+
+        mockMvc.perform(post("/api/v1/crawler/crawl/sites")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new SiteCrawlRequest(List.of("https://example.com")))))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid pattern: ("));
+    }
+
+    @Test
+    void submit_QueueFull_ReturnsServiceUnavailable() throws Exception {
+        when(siteCrawlService.submit(any(SiteCrawlRequest.class))).thenThrow(new RejectedExecutionException("full"));
+
+        mockMvc.perform(post("/api/v1/crawler/crawl/sites")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new SiteCrawlRequest(List.of("https://example.com")))))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void getPages_KnownJob_ReturnsPages() throws Exception {
+        // Arrange
+        CrawlResponse page = CrawlResponse.builder()
+                .url("https://example.com/")
+                .success(true)
+                .build();
+        when(siteCrawlService.getPages("crawl-1", 0, 100)).thenReturn(Optional.of(List.of(page)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/crawler/crawl/sites/crawl-1/pages"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].url").value("https://example.com/"));
+    }
+
+    @Test
+    void cancel_KnownJob_ReturnsJob() throws Exception {
+        // Arrange
+        SiteCrawlJob job = SiteCrawlJob.builder()
+                .jobId("crawl-1")
+                .status(CrawlJobStatus.RUNNING)
+                .build();
+        when(siteCrawlService.cancel("crawl-1")).thenReturn(Optional.of(job));
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/v1/crawler/crawl/sites/crawl-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jobId").value("crawl-1"));
+    }
+
+    @Test
+    void resume_WithCheckpoint_ReturnsAccepted() throws Exception {
+        // Arrange
+        SiteCrawlJob job = SiteCrawlJob.builder()
+                .jobId("crawl-1")
+                .status(CrawlJobStatus.PENDING)
+                .pagesCrawled(40L)
+                .build();
+        when(siteCrawlService.resume("crawl-1")).thenReturn(Optional.of(job));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/crawler/crawl/sites/crawl-1/resume"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/crawler/crawl/sites/crawl-1"))
+                .andExpect(jsonPath("$.pagesCrawled").value(40));
+    }
+
+    @Test
+    void resume_WithoutCheckpoint_ReturnsNotFound() throws Exception {
+        when(siteCrawlService.resume(anyString())).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/v1/crawler/crawl/sites/unknown/resume"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void resume_StillRunning_ReturnsConflict() throws Exception {
+        when(siteCrawlService.resume("crawl-1")).thenThrow(new IllegalStateException("Site crawl crawl-1 is still running"));
+
+        mockMvc.perform(post("/api/v1/crawler/crawl/sites/crawl-1/resume"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void getJob_UnknownJob_ReturnsNotFound() throws Exception {
+        when(siteCrawlService.getJob(anyString())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/v1/crawler/crawl/sites/unknown"))
+                .andExpect(status().isNotFound());
+    }
+}
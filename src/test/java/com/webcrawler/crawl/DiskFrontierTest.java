@@ -0,0 +1,255 @@
+package com.webcrawler.crawl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiskFrontierTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testPollRotatesAcrossHostsAndPagesInColdEntries() {
+        // Arrange - two hot entries per host, the rest of each queue stays on disk
+        DiskFrontier frontier = new DiskFrontier(tempDir, 1, SEGMENT_BYTES, 100, 2);
+        for (int i = 0; i < 5; i++) {
+            frontier.push(entry("a.com", "/" + i));
+            frontier.push(entry("b.com", "/" + i));
+        }
+
+        // Act
+        List<String> polled = new ArrayList<>();
+        FrontierEntry next;
+        while ((next = frontier.poll()) != null) {
+            polled.add(next.url());
+            frontier.release(next);
+        }
+
+        // Assert
+        assertEquals(10, polled.size());
+        assertEquals(List.of("https://a.com/0", "https://b.com/0", "https://a.com/1", "https://b.com/1"), polled.subList(0, 4));
+        assertEquals("https://b.com/4", polled.get(9));
+        assertEquals(0, frontier.size());
+    }
+
+    @Test
+    void testHostAtInFlightLimitIsSkippedUntilReleased() {
+        // Arrange
+        DiskFrontier frontier = new DiskFrontier(tempDir, 1, SEGMENT_BYTES, 100, 4);
+        frontier.push(entry("a.com", "/1"));
+        frontier.push(entry("a.com", "/2"));
+
+        // Act
+        FrontierEntry first = frontier.poll();
+        FrontierEntry blocked = frontier.poll();
+        frontier.release(first);
+
+        // Assert
+        assertNull(blocked);
+        assertEquals("https://a.com/2", frontier.poll().url());
+    }
+
+    @Test
+    void testReopenRecoversQueuedAndInFlightUrls() {
+        // Arrange
+        DiskFrontier frontier = new DiskFrontier(tempDir, 2, SEGMENT_BYTES, 100, 4);
+        for (int i = 0; i < 200; i++) {
+            frontier.push(new FrontierEntry("https://a.com/" + i, "a.com", i % 3));
+        }
+        frontier.release(frontier.poll());
+        frontier.sync();
+        FrontierEntry releasedAfterSync = frontier.poll();
+        frontier.release(releasedAfterSync);
+        FrontierEntry inFlight = frontier.poll();
+
+        // Act - no close, as after a crash of the process
+        DiskFrontier reopened = new DiskFrontier(tempDir, 2, SEGMENT_BYTES, 100, 4);
+
+        // Assert - only the URL released before the sync counts as done
+        assertEquals(199, reopened.size());
+        assertEquals(releasedAfterSync, reopened.poll());
+        FrontierEntry second = reopened.poll();
+        assertEquals(inFlight, second);
+        reopened.release(second);
+        assertEquals(new FrontierEntry("https://a.com/3", "a.com", 0), reopened.poll());
+    }
+
+    @Test
+    void testTornRecordEndsTheLog() throws IOException {
+        // Arrange
+        DiskFrontier frontier = new DiskFrontier(tempDir, 1, SEGMENT_BYTES, 100, 4);
+        for (int i = 0; i < 10; i++) {
+            frontier.push(entry("a.com", "/" + i));
+        }
+        frontier.close();
+        corruptLastRecord(onlySegment());
+
+        // Act
+        DiskFrontier reopened = new DiskFrontier(tempDir, 1, SEGMENT_BYTES, 100, 4);
+        reopened.push(entry("a.com", "/new"));
+        reopened.close();
+        DiskFrontier again = new DiskFrontier(tempDir, 1, SEGMENT_BYTES, 100, 4);
+
+        // Assert
+        assertEquals(10, again.size());
+        Set<String> urls = new HashSet<>();
+        FrontierEntry next;
+        while ((next = again.poll()) != null) {
+            urls.add(next.url());
+            again.release(next);
+        }
+        assertTrue(urls.contains("https://a.com/new"));
+        assertFalse(urls.contains("https://a.com/9"));
+    }
+
+    @Test
+    void testSegmentsAreDeletedOnceDone() throws IOException {
+        // Arrange
+        DiskFrontier frontier = new DiskFrontier(tempDir, 1, SEGMENT_BYTES, 0, 0);
+        for (int i = 0; i < 500; i++) {
+            frontier.push(entry("a.com", "/page/" + i));
+        }
+        int segmentsWhenFull = frontier.segmentCount();
+
+        // Act
+        FrontierEntry next;
+        while ((next = frontier.poll()) != null) {
+            frontier.release(next);
+        }
+        long filesBeforeSync;
+        try (Stream<Path> files = Files.list(tempDir)) {
+            filesBeforeSync = files.count();
+        }
+        frontier.sync();
+
+        // Assert - done segments stay on disk until the next checkpoint
+        assertTrue(segmentsWhenFull > 1);
+        assertEquals(1, frontier.segmentCount());
+        assertEquals(segmentsWhenFull, filesBeforeSync);
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testRecordedUrlsIncludeDoneRecords() {
+        // Arrange
+        DiskFrontier frontier = new DiskFrontier(tempDir, 1, SEGMENT_BYTES, 100, 4);
+        for (int i = 0; i < 100; i++) {
+            frontier.push(entry("a.com", "/page/" + i));
+        }
+        for (int i = 0; i < 60; i++) {
+            frontier.release(frontier.poll());
+        }
+        frontier.sync();
+
+        // Act - no close, as after a crash of the process
+        DiskFrontier reopened = new DiskFrontier(tempDir, 1, SEGMENT_BYTES, 100, 4);
+        Set<String> recorded = new HashSet<>();
+        reopened.forEachRecordedUrl(recorded::add);
+
+        // Assert
+        assertEquals(40, reopened.size());
+        assertEquals(100, recorded.size());
+        assertTrue(recorded.contains("https://a.com/page/0"));
+    }
+
+    @Test
+    void testReopenIgnoresDoneMarksOfUncommittedCheckpoint() {
+        // Arrange
+        DiskFrontier frontier = new DiskFrontier(tempDir, 1, SEGMENT_BYTES, 100, 4);
+        for (int i = 0; i < 10; i++) {
+            frontier.push(entry("a.com", "/page/" + i));
+        }
+        frontier.release(frontier.poll());
+        FrontierCheckpoint committed = frontier.checkpoint(1);
+        committed.prepare();
+        committed.commit();
+        frontier.release(frontier.poll());
+        frontier.checkpoint(2).prepare();
+
+        // Act - checkpoint 2 was never recorded as complete
+        DiskFrontier reopened = new DiskFrontier(tempDir, 1, SEGMENT_BYTES, 100, 4, 1);
+
+        // Assert
+        assertEquals(9, reopened.size());
+        assertEquals(entry("a.com", "/page/1"), reopened.poll());
+        assertThrows(IllegalArgumentException.class, () -> reopened.checkpoint(1));
+    }
+
+    @Test
+    void testUrlLargerThanSegmentIsRejected() {
+        DiskFrontier frontier = new DiskFrontier(tempDir, 1, SEGMENT_BYTES, 100, 4);
+
+        assertThrows(IllegalArgumentException.class, () -> frontier.push(entry("a.com", "/" + "x".repeat(SEGMENT_BYTES))));
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.findFirst().orElseThrow();
+        }
+    }
+
+    /**
+     * Flips a payload byte of the last record, as a crash during its append could leave it
+     */
+    private static void corruptLastRecord(Path segment) throws IOException {
+        byte[] bytes = Files.readAllBytes(segment);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int offset = 0;
+        int last = 0;
+        while (offset + DiskFrontier.HEADER_SIZE <= bytes.length && buffer.getInt(offset) != 0) {
+            last = offset;
+            offset += DiskFrontier.HEADER_SIZE + buffer.getInt(offset);
+        }
+        bytes[last + DiskFrontier.HEADER_SIZE + 8] ^= 1;
+        Files.write(segment, bytes);
+    }
+
+    @Test
+    void testPushAfterHostTailSegmentWasRetired() {
+        // Arrange - a.com's last record sits in a segment that is retired while an older one is in flight
+        DiskFrontier frontier = new DiskFrontier(tempDir, 2, SEGMENT_BYTES, 100, 4);
+        frontier.push(entry("a.com", "/0"));
+        FrontierEntry inFlight = frontier.poll();
+        fillUntilSegmentCount(frontier, 2);
+        frontier.push(entry("a.com", "/1"));
+        fillUntilSegmentCount(frontier, 3);
+        FrontierEntry next;
+        while ((next = frontier.poll()) != null) {
+            frontier.release(next);
+        }
+        assertEquals(2, frontier.segmentCount());
+
+        // Act
+        frontier.push(entry("a.com", "/2"));
+
+        // Assert
+        assertEquals("https://a.com/2", frontier.poll().url());
+        frontier.release(inFlight);
+    }
+
+    private static void fillUntilSegmentCount(DiskFrontier frontier, int segmentCount) {
+        for (int i = 0; frontier.segmentCount() < segmentCount; i++) {
+            frontier.push(entry("b.com", "/" + segmentCount + "/" + i));
+        }
+    }
+
+    private static FrontierEntry entry(String host, String path) {
+        return new FrontierEntry("https://" + host + path, host, 0);
+    }
+}
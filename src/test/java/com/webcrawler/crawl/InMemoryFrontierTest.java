@@ -0,0 +1,72 @@
+package com.webcrawler.crawl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryFrontierTest {
+
+    @Test
+    void testPollRotatesAcrossHosts() {
+        // Arrange
+        InMemoryFrontier frontier = new InMemoryFrontier(2);
+        frontier.push(entry("a.com", "/1"));
+        frontier.push(entry("a.com", "/2"));
+        frontier.push(entry("a.com", "/3"));
+        frontier.push(entry("b.com", "/1"));
+
+        // Act & Assert
+        assertEquals("https://a.com/1", frontier.poll().url());
+        assertEquals("https://b.com/1", frontier.poll().url());
+        assertEquals("https://a.com/2", frontier.poll().url());
+        assertEquals(1, frontier.size());
+        assertEquals(1, frontier.hostCount());
+    }
+
+    @Test
+    void testHostAtInFlightLimitIsSkippedUntilReleased() {
+        // Arrange
+        InMemoryFrontier frontier = new InMemoryFrontier(1);
+        frontier.push(entry("a.com", "/1"));
+        frontier.push(entry("a.com", "/2"));
+
+        // Act
+        FrontierEntry first = frontier.poll();
+        FrontierEntry blocked = frontier.poll();
+        frontier.release(first);
+        FrontierEntry second = frontier.poll();
+
+        // Assert
+        assertNull(blocked);
+        assertEquals("https://a.com/2", second.url());
+        assertNull(frontier.poll());
+        assertEquals(0, frontier.size());
+    }
+
+    @Test
+    void testPushToBusyHostWaitsForRelease() {
+        // Arrange
+        InMemoryFrontier frontier = new InMemoryFrontier(1);
+        frontier.push(entry("a.com", "/1"));
+        FrontierEntry first = frontier.poll();
+
+        // Act
+        frontier.push(entry("a.com", "/2"));
+
+        // Assert
+        assertNull(frontier.poll());
+        frontier.release(first);
+        assertEquals("https://a.com/2", frontier.poll().url());
+    }
+
+    @Test
+    void testReleaseWithoutPollThrows() {
+        InMemoryFrontier frontier = new InMemoryFrontier(1);
+
+        assertThrows(IllegalStateException.class, () -> frontier.release(entry("a.com", "/1")));
+    }
+
+    private static FrontierEntry entry(String host, String path) {
+        return new FrontierEntry("https://" + host + path, host, 0);
+    }
+}
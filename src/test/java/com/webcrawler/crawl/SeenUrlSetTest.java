@@ -0,0 +1,86 @@
+package com.webcrawler.crawl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeenUrlSetTest {
+
+    @Test
+    void testAddReportsNewUrlsOnce() {
+        // Arrange
+        SeenUrlSet seen = new SeenUrlSet(100, 0);
+
+        // Act & Assert
+        assertTrue(seen.add("https://example.com/a"));
+        assertFalse(seen.add("https://example.com/a"));
+        assertTrue(seen.add("https://example.com/b"));
+        assertTrue(seen.contains("https://example.com/b"));
+        assertFalse(seen.contains("https://example.com/c"));
+        assertEquals(2, seen.size());
+    }
+
+    @Test
+    void testGrowsPastExpectedSizeWithoutLosingUrls() {
+        // Arrange
+        SeenUrlSet seen = new SeenUrlSet(10, 0.01);
+        long initialBytes = seen.memoryBytes();
+
+        // Act
+        for (int i = 0; i < 100000; i++) {
+            seen.add("https://example.com/page/" + i);
+        }
+
+        // Assert
+        assertEquals(100000, seen.size());
+        assertTrue(seen.memoryBytes() > initialBytes);
+        for (int i = 0; i < 100000; i++) {
+            assertTrue(seen.contains("https://example.com/page/" + i));
+        }
+        assertFalse(seen.contains("https://example.com/page/100000"));
+    }
+
+    @Test
+    void testAgreesWithHashSet() {
+        // Arrange
+        SeenUrlSet seen = new SeenUrlSet(1000, 0.01);
+        Set<String> reference = new HashSet<>();
+
+        // Act & Assert
+        for (int i = 0; i < 200000; i++) {
+            String url = "https://host" + (i % 97) + ".example.com/item?id=" + (i * 7919 % 150000);
+            assertEquals(reference.add(url), seen.add(url), url);
+        }
+        assertEquals(reference.size(), seen.size());
+    }
+
+    @Test
+    void testMeasuredBloomFalsePositiveRateIsNearTarget() {
+        // Arrange
+        SeenUrlSet seen = new SeenUrlSet(100000, 0.01);
+
+        // Act - fill the table to just below the point where it grows
+        for (int i = 0; i < 180000; i++) {
+            seen.add("https://example.com/" + i);
+        }
+
+        // Assert
+        assertTrue(seen.measuredBloomFalsePositiveRate() > 0);
+        assertTrue(seen.measuredBloomFalsePositiveRate() < 0.02);
+    }
+
+    @Test
+    void testFingerprintIsStableAndNonZero() {
+        assertEquals(SeenUrlSet.fingerprint("https://example.com/"), SeenUrlSet.fingerprint("https://example.com/"));
+        assertNotEquals(SeenUrlSet.fingerprint("https://example.com/a"), SeenUrlSet.fingerprint("https://example.com/b"));
+        assertNotEquals(0L, SeenUrlSet.fingerprint(""));
+    }
+
+    @Test
+    void testInvalidFalsePositiveRateIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SeenUrlSet(100, 1));
+    }
+}
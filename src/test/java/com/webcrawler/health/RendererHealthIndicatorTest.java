@@ -0,0 +1,42 @@
+package com.webcrawler.health;
+
+import com.webcrawler.service.JavaScriptRenderer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RendererHealthIndicatorTest {
+
+    @Test
+    void testUpWhileRendererIsWarming() {
+        // Arrange
+        JavaScriptRenderer javaScriptRenderer = mock(JavaScriptRenderer.class);
+        when(javaScriptRenderer.getState()).thenReturn(JavaScriptRenderer.State.WARMING);
+
+        // Act
+        Health health = new RendererHealthIndicator(javaScriptRenderer).health();
+
+        // Assert
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals("warming", health.getDetails().get("javascriptRendering"));
+        assertEquals("available", health.getDetails().get("staticCrawling"));
+    }
+
+    @Test
+    void testUpWhenRendererFailed() {
+        // Arrange
+        JavaScriptRenderer javaScriptRenderer = mock(JavaScriptRenderer.class);
+        when(javaScriptRenderer.getState()).thenReturn(JavaScriptRenderer.State.FAILED);
+
+        // Act
+        Health health = new RendererHealthIndicator(javaScriptRenderer).health();
+
+        // Assert
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals("failed", health.getDetails().get("javascriptRendering"));
+    }
+}
@@ -2,6 +2,8 @@ package com.webcrawler.model;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class CrawlRequestTest {
@@ -72,4 +74,33 @@ class CrawlRequestTest {
 
         assertEquals(url, request.getUrl());
     }
+
+    @Test
+    void testDefaultsRequestEverythingButLinks() {
+        CrawlRequest request = new CrawlRequest("https://example.com");
+
+        for (CrawlField field : CrawlField.values()) {
+            assertEquals(field != CrawlField.LINKS, request.wantsField(field), field.getKey());
+        }
+        assertTrue(request.wantsClassification());
+    }
+
+    @Test
+    void testLinksOnlyWhenRequested() {
+        CrawlRequest request = new CrawlRequest("https://example.com", Set.of(CrawlField.LINKS), null);
+
+        assertTrue(request.wantsField(CrawlField.LINKS));
+        assertFalse(request.wantsField(CrawlField.TITLE));
+    }
+
+    @Test
+    void testFieldProjection() {
+        CrawlRequest request = new CrawlRequest("https://example.com", Set.of(CrawlField.TITLE, CrawlField.H1_TAGS), false);
+
+        assertTrue(request.wantsField(CrawlField.TITLE));
+        assertTrue(request.wantsField(CrawlField.H1_TAGS));
+        assertFalse(request.wantsField(CrawlField.TEXT_CONTENT));
+        assertFalse(request.wantsField(CrawlField.HTML_LENGTH));
+        assertFalse(request.wantsClassification());
+    }
 }
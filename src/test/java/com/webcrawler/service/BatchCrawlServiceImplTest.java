@@ -0,0 +1,242 @@
+package com.webcrawler.service;
+
+import com.webcrawler.config.BatchCrawlConfig;
+import com.webcrawler.config.JsoupConfig;
+import com.webcrawler.model.BatchCrawlResponse;
+import com.webcrawler.model.CrawlResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchCrawlServiceImplTest {
+
+    private BatchCrawlService batchCrawlService;
+
+    private BatchCrawlConfig batchCrawlConfig;
+
+    @Mock
+    private CrawlerService crawlerService;
+
+    @Mock
+    private RobotsTxtService robotsTxtService;
+
+    private JsoupConfig jsoupConfig;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        batchCrawlConfig = new BatchCrawlConfig();
+        batchCrawlConfig.setMaxUrls(10);
+        batchCrawlConfig.setMaxConcurrency(4);
+        batchCrawlConfig.setTimeoutMs(5000);
+        jsoupConfig = new JsoupConfig();
+        batchCrawlService = new BatchCrawlServiceImpl(crawlerService, robotsTxtService, jsoupConfig, batchCrawlConfig);
+    }
+
+    @Test
+    void crawlBatch_ReturnsResultsInInputOrder() {
+        // Arrange
+        when(crawlerService.crawl(anyString())).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            // Make earlier URLs finish later
+            Thread.sleep(url.endsWith("/1") ? 100 : 0);
+            return success(url);
+        });
+
+        // Act
+        BatchCrawlResponse response = batchCrawlService.crawlBatch(
+                List.of("https://example.com/1", "https://example.com/2", "https://example.com/3"), null);
+
+        // Assert
+        assertEquals(3, response.getTotal());
+        assertEquals(3, response.getSucceeded());
+        assertEquals(0, response.getFailed());
+        assertEquals("https://example.com/1", response.getResults().get(0).getUrl());
+        assertEquals("https://example.com/2", response.getResults().get(1).getUrl());
+        assertEquals("https://example.com/3", response.getResults().get(2).getUrl());
+    }
+
+    @Test
+    void crawlBatch_PrefetchesRobotsTxtForAllUrls() {
+        // Arrange
+        List<String> urls = List.of("https://a.com/1", "https://b.com/1", "https://a.com/2");
+        when(crawlerService.crawl(anyString())).thenAnswer(invocation -> success(invocation.getArgument(0)));
+
+        // Act
+        batchCrawlService.crawlBatch(urls, null);
+
+        // Assert
+        verify(robotsTxtService).prefetch(urls, jsoupConfig.getUserAgent());
+    }
+
+    @Test
+    void crawlBatch_SlowUrl_FailsAtDeadlineWithoutBlockingOthers() {
+        // Arrange
+        when(crawlerService.crawl(anyString())).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            if (url.contains("slow")) {
+                Thread.sleep(10000);
+            }
+            return success(url);
+        });
+
+        // Act
+        long start = System.currentTimeMillis();
+        BatchCrawlResponse response = batchCrawlService.crawlBatch(
+                List.of("https://slow.example.com", "https://example.com"), 300L);
+        long elapsed = System.currentTimeMillis() - start;
+
+        // Assert
+        assertTrue(elapsed < 5000, "Batch should return at its deadline");
+        assertEquals(1, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+        assertFalse(response.getResults().get(0).getSuccess());
+        assertEquals("Crawl did not complete within the batch deadline", response.getResults().get(0).getMessage());
+        assertTrue(response.getResults().get(1).getSuccess());
+    }
+
+    @Test
+    void crawlBatch_CrawlerThrows_ReportsFailureForThatUrl() {
+        // Arrange
+        when(crawlerService.crawl("https://broken.example.com")).thenThrow(new IllegalStateException("boom"));
+        when(crawlerService.crawl("https://example.com")).thenReturn(success("https://example.com"));
+
+        // Act
+        BatchCrawlResponse response = batchCrawlService.crawlBatch(
+                List.of("https://broken.example.com", "https://example.com"), null);
+
+        // Assert
+        assertFalse(response.getResults().get(0).getSuccess());
+        assertEquals("Failed to crawl URL: boom", response.getResults().get(0).getMessage());
+        assertTrue(response.getResults().get(1).getSuccess());
+    }
+
+    @Test
+    void crawlBatch_RespectsConcurrencyCap() {
+        // Arrange
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        when(crawlerService.crawl(anyString())).thenAnswer(invocation -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            active.decrementAndGet();
+            return success(invocation.getArgument(0));
+        });
+
+        // Act
+        BatchCrawlResponse response = batchCrawlService.crawlBatch(
+                List.of("https://a.com", "https://b.com", "https://c.com", "https://d.com", "https://e.com",
+                        "https://f.com", "https://g.com", "https://h.com", "https://i.com", "https://j.com"), null);
+
+        // Assert
+        assertEquals(10, response.getSucceeded());
+        assertTrue(maxActive.get() <= batchCrawlConfig.getMaxConcurrency());
+    }
+
+    @Test
+    void crawlBatch_TooManyUrls_ThrowsIllegalArgumentException() {
+        batchCrawlConfig.setMaxUrls(1);
+
+        assertThrows(IllegalArgumentException.class, () ->
+                batchCrawlService.crawlBatch(List.of("https://a.com", "https://b.com"), null));
+    }
+
+    @Test
+    void crawlStream_DeliversResultsInCompletionOrder() {
+        // Arrange
+        when(crawlerService.crawl(anyString())).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            Thread.sleep(url.endsWith("/slow") ? 200 : 0);
+            return success(url);
+        });
+        List<String> delivered = new ArrayList<>();
+
+        // Act
+        batchCrawlService.crawlStream(List.of("https://example.com/slow", "https://example.com/fast"), null,
+                response -> delivered.add(response.getUrl()));
+
+        // Assert
+        assertEquals(List.of("https://example.com/fast", "https://example.com/slow"), delivered);
+    }
+
+    @Test
+    void crawlStream_SlowConsumerLimitsCrawlsInFlight() {
+        // Arrange
+        batchCrawlConfig.setMaxConcurrency(2);
+        AtomicInteger started = new AtomicInteger();
+        when(crawlerService.crawl(anyString())).thenAnswer(invocation -> {
+            started.incrementAndGet();
+            return success(invocation.getArgument(0));
+        });
+        List<Integer> startedAtDelivery = Collections.synchronizedList(new ArrayList<>());
+
+        // Act
+        batchCrawlService.crawlStream(
+                List.of("https://a.com", "https://b.com", "https://c.com", "https://d.com", "https://e.com"), null,
+                response -> {
+                    startedAtDelivery.add(started.get());
+                    sleepQuietly(20);
+                });
+
+        // Assert - crawls never run more than the window ahead of the consumer
+        assertEquals(5, startedAtDelivery.size());
+        for (int i = 0; i < startedAtDelivery.size(); i++) {
+            assertTrue(startedAtDelivery.get(i) <= i + 2);
+        }
+    }
+
+    @Test
+    void crawlStream_ReportsUnfinishedUrlsAtDeadline() {
+        // Arrange
+        when(crawlerService.crawl(anyString())).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            if (url.contains("slow")) {
+                Thread.sleep(10000);
+            }
+            return success(url);
+        });
+        List<CrawlResponse> delivered = new ArrayList<>();
+
+        // Act
+        long start = System.currentTimeMillis();
+        batchCrawlService.crawlStream(List.of("https://slow.example.com", "https://example.com"), 300L, delivered::add);
+        long elapsed = System.currentTimeMillis() - start;
+
+        // Assert
+        assertTrue(elapsed < 5000, "Stream should end at its deadline");
+        assertEquals(2, delivered.size());
+        assertEquals("https://example.com", delivered.get(0).getUrl());
+        assertTrue(delivered.get(0).getSuccess());
+        assertEquals("https://slow.example.com", delivered.get(1).getUrl());
+        assertFalse(delivered.get(1).getSuccess());
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CrawlResponse success(String url) {
+        return CrawlResponse.builder()
+                .url(url)
+                .statusCode(200)
+                .success(true)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,150 @@
+package com.webcrawler.service;
+
+import com.webcrawler.config.SeleniumConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class BrowserPoolTest {
+
+    private SeleniumConfig seleniumConfig;
+    private List<WebDriver> createdDrivers;
+    private BrowserPool pool;
+
+    @BeforeEach
+    void setUp() {
+        seleniumConfig = new SeleniumConfig();
+        seleniumConfig.setPoolMinSize(1);
+        seleniumConfig.setPoolMaxSize(2);
+        seleniumConfig.setBorrowTimeoutMs(100);
+        seleniumConfig.setMaxRendersPerBrowser(3);
+        seleniumConfig.setMaxBrowserHeapMb(0);
+        createdDrivers = new ArrayList<>();
+        pool = new BrowserPool(seleniumConfig, () -> {
+            WebDriver driver = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class));
+            createdDrivers.add(driver);
+            return driver;
+        });
+    }
+
+    @Test
+    void testStartCreatesMinimumAndReusesIdleBrowser() throws InterruptedException {
+        // Arrange
+        pool.start();
+
+        // Act
+        BrowserPool.Browser first = pool.borrow();
+        pool.release(first, false);
+        BrowserPool.Browser second = pool.borrow();
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1, createdDrivers.size());
+        assertEquals(1, pool.getBorrowedCount());
+    }
+
+    @Test
+    void testBorrowWaitsForFreeBrowserAndTimesOut() throws InterruptedException {
+        // Arrange
+        pool.borrow();
+        pool.borrow();
+
+        // Act
+        long start = System.nanoTime();
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> pool.borrow());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertTrue(exception.getMessage().startsWith("No browser available"));
+        assertTrue(elapsedMs >= 90, "Borrow should wait for the timeout");
+        assertEquals(2, createdDrivers.size());
+    }
+
+    @Test
+    void testRecyclesBrowserAfterMaxRenders() throws InterruptedException {
+        // Act
+        for (int i = 0; i < 3; i++) {
+            pool.release(pool.borrow(), false);
+        }
+        BrowserPool.Browser next = pool.borrow();
+
+        // Assert
+        verify(createdDrivers.get(0)).quit();
+        assertEquals(2, createdDrivers.size());
+        assertSame(createdDrivers.get(1), next.driver());
+    }
+
+    @Test
+    void testRecyclesBrowserOverHeapLimit() throws InterruptedException {
+        // Arrange
+        seleniumConfig.setMaxBrowserHeapMb(100);
+        BrowserPool.Browser browser = pool.borrow();
+        when(((JavascriptExecutor) browser.driver()).executeScript(anyString())).thenReturn(200L * 1024 * 1024);
+
+        // Act
+        pool.release(browser, false);
+
+        // Assert
+        verify(browser.driver()).quit();
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    void testReplacesUnhealthyBrowserOnBorrow() throws InterruptedException {
+        // Arrange
+        pool.start();
+        WebDriver dead = createdDrivers.get(0);
+        when(dead.getWindowHandle()).thenThrow(new NoSuchSessionException("session gone"));
+
+        // Act
+        BrowserPool.Browser browser = pool.borrow();
+
+        // Assert
+        verify(dead).quit();
+        assertNotSame(dead, browser.driver());
+    }
+
+    @Test
+    void testBrokenBrowserIsNotReused() throws InterruptedException {
+        // Arrange
+        BrowserPool.Browser browser = pool.borrow();
+
+        // Act
+        pool.release(browser, true);
+
+        // Assert
+        verify(browser.driver()).quit();
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(0, pool.getBorrowedCount());
+    }
+
+    @Test
+    void testCloseQuitsIdleBrowsersAndRejectsBorrows() throws InterruptedException {
+        // Arrange
+        BrowserPool.Browser borrowed = pool.borrow();
+        pool.release(pool.borrow(), false);
+
+        // Act
+        pool.close();
+
+        // Assert
+        verify(createdDrivers.get(1)).quit();
+        verify(borrowed.driver(), never()).quit();
+        assertThrows(IllegalStateException.class, () -> pool.borrow());
+        pool.release(borrowed, false);
+        verify(borrowed.driver()).quit();
+    }
+}
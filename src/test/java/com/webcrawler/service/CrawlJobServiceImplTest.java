@@ -0,0 +1,148 @@
+package com.webcrawler.service;
+
+import com.webcrawler.config.CrawlJobConfig;
+import com.webcrawler.model.CrawlJob;
+import com.webcrawler.model.CrawlJobStatus;
+import com.webcrawler.model.CrawlRequest;
+import com.webcrawler.model.CrawlResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class CrawlJobServiceImplTest {
+
+    private CrawlJobServiceImpl crawlJobService;
+
+    @Mock
+    private CrawlerService crawlerService;
+
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        release = new CountDownLatch(1);
+        CrawlJobConfig config = new CrawlJobConfig();
+        config.setPoolSize(1);
+        config.setQueueCapacity(1);
+        config.setMaxWaitMs(5000);
+        crawlJobService = new CrawlJobServiceImpl(crawlerService, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        crawlJobService.shutdown();
+    }
+
+    @Test
+    void submit_ReturnsPendingJobImmediately() {
+        // Arrange
+        when(crawlerService.crawl(any(CrawlRequest.class))).thenAnswer(invocation -> {
+            release.await();
+            return success(invocation.<CrawlRequest>getArgument(0).getUrl());
+        });
+
+        // Act
+        CrawlJob job = crawlJobService.submit(new CrawlRequest("https://example.com"));
+
+        // Assert
+        assertNotNull(job.getJobId());
+        assertEquals("https://example.com", job.getUrl());
+        assertEquals(CrawlJobStatus.PENDING, job.getStatus());
+        assertNull(job.getResult());
+        assertTrue(crawlJobService.getJob(job.getJobId()).isPresent());
+    }
+
+    @Test
+    void awaitJob_CompletesWithResult() throws Exception {
+        // Arrange
+        when(crawlerService.crawl(any(CrawlRequest.class))).thenAnswer(invocation -> success(invocation.<CrawlRequest>getArgument(0).getUrl()));
+
+        // Act
+        CrawlJob submitted = crawlJobService.submit(new CrawlRequest("https://example.com"));
+        CrawlJob finished = crawlJobService.awaitJob(submitted.getJobId(), 5000).orElseThrow()
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(CrawlJobStatus.COMPLETED, finished.getStatus());
+        assertNotNull(finished.getCompletedAt());
+        assertTrue(finished.getResult().getSuccess());
+    }
+
+    @Test
+    void awaitJob_ReturnsCurrentStateWhenWaitElapses() throws Exception {
+        // Arrange
+        when(crawlerService.crawl(any(CrawlRequest.class))).thenAnswer(invocation -> {
+            release.await();
+            return success(invocation.<CrawlRequest>getArgument(0).getUrl());
+        });
+
+        // Act
+        CrawlJob submitted = crawlJobService.submit(new CrawlRequest("https://example.com"));
+        CrawlJob current = crawlJobService.awaitJob(submitted.getJobId(), 50).orElseThrow()
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertNotEquals(CrawlJobStatus.COMPLETED, current.getStatus());
+        assertNull(current.getResult());
+    }
+
+    @Test
+    void awaitJob_CrawlerThrows_MarksJobFailed() throws Exception {
+        // Arrange
+        when(crawlerService.crawl(any(CrawlRequest.class))).thenThrow(new IllegalStateException("boom"));
+
+        // Act
+        CrawlJob submitted = crawlJobService.submit(new CrawlRequest("https://example.com"));
+        CrawlJob finished = crawlJobService.awaitJob(submitted.getJobId(), 5000).orElseThrow()
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(CrawlJobStatus.FAILED, finished.getStatus());
+        assertFalse(finished.getResult().getSuccess());
+        assertEquals("Failed to crawl URL: boom", finished.getResult().getMessage());
+    }
+
+    @Test
+    void submit_QueueFull_ThrowsRejectedExecutionException() {
+        // Arrange
+        when(crawlerService.crawl(any(CrawlRequest.class))).thenAnswer(invocation -> {
+            release.await();
+            return success(invocation.<CrawlRequest>getArgument(0).getUrl());
+        });
+
+        // Act - one running, one queued, the third does not fit
+        crawlJobService.submit(new CrawlRequest("https://example.com/1"));
+        crawlJobService.submit(new CrawlRequest("https://example.com/2"));
+
+        // Assert
+        assertThrows(RejectedExecutionException.class, () -> crawlJobService.submit(new CrawlRequest("https://example.com/3")));
+    }
+
+    @Test
+    void getJob_UnknownId_ReturnsEmpty() {
+        assertTrue(crawlJobService.getJob("unknown").isEmpty());
+        assertTrue(crawlJobService.awaitJob("unknown", 0).isEmpty());
+    }
+
+    private CrawlResponse success(String url) {
+        return CrawlResponse.builder()
+                .url(url)
+                .statusCode(200)
+                .success(true)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
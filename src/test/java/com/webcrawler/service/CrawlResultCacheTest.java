@@ -0,0 +1,177 @@
+package com.webcrawler.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.webcrawler.config.CrawlCacheConfig;
+import com.webcrawler.model.ContentClassification;
+import com.webcrawler.model.CrawlField;
+import com.webcrawler.model.CrawlRequest;
+import com.webcrawler.model.CrawlResponse;
+import com.webcrawler.util.MutableClock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlResultCacheTest {
+
+    private CrawlCacheConfig config;
+
+    private MutableClock clock;
+
+    private MeterRegistry meterRegistry;
+
+    private CrawlResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        config = new CrawlCacheConfig();
+        clock = new MutableClock();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new CrawlResultCache(config, meterRegistry, clock);
+    }
+
+    @Test
+    void testFreshWithinMaxAge() {
+        cache.put(new CrawlRequest("https://example.com"), response(), "\"v1\"", null, "public, max-age=60");
+
+        CrawlResultCache.CachedPage page = cache.get("https://example.com/");
+        assertNotNull(page);
+        assertTrue(cache.isFresh(page));
+
+        clock.advance(Duration.ofSeconds(61));
+        assertFalse(cache.isFresh(cache.get("https://example.com/")));
+    }
+
+    @Test
+    void testStaleEntryKeepsValidators() {
+        cache.put(new CrawlRequest("https://example.com"), response(), "\"v1\"", "Mon, 01 Jan 2024 00:00:00 GMT", null);
+
+        CrawlResultCache.CachedPage page = cache.get("https://example.com");
+        assertNotNull(page);
+        assertFalse(cache.isFresh(page));
+        assertEquals("\"v1\"", page.getEtag());
+        assertEquals("Mon, 01 Jan 2024 00:00:00 GMT", page.getLastModified());
+    }
+
+    @Test
+    void testNoStoreIsNotCached() {
+        cache.put(new CrawlRequest("https://example.com"), response(), "\"v1\"", null, "no-store");
+
+        assertNull(cache.get("https://example.com"));
+    }
+
+    @Test
+    void testResponseWithoutValidatorsOrFreshnessIsNotCached() {
+        cache.put(new CrawlRequest("https://example.com"), response(), null, null, null);
+
+        assertNull(cache.get("https://example.com"));
+    }
+
+    @Test
+    void testNoCacheIsStoredButNeverFresh() {
+        cache.put(new CrawlRequest("https://example.com"), response(), "\"v1\"", null, "no-cache, max-age=600");
+
+        CrawlResultCache.CachedPage page = cache.get("https://example.com");
+        assertNotNull(page);
+        assertFalse(cache.isFresh(page));
+    }
+
+    @Test
+    void testMaxAgeIsCapped() {
+        config.setMaxFreshnessMs(10000);
+        cache.put(new CrawlRequest("https://example.com"), response(), null, null, "max-age=86400");
+
+        clock.advance(Duration.ofSeconds(11));
+        assertFalse(cache.isFresh(cache.get("https://example.com")));
+    }
+
+    @Test
+    void testRevalidatedReusesExtractionAndRefreshesFreshness() {
+        CrawlResponse original = response();
+        cache.put(new CrawlRequest("https://example.com"), original, "\"v1\"", null, "max-age=0");
+        CrawlResultCache.CachedPage stale = cache.get("https://example.com");
+
+        CrawlResultCache.CachedPage refreshed = cache.revalidated("https://example.com", stale, null, null, "max-age=120");
+
+        assertTrue(cache.isFresh(refreshed));
+        assertEquals("\"v1\"", refreshed.getEtag());
+        CrawlResponse fromCache = refreshed.toResponse(new CrawlRequest("https://example.com"), "not modified");
+        assertSame(original.getData(), fromCache.getData());
+        assertTrue(fromCache.getSuccess());
+        assertEquals(1.0, meterRegistry.get("crawler.cache.requests").tag("result", "not_modified").counter().count());
+    }
+
+    @Test
+    void testCoversOnlyTheCachedProjection() {
+        cache.put(new CrawlRequest("https://example.com", Set.of(CrawlField.TITLE), false), response(), "\"v1\"", null, null);
+
+        CrawlResultCache.CachedPage page = cache.get("https://example.com");
+        assertTrue(page.covers(new CrawlRequest("https://example.com", Set.of(CrawlField.TITLE), false)));
+        assertFalse(page.covers(new CrawlRequest("https://example.com", Set.of(CrawlField.TITLE, CrawlField.H1_TAGS), false)));
+        assertFalse(page.covers(new CrawlRequest("https://example.com", Set.of(CrawlField.TITLE), null)));
+        assertFalse(page.covers(new CrawlRequest("https://example.com")));
+    }
+
+    @Test
+    void testToResponseTrimsToRequestedProjection() {
+        CrawlResponse original = response();
+        ((ObjectNode) original.getData()).put("description", "An example page");
+        original.setClassification(new ContentClassification());
+        cache.put(new CrawlRequest("https://example.com"), original, "\"v1\"", null, null);
+        CrawlResultCache.CachedPage page = cache.get("https://example.com");
+
+        CrawlResponse trimmed = page.toResponse(new CrawlRequest("https://example.com", Set.of(CrawlField.TITLE), false), "cached");
+        CrawlResponse full = page.toResponse(new CrawlRequest("https://example.com"), "cached");
+
+        assertEquals(1, trimmed.getData().size());
+        assertEquals("Example", trimmed.getData().get("title").asText());
+        assertNull(trimmed.getClassification());
+        assertEquals(2, full.getData().size());
+        assertNotNull(full.getClassification());
+        // Trimming works on a copy, so the cached extraction keeps every field
+        assertEquals(2, original.getData().size());
+    }
+
+    @Test
+    void testToResponseLeavesOutLinksUnlessRequested() {
+        // A site crawl caches the page with its links
+        CrawlResponse original = response();
+        ((ObjectNode) original.getData()).putArray("links").add("https://example.com/a");
+        cache.put(new CrawlRequest("https://example.com", Set.of(CrawlField.TITLE, CrawlField.LINKS), false),
+                original, "\"v1\"", null, null);
+        CrawlResultCache.CachedPage page = cache.get("https://example.com");
+
+        CrawlResponse defaults = page.toResponse(new CrawlRequest("https://example.com"), "cached");
+        CrawlResponse withLinks = page.toResponse(
+                new CrawlRequest("https://example.com", Set.of(CrawlField.TITLE, CrawlField.LINKS), false), "cached");
+
+        assertEquals("Example", defaults.getData().get("title").asText());
+        assertFalse(defaults.getData().has("links"));
+        assertTrue(withLinks.getData().has("links"));
+    }
+
+    @Test
+    void testDisabledCacheReturnsNothing() {
+        config.setEnabled(false);
+        cache.put(new CrawlRequest("https://example.com"), response(), "\"v1\"", null, "max-age=60");
+
+        assertNull(cache.get("https://example.com"));
+    }
+
+    private CrawlResponse response() {
+        return CrawlResponse.builder()
+                .url("https://example.com")
+                .statusCode(200)
+                .success(true)
+                .timestamp(LocalDateTime.now())
+                .data(new ObjectMapper().createObjectNode().put("title", "Example"))
+                .build();
+    }
+}
@@ -2,20 +2,37 @@ package com.webcrawler.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.webcrawler.config.JsoupConfig;
+import com.webcrawler.model.CrawlField;
+import com.webcrawler.model.CrawlRequest;
 import com.webcrawler.model.CrawlResponse;
+import com.webcrawler.model.RenderPriority;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class CrawlerServiceImplTest {
 
     private CrawlerService crawlerService;
 
+    private MeterRegistry meterRegistry;
+
     @Mock
     private JsoupCrawlerWrapper jsoupCrawlerWrapper;
 
@@ -31,7 +48,8 @@ class CrawlerServiceImplTest {
         when(jsoupConfig.getUserAgent()).thenReturn("TestBot/1.0");
         // By default, allow all URLs in tests
         when(robotsTxtService.isAllowed(anyString(), anyString())).thenReturn(true);
-        crawlerService = new CrawlerServiceImpl(jsoupCrawlerWrapper, robotsTxtService, jsoupConfig);
+        meterRegistry = new SimpleMeterRegistry();
+        crawlerService = new CrawlerServiceImpl(jsoupCrawlerWrapper, robotsTxtService, jsoupConfig, meterRegistry);
     }
 
     @Test
@@ -46,7 +64,7 @@ class CrawlerServiceImplTest {
                 .timestamp(java.time.LocalDateTime.now())
                 .build();
 
-        when(jsoupCrawlerWrapper.crawl(anyString())).thenReturn(mockResponse);
+        when(jsoupCrawlerWrapper.crawl(any(CrawlRequest.class))).thenReturn(mockResponse);
 
         // Act
         CrawlResponse response = crawlerService.crawl(url);
@@ -71,7 +89,7 @@ class CrawlerServiceImplTest {
                 .timestamp(java.time.LocalDateTime.now())
                 .build();
 
-        when(jsoupCrawlerWrapper.crawl(anyString())).thenReturn(mockResponse);
+        when(jsoupCrawlerWrapper.crawl(any(CrawlRequest.class))).thenReturn(mockResponse);
 
         // Act
         CrawlResponse response = crawlerService.crawl(url);
@@ -92,7 +110,7 @@ class CrawlerServiceImplTest {
                 .timestamp(java.time.LocalDateTime.now())
                 .build();
 
-        when(jsoupCrawlerWrapper.crawl(anyString())).thenReturn(mockResponse);
+        when(jsoupCrawlerWrapper.crawl(any(CrawlRequest.class))).thenReturn(mockResponse);
 
         // Act
         CrawlResponse response = crawlerService.crawl(url);
@@ -113,7 +131,7 @@ class CrawlerServiceImplTest {
                 .timestamp(java.time.LocalDateTime.now())
                 .build();
 
-        when(jsoupCrawlerWrapper.crawl(anyString())).thenReturn(mockResponse);
+        when(jsoupCrawlerWrapper.crawl(any(CrawlRequest.class))).thenReturn(mockResponse);
 
         // Act
         CrawlResponse response = crawlerService.crawl(url);
@@ -139,4 +157,128 @@ class CrawlerServiceImplTest {
         assertEquals("Crawling not allowed by robots.txt", response.getMessage());
         assertEquals(url, response.getUrl());
     }
+
+    @Test
+    void crawl_ConcurrentRequestsForSameUrl_AreCoalesced() throws Exception {
+        // Arrange
+        CountDownLatch crawlStarted = new CountDownLatch(1);
+        CountDownLatch releaseCrawl = new CountDownLatch(1);
+        CrawlResponse mockResponse = CrawlResponse.builder()
+                .url("https://example.com/")
+                .statusCode(200)
+                .success(true)
+                .build();
+        when(jsoupCrawlerWrapper.crawl(any(CrawlRequest.class))).thenAnswer(invocation -> {
+            crawlStarted.countDown();
+            releaseCrawl.await();
+            return mockResponse;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Act
+            Future<CrawlResponse> first = executor.submit(() -> crawlerService.crawl("https://example.com/"));
+            assertTrue(crawlStarted.await(5, TimeUnit.SECONDS));
+            Future<CrawlResponse> second = executor.submit(() -> crawlerService.crawl("HTTPS://Example.com:443"));
+            waitForCoalescedCount(1);
+            releaseCrawl.countDown();
+
+            // Assert - one crawl, answered with each caller's spelling of the URL
+            CrawlResponse firstResponse = first.get(5, TimeUnit.SECONDS);
+            CrawlResponse secondResponse = second.get(5, TimeUnit.SECONDS);
+            assertSame(mockResponse, firstResponse);
+            assertEquals("HTTPS://Example.com:443", secondResponse.getUrl());
+            assertEquals(200, secondResponse.getStatusCode());
+            verify(jsoupCrawlerWrapper, times(1)).crawl(any(CrawlRequest.class));
+            assertEquals(1.0, meterRegistry.get("crawler.requests.coalesced").functionCounter().count());
+        } finally {
+            releaseCrawl.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void crawl_SequentialRequestsForSameUrl_AreNotCoalesced() {
+        // Arrange
+        when(jsoupCrawlerWrapper.crawl(any(CrawlRequest.class))).thenReturn(CrawlResponse.builder().success(true).build());
+
+        // Act
+        crawlerService.crawl("https://example.com");
+        crawlerService.crawl("https://example.com");
+
+        // Assert
+        verify(jsoupCrawlerWrapper, times(2)).crawl(any(CrawlRequest.class));
+        assertEquals(0.0, meterRegistry.get("crawler.requests.coalesced").functionCounter().count());
+    }
+
+    @Test
+    void crawl_ConcurrentRequestsWithDifferentProjections_AreNotCoalesced() throws Exception {
+        // Arrange
+        CountDownLatch crawlStarted = new CountDownLatch(1);
+        CountDownLatch releaseCrawl = new CountDownLatch(1);
+        when(jsoupCrawlerWrapper.crawl(any(CrawlRequest.class))).thenAnswer(invocation -> {
+            crawlStarted.countDown();
+            releaseCrawl.await();
+            return CrawlResponse.builder().success(true).build();
+        });
+        CrawlRequest titleOnly = new CrawlRequest("https://example.com", Set.of(CrawlField.TITLE), false);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Act
+            Future<CrawlResponse> first = executor.submit(() -> crawlerService.crawl("https://example.com"));
+            assertTrue(crawlStarted.await(5, TimeUnit.SECONDS));
+            Future<CrawlResponse> second = executor.submit(() -> crawlerService.crawl(titleOnly));
+            Thread.sleep(100);
+            releaseCrawl.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+
+            // Assert
+            verify(jsoupCrawlerWrapper, times(2)).crawl(any(CrawlRequest.class));
+        } finally {
+            releaseCrawl.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void crawl_ConcurrentRequestsWithDifferentRenderPriorities_AreNotCoalesced() throws Exception {
+        // Arrange
+        CountDownLatch crawlStarted = new CountDownLatch(1);
+        CountDownLatch releaseCrawl = new CountDownLatch(1);
+        when(jsoupCrawlerWrapper.crawl(any(CrawlRequest.class))).thenAnswer(invocation -> {
+            crawlStarted.countDown();
+            releaseCrawl.await();
+            return CrawlResponse.builder().success(true).build();
+        });
+        CrawlRequest low = new CrawlRequest("https://example.com", null, null, RenderPriority.LOW);
+        CrawlRequest high = new CrawlRequest("https://example.com", null, null, RenderPriority.HIGH);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Act
+            Future<CrawlResponse> first = executor.submit(() -> crawlerService.crawl(low));
+            assertTrue(crawlStarted.await(5, TimeUnit.SECONDS));
+            Future<CrawlResponse> second = executor.submit(() -> crawlerService.crawl(high));
+            Thread.sleep(100);
+            releaseCrawl.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+
+            // Assert
+            verify(jsoupCrawlerWrapper, times(2)).crawl(any(CrawlRequest.class));
+        } finally {
+            releaseCrawl.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private void waitForCoalescedCount(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("crawler.requests.coalesced").functionCounter().count() < expected
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
 }
@@ -0,0 +1,197 @@
+package com.webcrawler.service;
+
+import com.webcrawler.config.PolitenessConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HostPolitenessSchedulerTest {
+
+    private PolitenessConfig politenessConfig;
+    private HostPolitenessScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        politenessConfig = new PolitenessConfig();
+        politenessConfig.setDefaultDelayMs(0);
+        politenessConfig.setMaxConcurrencyPerHost(2);
+        politenessConfig.setMaxWaitMs(5000);
+        scheduler = new HostPolitenessScheduler(politenessConfig, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void testConcurrencyIsCappedPerHost() throws Exception {
+        // Act
+        CompletableFuture<HostPolitenessScheduler.Permit> first = scheduler.acquire("https://example.com/1", () -> 0);
+        CompletableFuture<HostPolitenessScheduler.Permit> second = scheduler.acquire("https://example.com/2", () -> 0);
+        CompletableFuture<HostPolitenessScheduler.Permit> third = scheduler.acquire("https://example.com/3", () -> 0);
+
+        // Assert
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+        assertFalse(third.isDone());
+        assertEquals(1, scheduler.getQueuedCount());
+
+        first.get().release();
+        assertNotNull(third.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testHostsAreScheduledIndependently() {
+        // Arrange
+        politenessConfig.setMaxConcurrencyPerHost(1);
+
+        // Act
+        CompletableFuture<HostPolitenessScheduler.Permit> first = scheduler.acquire("https://example.com/", () -> 0);
+        CompletableFuture<HostPolitenessScheduler.Permit> other = scheduler.acquire("https://example.org/", () -> 0);
+
+        // Assert
+        assertTrue(first.isDone());
+        assertTrue(other.isDone());
+        assertEquals(2, scheduler.getHostCount());
+    }
+
+    @Test
+    void testCrawlDelaySpacesRequestsAndLimitsToOne() throws Exception {
+        // Arrange
+        long start = System.nanoTime();
+
+        // Act
+        HostPolitenessScheduler.Permit first = scheduler.acquire("https://example.com/1", () -> 200).get();
+        first.release();
+        CompletableFuture<HostPolitenessScheduler.Permit> second = scheduler.acquire("https://example.com/2", () -> 200);
+
+        // Assert
+        assertFalse(second.isDone());
+        second.get(5, TimeUnit.SECONDS).release();
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 200);
+    }
+
+    @Test
+    void testRestoredNextAllowedTimeHoldsBackNewScheduler() throws Exception {
+        // Arrange
+        scheduler.acquire("https://example.com/1", () -> 300).get().release();
+        Map<String, Long> nextAllowed = scheduler.snapshotNextAllowed();
+        HostPolitenessScheduler restarted = new HostPolitenessScheduler(politenessConfig, new SimpleMeterRegistry());
+
+        try {
+            // Act
+            restarted.restoreNextAllowed(nextAllowed);
+            CompletableFuture<HostPolitenessScheduler.Permit> next = restarted.acquire("https://example.com/2", () -> 300);
+            CompletableFuture<HostPolitenessScheduler.Permit> other = restarted.acquire("https://example.org/", () -> 300);
+
+            // Assert
+            assertEquals(Set.of("example.com"), nextAllowed.keySet());
+            assertFalse(next.isDone());
+            assertTrue(other.isDone());
+            assertNotNull(next.get(5, TimeUnit.SECONDS));
+        } finally {
+            restarted.shutdown();
+        }
+    }
+
+    @Test
+    void testCrawlDelayIsResolvedOncePerHost() throws Exception {
+        // Arrange
+        AtomicInteger lookups = new AtomicInteger();
+
+        // Act
+        scheduler.acquire("https://example.com/1", lookups::incrementAndGet).get().release();
+        scheduler.acquire("https://example.com/2", lookups::incrementAndGet).get().release();
+
+        // Assert
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void testCancelledWaiterGivesUpItsPlace() throws Exception {
+        // Arrange
+        politenessConfig.setMaxConcurrencyPerHost(1);
+        HostPolitenessScheduler.Permit first = scheduler.acquire("https://example.com/1", () -> 0).get();
+        CompletableFuture<HostPolitenessScheduler.Permit> cancelled = scheduler.acquire("https://example.com/2", () -> 0);
+        CompletableFuture<HostPolitenessScheduler.Permit> next = scheduler.acquire("https://example.com/3", () -> 0);
+
+        // Act
+        cancelled.cancel(false);
+        first.release();
+
+        // Assert
+        assertNotNull(next.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testReleaseIsIdempotent() throws Exception {
+        // Arrange
+        politenessConfig.setMaxConcurrencyPerHost(1);
+        HostPolitenessScheduler.Permit first = scheduler.acquire("https://example.com/1", () -> 0).get();
+        CompletableFuture<HostPolitenessScheduler.Permit> second = scheduler.acquire("https://example.com/2", () -> 0);
+        CompletableFuture<HostPolitenessScheduler.Permit> pending = scheduler.acquire("https://example.com/3", () -> 0);
+
+        // Act
+        first.release();
+        first.release();
+
+        // Assert - only one slot was freed, so one waiter is still queued
+        assertTrue(second.isDone());
+        assertFalse(pending.isDone());
+        assertEquals(1, scheduler.getQueuedCount());
+    }
+
+    @Test
+    void testFullHostQueueIsRejected() {
+        // Arrange
+        politenessConfig.setMaxConcurrencyPerHost(1);
+        politenessConfig.setMaxQueuedPerHost(1);
+        scheduler.acquire("https://example.com/1", () -> 0);
+        scheduler.acquire("https://example.com/2", () -> 0);
+
+        // Act
+        CompletableFuture<HostPolitenessScheduler.Permit> rejected = scheduler.acquire("https://example.com/3", () -> 0);
+
+        // Assert
+        ExecutionException exception = assertThrows(ExecutionException.class, rejected::get);
+        assertTrue(exception.getMessage().contains("Too many crawls queued"));
+    }
+
+    @Test
+    void testAwaitTurnTimesOut() throws Exception {
+        // Arrange
+        politenessConfig.setMaxConcurrencyPerHost(1);
+        politenessConfig.setMaxWaitMs(50);
+        scheduler.acquire("https://example.com/1", () -> 0).get();
+
+        // Act & Assert
+        IOException exception = assertThrows(IOException.class,
+                () -> scheduler.awaitTurn("https://example.com/2", () -> 0));
+        assertTrue(exception.getMessage().contains("example.com"));
+        assertEquals(0, scheduler.getQueuedCount());
+    }
+
+    @Test
+    void testDisabledSchedulerGrantsImmediately() {
+        // Arrange
+        politenessConfig.setEnabled(false);
+
+        // Act & Assert
+        for (int i = 0; i < 10; i++) {
+            assertTrue(scheduler.acquire("https://example.com/" + i, () -> 1000).isDone());
+        }
+        assertEquals(0, scheduler.getHostCount());
+    }
+}
@@ -0,0 +1,216 @@
+package com.webcrawler.service;
+
+import com.sun.net.httpserver.HttpServer;
+import com.webcrawler.config.HttpClientConfig;
+import com.webcrawler.model.FetchRequest;
+import com.webcrawler.model.FetchResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpFetcherImplTest {
+
+    private HttpServer server;
+    private HttpFetcherImpl fetcher;
+    private String baseUrl;
+    private final CountDownLatch stalled = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/plain", exchange -> {
+            byte[] body = "hello world".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=UTF-8");
+            exchange.getResponseHeaders().add("X-Echo-Agent", String.valueOf(exchange.getRequestHeaders().getFirst("User-Agent")));
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/gzip", exchange -> {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write("compressed content".getBytes(StandardCharsets.UTF_8));
+            }
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, compressed.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                compressed.writeTo(out);
+            }
+        });
+        server.createContext("/truncated-gzip", exchange -> {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write("compressed content".repeat(100).getBytes(StandardCharsets.UTF_8));
+            }
+            byte[] truncated = Arrays.copyOf(compressed.toByteArray(), compressed.size() / 2);
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, truncated.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(truncated);
+            }
+        });
+        server.createContext("/not-modified", exchange -> {
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+        });
+        server.createContext("/stall", exchange -> {
+            exchange.sendResponseHeaders(200, 1000);
+            OutputStream out = exchange.getResponseBody();
+            out.write("partial".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            try {
+                stalled.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.createContext("/redirect", exchange -> {
+            exchange.getResponseHeaders().add("Location", "/plain");
+            exchange.sendResponseHeaders(301, -1);
+            exchange.close();
+        });
+        server.createContext("/loop", exchange -> {
+            exchange.getResponseHeaders().add("Location", "/loop");
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        HttpClientConfig config = new HttpClientConfig();
+        config.setHttp2Enabled(false);
+        fetcher = new HttpFetcherImpl(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stalled.countDown();
+        fetcher.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void testFetchReturnsBodyAndHeaders() throws IOException {
+        // Act
+        FetchResponse response = fetcher.fetch(FetchRequest.builder()
+                .url(baseUrl + "/plain")
+                .headers(Map.of("User-Agent", "TestBot/1.0"))
+                .build());
+
+        // Assert
+        assertEquals(200, response.getStatusCode());
+        assertEquals("hello world", new String(response.getBody(), StandardCharsets.UTF_8));
+        assertEquals("TestBot/1.0", response.header("x-echo-agent"));
+        assertEquals("UTF-8", response.charset());
+    }
+
+    @Test
+    void testFetchDecodesGzipBody() throws IOException {
+        // Act
+        FetchResponse response = fetcher.fetch(FetchRequest.builder().url(baseUrl + "/gzip").build());
+
+        // Assert
+        assertEquals("compressed content", new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testFetchFollowsRedirects() throws IOException {
+        // Act
+        FetchResponse response = fetcher.fetch(FetchRequest.builder().url(baseUrl + "/redirect").build());
+
+        // Assert
+        assertEquals(200, response.getStatusCode());
+        assertEquals(baseUrl + "/plain", response.getUrl());
+    }
+
+    @Test
+    void testFetchWithoutFollowingRedirects() throws IOException {
+        // Act
+        FetchResponse response = fetcher.fetch(FetchRequest.builder()
+                .url(baseUrl + "/redirect")
+                .followRedirects(false)
+                .build());
+
+        // Assert
+        assertEquals(301, response.getStatusCode());
+        assertEquals("/plain", response.header("Location"));
+    }
+
+    @Test
+    void testFetchFailsOnRedirectLoop() {
+        // Act & Assert
+        IOException exception = assertThrows(IOException.class,
+                () -> fetcher.fetch(FetchRequest.builder().url(baseUrl + "/loop").build()));
+        assertTrue(exception.getMessage().contains("Too many redirects"));
+    }
+
+    @Test
+    void testFetchTruncatesBodyAtMaxBodySize() throws IOException {
+        // Act
+        FetchResponse response = fetcher.fetch(FetchRequest.builder()
+                .url(baseUrl + "/plain")
+                .maxBodySize(5)
+                .build());
+
+        // Assert
+        assertEquals("hello", new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testFetchFailsOnTruncatedGzipBody() {
+        // Act & Assert
+        assertThrows(IOException.class,
+                () -> fetcher.fetch(FetchRequest.builder().url(baseUrl + "/truncated-gzip").build()));
+    }
+
+    @Test
+    void testFetchReturnsEmptyBodyForNotModifiedWithContentEncoding() throws IOException {
+        // Act
+        FetchResponse response = fetcher.fetch(FetchRequest.builder().url(baseUrl + "/not-modified").build());
+
+        // Assert
+        assertEquals(304, response.getStatusCode());
+        assertEquals(0, response.getBody().length);
+    }
+
+    @Test
+    void testFetchTimesOutWhenBodyStalls() {
+        // Arrange
+        long start = System.nanoTime();
+
+        // Act & Assert
+        assertThrows(HttpTimeoutException.class, () -> fetcher.fetch(FetchRequest.builder()
+                .url(baseUrl + "/stall")
+                .timeoutMs(500)
+                .build()));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(0, fetcher.getHostCount());
+    }
+
+    @Test
+    void testHostSlotsAreDroppedWhenIdle() throws IOException {
+        // Act
+        fetcher.fetch(FetchRequest.builder().url(baseUrl + "/plain").build());
+        fetcher.fetch(FetchRequest.builder().url(baseUrl + "/redirect").build());
+
+        // Assert
+        assertEquals(0, fetcher.getHostCount());
+    }
+}
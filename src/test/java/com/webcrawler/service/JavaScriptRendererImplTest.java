@@ -77,4 +77,24 @@ class JavaScriptRendererImplTest {
             service.cleanup(); // Second call should also not throw
         });
     }
+
+    @Test
+    void testInitWhenDisabledReportsDisabledState() {
+        service.init();
+        service.onApplicationReady();
+        assertEquals(JavaScriptRenderer.State.DISABLED, service.getState());
+    }
+
+    @Test
+    void testInitWhenEnabledDoesNotStartBrowsers() {
+        lenient().when(seleniumConfig.isEnabled()).thenReturn(true);
+        lenient().when(seleniumConfig.isWarmStandby()).thenReturn(false);
+
+        service.init();
+        service.onApplicationReady();
+
+        // Browsers are only started in the background by the first isAvailable() check
+        assertEquals(JavaScriptRenderer.State.COLD, service.getState());
+        assertThrows(IllegalStateException.class, () -> service.render("https://example.com"));
+    }
 }
@@ -0,0 +1,141 @@
+package com.webcrawler.service;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageExtractorTest {
+
+    private static final String PAGE = """
+            <html>
+            <head>
+              <title>  Example
+                 Page </title>
+              <meta name="Description" content="A test page">
+              <meta name="description" content="Ignored second description">
+            </head>
+            <body>
+              <h1>Main <em>Heading</em></h1>
+              <div>One</div>Two<span>Three</span>
+              <p>Line<br>break</p>
+              <pre>  keep   spacing  </pre>
+              <h1>Second<h1>Nested</h1></h1>
+              <script>var ignored = true;</script>
+            </body>
+            </html>
+            """;
+
+    @Test
+    void testExtractMatchesJsoupSelectors() {
+        // Arrange
+        Document document = Jsoup.parse(PAGE);
+
+        // Act
+        PageExtractor.PageContent content = PageExtractor.extract(document, PageExtractor.FULL_TEXT);
+
+        // Assert
+        assertEquals(document.title(), content.title());
+        assertEquals("Example Page", content.title());
+        assertEquals("A test page", content.description());
+        assertEquals(document.select("h1").eachText(), content.h1Tags());
+        assertEquals(document.body().text(), content.text());
+        assertTrue(content.hasBodyText());
+    }
+
+    @Test
+    void testExtractWithoutText() {
+        // Arrange
+        Document document = Jsoup.parse(PAGE);
+
+        // Act
+        PageExtractor.PageContent content = PageExtractor.extract(document, PageExtractor.NO_TEXT);
+
+        // Assert
+        assertNull(content.text());
+        assertEquals("Example Page", content.title());
+        assertTrue(content.hasBodyText());
+    }
+
+    @Test
+    void testExtractWithTextLimitReturnsPrefixOfFullText() {
+        // Arrange
+        Document document = Jsoup.parse(PAGE);
+        String fullText = document.body().text();
+
+        // Act
+        PageExtractor.PageContent content = PageExtractor.extract(document, 12);
+
+        // Assert
+        assertEquals(fullText.substring(0, 12), content.text());
+    }
+
+    @Test
+    void testExtractWithTextLimitLongerThanText() {
+        // Arrange
+        Document document = Jsoup.parse("<body><p>  short text  </p></body>");
+
+        // Act
+        PageExtractor.PageContent content = PageExtractor.extract(document, 1000);
+
+        // Assert
+        assertEquals("short text", content.text());
+    }
+
+    @Test
+    void testExtractEmptyPage() {
+        // Arrange
+        Document document = Jsoup.parse("<html><head></head><body>   <div></div></body></html>");
+
+        // Act
+        PageExtractor.PageContent content = PageExtractor.extract(document, PageExtractor.FULL_TEXT);
+
+        // Assert
+        assertEquals("", content.title());
+        assertEquals("", content.description());
+        assertEquals(List.of(), content.h1Tags());
+        assertEquals("", content.text());
+        assertFalse(content.hasBodyText());
+    }
+
+    @Test
+    void testExtractLinksResolvesAndDeduplicates() {
+        // Arrange
+        Document document = Jsoup.parse("""
+                <body>
+                  <a href="/docs/intro">Intro</a>
+                  <a href="page2#section">Page 2</a>
+                  <a href="https://example.com/docs/intro#top">Intro again</a>
+                  <a href="https://other.com/" rel="external nofollow">Sponsor</a>
+                  <a href="mailto:someone@example.com">Mail</a>
+                  <map><area href="/map" alt="Map"></map>
+                </body>
+                """, "https://example.com/docs/");
+
+        // Act
+        PageExtractor.PageContent content = PageExtractor.extract(document, PageExtractor.NO_TEXT, true);
+
+        // Assert
+        assertEquals(List.of("https://example.com/docs/intro", "https://example.com/docs/page2", "https://example.com/map"),
+                content.links());
+    }
+
+    @Test
+    void testExtractLinksHonoursRobotsNofollow() {
+        // Arrange
+        Document document = Jsoup.parse("""
+                <head><meta name="robots" content="noindex, nofollow"></head>
+                <body><a href="/next">Next</a></body>
+                """, "https://example.com/");
+
+        // Act
+        PageExtractor.PageContent content = PageExtractor.extract(document, PageExtractor.NO_TEXT, true);
+
+        // Assert
+        assertEquals(List.of(), content.links());
+        assertNull(PageExtractor.extract(document, PageExtractor.NO_TEXT).links());
+    }
+}
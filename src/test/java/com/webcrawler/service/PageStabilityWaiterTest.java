@@ -0,0 +1,85 @@
+package com.webcrawler.service;
+
+import com.webcrawler.config.SeleniumConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class PageStabilityWaiterTest {
+
+    private SeleniumConfig seleniumConfig;
+    private PageStabilityWaiter waiter;
+    private WebDriver driver;
+
+    @BeforeEach
+    void setUp() {
+        seleniumConfig = new SeleniumConfig();
+        seleniumConfig.setJavascriptWaitTime(2000);
+        seleniumConfig.setStabilityQuietPeriodMs(500);
+        seleniumConfig.setStabilityPollIntervalMs(10);
+        waiter = new PageStabilityWaiter(seleniumConfig);
+        driver = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class));
+    }
+
+    @Test
+    void testReturnsAsSoonAsPageIsStable() throws InterruptedException {
+        // Arrange
+        when(((JavascriptExecutor) driver).executeScript(anyString())).thenReturn(
+                List.of("loading", 0L, 900.0),
+                List.of("interactive", 2L, 900.0),
+                List.of("interactive", 0L, 120.0),
+                List.of("complete", 0L, 650.0));
+
+        // Act
+        long start = System.nanoTime();
+        boolean stable = waiter.awaitStable(driver);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertTrue(stable);
+        assertTrue(elapsedMs < 1000, "Should not wait for the maximum");
+        verify((JavascriptExecutor) driver, times(4)).executeScript(anyString());
+    }
+
+    @Test
+    void testGivesUpAtMaximumWait() throws InterruptedException {
+        // Arrange
+        seleniumConfig.setJavascriptWaitTime(200);
+        when(((JavascriptExecutor) driver).executeScript(anyString())).thenReturn(List.of("complete", 1L, 10.0));
+
+        // Act
+        long start = System.nanoTime();
+        boolean stable = waiter.awaitStable(driver);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertFalse(stable);
+        assertTrue(elapsedMs >= 190 && elapsedMs < 1500, "Should stop at the maximum wait");
+    }
+
+    @Test
+    void testScriptErrorsCountAsNotStable() throws InterruptedException {
+        // Arrange
+        when(((JavascriptExecutor) driver).executeScript(anyString()))
+                .thenThrow(new WebDriverException("navigating"))
+                .thenReturn(List.of("complete", 0L, 800.0));
+
+        // Act
+        boolean stable = waiter.awaitStable(driver);
+
+        // Assert
+        assertTrue(stable);
+    }
+}
@@ -0,0 +1,313 @@
+package com.webcrawler.service;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.webcrawler.config.RecrawlConfig;
+import com.webcrawler.model.CrawlField;
+import com.webcrawler.model.CrawlRequest;
+import com.webcrawler.model.CrawlResponse;
+import com.webcrawler.model.RecrawlUrl;
+import com.webcrawler.util.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+class RecrawlServiceImplTest {
+
+    private static final String NEWS = "https://example.com/news";
+    private static final String ABOUT = "https://example.com/about";
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private CrawlerService crawlerService;
+
+    private RecrawlConfig config;
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private Map<String, AtomicInteger> crawls;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        config = new RecrawlConfig();
+        config.setFetchesPerHour(60);
+        config.setTickMs(60000);
+        config.setMinIntervalMs(60000);
+        config.setMaxIntervalMs(3600000);
+        clock = new MutableClock();
+        meterRegistry = new SimpleMeterRegistry();
+        crawls = new ConcurrentHashMap<>();
+        // The news page changes on every crawl, every other page never does
+        when(crawlerService.crawl(any(CrawlRequest.class))).thenAnswer(invocation -> {
+            String url = invocation.<CrawlRequest>getArgument(0).getUrl();
+            int count = crawls.computeIfAbsent(url, u -> new AtomicInteger()).incrementAndGet();
+            return page(url, url.equals(NEWS) ? "Headline " + count : "About us");
+        });
+    }
+
+    @Test
+    void tick_SpendsAtMostTheHourlyBudget() {
+        // Arrange
+        RecrawlServiceImpl recrawlService = newService();
+        for (int i = 0; i < 5; i++) {
+            recrawlService.register(new CrawlRequest("https://example.com/" + i));
+        }
+
+        // Act
+        clock.advance(Duration.ofMinutes(1));
+        recrawlService.tick();
+        int afterOneMinute = totalCrawls();
+        // Budget not spent while idle is not saved up
+        clock.advance(Duration.ofMinutes(10));
+        recrawlService.tick();
+
+        // Assert
+        assertEquals(1, afterOneMinute);
+        assertEquals(2, totalCrawls());
+    }
+
+    @Test
+    void tick_RecrawlsChangingPagesMoreOften() {
+        // Arrange
+        RecrawlServiceImpl recrawlService = newService();
+        recrawlService.register(new CrawlRequest(NEWS));
+        recrawlService.register(new CrawlRequest(ABOUT));
+
+        // Act
+        for (int minute = 0; minute < 300; minute++) {
+            clock.advance(Duration.ofMinutes(1));
+            recrawlService.tick();
+        }
+
+        // Assert - the unchanged page only gets the crawls its maximum interval forces
+        assertTrue(crawls.get(ABOUT).get() >= 5);
+        assertTrue(crawls.get(ABOUT).get() <= 7);
+        assertTrue(crawls.get(NEWS).get() > 280);
+        RecrawlUrl news = recrawlService.get(NEWS).orElseThrow();
+        RecrawlUrl about = recrawlService.get(ABOUT).orElseThrow();
+        assertEquals(news.getRecrawls().longValue(), news.getChanges());
+        assertEquals(0, about.getChanges());
+        assertEquals(0.0, about.getChangesPerDay());
+        assertTrue(news.getChangesPerDay() > 1440);
+        assertEquals(meterRegistry.get("crawler.recrawl.fetches").tag("result", "changed").counter().count(),
+                news.getChanges(), 0.0);
+    }
+
+    @Test
+    void tick_FailedCrawl_KeepsLastResultAndRetriesAfterMinInterval() {
+        // Arrange
+        RecrawlServiceImpl recrawlService = newService();
+        recrawlService.register(new CrawlRequest(ABOUT));
+        clock.advance(Duration.ofMinutes(1));
+        recrawlService.tick();
+        doThrow(new IllegalStateException("Connection reset")).when(crawlerService).crawl(any(CrawlRequest.class));
+
+        // Act
+        clock.advance(Duration.ofHours(1));
+        recrawlService.tick();
+        clock.advance(Duration.ofSeconds(30));
+        recrawlService.tick();
+
+        // Assert
+        RecrawlUrl about = recrawlService.get(ABOUT).orElseThrow();
+        assertEquals("Failed to crawl URL: Connection reset", about.getLastError());
+        assertEquals("About us", about.getResult().getData().get("title").asText());
+        assertEquals(1.0, meterRegistry.get("crawler.recrawl.fetches").tag("result", "failed").counter().count());
+    }
+
+    @Test
+    void tick_OnlyRenderingDetailsDiffer_CountsPageAsUnchanged() {
+        // Arrange - the same page, with a different number of requests blocked on each render
+        AtomicInteger renders = new AtomicInteger();
+        when(crawlerService.crawl(any(CrawlRequest.class))).thenAnswer(invocation -> {
+            CrawlResponse page = page(ABOUT, "About us");
+            ((ObjectNode) page.getData()).putObject("rendering").put("blockedRequests", renders.incrementAndGet());
+            return page;
+        });
+        RecrawlServiceImpl recrawlService = newService();
+        recrawlService.register(new CrawlRequest(ABOUT));
+
+        // Act
+        clock.advance(Duration.ofMinutes(1));
+        recrawlService.tick();
+        clock.advance(Duration.ofHours(1));
+        recrawlService.tick();
+
+        // Assert
+        RecrawlUrl about = recrawlService.get(ABOUT).orElseThrow();
+        assertEquals(2, renders.get());
+        assertEquals(1, about.getRecrawls());
+        assertEquals(0, about.getChanges());
+        assertEquals(1.0, meterRegistry.get("crawler.recrawl.fetches").tag("result", "unchanged").counter().count());
+    }
+
+    @Test
+    void register_WhenFull_ThrowsRejectedExecutionException() {
+        // Arrange
+        config.setMaxUrls(1);
+        RecrawlServiceImpl recrawlService = newService();
+        recrawlService.register(new CrawlRequest(NEWS));
+
+        // Act & Assert - registering the same URL again only replaces its request
+        recrawlService.register(new CrawlRequest("https://EXAMPLE.com/news"));
+        assertEquals(1, recrawlService.list(null, 0, 10).size());
+        assertThrows(RejectedExecutionException.class, () -> recrawlService.register(new CrawlRequest(ABOUT)));
+    }
+
+    @Test
+    void register_OtherFields_ResetsHistory() {
+        // Arrange
+        RecrawlServiceImpl recrawlService = newService();
+        recrawlService.register(new CrawlRequest(NEWS));
+        for (int minute = 0; minute < 3; minute++) {
+            clock.advance(Duration.ofMinutes(1));
+            recrawlService.tick();
+        }
+
+        // Act
+        RecrawlUrl sameFields = recrawlService.register(new CrawlRequest(NEWS, null, false));
+        RecrawlUrl otherFields = recrawlService.register(new CrawlRequest(NEWS, Set.of(CrawlField.TITLE), null));
+
+        // Assert
+        assertEquals(2, sameFields.getRecrawls());
+        assertEquals(0, otherFields.getRecrawls());
+        assertNull(otherFields.getLastCrawledAt());
+    }
+
+    @Test
+    void list_ChangedSince_ReturnsOnlyUrlsChangedSince() {
+        // Arrange
+        RecrawlServiceImpl recrawlService = newService();
+        recrawlService.register(new CrawlRequest(NEWS));
+        recrawlService.register(new CrawlRequest(ABOUT));
+        for (int minute = 0; minute < 10; minute++) {
+            clock.advance(Duration.ofMinutes(1));
+            recrawlService.tick();
+        }
+        LocalDateTime fiveMinutesAgo = LocalDateTime.ofInstant(clock.instant().minus(Duration.ofMinutes(5)), ZoneId.systemDefault());
+
+        // Act
+        List<RecrawlUrl> all = recrawlService.list(null, 0, 10);
+        List<RecrawlUrl> changed = recrawlService.list(fiveMinutesAgo, 0, 10);
+
+        // Assert
+        assertEquals(List.of(ABOUT, NEWS), all.stream().map(RecrawlUrl::getUrl).toList());
+        assertEquals(List.of(NEWS), changed.stream().map(RecrawlUrl::getUrl).toList());
+        assertEquals(1, recrawlService.list(null, 1, 10).size());
+    }
+
+    @Test
+    void shutdown_SavesHistoryForNextStart() {
+        // Arrange
+        config.setStorePath(tempDir.resolve("recrawl.tsv").toString());
+        RecrawlServiceImpl recrawlService = newService();
+        recrawlService.register(new CrawlRequest(NEWS, Set.of(CrawlField.TITLE, CrawlField.LINKS), false));
+        for (int minute = 0; minute < 4; minute++) {
+            clock.advance(Duration.ofMinutes(1));
+            recrawlService.tick();
+        }
+        RecrawlUrl before = recrawlService.get(NEWS).orElseThrow();
+
+        // Act
+        recrawlService.shutdown();
+        RecrawlServiceImpl restarted = newService();
+        RecrawlUrl after = restarted.get(NEWS).orElseThrow();
+
+        // Assert - the latest result itself is not stored
+        assertEquals(before.getRecrawls(), after.getRecrawls());
+        assertEquals(before.getChanges(), after.getChanges());
+        assertEquals(before.getChangesPerDay(), after.getChangesPerDay());
+        assertEquals(before.getLastCrawledAt(), after.getLastCrawledAt());
+        assertNull(after.getResult());
+        assertTrue(restarted.unregister(NEWS));
+        assertFalse(restarted.unregister(NEWS));
+    }
+
+    @Test
+    void tick_RevalidatesFreshCachedResults() {
+        // Arrange
+        config.setStorePath(tempDir.resolve("recrawl.tsv").toString());
+        List<CrawlRequest> requests = new CopyOnWriteArrayList<>();
+        when(crawlerService.crawl(any(CrawlRequest.class))).thenAnswer(invocation -> {
+            requests.add(invocation.getArgument(0));
+            return page(ABOUT, "About us");
+        });
+        RecrawlServiceImpl recrawlService = newService();
+        recrawlService.register(new CrawlRequest(ABOUT));
+        clock.advance(Duration.ofMinutes(1));
+        recrawlService.tick();
+
+        // Act - also for URLs restored from the saved history
+        recrawlService.shutdown();
+        RecrawlServiceImpl restarted = newService();
+        clock.advance(Duration.ofHours(1));
+        restarted.tick();
+
+        // Assert
+        assertEquals(2, requests.size());
+        assertTrue(requests.stream().allMatch(CrawlRequest::wantsRevalidation));
+    }
+
+    @Test
+    void changeRate_EveryRecrawlChanged_IsFiniteAndAboveObservedRate() {
+        double rate = RecrawlServiceImpl.changeRate(10, 1.0, 60000, 0.1);
+
+        assertTrue(Double.isFinite(rate));
+        assertTrue(rate > 1.0 / 60000);
+        assertEquals(0.0, RecrawlServiceImpl.changeRate(10, 0.0, 60000, 0.1));
+    }
+
+    @Test
+    void expectedStaleness_GrowsWithAgeAndChangeRate() {
+        double slow = RecrawlServiceImpl.expectedStaleness(1.0 / 86400000, 3600000);
+        double fast = RecrawlServiceImpl.expectedStaleness(1.0 / 60000, 3600000);
+
+        assertTrue(slow > 0);
+        assertTrue(fast > slow);
+        // A page changing every minute has been stale for all but about its first minute
+        assertEquals(3600000 - 60000, fast, 1.0);
+        assertTrue(RecrawlServiceImpl.expectedStaleness(1.0 / 60000, 7200000) > fast);
+    }
+
+    private RecrawlServiceImpl newService() {
+        return new RecrawlServiceImpl(crawlerService, config, meterRegistry, clock, Runnable::run);
+    }
+
+    private int totalCrawls() {
+        return crawls.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    private static CrawlResponse page(String url, String title) {
+        ObjectNode data = JsonNodeFactory.instance.objectNode();
+        data.put("title", title);
+        return CrawlResponse.builder()
+                .url(url)
+                .statusCode(200)
+                .success(true)
+                .timestamp(LocalDateTime.now())
+                .data(data)
+                .build();
+    }
+}
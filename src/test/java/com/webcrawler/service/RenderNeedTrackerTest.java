@@ -0,0 +1,131 @@
+package com.webcrawler.service;
+
+import com.webcrawler.config.RenderNeedConfig;
+import com.webcrawler.util.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderNeedTrackerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private RenderNeedConfig config;
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        config = new RenderNeedConfig();
+        config.setMinSamples(3);
+        config.setProbeInterval(5);
+        clock = new MutableClock();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testProbesUntilEnoughSamples() {
+        // Arrange
+        RenderNeedTracker tracker = new RenderNeedTracker(config, meterRegistry, clock);
+        tracker.recordStaticFetch("https://spa.example.com/a", true);
+        tracker.recordStaticFetch("https://spa.example.com/b", true);
+
+        // Act & Assert
+        assertEquals(RenderNeedTracker.Decision.PROBE, tracker.decide("https://spa.example.com/c"));
+        tracker.recordStaticFetch("https://spa.example.com/c", true);
+        assertEquals(RenderNeedTracker.Decision.RENDER, tracker.decide("https://spa.example.com/d"));
+    }
+
+    @Test
+    void testClassifiesStaticAndMixedHosts() {
+        // Arrange
+        RenderNeedTracker tracker = new RenderNeedTracker(config, meterRegistry, clock);
+        for (int i = 0; i < 4; i++) {
+            tracker.recordStaticFetch("https://static.example.com/" + i, false);
+            tracker.recordStaticFetch("https://mixed.example.com/" + i, i % 2 == 0);
+        }
+
+        // Act & Assert
+        assertEquals(RenderNeedTracker.Decision.STATIC, tracker.decide("https://STATIC.example.com/x"));
+        assertEquals(RenderNeedTracker.Decision.PROBE, tracker.decide("https://mixed.example.com/x"));
+        assertEquals(1.0, meterRegistry.get("crawler.render.decisions").tag("decision", "static").counter().count());
+    }
+
+    @Test
+    void testClassifiedHostIsProbedPeriodicallyAndReclassified() {
+        // Arrange
+        RenderNeedTracker tracker = new RenderNeedTracker(config, meterRegistry, clock);
+        for (int i = 0; i < 3; i++) {
+            tracker.recordStaticFetch("https://site.example.com/" + i, true);
+        }
+
+        // Act
+        int probes = 0;
+        for (int i = 0; i < 10; i++) {
+            if (tracker.decide("https://site.example.com/page") == RenderNeedTracker.Decision.PROBE) {
+                probes++;
+            }
+        }
+        // The site now serves its content statically
+        for (int i = 0; i < 20; i++) {
+            tracker.recordStaticFetch("https://site.example.com/page", false);
+        }
+
+        // Assert
+        assertEquals(2, probes);
+        assertEquals(RenderNeedTracker.Decision.STATIC, tracker.decide("https://site.example.com/page"));
+    }
+
+    @Test
+    void testForgetsHostsAfterTtl() {
+        // Arrange
+        config.setHostTtlMs(60000);
+        RenderNeedTracker tracker = new RenderNeedTracker(config, meterRegistry, clock);
+        for (int i = 0; i < 3; i++) {
+            tracker.recordStaticFetch("https://spa.example.com/" + i, true);
+        }
+
+        // Act
+        clock.advance(Duration.ofMinutes(2));
+
+        // Assert
+        assertEquals(RenderNeedTracker.Decision.PROBE, tracker.decide("https://spa.example.com/x"));
+    }
+
+    @Test
+    void testLearnedHostsSurviveRestart() {
+        // Arrange
+        config.setStorePath(tempDir.resolve("render-need.tsv").toString());
+        RenderNeedTracker tracker = new RenderNeedTracker(config, meterRegistry, clock);
+        for (int i = 0; i < 3; i++) {
+            tracker.recordStaticFetch("https://spa.example.com/" + i, true);
+        }
+        tracker.shutdown();
+
+        // Act
+        RenderNeedTracker restarted = new RenderNeedTracker(config, new SimpleMeterRegistry(), clock);
+
+        // Assert
+        assertEquals(RenderNeedTracker.Decision.RENDER, restarted.decide("https://spa.example.com/x"));
+    }
+
+    @Test
+    void testDisabledTrackerAlwaysProbes() {
+        // Arrange
+        config.setEnabled(false);
+        RenderNeedTracker tracker = new RenderNeedTracker(config, meterRegistry, clock);
+        for (int i = 0; i < 3; i++) {
+            tracker.recordStaticFetch("https://spa.example.com/" + i, true);
+        }
+
+        // Act & Assert
+        assertEquals(RenderNeedTracker.Decision.PROBE, tracker.decide("https://spa.example.com/x"));
+    }
+}
@@ -0,0 +1,211 @@
+package com.webcrawler.service;
+
+import com.webcrawler.config.PolitenessConfig;
+import com.webcrawler.config.RenderQueueConfig;
+import com.webcrawler.model.RenderPriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RenderQueueTest {
+
+    private JavaScriptRenderer javaScriptRenderer;
+    private RenderQueueConfig config;
+    private SimpleMeterRegistry meterRegistry;
+    private RenderQueue renderQueue;
+    private List<String> renderedUrls;
+    private CountDownLatch firstRenderStarted;
+    private CountDownLatch releaseRenders;
+
+    @BeforeEach
+    void setUp() {
+        javaScriptRenderer = mock(JavaScriptRenderer.class);
+        config = new RenderQueueConfig();
+        config.setWorkers(1);
+        meterRegistry = new SimpleMeterRegistry();
+        renderedUrls = new CopyOnWriteArrayList<>();
+        firstRenderStarted = new CountDownLatch(1);
+        releaseRenders = new CountDownLatch(1);
+        when(javaScriptRenderer.render(anyString())).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            renderedUrls.add(url);
+            firstRenderStarted.countDown();
+            releaseRenders.await(5, TimeUnit.SECONDS);
+            return new JavaScriptRenderer.RenderedPage("<html>" + url + "</html>", 0);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseRenders.countDown();
+        if (renderQueue != null) {
+            renderQueue.shutdown();
+        }
+    }
+
+    @Test
+    void testRendersOnWorker() throws RenderRejectedException {
+        // Arrange
+        renderQueue = new RenderQueue(javaScriptRenderer, config, meterRegistry);
+        releaseRenders.countDown();
+
+        // Act
+        JavaScriptRenderer.RenderedPage page = renderQueue.render("https://example.com", RenderPriority.NORMAL);
+
+        // Assert
+        assertEquals("<html>https://example.com</html>", page.html());
+    }
+
+    @Test
+    void testHigherPriorityStartsFirst() throws Exception {
+        // Arrange
+        renderQueue = new RenderQueue(javaScriptRenderer, config, meterRegistry);
+        CompletableFuture<?> blocker = renderAsync("https://example.com/blocker", RenderPriority.NORMAL);
+        assertTrue(firstRenderStarted.await(5, TimeUnit.SECONDS));
+
+        // Act
+        CompletableFuture<?> low = renderAsync("https://example.com/low", RenderPriority.LOW);
+        awaitQueued(1);
+        CompletableFuture<?> high = renderAsync("https://example.com/high", RenderPriority.HIGH);
+        awaitQueued(2);
+        releaseRenders.countDown();
+        CompletableFuture.allOf(blocker, low, high).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(List.of("https://example.com/blocker", "https://example.com/high", "https://example.com/low"),
+                renderedUrls);
+    }
+
+    @Test
+    void testRenderPastDeadlineIsDroppedBeforeStarting() throws Exception {
+        // Arrange
+        config.setDeadlineMs(50);
+        renderQueue = new RenderQueue(javaScriptRenderer, config, meterRegistry);
+        CompletableFuture<?> blocker = renderAsync("https://example.com/blocker", RenderPriority.NORMAL);
+        assertTrue(firstRenderStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<?> late = renderAsync("https://example.com/late", RenderPriority.NORMAL);
+        awaitQueued(1);
+
+        // Act
+        Thread.sleep(100);
+        releaseRenders.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> late.get(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(RenderRejectedException.Reason.DEADLINE_EXPIRED,
+                ((RenderRejectedException) exception.getCause()).getReason());
+        verify(javaScriptRenderer, never()).render("https://example.com/late");
+    }
+
+    @Test
+    void testRejectsWhenQueueIsFull() throws Exception {
+        // Arrange
+        config.setMaxQueued(1);
+        renderQueue = new RenderQueue(javaScriptRenderer, config, meterRegistry);
+        renderAsync("https://example.com/blocker", RenderPriority.NORMAL);
+        assertTrue(firstRenderStarted.await(5, TimeUnit.SECONDS));
+        renderAsync("https://example.com/queued", RenderPriority.NORMAL);
+        awaitQueued(1);
+
+        // Act
+        RenderRejectedException exception = assertThrows(RenderRejectedException.class,
+                () -> renderQueue.render("https://example.com/extra", RenderPriority.HIGH));
+
+        // Assert
+        assertEquals(RenderRejectedException.Reason.QUEUE_FULL, exception.getReason());
+    }
+
+    @Test
+    void testRejectsWhenBudgetIsUsedUp() throws RenderRejectedException {
+        // Arrange
+        config.setRendersPerMinute(1);
+        renderQueue = new RenderQueue(javaScriptRenderer, config, meterRegistry);
+        releaseRenders.countDown();
+        renderQueue.render("https://example.com/first", RenderPriority.NORMAL);
+
+        // Act
+        RenderRejectedException exception = assertThrows(RenderRejectedException.class,
+                () -> renderQueue.render("https://example.com/second", RenderPriority.HIGH));
+
+        // Assert
+        assertEquals(RenderRejectedException.Reason.BUDGET_EXHAUSTED, exception.getReason());
+        assertEquals(1.0, meterRegistry.get("crawler.render.queue.rejected")
+                .tag("reason", "budget_exhausted").counter().count());
+    }
+
+    @Test
+    void testTakesHostTurnOnlyWhenRenderStarts() throws Exception {
+        // Arrange
+        PolitenessConfig politenessConfig = new PolitenessConfig();
+        politenessConfig.setDefaultDelayMs(0);
+        politenessConfig.setMaxConcurrencyPerHost(1);
+        politenessConfig.setMaxWaitMs(1000);
+        HostPolitenessScheduler scheduler = new HostPolitenessScheduler(politenessConfig, meterRegistry);
+        renderQueue = new RenderQueue(javaScriptRenderer, config, meterRegistry);
+        AtomicInteger turnsTaken = new AtomicInteger();
+        CompletableFuture<?> blocker = renderAsync("https://example.com/blocker", RenderPriority.NORMAL, null);
+        assertTrue(firstRenderStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<?> queued = renderAsync("https://other.example/page", RenderPriority.NORMAL, () -> {
+            turnsTaken.incrementAndGet();
+            return scheduler.awaitTurn("https://other.example/page", () -> 0);
+        });
+        awaitQueued(1);
+
+        // Act - the host's only slot stays free for static fetches while the render waits
+        scheduler.awaitTurn("https://other.example/static", () -> 0).release();
+        int turnsWhileQueued = turnsTaken.get();
+        releaseRenders.countDown();
+        CompletableFuture.allOf(blocker, queued).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(0, turnsWhileQueued);
+        assertEquals(1, turnsTaken.get());
+        // The render gave its turn back when it finished
+        scheduler.awaitTurn("https://other.example/after", () -> 0).release();
+        scheduler.shutdown();
+    }
+
+    private CompletableFuture<JavaScriptRenderer.RenderedPage> renderAsync(String url, RenderPriority priority) {
+        return renderAsync(url, priority, null);
+    }
+
+    private CompletableFuture<JavaScriptRenderer.RenderedPage> renderAsync(String url, RenderPriority priority,
+                                                                          RenderQueue.HostTurn hostTurn) {
+        CompletableFuture<JavaScriptRenderer.RenderedPage> future = new CompletableFuture<>();
+        Thread.ofVirtual().start(() -> {
+            try {
+                future.complete(renderQueue.render(url, priority, hostTurn));
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    private void awaitQueued(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (renderQueue.getQueuedCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, renderQueue.getQueuedCount());
+        // The count goes up just before the render is handed to the executor
+        Thread.sleep(20);
+    }
+}
@@ -0,0 +1,89 @@
+package com.webcrawler.service;
+
+import com.webcrawler.config.SeleniumConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class RequestInterceptorTest {
+
+    private SeleniumConfig seleniumConfig;
+
+    @BeforeEach
+    void setUp() {
+        seleniumConfig = new SeleniumConfig();
+        seleniumConfig.setBlockedResourceTypes(List.of("Image", "Font"));
+        seleniumConfig.setBlockedDomains(List.of("tracker.com"));
+    }
+
+    @Test
+    void testBlocksResourceTypesButNeverDocuments() {
+        // Arrange
+        RequestInterceptor interceptor = new RequestInterceptor(mock(DevTools.class), seleniumConfig);
+        interceptor.startPage("https://example.com/");
+
+        // Act & Assert
+        assertTrue(interceptor.shouldBlock("https://example.com/logo.png", "Image"));
+        assertTrue(interceptor.shouldBlock("https://example.com/font.woff2", "font"));
+        assertFalse(interceptor.shouldBlock("https://example.com/app.js", "Script"));
+        assertFalse(interceptor.shouldBlock("https://tracker.com/", "Document"));
+    }
+
+    @Test
+    void testBlocksDeniedDomainsAndSubdomains() {
+        // Arrange
+        RequestInterceptor interceptor = new RequestInterceptor(mock(DevTools.class), seleniumConfig);
+        interceptor.startPage("https://example.com/");
+
+        // Act & Assert
+        assertTrue(interceptor.shouldBlock("https://tracker.com/pixel.js", "Script"));
+        assertTrue(interceptor.shouldBlock("https://cdn.tracker.com/pixel.js", "Script"));
+        assertFalse(interceptor.shouldBlock("https://nottracker.com/app.js", "Script"));
+    }
+
+    @Test
+    void testAllowListBlocksOtherThirdPartyDomains() {
+        // Arrange
+        seleniumConfig.setAllowedDomains(List.of("cdn.example.net"));
+        RequestInterceptor interceptor = new RequestInterceptor(mock(DevTools.class), seleniumConfig);
+        interceptor.startPage("https://www.example.com/page");
+
+        // Act & Assert
+        assertFalse(interceptor.shouldBlock("https://www.example.com/app.js", "Script"));
+        assertFalse(interceptor.shouldBlock("https://api.www.example.com/data", "XHR"));
+        assertFalse(interceptor.shouldBlock("https://cdn.example.net/lib.js", "Script"));
+        assertTrue(interceptor.shouldBlock("https://widgets.other.org/embed.js", "Script"));
+    }
+
+    @Test
+    void testPausesOnlyBlockableRequestsWithoutAllowList() {
+        // Arrange
+        seleniumConfig.setBlockedResourceTypes(List.of("XHR"));
+        RequestInterceptor interceptor = new RequestInterceptor(mock(DevTools.class), seleniumConfig);
+
+        // Act
+        List<Map<String, Object>> patterns = interceptor.pausePatterns();
+
+        // Assert
+        assertEquals(List.of(
+                Map.of("resourceType", "XHR"),
+                Map.of("urlPattern", "*://tracker.com/*"),
+                Map.of("urlPattern", "*://*.tracker.com/*")), patterns);
+    }
+
+    @Test
+    void testAttachReturnsNullWithoutDevTools() {
+        // Act
+        RequestInterceptor interceptor = RequestInterceptor.attach(mock(WebDriver.class), seleniumConfig);
+
+        // Assert
+        assertNull(interceptor);
+    }
+}
@@ -1,7 +1,27 @@
 package com.webcrawler.service;
 
+import com.sun.net.httpserver.HttpServer;
+import com.webcrawler.config.HttpClientConfig;
+import com.webcrawler.config.RobotsTxtConfig;
+import com.webcrawler.util.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -11,7 +31,8 @@ class RobotsTxtServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        service = new RobotsTxtServiceImpl();
+        service = new RobotsTxtServiceImpl(new HttpFetcherImpl(new HttpClientConfig()),
+                new RobotsTxtConfig(), new SimpleMeterRegistry());
     }
 
     @Test
@@ -164,4 +185,197 @@ class RobotsTxtServiceImplTest {
         // Should handle HTTPS scheme
         assertNotNull(result);
     }
+
+    @Test
+    void testRobotsTxtIsFetchedOncePerOrigin() throws IOException {
+        // Arrange
+        AtomicInteger fetches = new AtomicInteger();
+        HttpServer server = robotsServer(200, "User-agent: *\nDisallow: /private\nCrawl-delay: 2", fetches);
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RobotsTxtServiceImpl cachingService = new RobotsTxtServiceImpl(new HttpFetcherImpl(new HttpClientConfig()),
+                new RobotsTxtConfig(), meterRegistry);
+
+        try {
+            // Act
+            boolean publicAllowed = cachingService.isAllowed(base + "/public", "Test-Bot");
+            boolean privateAllowed = cachingService.isAllowed(base + "/private/page", "Test-Bot");
+            long crawlDelay = cachingService.getCrawlDelayMs(base + "/", "Test-Bot");
+
+            // Assert
+            assertTrue(publicAllowed);
+            assertFalse(privateAllowed);
+            assertEquals(2000, crawlDelay);
+            assertEquals(1, fetches.get());
+            assertEquals(2, meterRegistry.get("crawler.robots.cache.requests").tag("result", "hit").functionCounter().count());
+            assertEquals(1, meterRegistry.get("crawler.robots.cache.requests").tag("result", "miss").functionCounter().count());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testRobotsTxtIsRefetchedAfterTtl() throws IOException {
+        // Arrange
+        AtomicInteger fetches = new AtomicInteger();
+        HttpServer server = robotsServer(200, "User-agent: *\nDisallow:", fetches);
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/page";
+        MutableClock clock = new MutableClock();
+        RobotsTxtConfig config = new RobotsTxtConfig();
+        RobotsTxtServiceImpl cachingService = new RobotsTxtServiceImpl(new HttpFetcherImpl(new HttpClientConfig()),
+                config, new SimpleMeterRegistry(), clock);
+
+        try {
+            // Act
+            cachingService.isAllowed(url, "Test-Bot");
+            clock.advance(Duration.ofMillis(config.getTtlMs() - 1));
+            cachingService.isAllowed(url, "Test-Bot");
+            clock.advance(Duration.ofMillis(1));
+            cachingService.isAllowed(url, "Test-Bot");
+
+            // Assert
+            assertEquals(2, fetches.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testServerErrorIsCachedForShorterTime() throws IOException {
+        // Arrange
+        AtomicInteger fetches = new AtomicInteger();
+        HttpServer server = robotsServer(503, "", fetches);
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/page";
+        MutableClock clock = new MutableClock();
+        RobotsTxtConfig config = new RobotsTxtConfig();
+        RobotsTxtServiceImpl cachingService = new RobotsTxtServiceImpl(new HttpFetcherImpl(new HttpClientConfig()),
+                config, new SimpleMeterRegistry(), clock);
+
+        try {
+            // Act
+            boolean allowed = cachingService.isAllowed(url, "Test-Bot");
+            cachingService.isAllowed(url, "Test-Bot");
+            clock.advance(Duration.ofMillis(config.getServerErrorTtlMs()));
+            cachingService.isAllowed(url, "Test-Bot");
+
+            // Assert
+            assertFalse(allowed);
+            assertEquals(2, fetches.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testConcurrentChecksShareOneFetch() throws Exception {
+        // Arrange
+        AtomicInteger fetches = new AtomicInteger();
+        HttpServer server = robotsServer(200, "User-agent: *\nDisallow: /private", fetches, 200);
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        RobotsTxtServiceImpl cachingService = new RobotsTxtServiceImpl(new HttpFetcherImpl(new HttpClientConfig()),
+                new RobotsTxtConfig(), new SimpleMeterRegistry());
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        try {
+            // Act
+            List<Future<Boolean>> checks = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                String url = base + "/page" + i;
+                checks.add(executor.submit(() -> cachingService.isAllowed(url, "Test-Bot")));
+            }
+
+            // Assert
+            for (Future<Boolean> check : checks) {
+                assertTrue(check.get());
+            }
+            assertEquals(1, fetches.get());
+        } finally {
+            executor.shutdownNow();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testPrefetchFetchesEachHostOnce() throws Exception {
+        // Arrange
+        AtomicInteger fetches = new AtomicInteger();
+        HttpServer server = robotsServer(200, "User-agent: *\nDisallow: /private", fetches);
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        RobotsTxtServiceImpl cachingService = new RobotsTxtServiceImpl(new HttpFetcherImpl(new HttpClientConfig()),
+                new RobotsTxtConfig(), new SimpleMeterRegistry());
+
+        try {
+            // Act
+            CompletableFuture<Void> prefetch = cachingService.prefetch(
+                    List.of(base + "/a", base + "/b", "not a url"), "Test-Bot");
+            prefetch.get();
+            boolean allowed = cachingService.isAllowed(base + "/a", "Test-Bot");
+            boolean blocked = cachingService.isAllowed(base + "/private", "Test-Bot");
+
+            // Assert
+            assertTrue(allowed);
+            assertFalse(blocked);
+            assertEquals(1, fetches.get());
+            assertTrue(cachingService.prefetch(List.of(base + "/c"), "Test-Bot").isDone());
+        } finally {
+            cachingService.shutdown();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testStoredRobotsTxtIsReusedAfterRestart(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        AtomicInteger fetches = new AtomicInteger();
+        HttpServer server = robotsServer(200, "User-agent: *\nDisallow: /private", fetches);
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        RobotsTxtConfig config = new RobotsTxtConfig();
+        config.setStorePath(tempDir.resolve("robots.log").toString());
+        MutableClock clock = new MutableClock();
+
+        try {
+            RobotsTxtServiceImpl beforeRestart = new RobotsTxtServiceImpl(new HttpFetcherImpl(new HttpClientConfig()),
+                    config, new SimpleMeterRegistry(), clock);
+            beforeRestart.isAllowed(base + "/page", "Test-Bot");
+            beforeRestart.shutdown();
+
+            // Act
+            RobotsTxtServiceImpl afterRestart = new RobotsTxtServiceImpl(new HttpFetcherImpl(new HttpClientConfig()),
+                    config, new SimpleMeterRegistry(), clock);
+            boolean privateAllowed = afterRestart.isAllowed(base + "/private", "Test-Bot");
+            clock.advance(Duration.ofMillis(config.getTtlMs()));
+            RobotsTxtServiceImpl afterExpiry = new RobotsTxtServiceImpl(new HttpFetcherImpl(new HttpClientConfig()),
+                    config, new SimpleMeterRegistry(), clock);
+            afterExpiry.isAllowed(base + "/page", "Test-Bot");
+
+            // Assert
+            assertFalse(privateAllowed);
+            assertEquals(2, fetches.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static HttpServer robotsServer(int status, String body, AtomicInteger fetches) throws IOException {
+        return robotsServer(status, body, fetches, 0);
+    }
+
+    private static HttpServer robotsServer(int status, String body, AtomicInteger fetches, long delayMs) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/robots.txt", exchange -> {
+            fetches.incrementAndGet();
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        return server;
+    }
 }
@@ -0,0 +1,118 @@
+package com.webcrawler.service;
+
+import com.webcrawler.util.MutableClock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RobotsTxtStoreTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    @TempDir
+    Path tempDir;
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void testLoadReturnsLatestEntryPerOrigin() {
+        // Arrange
+        Path file = tempDir.resolve("robots.log");
+        RobotsTxtStore store = new RobotsTxtStore(file, 100, clock);
+        store.append(entry("https://a.com", 200, "User-agent: *\nDisallow: /old"));
+        store.append(entry("https://b.com", 404, null));
+        store.append(entry("https://a.com", 200, "User-agent: *\nDisallow: /new"));
+        store.close();
+
+        // Act
+        List<RobotsTxtStore.StoredRobotsTxt> loaded = new RobotsTxtStore(file, 100, clock).load();
+
+        // Assert
+        assertEquals(2, loaded.size());
+        assertEquals("https://b.com", loaded.get(0).origin());
+        assertNull(loaded.get(0).content());
+        assertEquals(404, loaded.get(0).statusCode());
+        assertEquals("https://a.com", loaded.get(1).origin());
+        assertEquals("User-agent: *\nDisallow: /new", loaded.get(1).content());
+    }
+
+    @Test
+    void testLoadSkipsExpiredEntries() {
+        // Arrange
+        Path file = tempDir.resolve("robots.log");
+        RobotsTxtStore store = new RobotsTxtStore(file, 100, clock);
+        store.append(entry("https://a.com", 200, "User-agent: *"));
+        store.close();
+        clock.advance(Duration.ofMillis(HOUR));
+
+        // Act
+        List<RobotsTxtStore.StoredRobotsTxt> loaded = new RobotsTxtStore(file, 100, clock).load();
+
+        // Assert
+        assertTrue(loaded.isEmpty());
+    }
+
+    @Test
+    void testLoadDropsTornTailAndKeepsAppending() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("robots.log");
+        RobotsTxtStore store = new RobotsTxtStore(file, 100, clock);
+        store.append(entry("https://a.com", 200, "User-agent: *"));
+        store.close();
+        long intactSize = Files.size(file);
+        Files.write(file, new byte[]{0, 0, 1, 0, 7}, StandardOpenOption.APPEND);
+
+        // Act
+        RobotsTxtStore reopened = new RobotsTxtStore(file, 100, clock);
+        List<RobotsTxtStore.StoredRobotsTxt> loaded = reopened.load();
+        reopened.append(entry("https://b.com", 200, "User-agent: *"));
+        reopened.close();
+
+        // Assert
+        assertEquals(1, loaded.size());
+        assertTrue(Files.size(file) > intactSize);
+        assertEquals(2, new RobotsTxtStore(file, 100, clock).load().size());
+    }
+
+    @Test
+    void testAppendCompactsFileToLatestEntries() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("robots.log");
+        RobotsTxtStore store = new RobotsTxtStore(file, 2, clock);
+        store.append(entry("https://a.com", 200, "User-agent: *"));
+        long singleRecordSize = Files.size(file);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            store.append(entry("https://a.com", 200, "User-agent: *"));
+            store.append(entry("https://b.com", 200, "User-agent: *"));
+        }
+        store.close();
+
+        // Assert
+        assertTrue(Files.size(file) <= singleRecordSize * 4, "File should stay bounded by compaction");
+        assertEquals(2, new RobotsTxtStore(file, 2, clock).load().size());
+    }
+
+    @Test
+    void testLoadWithoutFileReturnsNothing() {
+        // Act
+        List<RobotsTxtStore.StoredRobotsTxt> loaded = new RobotsTxtStore(tempDir.resolve("missing.log"), 100, clock).load();
+
+        // Assert
+        assertTrue(loaded.isEmpty());
+    }
+
+    private RobotsTxtStore.StoredRobotsTxt entry(String origin, int statusCode, String content) {
+        long now = clock.millis();
+        return new RobotsTxtStore.StoredRobotsTxt(origin, statusCode, statusCode != 403, content, now, now + HOUR);
+    }
+}
@@ -0,0 +1,376 @@
+package com.webcrawler.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.webcrawler.config.JsoupConfig;
+import com.webcrawler.config.SiteCrawlConfig;
+import com.webcrawler.crawl.DiskFrontier;
+import com.webcrawler.crawl.SeenUrlSet;
+import com.webcrawler.model.CrawlField;
+import com.webcrawler.model.CrawlJobStatus;
+import com.webcrawler.model.CrawlRequest;
+import com.webcrawler.model.CrawlResponse;
+import com.webcrawler.model.RenderPriority;
+import com.webcrawler.model.SiteCrawlJob;
+import com.webcrawler.model.SiteCrawlRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+class SiteCrawlServiceImplTest {
+
+    /**
+     * Outlinks of each page of the test site
+     */
+    private static final Map<String, List<String>> SITE = Map.of(
+            "https://example.com/", List.of("https://example.com/a", "https://example.com/b#top", "https://other.com/x"),
+            "https://example.com/a", List.of("https://example.com/b", "https://example.com/c"),
+            "https://example.com/b", List.of("https://example.com/private/1"),
+            "https://example.com/c", List.of("https://example.com/d"));
+
+    private SiteCrawlServiceImpl siteCrawlService;
+
+    @Mock
+    private CrawlerService crawlerService;
+
+    @Mock
+    private RobotsTxtService robotsTxtService;
+
+    @Mock
+    private JsoupConfig jsoupConfig;
+
+    @Mock
+    private HostPolitenessScheduler hostPolitenessScheduler;
+
+    @TempDir
+    private Path frontierDirectory;
+
+    private SiteCrawlConfig config;
+    private List<CrawlRequest> crawled;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        config = new SiteCrawlConfig();
+        crawled = new CopyOnWriteArrayList<>();
+        when(jsoupConfig.getUserAgent()).thenReturn("TestBot");
+        when(robotsTxtService.prefetch(anyCollection(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        when(robotsTxtService.isAllowed(anyString(), anyString()))
+                .thenAnswer(invocation -> !invocation.<String>getArgument(0).contains("/private/"));
+        when(crawlerService.crawl(any(CrawlRequest.class))).thenAnswer(invocation -> {
+            CrawlRequest request = invocation.getArgument(0);
+            crawled.add(request);
+            return page(request.getUrl());
+        });
+        siteCrawlService = newService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        siteCrawlService.shutdown();
+    }
+
+    @Test
+    void submit_FollowsInScopeLinksUpToMaxDepth() throws Exception {
+        // Arrange
+        SiteCrawlRequest request = SiteCrawlRequest.builder()
+                .seeds(List.of("https://EXAMPLE.com"))
+                .maxDepth(2)
+                .build();
+
+        // Act
+        SiteCrawlJob job = awaitFinished(siteCrawlService.submit(request).getJobId());
+
+        // Assert
+        assertEquals(CrawlJobStatus.COMPLETED, job.getStatus());
+        assertEquals(Set.of("https://example.com/", "https://example.com/a", "https://example.com/b", "https://example.com/c"),
+                Set.copyOf(crawledUrls()));
+        assertEquals(4, job.getPagesCrawled());
+        // The other host is out of scope and /private/1 is disallowed by robots.txt
+        assertEquals(2, job.getUrlsRejected());
+        assertEquals(0, job.getUrlsQueued());
+        assertTrue(crawled.stream().allMatch(r -> r.getRenderPriority() == RenderPriority.LOW));
+    }
+
+    @Test
+    void submit_StopsAtMaxPages() throws Exception {
+        // Arrange
+        SiteCrawlRequest request = SiteCrawlRequest.builder()
+                .seeds(List.of("https://example.com/"))
+                .maxPages(2)
+                .build();
+
+        // Act
+        SiteCrawlJob job = awaitFinished(siteCrawlService.submit(request).getJobId());
+
+        // Assert
+        assertEquals(CrawlJobStatus.COMPLETED, job.getStatus());
+        assertEquals(2, crawled.size());
+        assertEquals(2, job.getPagesCrawled());
+    }
+
+    @Test
+    void submit_ExcludePatternSkipsMatchingUrls() throws Exception {
+        // Arrange
+        SiteCrawlRequest request = SiteCrawlRequest.builder()
+                .seeds(List.of("https://example.com/"))
+                .excludePatterns(List.of("/[bc]$"))
+                .build();
+
+        // Act
+        awaitFinished(siteCrawlService.submit(request).getJobId());
+
+        // Assert
+        assertEquals(Set.of("https://example.com/", "https://example.com/a"), Set.copyOf(crawledUrls()));
+    }
+
+    @Test
+    void submit_LinksNotRequested_AreFollowedButNotReturned() throws Exception {
+        // Arrange
+        SiteCrawlRequest request = SiteCrawlRequest.builder()
+                .seeds(List.of("https://example.com/"))
+                .maxDepth(1)
+                .fields(Set.of(CrawlField.TITLE))
+                .build();
+
+        // Act
+        String jobId = siteCrawlService.submit(request).getJobId();
+        awaitFinished(jobId);
+        List<CrawlResponse> pages = siteCrawlService.getPages(jobId, 0, 10).orElseThrow();
+
+        // Assert
+        assertEquals(3, pages.size());
+        assertTrue(crawled.stream().allMatch(r -> r.wantsField(CrawlField.LINKS)));
+        assertTrue(pages.stream().noneMatch(p -> p.getData().has("links")));
+        assertTrue(pages.stream().allMatch(p -> p.getData().has("title")));
+    }
+
+    @Test
+    void submit_NoFields_FollowsLinksAndReturnsDefaultFields() throws Exception {
+        // Arrange
+        SiteCrawlRequest request = SiteCrawlRequest.builder()
+                .seeds(List.of("https://example.com/"))
+                .maxDepth(1)
+                .build();
+
+        // Act
+        String jobId = siteCrawlService.submit(request).getJobId();
+        awaitFinished(jobId);
+        List<CrawlResponse> pages = siteCrawlService.getPages(jobId, 0, 10).orElseThrow();
+
+        // Assert
+        assertEquals(3, pages.size());
+        assertTrue(crawled.stream().allMatch(r -> r.wantsField(CrawlField.LINKS) && r.wantsField(CrawlField.TEXT_CONTENT)));
+        assertTrue(pages.stream().noneMatch(p -> p.getData().has("links")));
+    }
+
+    @Test
+    void submit_InvalidPattern_ThrowsIllegalArgumentException() {
+        SiteCrawlRequest request = SiteCrawlRequest.builder()
+                .seeds(List.of("https://example.com/"))
+                .includePatterns(List.of("("))
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> siteCrawlService.submit(request));
+    }
+
+    @Test
+    void cancel_StopsDispatchingPages() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        when(crawlerService.crawl(any(CrawlRequest.class))).thenAnswer(invocation -> {
+            CrawlRequest request = invocation.getArgument(0);
+            crawled.add(request);
+            release.await(5, TimeUnit.SECONDS);
+            return page(request.getUrl());
+        });
+        String jobId = siteCrawlService.submit(new SiteCrawlRequest(List.of("https://example.com/"))).getJobId();
+        while (crawled.isEmpty()) {
+            Thread.sleep(5);
+        }
+
+        // Act
+        siteCrawlService.cancel(jobId);
+        release.countDown();
+        SiteCrawlJob job = awaitFinished(jobId);
+
+        // Assert
+        assertEquals(CrawlJobStatus.CANCELLED, job.getStatus());
+        assertEquals(List.of("https://example.com/"), crawledUrls());
+    }
+
+    @Test
+    void resume_AfterShutdown_ContinuesWithoutRecrawlingDonePages() throws Exception {
+        // Arrange
+        config.setFrontierDirectory(frontierDirectory.toString());
+        config.setFrontierSegmentBytes(64 * 1024);
+        CountDownLatch release = new CountDownLatch(1);
+        when(crawlerService.crawl(any(CrawlRequest.class))).thenAnswer(invocation -> {
+            CrawlRequest request = invocation.getArgument(0);
+            crawled.add(request);
+            if (request.getUrl().endsWith("/c")) {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return page(request.getUrl());
+        });
+        String jobId = siteCrawlService.submit(new SiteCrawlRequest(List.of("https://example.com/"))).getJobId();
+        while (!crawledUrls().contains("https://example.com/c")) {
+            Thread.sleep(5);
+        }
+        // Shutting down waits for /c, which links to /d
+        Thread shutdown = new Thread(siteCrawlService::shutdown);
+        shutdown.start();
+        while (shutdown.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        shutdown.join(5000);
+        assertEquals(CrawlJobStatus.CANCELLED, siteCrawlService.getJob(jobId).orElseThrow().getStatus());
+        crawled.clear();
+        siteCrawlService = newService();
+
+        // Act
+        SiteCrawlJob resumed = siteCrawlService.resume(jobId).orElseThrow();
+        SiteCrawlJob job = awaitFinished(jobId);
+        List<CrawlResponse> pages = siteCrawlService.getPages(jobId, 0, 10).orElseThrow();
+
+        // Assert
+        assertEquals(jobId, resumed.getJobId());
+        assertEquals(CrawlJobStatus.COMPLETED, job.getStatus());
+        assertEquals(List.of("https://example.com/d"), crawledUrls());
+        assertEquals(5, job.getPagesCrawled());
+        assertEquals(2, job.getUrlsRejected());
+        assertEquals(Set.of("https://example.com/", "https://example.com/a", "https://example.com/b",
+                "https://example.com/c", "https://example.com/d"),
+                Set.copyOf(pages.stream().map(CrawlResponse::getUrl).toList()));
+        // A finished crawl leaves nothing to resume
+        assertTrue(siteCrawlService.resume(jobId).isEmpty());
+    }
+
+    @Test
+    void resume_AfterCrashWhileCheckingRobots_CrawlsLinkOfPageInFlight() throws Exception {
+        // Arrange - /c's link to /d waits for robots.txt while a checkpoint is taken
+        CountDownLatch checking = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(robotsTxtService.isAllowed(eq("https://example.com/d"), anyString())).thenAnswer(invocation -> {
+            checking.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+        String jobId = UUID.randomUUID().toString();
+        Path live = frontierDirectory.resolve("live").resolve(jobId);
+        SiteCrawlRequest request = new SiteCrawlRequest(List.of("https://example.com/"));
+        SiteCrawl crawl = new SiteCrawl(jobId,
+                new SiteCrawl.Settings(List.of("https://example.com/"), config.getDefaultMaxDepth(),
+                        config.getDefaultMaxPages(), 1, config.getMaxStoredResults(),
+                        new SiteCrawl.Scope(Set.of("example.com"), List.of(), List.of()), null, null),
+                crawlerService, robotsTxtService, "TestBot",
+                new DiskFrontier(live, config.getMaxConcurrencyPerHost(), 64 * 1024,
+                        config.getFrontierMaxHotEntries(), config.getFrontierMaxHotEntriesPerHost()),
+                new SeenUrlSet(1024, config.getSeenBloomFalsePositiveRate()),
+                new SiteCrawlCheckpoint(live, new ObjectMapper().findAndRegisterModules(), jobId, request,
+                        LocalDateTime.now(), Map::of),
+                SiteCrawl.Progress.start(LocalDateTime.now()));
+        Thread runner = Thread.ofVirtual().start(crawl::run);
+        assertTrue(checking.await(5, TimeUnit.SECONDS));
+        crawl.checkpoint();
+        // The process dies: only what is on disk now is left
+        Path crashed = Files.createDirectories(frontierDirectory.resolve(jobId));
+        try (Stream<Path> files = Files.list(live)) {
+            for (Path file : files.toList()) {
+                Files.copy(file, crashed.resolve(file.getFileName()));
+            }
+        }
+        release.countDown();
+        runner.join(5000);
+        crawled.clear();
+        config.setFrontierDirectory(frontierDirectory.toString());
+        siteCrawlService = newService();
+
+        // Act
+        siteCrawlService.resume(jobId).orElseThrow();
+        SiteCrawlJob job = awaitFinished(jobId);
+
+        // Assert - /c was in flight, so it is crawled again, and its link is still followed
+        assertEquals(CrawlJobStatus.COMPLETED, job.getStatus());
+        assertEquals(List.of("https://example.com/c", "https://example.com/d"), crawledUrls());
+        assertEquals(5, job.getPagesCrawled());
+        assertEquals(5, job.getUrlsDiscovered());
+    }
+
+    @Test
+    void resume_WithoutCheckpoint_ReturnsEmpty() {
+        config.setFrontierDirectory(frontierDirectory.toString());
+
+        assertTrue(siteCrawlService.resume(UUID.randomUUID().toString()).isEmpty());
+        assertTrue(siteCrawlService.resume("../unknown").isEmpty());
+    }
+
+    @Test
+    void getJob_UnknownId_ReturnsEmpty() {
+        assertTrue(siteCrawlService.getJob("unknown").isEmpty());
+        assertTrue(siteCrawlService.getPages("unknown", 0, 10).isEmpty());
+        assertTrue(siteCrawlService.cancel("unknown").isEmpty());
+    }
+
+    private SiteCrawlServiceImpl newService() {
+        return new SiteCrawlServiceImpl(crawlerService, robotsTxtService, jsoupConfig, config, hostPolitenessScheduler,
+                new ObjectMapper().findAndRegisterModules());
+    }
+
+    private SiteCrawlJob awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        SiteCrawlJob job = siteCrawlService.getJob(jobId).orElseThrow();
+        while (job.getCompletedAt() == null && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            job = siteCrawlService.getJob(jobId).orElseThrow();
+        }
+        assertNotNull(job.getCompletedAt());
+        return job;
+    }
+
+    private List<String> crawledUrls() {
+        return crawled.stream().map(CrawlRequest::getUrl).toList();
+    }
+
+    private static CrawlResponse page(String url) {
+        ObjectNode data = JsonNodeFactory.instance.objectNode();
+        data.put("title", "Page " + url);
+        ArrayNode links = data.putArray("links");
+        for (String link : SITE.getOrDefault(url, List.of())) {
+            links.add(link);
+        }
+        return CrawlResponse.builder()
+                .url(url)
+                .statusCode(200)
+                .success(true)
+                .timestamp(LocalDateTime.now())
+                .data(data)
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.webcrawler.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringLruCacheTest {
+
+    private MutableClock clock;
+
+    private ExpiringLruCache<String, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        cache = new ExpiringLruCache<>(2, clock);
+    }
+
+    @Test
+    void testPutAndGet() {
+        cache.put("a", "1", Duration.ofMinutes(1));
+
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("missing"));
+    }
+
+    @Test
+    void testEntryExpiresAfterTtl() {
+        cache.put("a", "1", Duration.ofSeconds(10));
+
+        clock.advance(Duration.ofSeconds(9));
+        assertEquals("1", cache.get("a"));
+
+        clock.advance(Duration.ofSeconds(1));
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        cache.put("a", "1", Duration.ofMinutes(1));
+        cache.put("b", "2", Duration.ofMinutes(1));
+        cache.get("a");
+        cache.put("c", "3", Duration.ofMinutes(1));
+
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("3", cache.get("c"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testPurgeExpired() {
+        cache.put("a", "1", Duration.ofSeconds(1));
+        cache.put("b", "2", Duration.ofMinutes(1));
+
+        clock.advance(Duration.ofSeconds(2));
+
+        assertEquals(1, cache.purgeExpired());
+        assertEquals(1, cache.size());
+        assertEquals("2", cache.get("b"));
+    }
+
+    @Test
+    void testRemove() {
+        cache.put("a", "1", Duration.ofMinutes(1));
+
+        assertEquals("1", cache.remove("a"));
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void testInvalidMaxSize() {
+        assertThrows(IllegalArgumentException.class, () -> new ExpiringLruCache<String, String>(0));
+    }
+
+    @Test
+    void testHitMissAndEvictionCounts() {
+        cache.put("a", "1", Duration.ofMinutes(1));
+        cache.put("b", "2", Duration.ofSeconds(1));
+
+        cache.get("a");
+        cache.get("missing");
+        clock.advance(Duration.ofSeconds(1));
+        cache.get("b");
+        cache.put("c", "3", Duration.ofMinutes(1));
+        cache.put("d", "4", Duration.ofMinutes(1));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void testSnapshotSkipsExpiredEntriesAndKeepsRecency() {
+        cache.put("a", "1", Duration.ofMinutes(1));
+        cache.put("b", "2", Duration.ofSeconds(1));
+        clock.advance(Duration.ofSeconds(1));
+
+        assertEquals(Map.of("a", "1"), cache.snapshot());
+        assertEquals(0, cache.getHitCount());
+    }
+}
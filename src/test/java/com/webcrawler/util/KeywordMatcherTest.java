@@ -0,0 +1,84 @@
+package com.webcrawler.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeywordMatcherTest {
+
+    @Test
+    void testCountsWholeWordMatchesPerGroup() {
+        // Arrange
+        KeywordMatcher.Builder builder = KeywordMatcher.builder();
+        int tech = builder.addGroup(List.of("app", "application", "machine learning"));
+        int shop = builder.addGroup(List.of("buy", "add to cart"));
+        KeywordMatcher matcher = builder.build();
+
+        // Act
+        int[] counts = matcher.countMatches("Buy the App, then ADD TO CART. An application for machine learning apps.");
+
+        // Assert
+        assertEquals(2, matcher.getGroupCount());
+        assertEquals(3, counts[tech]);
+        assertEquals(2, counts[shop]);
+    }
+
+    @Test
+    void testRequiresWordBoundaries() {
+        // Arrange
+        KeywordMatcher.Builder builder = KeywordMatcher.builder();
+        int group = builder.addGroup(List.of("code"));
+        KeywordMatcher matcher = builder.build();
+
+        // Act & Assert
+        assertEquals(0, matcher.countMatches("codes decode code_ _code code1")[group]);
+        assertEquals(3, matcher.countMatches("code-code (code)")[group]);
+        // Non-ASCII letters are not word characters, but a combining mark extends the word before it;
+        // escaped, as an editor normalizing the source would make the two spellings the same
+        assertEquals(1, matcher.countMatches("d\u00e9code")[group]);
+        assertEquals(0, matcher.countMatches("de\u0301code")[group]);
+    }
+
+    @Test
+    void testMatchesSharedKeywordsInEveryGroup() {
+        // Arrange
+        KeywordMatcher.Builder builder = KeywordMatcher.builder();
+        int first = builder.addGroup(List.of("buy"));
+        int second = builder.addGroup(List.of("buy now"));
+        KeywordMatcher matcher = builder.build();
+
+        // Act
+        int[] counts = matcher.countMatches("buy now");
+
+        // Assert
+        assertEquals(1, counts[first]);
+        assertEquals(1, counts[second]);
+    }
+
+    @Test
+    void testRejectsOverlappingKeywordsInOneGroup() {
+        // Arrange
+        KeywordMatcher.Builder builder = KeywordMatcher.builder();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> builder.addGroup(List.of("interest", "interest rate")));
+        assertThrows(IllegalArgumentException.class, () -> builder.addGroup(List.of("rate", "interest rate")));
+        assertThrows(IllegalArgumentException.class, () -> builder.addGroup(List.of("a b", "b c")));
+        assertThrows(IllegalArgumentException.class, () -> builder.addGroup(List.of("la la la")));
+        assertThrows(IllegalArgumentException.class, () -> builder.addGroup(List.of("news", "NEWS")));
+        assertDoesNotThrow(() -> builder.addGroup(List.of("app", "application", "apps store")));
+    }
+
+    @Test
+    void testRejectsInvalidKeywords() {
+        // Arrange
+        KeywordMatcher.Builder builder = KeywordMatcher.builder();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> builder.addGroup(List.of("")));
+        assertThrows(IllegalArgumentException.class, () -> builder.addGroup(List.of(" padded ")));
+        assertThrows(IllegalArgumentException.class, () -> builder.addGroup(List.of("café")));
+    }
+}
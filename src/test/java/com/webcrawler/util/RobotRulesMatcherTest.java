@@ -0,0 +1,150 @@
+package com.webcrawler.util;
+
+import crawlercommons.robots.BaseRobotRules;
+import crawlercommons.robots.SimpleRobotRulesParser;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RobotRulesMatcherTest {
+
+    private static final String ROBOTS_TXT = """
+            User-agent: *
+            Disallow: /private
+            Allow: /private/public
+            Disallow: /tmp/
+            Disallow: /*.pdf$
+            Allow: /downloads/*.pdf$
+            Disallow: /search?
+            Disallow: /exact$
+            Disallow: /*/edit
+            """;
+
+    private static final List<String> URLS = List.of(
+            "https://example.com/",
+            "https://example.com/private",
+            "https://example.com/private/page",
+            "https://example.com/private/public/page",
+            "https://example.com/privateer",
+            "https://example.com/tmp",
+            "https://example.com/tmp/file",
+            "https://example.com/docs/report.pdf",
+            "https://example.com/docs/report.pdf?download=1",
+            "https://example.com/downloads/report.pdf",
+            "https://example.com/search",
+            "https://example.com/search?q=robots",
+            "https://example.com/exact",
+            "https://example.com/exact/more",
+            "https://example.com/wiki/edit",
+            "https://example.com/edit",
+            "https://example.com/robots.txt",
+            "https://example.com/private#fragment",
+            "https://example.com/private%2Fpage",
+            "https://example.com/café/private");
+
+    @Test
+    void testMatchesCrawlerCommonsRules() {
+        // Arrange
+        BaseRobotRules rules = parse(ROBOTS_TXT);
+
+        // Act
+        RobotRulesMatcher matcher = RobotRulesMatcher.compile(rules);
+
+        // Assert
+        for (String url : URLS) {
+            assertEquals(rules.isAllowed(url), matcher.isAllowed(url), url);
+        }
+    }
+
+    @Test
+    void testLongestMatchWinsAndAllowWinsTies() {
+        // Arrange
+        RobotRulesMatcher matcher = RobotRulesMatcher.compile(parse("""
+                User-agent: *
+                Disallow: /a
+                Allow: /a/b
+                Disallow: /a/b/c
+                Disallow: /tie
+                Allow: /tie
+                """));
+
+        // Act & Assert
+        assertFalse(matcher.isAllowed("https://example.com/a"));
+        assertTrue(matcher.isAllowed("https://example.com/a/b"));
+        assertFalse(matcher.isAllowed("https://example.com/a/b/c/d"));
+        assertTrue(matcher.isAllowed("https://example.com/tie"));
+        assertTrue(matcher.isAllowed("https://example.com/other"));
+    }
+
+    @Test
+    void testWildcardAndEndAnchor() {
+        // Arrange
+        RobotRulesMatcher matcher = RobotRulesMatcher.compile(parse("""
+                User-agent: *
+                Disallow: /*.php$
+                Disallow: /img*/thumb
+                """));
+
+        // Act & Assert
+        assertFalse(matcher.isAllowed("https://example.com/index.php"));
+        assertTrue(matcher.isAllowed("https://example.com/index.php?x=1"));
+        assertFalse(matcher.isAllowed("https://example.com/img/2024/thumb"));
+        assertFalse(matcher.isAllowed("https://example.com/img-large/thumb.png"));
+        assertTrue(matcher.isAllowed("https://example.com/images/2024/thumb.png"));
+        assertTrue(matcher.isAllowed("https://example.com/thumb"));
+        // As in crawler-commons, the text after * matches its first occurrence only
+        assertTrue(matcher.isAllowed("https://example.com/a.php.php"));
+    }
+
+    @Test
+    void testMatchesCrawlerCommonsOnWildcardRules() {
+        // Arrange
+        BaseRobotRules rules = parse("""
+                User-agent: *
+                Disallow: /*.php$
+                Disallow: /a*b*c
+                Allow: /a*b*c$
+                Disallow: /*x*
+                Allow: /*xy$
+                Disallow: /b*/b
+                Disallow: /*?*=
+                Allow: /c*
+                Disallow: /c/*/d$
+                """);
+        RobotRulesMatcher matcher = RobotRulesMatcher.compile(rules);
+        String[] pieces = {"/", "a", "b", "c", "d", "x", "y", ".php", "?", "=", "*"};
+        Random random = new Random(7);
+
+        // Act & Assert
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder url = new StringBuilder("https://example.com/");
+            int length = random.nextInt(8);
+            for (int j = 0; j < length; j++) {
+                url.append(pieces[random.nextInt(pieces.length)]);
+            }
+            assertEquals(rules.isAllowed(url.toString()), matcher.isAllowed(url.toString()), url.toString());
+        }
+    }
+
+    @Test
+    void testAllowAllAndBlockAll() {
+        // Arrange
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        RobotRulesMatcher allowAll = RobotRulesMatcher.compile(parser.failedFetch(404));
+        RobotRulesMatcher blockAll = RobotRulesMatcher.compile(parse("User-agent: *\nDisallow: /"));
+
+        // Act & Assert
+        assertTrue(allowAll.isAllowed("https://example.com/anything"));
+        assertFalse(blockAll.isAllowed("https://example.com/anything"));
+        assertFalse(blockAll.isAllowed("https://example.com/"));
+    }
+
+    private static BaseRobotRules parse(String robotsTxt) {
+        return new SimpleRobotRulesParser().parseContent("https://example.com/robots.txt",
+                robotsTxt.getBytes(StandardCharsets.UTF_8), "text/plain", List.of("test-bot"));
+    }
+}
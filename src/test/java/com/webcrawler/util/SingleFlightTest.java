@@ -0,0 +1,103 @@
+package com.webcrawler.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void testConcurrentCallsShareOneExecution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> singleFlight.execute("key", () -> {
+                loads.incrementAndGet();
+                started.countDown();
+                awaitQuietly(release);
+                return "value";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> second = executor.submit(() -> singleFlight.execute("key", () -> {
+                loads.incrementAndGet();
+                return "other";
+            }));
+            while (singleFlight.getCoalescedCount() == 0) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            assertEquals("value", first.get(5, TimeUnit.SECONDS));
+            assertEquals("value", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+            assertEquals(1, singleFlight.getExecutionCount());
+            assertEquals(0, singleFlight.getInFlightCount());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testCompletedCallsAreNotCached() {
+        assertEquals("a", singleFlight.execute("key", () -> "a"));
+        assertEquals("b", singleFlight.execute("key", () -> "b"));
+        assertEquals(2, singleFlight.getExecutionCount());
+    }
+
+    @Test
+    void testExceptionIsPropagatedAndKeyReleased() {
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("key", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals(0, singleFlight.getInFlightCount());
+        assertEquals("ok", singleFlight.execute("key", () -> "ok"));
+    }
+
+    @Test
+    void testOutcomeOfInterruptedCallIsNotShared() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // The first caller is interrupted by its own deadline and returns a failure
+            Future<String> first = executor.submit(() -> singleFlight.execute("key", () -> {
+                started.countDown();
+                awaitQuietly(new CountDownLatch(1));
+                return "interrupted";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> second = executor.submit(() -> singleFlight.execute("key", () -> "value"));
+            while (singleFlight.getCoalescedCount() == 0) {
+                Thread.sleep(10);
+            }
+            first.cancel(true);
+
+            assertEquals("value", second.get(5, TimeUnit.SECONDS));
+            assertEquals(2, singleFlight.getExecutionCount());
+            assertEquals(0, singleFlight.getInFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
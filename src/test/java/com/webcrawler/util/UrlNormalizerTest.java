@@ -0,0 +1,36 @@
+package com.webcrawler.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrlNormalizerTest {
+
+    @Test
+    void testLowerCasesSchemeAndHost() {
+        assertEquals("https://example.com/Path", UrlNormalizer.normalize("HTTPS://Example.COM/Path"));
+    }
+
+    @Test
+    void testDropsDefaultPorts() {
+        assertEquals("http://example.com/", UrlNormalizer.normalize("http://example.com:80/"));
+        assertEquals("https://example.com/", UrlNormalizer.normalize("https://example.com:443/"));
+        assertEquals("https://example.com:8443/", UrlNormalizer.normalize("https://example.com:8443/"));
+    }
+
+    @Test
+    void testEmptyPathBecomesSlash() {
+        assertEquals("https://example.com/", UrlNormalizer.normalize("https://example.com"));
+    }
+
+    @Test
+    void testDropsFragmentAndKeepsQuery() {
+        assertEquals("https://example.com/a?b=1", UrlNormalizer.normalize("https://example.com/a?b=1#section"));
+    }
+
+    @Test
+    void testInvalidUrlIsReturnedUnchanged() {
+        assertEquals("not a valid url", UrlNormalizer.normalize("not a valid url"));
+        assertNull(UrlNormalizer.normalize(null));
+    }
+}